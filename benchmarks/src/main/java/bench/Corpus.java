@@ -0,0 +1,61 @@
+package bench;
+import ast.Program;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import parser.Parser;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+
+/**
+ * Corpus loads the SIMPLE programs bundled with the benchmarks. Each program stresses a
+ * different part of the interpreter: nested while loops, deep arithmetic, chained relops,
+ * and display statements
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class Corpus
+{
+    /**
+     * Prevents Corpus from being instantiated
+     */
+    private Corpus()
+    {
+    }
+
+    /**
+     * Loads the source of a bundled program
+     *
+     * @param name the name of the program, without the .sim extension
+     * @return the source of the program
+     * @throws UncheckedIOException if the program cannot be read
+     * @throws IllegalArgumentException if there is no program with the name
+     */
+    public static String load(String name)
+    {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".sim"))
+        {
+            if (in == null)
+                throw new IllegalArgumentException("No corpus program: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    /**
+     * Parses the source of a program
+     *
+     * @param source the source of the program
+     * @return the Program
+     * @throws ScanErrorException if the source contains an unidentified character
+     */
+    public static Program parse(String source) throws ScanErrorException
+    {
+        return new Parser(new Scanner(source)).parseProgram();
+    }
+}
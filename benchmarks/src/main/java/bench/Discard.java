@@ -0,0 +1,43 @@
+package bench;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Discard is a channel which throws away everything written to it, so that benchmarks of
+ * programs which display values do not measure the terminal
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+class Discard implements WritableByteChannel
+{
+    /**
+     * Throws away the remaining bytes of a buffer
+     *
+     * @param src the bytes being written
+     * @return the number of bytes thrown away
+     */
+    public int write(ByteBuffer src)
+    {
+        int count = src.remaining();
+        src.position(src.limit());
+        return count;
+    }
+
+    /**
+     * Checks whether the channel is open, which it always is
+     *
+     * @return true
+     */
+    public boolean isOpen()
+    {
+        return true;
+    }
+
+    /**
+     * Does nothing, since there is nothing to close
+     */
+    public void close()
+    {
+    }
+}
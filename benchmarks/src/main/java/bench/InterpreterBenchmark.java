@@ -0,0 +1,113 @@
+package bench;
+import ast.Program;
+import closure.ClosureCompiler;
+import closure.ClosureProgram;
+import environment.Environment;
+import environment.Input;
+import environment.Output;
+import environment.SymbolTable;
+import flat.FlatCompiler;
+import flat.FlatInterpreter;
+import flat.FlatProgram;
+import java.util.concurrent.TimeUnit;
+import jvm.JvmCompiler;
+import jvm.JvmProgram;
+import optimizer.Optimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanner.ScanErrorException;
+import vm.Bytecode;
+import vm.VirtualMachine;
+
+/**
+ * InterpreterBenchmark measures one run of each corpus program with each backend, both as
+ * parsed and after the Optimizer, so changes to the optimizer passes do not change what the
+ * unoptimized runs measure. The program is parsed, optimized and compiled once, and every
+ * run uses a fresh Environment whose Output discards what is displayed, so only execution
+ * is measured
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark
+{
+    @Param({"nested_while", "deep_arith", "chained_relops", "display_heavy"})
+    public String program;
+
+    @Param({"tree", "flat", "closure", "vm", "jvm"})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean optimize;
+
+    private Program prog;
+    private SymbolTable symbols;
+    private ClosureProgram closure;
+    private FlatProgram flat;
+    private Bytecode code;
+    private JvmProgram jvm;
+
+    /**
+     * Parses, optionally optimizes, and resolves the program and compiles it for the backend
+     *
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Setup
+    public void setup() throws ScanErrorException
+    {
+        prog = Corpus.parse(Corpus.load(program));
+        if (optimize)
+            prog = new Optimizer().optimize(prog);
+        symbols = new SymbolTable();
+        prog.resolve(symbols);
+        if (backend.equals("closure"))
+            closure = new ClosureCompiler().compile(prog, symbols);
+        else if (backend.equals("flat"))
+            flat = new FlatCompiler().compile(prog, symbols);
+        else if (backend.equals("vm") || backend.equals("jvm"))
+        {
+            code = Bytecode.compile(prog, symbols);
+            if (backend.equals("jvm"))
+                jvm = new JvmCompiler().compile(code);
+        }
+    }
+
+    /**
+     * Runs the program once
+     *
+     * @return the Environment the program ran in, so that the run is not optimized away
+     */
+    @Benchmark
+    public Environment execute()
+    {
+        Environment env = new Environment(symbols,
+                new Output(new Discard(), Output.FlushPolicy.ON_SIZE), new Input(new int[0]));
+        if (closure != null)
+            closure.execute(env);
+        else if (flat != null)
+            new FlatInterpreter().execute(flat, env);
+        else if (jvm != null)
+            jvm.execute(env);
+        else if (code != null)
+            new VirtualMachine().execute(code, env);
+        else
+            prog.exec(env);
+        env.getOutput().flush();
+        return env;
+    }
+}
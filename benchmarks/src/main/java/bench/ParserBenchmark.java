@@ -0,0 +1,79 @@
+package bench;
+import ast.Program;
+import cache.AstReader;
+import cache.AstWriter;
+import cache.ProgramCache;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanner.ScanErrorException;
+
+/**
+ * ParserBenchmark measures how long Parser.parseProgram takes to build the AST of each
+ * corpus program, including the scanning it drives, against how long an AstReader takes to
+ * rebuild the same AST from its cached binary form
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark
+{
+    @Param({"nested_while", "deep_arith", "chained_relops", "display_heavy"})
+    public String program;
+
+    private String source;
+    private byte[] key;
+    private byte[] cached;
+
+    /**
+     * Loads the program being parsed and writes its AST in the cached form
+     *
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Setup
+    public void setup() throws ScanErrorException
+    {
+        source = Corpus.load(program);
+        key = ProgramCache.key(source, "noopt");
+        cached = AstWriter.write(Corpus.parse(source), key);
+    }
+
+    /**
+     * Parses the program
+     *
+     * @return the Program, so that parsing is not optimized away
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public Program parseProgram() throws ScanErrorException
+    {
+        return Corpus.parse(source);
+    }
+
+    /**
+     * Rebuilds the AST of the program from its cached form
+     *
+     * @return the Program, so that reading is not optimized away
+     */
+    @Benchmark
+    public Program loadCached()
+    {
+        return AstReader.read(ByteBuffer.wrap(cached), key);
+    }
+}
@@ -0,0 +1,111 @@
+package bench;
+import ast.Program;
+import environment.Environment;
+import environment.Input;
+import environment.Output;
+import environment.SymbolTable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import scanner.TokenKind;
+
+/**
+ * ScalingBenchmark measures scanning, parsing and running programs from the
+ * WorkloadGenerator at growing sizes, so that the time per statement can be charted and
+ * anything which grows faster than the program can be found
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalingBenchmark
+{
+    @Param({"1000", "10000", "100000"})
+    public int statements;
+
+    @Param({"3"})
+    public int depth;
+
+    private String source;
+    private Program prog;
+    private SymbolTable symbols;
+
+    /**
+     * Generates the program and parses and resolves it for the run benchmark
+     *
+     * @throws IOException if the program cannot be generated
+     * @throws ScanErrorException if the generated program cannot be scanned
+     */
+    @Setup
+    public void setup() throws IOException, ScanErrorException
+    {
+        WorkloadGenerator generator = new WorkloadGenerator(42);
+        generator.setMaxDepth(depth);
+        StringWriter out = new StringWriter();
+        generator.generate(out, statements);
+        source = out.toString();
+        prog = Corpus.parse(source);
+        symbols = new SymbolTable();
+        prog.resolve(symbols);
+    }
+
+    /**
+     * Scans the program
+     *
+     * @param bh the Blackhole consuming every token
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public void scan(Blackhole bh) throws ScanErrorException
+    {
+        Scanner lex = new Scanner(source);
+        while (lex.next() != TokenKind.EOF)
+            bh.consume(lex.getStart());
+    }
+
+    /**
+     * Parses the program
+     *
+     * @return the Program, so that parsing is not optimized away
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public Program parse() throws ScanErrorException
+    {
+        return Corpus.parse(source);
+    }
+
+    /**
+     * Runs the program on the AST
+     *
+     * @return the Environment the program ran in, so that the run is not optimized away
+     */
+    @Benchmark
+    public Environment run()
+    {
+        Environment env = new Environment(symbols,
+                new Output(new Discard(), Output.FlushPolicy.ON_SIZE), new Input(new int[0]));
+        prog.exec(env);
+        env.getOutput().flush();
+        return env;
+    }
+}
@@ -0,0 +1,93 @@
+package bench;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import scanner.TokenKind;
+
+/**
+ * ScannerBenchmark measures how quickly the Scanner turns each corpus program into tokens,
+ * both through the String returning nextToken and through next, which only reports kinds
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerBenchmark
+{
+    @Param({"nested_while", "deep_arith", "chained_relops", "display_heavy"})
+    public String program;
+
+    private String source;
+    private byte[] bytes;
+
+    /**
+     * Loads the program being scanned
+     */
+    @Setup
+    public void setup()
+    {
+        source = Corpus.load(program);
+        bytes = source.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Scans the program from a String with nextToken
+     *
+     * @param bh the Blackhole consuming every token
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public void nextToken(Blackhole bh) throws ScanErrorException
+    {
+        Scanner lex = new Scanner(source);
+        while (lex.hasNext())
+            bh.consume(lex.nextToken());
+    }
+
+    /**
+     * Scans the program from a String with next
+     *
+     * @param bh the Blackhole consuming every token
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public void next(Blackhole bh) throws ScanErrorException
+    {
+        Scanner lex = new Scanner(source);
+        while (lex.next() != TokenKind.EOF)
+            bh.consume(lex.getStart());
+    }
+
+    /**
+     * Scans the program from an InputStream with next
+     *
+     * @param bh the Blackhole consuming every token
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    @Benchmark
+    public void nextFromStream(Blackhole bh) throws ScanErrorException
+    {
+        Scanner lex = new Scanner(new ByteArrayInputStream(bytes));
+        while (lex.next() != TokenKind.EOF)
+            bh.consume(lex.getStart());
+    }
+}
@@ -0,0 +1,437 @@
+package bench;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * WorkloadGenerator writes random but valid SIMPLE programs, following the grammar in the
+ * Parser Javadoc, for benchmarks and stress tests. The same seed and settings always produce
+ * the same program. Programs are written one top level statement at a time, so they can be
+ * far larger than memory.
+ *
+ * Every generated program terminates and never fails: all variables are assigned before the
+ * first statement which reads them, every while loop counts a counter of its own up to a
+ * fixed bound, and every division is by a non-zero constant.
+ *
+ * Usage: java -cp benchmarks.jar bench.WorkloadGenerator [-seed n] [-statements n]
+ *            [-bytes n] [-depth n] [-expr n] [-vars n] [-iterations n]
+ *            [-mix display,assign,if,while] [-out file]
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class WorkloadGenerator
+{
+    private static final int DISPLAY = 0;
+    private static final int ASSIGN = 1;
+    private static final int IF = 2;
+    private static final int WHILE = 3;
+    private static final String[] RELOPS = {"<", ">", "<=", ">=", "=", "<>"};
+    private static final String[] OPERATORS = {"+", "-", "*", "/"};
+
+    private long seed;
+    private int maxDepth;
+    private int maxExpressionDepth;
+    private int variables;
+    private int maxIterations;
+    private int[] mix;
+
+    private SplittableRandom random;
+    private StringBuilder text;
+
+    /**
+     * Creates a WorkloadGenerator with a given seed and moderate default settings: loops
+     * nested three deep, expressions four deep, eight variables, loops of at most ten
+     * iterations, and mostly assignments
+     *
+     * @param seed the seed which decides the program
+     */
+    public WorkloadGenerator(long seed)
+    {
+        this.seed = seed;
+        maxDepth = 3;
+        maxExpressionDepth = 4;
+        variables = 8;
+        maxIterations = 10;
+        mix = new int[] {2, 5, 2, 1};
+    }
+
+    /**
+     * Sets how deeply while and if statements may be nested
+     *
+     * @param maxDepth the maximum nesting depth, 0 for straight line programs
+     */
+    public void setMaxDepth(int maxDepth)
+    {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets how deeply expressions may be nested
+     *
+     * @param maxExpressionDepth the maximum number of operators from the root of an
+     *                           expression to a variable or number
+     */
+    public void setMaxExpressionDepth(int maxExpressionDepth)
+    {
+        this.maxExpressionDepth = maxExpressionDepth;
+    }
+
+    /**
+     * Sets how many variables the program uses, not counting loop counters
+     *
+     * @param variables the number of variables, at least 1
+     */
+    public void setVariables(int variables)
+    {
+        if (variables < 1)
+            throw new IllegalArgumentException("A program needs at least one variable");
+        this.variables = variables;
+    }
+
+    /**
+     * Sets the largest number of iterations of a single while loop. Nested loops multiply,
+     * so this bounds the running time of the program together with the depth
+     *
+     * @param maxIterations the maximum number of iterations
+     */
+    public void setMaxIterations(int maxIterations)
+    {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets the relative weights of the four kinds of statements. A while or if statement is
+     * never chosen once the maximum depth has been reached
+     *
+     * @param display the weight of display statements
+     * @param assign the weight of assign statements
+     * @param ifWeight the weight of if statements
+     * @param whileWeight the weight of while statements
+     */
+    public void setMix(int display, int assign, int ifWeight, int whileWeight)
+    {
+        if (display + assign <= 0)
+            throw new IllegalArgumentException("display or assign must have a positive weight");
+        mix = new int[] {display, assign, ifWeight, whileWeight};
+    }
+
+    /**
+     * Writes a program with a given number of top level statements, after the assignments
+     * which give every variable its first value
+     *
+     * @param out the Writer the program is written to
+     * @param statements the number of top level statements
+     * @throws IOException if the program cannot be written
+     */
+    public void generate(Writer out, long statements) throws IOException
+    {
+        start(out);
+        for (long i = 0; i < statements; i++)
+            writeStatement(out);
+    }
+
+    /**
+     * Writes a program of at least a given size, after the assignments which give every
+     * variable its first value
+     *
+     * @param out the Writer the program is written to
+     * @param bytes the number of characters after which no more top level statements are
+     *              written
+     * @throws IOException if the program cannot be written
+     */
+    public void generateBytes(Writer out, long bytes) throws IOException
+    {
+        long written = start(out);
+        while (written < bytes)
+            written += writeStatement(out);
+    }
+
+    /**
+     * Resets the random numbers to the seed and writes the assignments which give every
+     * variable its first value
+     *
+     * @param out the Writer the program is written to
+     * @return the number of characters written
+     * @throws IOException if the program cannot be written
+     */
+    private long start(Writer out) throws IOException
+    {
+        random = new SplittableRandom(seed);
+        text = new StringBuilder();
+        for (int v = 0; v < variables; v++)
+        {
+            text.append("assign v").append(v).append(" = ");
+            text.append(random.nextInt(-20, 100)).append('\n');
+        }
+        return flush(out);
+    }
+
+    /**
+     * Generates one top level statement and writes it
+     *
+     * @param out the Writer the statement is written to
+     * @return the number of characters written
+     * @throws IOException if the statement cannot be written
+     */
+    private long writeStatement(Writer out) throws IOException
+    {
+        statement(0);
+        return flush(out);
+    }
+
+    /**
+     * Writes the text generated so far and clears it
+     *
+     * @param out the Writer the text is written to
+     * @return the number of characters written
+     * @throws IOException if the text cannot be written
+     */
+    private long flush(Writer out) throws IOException
+    {
+        int length = text.length();
+        out.append(text);
+        text.setLength(0);
+        return length;
+    }
+
+    /**
+     * Generates a statement
+     *
+     * @param depth the number of while and if statements the statement is nested in
+     */
+    private void statement(int depth)
+    {
+        indent(depth);
+        switch (chooseKind(depth))
+        {
+            case DISPLAY:
+                text.append("display ");
+                if (random.nextInt(4) == 0)
+                    condition(maxExpressionDepth);
+                else
+                    expression(maxExpressionDepth);
+                break;
+            case ASSIGN:
+                text.append("assign ");
+                variable();
+                text.append(" = ");
+                expression(maxExpressionDepth);
+                break;
+            case IF:
+                text.append("if ");
+                condition(maxExpressionDepth);
+                text.append(" then\n");
+                program(depth + 1);
+                if (random.nextBoolean())
+                {
+                    indent(depth);
+                    text.append("else\n");
+                    program(depth + 1);
+                }
+                indent(depth);
+                text.append("end");
+                break;
+            default:
+                String counter = "w" + depth;
+                text.append("assign ").append(counter).append(" = 0\n");
+                indent(depth);
+                text.append("while ").append(counter).append(" < ");
+                text.append(random.nextInt(maxIterations + 1)).append(" do\n");
+                program(depth + 1);
+                indent(depth + 1);
+                text.append("assign ").append(counter).append(" = ");
+                text.append(counter).append(" + 1\n");
+                indent(depth);
+                text.append("end");
+                break;
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Generates the one to four statements in the body of a while or if statement
+     *
+     * @param depth the depth of the statements
+     */
+    private void program(int depth)
+    {
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++)
+            statement(depth);
+    }
+
+    /**
+     * Chooses the kind of a statement according to the mix
+     *
+     * @param depth the depth of the statement
+     * @return DISPLAY, ASSIGN, IF or WHILE
+     */
+    private int chooseKind(int depth)
+    {
+        int kinds = depth < maxDepth ? 4 : 2;
+        int total = 0;
+        for (int k = 0; k < kinds; k++)
+            total += mix[k];
+        int pick = random.nextInt(total);
+        int kind = 0;
+        while (pick >= mix[kind])
+            pick -= mix[kind++];
+        return kind;
+    }
+
+    /**
+     * Generates an expression, nested at most a given number of operators deep
+     *
+     * @param depth the maximum depth of the expression
+     */
+    private void expression(int depth)
+    {
+        int choice = depth == 0 ? random.nextInt(2) : random.nextInt(7);
+        if (choice == 0)
+            text.append(random.nextInt(100));
+        else if (choice == 1)
+            variable();
+        else if (choice == 2)
+        {
+            text.append("-(");
+            expression(depth - 1);
+            text.append(')');
+        }
+        else if (choice == 3)
+        {
+            text.append('(');
+            expression(depth - 1);
+            text.append(')');
+        }
+        else
+        {
+            String op = OPERATORS[random.nextInt(OPERATORS.length)];
+            text.append('(');
+            expression(depth - 1);
+            text.append(' ').append(op).append(' ');
+            if (op.equals("/"))
+                text.append(1 + random.nextInt(9));
+            else
+                expression(depth - 1);
+            text.append(')');
+        }
+    }
+
+    /**
+     * Generates a condition of one to three chained comparisons
+     *
+     * @param depth the maximum depth of the compared expressions
+     */
+    private void condition(int depth)
+    {
+        expression(depth);
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++)
+        {
+            text.append(' ').append(RELOPS[random.nextInt(RELOPS.length)]).append(' ');
+            expression(depth);
+        }
+    }
+
+    /**
+     * Generates the name of one of the variables
+     */
+    private void variable()
+    {
+        text.append('v').append(random.nextInt(variables));
+    }
+
+    /**
+     * Indents a line by four spaces for every level of nesting
+     *
+     * @param depth the level of nesting
+     */
+    private void indent(int depth)
+    {
+        for (int i = 0; i < depth; i++)
+            text.append("    ");
+    }
+
+    /**
+     * Generates a program from command line settings and writes it to a file or to standard
+     * output. -bytes takes precedence over -statements, which defaults to 100
+     *
+     * @param args arguments for the command line
+     * @throws IOException if the program cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long seed = 1;
+        long statements = 100;
+        long bytes = -1;
+        String outName = null;
+        int depth = -1;
+        int expr = -1;
+        int vars = -1;
+        int iterations = -1;
+        int[] weights = null;
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            if (args[i].equals("-seed"))
+                seed = Long.parseLong(value);
+            else if (args[i].equals("-statements"))
+                statements = Long.parseLong(value);
+            else if (args[i].equals("-bytes"))
+                bytes = Long.parseLong(value);
+            else if (args[i].equals("-depth"))
+                depth = Integer.parseInt(value);
+            else if (args[i].equals("-expr"))
+                expr = Integer.parseInt(value);
+            else if (args[i].equals("-vars"))
+                vars = Integer.parseInt(value);
+            else if (args[i].equals("-iterations"))
+                iterations = Integer.parseInt(value);
+            else if (args[i].equals("-mix"))
+            {
+                String[] parts = value.split(",");
+                if (parts.length != 4)
+                    throw new IllegalArgumentException("-mix needs four weights");
+                weights = new int[4];
+                for (int k = 0; k < 4; k++)
+                    weights[k] = Integer.parseInt(parts[k].trim());
+            }
+            else if (args[i].equals("-out"))
+                outName = value;
+            else
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        if (depth >= 0)
+            generator.setMaxDepth(depth);
+        if (expr >= 0)
+            generator.setMaxExpressionDepth(expr);
+        if (vars >= 0)
+            generator.setVariables(vars);
+        if (iterations >= 0)
+            generator.setMaxIterations(iterations);
+        if (weights != null)
+            generator.setMix(weights[0], weights[1], weights[2], weights[3]);
+        Writer out = new BufferedWriter(outName == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.US_ASCII)
+                : Files.newBufferedWriter(Paths.get(outName), StandardCharsets.US_ASCII),
+                1 << 16);
+        try
+        {
+            if (bytes >= 0)
+                generator.generateBytes(out, bytes);
+            else
+                generator.generate(out, statements);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+}
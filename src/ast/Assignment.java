@@ -1,5 +1,7 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
  * The Assignment class defines the execution of statements assigning variables of the form
@@ -10,8 +12,9 @@ import environment.Environment;
  */
 public class Assignment extends Statement
 {
-    private String var;
-    private Expression exp;
+    private final String var;
+    private final Expression exp;
+    private int slot;
 
     /**
      * Creates an Assignment object with a given variable name value and Expression
@@ -23,16 +26,70 @@ public class Assignment extends Statement
     {
         this.var = var;
         this.exp = exp;
+        slot = -1;
     }
 
     /**
-     * Executes the Assignment by setting the value of the given variable to the
+     * Executes the Assignment by setting the value of the given variable's slot to the
      * evaluated value of exp
      *
      * @param env the Environment in which the variables value will be stored
      */
     public void exec(Environment env)
     {
-        env.setVariable(var, exp.eval(env));
+        env.setSlot(slot, exp.eval(env));
+    }
+
+    /**
+     * Resolves the assigned variable to its slot and resolves the variables in exp
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        slot = symbols.slotOf(var);
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the name of the variable being assigned
+     *
+     * @return the name of the assigned variable
+     */
+    public String getVar()
+    {
+        return var;
+    }
+
+    /**
+     * Retrieves the Expression whose value is assigned
+     *
+     * @return the assigned Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Compiles the Assignment to instructions storing the value of exp in the variable's slot
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        int reg = exp.compile(e);
+        e.release(reg);
+        e.writeVariable(slot, reg);
+    }
+
+    /**
+     * Retrieves the slot of the variable being assigned
+     *
+     * @return the slot number, or -1 if the Assignment has not been resolved
+     */
+    public int getSlot()
+    {
+        return slot;
     }
 }
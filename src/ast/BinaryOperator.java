@@ -1,55 +1,123 @@
 package ast;
-import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
- * BinaryOperator defines the evaluation of simple arithmetic operations with two Expressions
- * and one operator (* / + -)
+ * BinaryOperator defines the shared structure of simple arithmetic operations with two
+ * Expressions and one operator (* / + -). Each operator is its own subclass, chosen once by
+ * the Parser, so evaluating an operation never has to look at the operator again
  *
  * @author Puneet Nayyar
  * @version 5/31/18
  */
-public class BinaryOperator extends Expression
+public abstract class BinaryOperator extends Expression
 {
-    private String operator;
-    private Expression exp1;
-    private Expression exp2;
+    protected final Expression exp1;
+    protected final Expression exp2;
 
     /**
-     * Creates a BinaryOperator object with a given operator and two Expressions
+     * Creates a BinaryOperator object with two Expressions
      *
-     * @param operator the given operator for the operation
      * @param exp1 the first Expression
      * @param exp2 the second Expression
      */
-    public BinaryOperator(String operator, Expression exp1, Expression exp2)
+    public BinaryOperator(Expression exp1, Expression exp2)
     {
-        this.operator = operator;
         this.exp1 = exp1;
         this.exp2 = exp2;
-
     }
 
     /**
-     * Evalutes the two instance Expressions and then performs an arithmetic operation
-     * with the two depending on the instance operator
+     * Creates the BinaryOperator subclass corresponding to a given operator
      *
-     * @param env the Environment in which variables are stored
-     * @return the value of the operations after the binary operation is performed
+     * @param operator the given operator for the operation
+     * @param exp1 the first Expression
+     * @param exp2 the second Expression
+     * @return an Add, Sub, Mul, or Div object with the two Expressions
+     * @throws IllegalArgumentException if the operator is not one of * / + -
      */
-    public int eval(Environment env)
+    public static BinaryOperator create(String operator, Expression exp1, Expression exp2)
     {
         if (operator.equals("+"))
-        {
-            return exp1.eval(env) + exp2.eval(env);
-        }
+            return new Add(exp1, exp2);
         else if (operator.equals("-"))
-        {
-            return exp1.eval(env) - exp2.eval(env);
-        }
+            return new Sub(exp1, exp2);
         else if (operator.equals("*"))
-        {
-            return exp1.eval(env) * exp2.eval(env);
-        }
-        return exp1.eval(env) / exp2.eval(env);
+            return new Mul(exp1, exp2);
+        else if (operator.equals("/"))
+            return new Div(exp1, exp2);
+        throw new IllegalArgumentException("Unknown operator: " + operator);
+    }
+
+    /**
+     * Resolves the variables in both Expressions
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp1.resolve(symbols);
+        exp2.resolve(symbols);
     }
+
+    /**
+     * Retrieves the first Expression of the operation
+     *
+     * @return the first Expression
+     */
+    public Expression getExp1()
+    {
+        return exp1;
+    }
+
+    /**
+     * Retrieves the second Expression of the operation
+     *
+     * @return the second Expression
+     */
+    public Expression getExp2()
+    {
+        return exp2;
+    }
+
+    /**
+     * Retrieves the symbol of the operator this BinaryOperator performs
+     *
+     * @return the operator, one of * / + -
+     */
+    public abstract String getOperator();
+
+    /**
+     * Performs the operation on two already evaluated values
+     *
+     * @param a the value of the first Expression
+     * @param b the value of the second Expression
+     * @return the result of the operation
+     */
+    public abstract int apply(int a, int b);
+
+    /**
+     * Compiles the BinaryOperator to the instruction performing the operation on the
+     * registers holding both Expressions
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the result of the operation
+     */
+    public int compile(Emitter e)
+    {
+        int reg1 = exp1.compile(e);
+        int reg2 = exp2.compile(e);
+        e.release(reg2);
+        e.release(reg1);
+        int result = e.allocateTemp();
+        e.emit(getOpcode(), result, reg1, reg2);
+        return result;
+    }
+
+    /**
+     * Retrieves the VirtualMachine instruction which performs this operation
+     *
+     * @return the opcode of the operation
+     */
+    public abstract int getOpcode();
 }
@@ -1,64 +1,191 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * BooleanExp defines the evaluation of Expressions consisting of multiple Expressions
- * being compared with comparative operators.
+ * BooleanExp defines the evaluation of Expressions consisting of an Expression being
+ * compared with one or more other Expressions through comparative operators.
+ * Every Relop compares the first Expression against its own right hand Expression.
  *
  * @author Puneet Nayyar
  * @version 5/31/18
  */
 public class BooleanExp extends Expression
 {
-    private List<String> relops;
-    private List<Expression> expressions;
+    private final Expression exp;
+    private final Relop[] relops;
 
     /**
-     * Creates a BooleanExp object with a List of Expressions and relops
+     * Creates a BooleanExp object with a first Expression and a List of Relops
      *
-     * @param relops the List of relops in the BooleanExp
-     * @param expressions the List of Expressions
+     * @param exp the Expression on the left of every comparison
+     * @param relops the List of Relops in the BooleanExp
      */
-    public BooleanExp(List<String> relops, List<Expression> expressions)
+    public BooleanExp(Expression exp, List<Relop> relops)
     {
-        this.relops = relops;
-        this.expressions = expressions;
+        this.exp = exp;
+        this.relops = relops.toArray(new Relop[0]);
     }
 
     /**
      * Evaluates the BooleanExp by either returning the numeric value of a single Expression,
-     * or a number corresponding to either true/false to evaluate the boolean
+     * or a number corresponding to either true/false when it is used as a value
      *
      * @param env the Environment in which variables are stored
-     * @return the numeric value of a single Expression, 99 if the BooleanExp is true,
-     *         or -99 if the BooleanExp is false
+     * @return the numeric value of a single Expression, 1 if the BooleanExp is true,
+     *         or 0 if the BooleanExp is false
      */
     public int eval(Environment env)
     {
-        Expression exp1 = expressions.get(0);
-        if (relops.size()==0)
-            return exp1.eval(env);
-        boolean check = true;
-        for (int i=0; i<relops.size(); i++)
+        if (relops.length==0)
+            return exp.eval(env);
+        if (evalCondition(env))
+            return 1;
+        return 0;
+    }
+
+    /**
+     * Evaluates the BooleanExp as a condition. The first Expression is evaluated only once
+     * and the comparisons stop at the first one which does not hold
+     *
+     * @param env the Environment in which variables are stored
+     * @return true if every comparison holds; Otherwise,
+     *         false
+     */
+    public boolean evalCondition(Environment env)
+    {
+        int left = exp.eval(env);
+        if (relops.length==0)
+            return left != 0;
+        for (Relop relop: relops)
+        {
+            if (!relop.test(left, env))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the BooleanExp produces a boolean, which is the case whenever it
+     * contains at least one comparison
+     *
+     * @return true if the BooleanExp has a Relop; Otherwise,
+     *         false
+     */
+    public boolean isBoolean()
+    {
+        return relops.length > 0;
+    }
+
+    /**
+     * Resolves the variables in every compared Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+        for (Relop relop: relops)
+        {
+            relop.resolve(symbols);
+        }
+    }
+
+    /**
+     * Retrieves the Expression on the left of every comparison
+     *
+     * @return the first Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Retrieves the comparisons of the BooleanExp
+     *
+     * @return an unmodifiable List of the Relops in order
+     */
+    public List<Relop> getRelops()
+    {
+        return Collections.unmodifiableList(Arrays.asList(relops));
+    }
+
+    /**
+     * Compiles the BooleanExp to instructions leaving either the numeric value of a single
+     * Expression, or 1 or 0 for true or false, in a register
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the value of the BooleanExp
+     */
+    public int compile(Emitter e)
+    {
+        if (relops.length==0)
+            return exp.compile(e);
+        BitSet before = e.saveAssigned();
+        int result = e.allocateTemp();
+        int falseLabel = e.newLabel();
+        int endLabel = e.newLabel();
+        compileCondition(e, falseLabel);
+        e.emit(Opcodes.MOVE, result, e.constant(1));
+        e.emitJump(endLabel);
+        e.bind(falseLabel);
+        e.emit(Opcodes.MOVE, result, e.constant(0));
+        e.bind(endLabel);
+        e.restoreAssigned(before);
+        return result;
+    }
+
+    /**
+     * Compiles the BooleanExp as a condition which jumps to a label at the first comparison
+     * that fails. The first Expression is computed into a register only once
+     *
+     * @param e the Emitter which collects the instructions
+     * @param falseLabel the label jumped to when the condition does not hold
+     */
+    public void compileCondition(Emitter e, int falseLabel)
+    {
+        if (relops.length==0)
+        {
+            super.compileCondition(e, falseLabel);
+            return;
+        }
+        int left = exp.compile(e);
+        for (Relop relop: relops)
+        {
+            relop.compileBranch(e, left, falseLabel, false);
+        }
+        e.release(left);
+    }
+
+    /**
+     * Compiles the BooleanExp as a condition which jumps to a label when every comparison
+     * holds, leaving early at the first comparison that fails
+     *
+     * @param e the Emitter which collects the instructions
+     * @param trueLabel the label jumped to when the condition holds
+     */
+    public void compileConditionTrue(Emitter e, int trueLabel)
+    {
+        if (relops.length==0)
+        {
+            super.compileConditionTrue(e, trueLabel);
+            return;
+        }
+        int left = exp.compile(e);
+        int falseLabel = e.newLabel();
+        for (int i = 0; i < relops.length - 1; i++)
         {
-            if (i+1 < expressions.size())
-            {
-                String relop = relops.get(i);
-                Expression exp2 = expressions.get(i+1);
-                int e1 = exp1.eval(env);
-                int e2 = exp2.eval(env);
-                if (!((relop.equals("=") && e1==e2)    ||
-                        (relop.equals("<>") && e1!=e2) ||
-                        (relop.equals("<=") && e1<=e2) ||
-                        (relop.equals(">=") && e1>=e2) ||
-                        (relop.equals(">") && e1>e2)   ||
-                        (relop.equals("<") && e1<e2)))
-                    check = false;
-            }
+            relops[i].compileBranch(e, left, falseLabel, false);
         }
-        if (check)
-            return 99;
-        return  -99;
+        relops[relops.length - 1].compileBranch(e, left, trueLabel, true);
+        e.bind(falseLabel);
+        e.release(left);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package ast;
+import environment.Environment;
+
+/**
+ * CompiledLoop is a While statement which has been compiled by a LoopCompiler. It runs the
+ * whole loop, starting by testing the condition, so the interpreter can switch to it between
+ * any two iterations
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface CompiledLoop
+{
+    /**
+     * Runs the remaining iterations of the loop
+     *
+     * @param env the Environment in which variables are stored, which the interpreted
+     *            iterations have already updated
+     */
+    void exec(Environment env);
+}
@@ -1,5 +1,8 @@
 package ast;
 import  environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
 
 /**
  * Display defines the execution of display statements of the form
@@ -12,8 +15,8 @@ import  environment.Environment;
  */
 public class Display extends Statement
 {
-    private Expression expression;
-    private Read read;
+    private final Expression expression;
+    private final Read read;
 
     /**
      * Creates a Display object with a given Expression to display and
@@ -30,21 +33,68 @@ public class Display extends Statement
 
     /**
      * Executes the display statement by either printing true or false in the
-     * case of a BooleanExp, otherwise a numeric value for normal expressions,
-     * and then executing the Read object if it exists
+     * case of a BooleanExp, otherwise a numeric value for normal expressions, to the
+     * Output of the Environment, and then executing the Read object if it exists
      *
      * @param env the Environment in which variables are stored
      */
     public void exec(Environment env)
     {
-        int val = expression.eval(env);
-        if (val==99)
-            System.out.println(true);
-        else if (val==-99)
-            System.out.println(false);
+        if (expression.isBoolean())
+            env.getOutput().printBoolean(expression.evalCondition(env));
         else
-            System.out.println(val);
+            env.getOutput().printInt(expression.eval(env));
         if (read!=null)
             read.exec(env);
     }
+
+    /**
+     * Resolves the variables in the displayed Expression and the Read if it exists
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        expression.resolve(symbols);
+        if (read!=null)
+            read.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the Expression being displayed
+     *
+     * @return the displayed Expression
+     */
+    public Expression getExpression()
+    {
+        return expression;
+    }
+
+    /**
+     * Retrieves the Read which follows the display, if any
+     *
+     * @return the Read object, or null if there is none
+     */
+    public Read getRead()
+    {
+        return read;
+    }
+
+    /**
+     * Compiles the Display to an instruction displaying the value of the Expression, as a
+     * boolean when it is a comparison, followed by the Read if it exists
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        int reg = expression.compile(e);
+        e.release(reg);
+        if (expression.isBoolean())
+            e.emit(Opcodes.PRINT_BOOL, reg);
+        else
+            e.emit(Opcodes.PRINT, reg);
+        if (read!=null)
+            read.compile(e);
+    }
 }
@@ -0,0 +1,67 @@
+package ast;
+import environment.Environment;
+import vm.Opcodes;
+
+/**
+ * Eq defines the "=" comparison of a BooleanExp
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Eq extends Relop
+{
+    /**
+     * Creates a Eq object with the Expression on the right of the operator
+     *
+     * @param exp the Expression being compared against
+     */
+    public Eq(Expression exp)
+    {
+        super(exp);
+    }
+
+    /**
+     * Checks whether a left hand value is equal to the value of the Expression
+     *
+     * @param left the value on the left of the operator
+     * @param env the Environment in which variables are stored
+     * @return true if left equals the Expression; Otherwise,
+     *         false
+     */
+    public boolean test(int left, Environment env)
+    {
+        return left == exp.eval(env);
+    }
+
+    /**
+     * Retrieves the symbol of the comparative operator
+     *
+     * @return "="
+     */
+    public String getOperator()
+    {
+        return "=";
+    }
+
+    /**
+     * Performs the comparison on two already evaluated values
+     *
+     * @param left the value on the left of the operator
+     * @param right the value on the right of the operator
+     * @return left == right
+     */
+    public boolean compare(int left, int right)
+    {
+        return left == right;
+    }
+
+    /**
+     * Retrieves the conditional jump which is taken exactly when this comparison holds
+     *
+     * @return Opcodes.JEQ
+     */
+    public int getJump()
+    {
+        return Opcodes.JEQ;
+    }
+}
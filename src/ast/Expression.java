@@ -1,15 +1,22 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
 
 /**
  * The abstract class Expression provides a template for both
- * numerical and boolean expressions which can be evaluated and compiled
+ * numerical and boolean expressions which can be evaluated and compiled. Like a Statement,
+ * an Expression keeps no state of its own while it is evaluated
  *
  * @author Puneet Nayyar
  * @version 5/31/18
  */
 public abstract class Expression
 {
+    private int line;
+    private int column;
+
     /**
      * Defines the evaluation of numerical and boolean Expressions
      *
@@ -17,4 +24,103 @@ public abstract class Expression
      * @return the value of the Expression
      */
     public abstract int eval(Environment env);
+
+    /**
+     * Evaluates the Expression as the condition of an If or While statement.
+     * Numerical Expressions are true whenever their value is not zero
+     *
+     * @param env the Environment in which variables are stored
+     * @return true if the condition holds; Otherwise,
+     *         false
+     */
+    public boolean evalCondition(Environment env)
+    {
+        return eval(env) != 0;
+    }
+
+    /**
+     * Checks whether the Expression produces a boolean rather than a numerical value
+     *
+     * @return true if the Expression is a comparison; Otherwise,
+     *         false
+     */
+    public boolean isBoolean()
+    {
+        return false;
+    }
+
+    /**
+     * Defines the resolution of every variable name in the Expression to a fixed slot
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public abstract void resolve(SymbolTable symbols);
+
+    /**
+     * Defines the compilation of Expressions to instructions for the VirtualMachine
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register which holds the value of the Expression
+     */
+    public abstract int compile(Emitter e);
+
+    /**
+     * Compiles the Expression as the condition of an If or While statement to instructions
+     * which jump to a label when the condition does not hold and fall through otherwise
+     *
+     * @param e the Emitter which collects the instructions
+     * @param falseLabel the label jumped to when the condition does not hold
+     */
+    public void compileCondition(Emitter e, int falseLabel)
+    {
+        int reg = compile(e);
+        e.release(reg);
+        e.emitJump(Opcodes.JZ, reg, falseLabel);
+    }
+
+    /**
+     * Compiles the Expression as the condition of a While statement to instructions which
+     * jump to a label when the condition holds and fall through otherwise
+     *
+     * @param e the Emitter which collects the instructions
+     * @param trueLabel the label jumped to when the condition holds
+     */
+    public void compileConditionTrue(Emitter e, int trueLabel)
+    {
+        int reg = compile(e);
+        e.release(reg);
+        e.emitJump(Opcodes.JNZ, reg, trueLabel);
+    }
+
+    /**
+     * Records where the Expression begins in the source
+     *
+     * @param line the line number, starting from 1
+     * @param column the column number, starting from 1
+     */
+    public void setPosition(int line, int column)
+    {
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Retrieves the line on which the Expression begins
+     *
+     * @return the line number, or 0 if the position is unknown
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Retrieves the column at which the Expression begins
+     *
+     * @return the column number, or 0 if the position is unknown
+     */
+    public int getColumn()
+    {
+        return column;
+    }
 }
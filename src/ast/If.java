@@ -1,5 +1,8 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import java.util.BitSet;
 
 /**
  * If defines the execution of If statements consisting of a
@@ -10,9 +13,9 @@ import environment.Environment;
  */
 public class If extends Statement
 {
-    private Statement stmt1;
-    private Statement stmt2;
-    private Expression condition;
+    private final Statement stmt1;
+    private final Statement stmt2;
+    private final Expression condition;
 
     /**
      * Creates an If object with a given Expression condition, main
@@ -37,10 +40,83 @@ public class If extends Statement
      */
     public void exec(Environment env)
     {
-
-        if (condition.eval(env) != -99)
+        if (condition.evalCondition(env))
             stmt1.exec(env);
         else if (stmt2!=null)
             stmt2.exec(env);
     }
+
+    /**
+     * Resolves the variables in the condition and both bodies
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        condition.resolve(symbols);
+        stmt1.resolve(symbols);
+        if (stmt2!=null)
+            stmt2.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the boolean condition of the If statement
+     *
+     * @return the condition Expression
+     */
+    public Expression getCondition()
+    {
+        return condition;
+    }
+
+    /**
+     * Retrieves the body executed when the condition holds
+     *
+     * @return the main body Statement
+     */
+    public Statement getThen()
+    {
+        return stmt1;
+    }
+
+    /**
+     * Retrieves the body executed when the condition does not hold
+     *
+     * @return the else body Statement, or null if there is none
+     */
+    public Statement getElse()
+    {
+        return stmt2;
+    }
+
+    /**
+     * Compiles the If statement to a conditional jump over the main body to the else body,
+     * with a jump over the else body at the end of the main body. A variable is only treated
+     * as definitely assigned after the If when both bodies assign it
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        int elseLabel = e.newLabel();
+        BitSet before = e.saveAssigned();
+        condition.compileCondition(e, elseLabel);
+        stmt1.compile(e);
+        if (stmt2!=null)
+        {
+            int endLabel = e.newLabel();
+            e.emitJump(endLabel);
+            BitSet afterThen = e.saveAssigned();
+            e.bind(elseLabel);
+            e.restoreAssigned(before);
+            stmt2.compile(e);
+            e.mergeAssigned(afterThen);
+            e.bind(endLabel);
+        }
+        else
+        {
+            e.mergeAssigned(before);
+            e.bind(elseLabel);
+        }
+    }
 }
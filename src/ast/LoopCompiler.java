@@ -0,0 +1,30 @@
+package ast;
+import environment.SymbolTable;
+
+/**
+ * LoopCompiler decides when a While statement run by the AST interpreter is hot, and
+ * compiles hot loops to faster code. The interpreter keeps running a loop while its
+ * compilation is in progress, and switches to the compiled code at the start of an
+ * iteration once it has been installed in the While
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface LoopCompiler
+{
+    /**
+     * Retrieves the number of iterations after which a While is hot
+     *
+     * @return the threshold, at least 1
+     */
+    int getThreshold();
+
+    /**
+     * Compiles a hot While, possibly in the background, and installs the compiled code in it.
+     * It is called at most once for each While
+     *
+     * @param loop the While statement
+     * @param symbols the SymbolTable the While was resolved against
+     */
+    void compile(While loop, SymbolTable symbols);
+}
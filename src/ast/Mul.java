@@ -0,0 +1,66 @@
+package ast;
+import environment.Environment;
+import vm.Opcodes;
+
+/**
+ * Mul defines the evaluation of the multiplication of two Expressions (exp1 * exp2)
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Mul extends BinaryOperator
+{
+    /**
+     * Creates a Mul object with two Expressions
+     *
+     * @param exp1 the first Expression
+     * @param exp2 the second Expression
+     */
+    public Mul(Expression exp1, Expression exp2)
+    {
+        super(exp1, exp2);
+    }
+
+    /**
+     * Evaluates the multiplication of the two instance Expressions
+     *
+     * @param env the Environment in which variables are stored
+     * @return the product of the two Expressions
+     */
+    public int eval(Environment env)
+    {
+        return exp1.eval(env) * exp2.eval(env);
+    }
+
+    /**
+     * Retrieves the symbol of the operator
+     *
+     * @return "*"
+     */
+    public String getOperator()
+    {
+        return "*";
+    }
+
+    /**
+     * Performs the operation on two already evaluated values
+     *
+     * @param a the value of the first Expression
+     * @param b the value of the second Expression
+     * @return a * b
+     */
+    public int apply(int a, int b)
+    {
+        return a * b;
+    }
+
+    /**
+     * Retrieves the VirtualMachine instruction which performs this operation
+     *
+     * @return Opcodes.MUL
+     */
+    public int getOpcode()
+    {
+        return Opcodes.MUL;
+    }
+}
@@ -0,0 +1,72 @@
+package ast;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
+
+/**
+ * Neg defines the evaluation of the negation of an Expression (-exp)
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Neg extends Expression
+{
+    private final Expression exp;
+
+    /**
+     * Creates a Neg object with the Expression being negated
+     *
+     * @param exp the Expression being negated
+     */
+    public Neg(Expression exp)
+    {
+        this.exp = exp;
+    }
+
+    /**
+     * Evaluates the Neg by negating the value of its Expression
+     *
+     * @param env the Environment in which variables are stored
+     * @return the negated value of the Expression
+     */
+    public int eval(Environment env)
+    {
+        return -exp.eval(env);
+    }
+
+    /**
+     * Resolves the variables in the negated Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the Expression being negated
+     *
+     * @return the negated Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Compiles the Neg to an instruction negating the value of its Expression
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the negated value
+     */
+    public int compile(Emitter e)
+    {
+        int reg = exp.compile(e);
+        e.release(reg);
+        int result = e.allocateTemp();
+        e.emit(Opcodes.NEG, result, reg);
+        return result;
+    }
+}
@@ -1,5 +1,7 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
  * The Number class defines the evaluation of simple non-negative integers
@@ -9,7 +11,7 @@ import environment.Environment;
  */
 public class Number extends Expression
 {
-    private int num;
+    private final int num;
 
     /**
      * Creates a Number object with a given integer value
@@ -31,4 +33,34 @@ public class Number extends Expression
     {
         return num;
     }
+
+    /**
+     * Resolves the Number, which contains no variables
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+    }
+
+    /**
+     * Retrieves the integer value of the Number
+     *
+     * @return the value of the Number
+     */
+    public int getValue()
+    {
+        return num;
+    }
+
+    /**
+     * Compiles the Number by giving it a constant register
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the value of the Number
+     */
+    public int compile(Emitter e)
+    {
+        return e.constant(num);
+    }
 }
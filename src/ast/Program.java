@@ -1,6 +1,8 @@
 package ast;
 import java.util.List;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
  * Program defines the execution of programs consisting of lists of Statements
@@ -10,7 +12,7 @@ import environment.Environment;
  */
 public class Program extends Statement
 {
-    private List<Statement> stmts;
+    private final List<Statement> stmts;
 
     /**
      * Creates a Program object with a given list of Statements
@@ -29,9 +31,46 @@ public class Program extends Statement
      */
     public void exec(Environment env)
     {
+        env.countStatements(stmts.size());
         for (Statement s: stmts)
         {
             s.exec(env);
         }
     }
+
+    /**
+     * Resolves the variables in all of the Program's Statements
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        for (Statement s: stmts)
+        {
+            s.resolve(symbols);
+        }
+    }
+
+    /**
+     * Retrieves the Program's Statements
+     *
+     * @return the List of Statements in execution order
+     */
+    public List<Statement> getStatements()
+    {
+        return stmts;
+    }
+
+    /**
+     * Compiles the Program by compiling all of its Statements in order
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        for (Statement s: stmts)
+        {
+            s.compile(e);
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package ast;
 import environment.Environment;
+import environment.Input;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
 
 /**
  * Read defines the execution of read statements of the form
@@ -11,7 +15,8 @@ import environment.Environment;
  */
 public class Read extends Statement
 {
-    private String var;
+    private final String var;
+    private int slot;
 
     /**
      * Creates a Read object with a given variable id
@@ -21,6 +26,7 @@ public class Read extends Statement
     public Read(String var)
     {
         this.var = var;
+        slot = -1;
     }
 
     /**
@@ -31,9 +37,64 @@ public class Read extends Statement
      */
     public void exec(Environment env)
     {
-        System.out.println("Set the value of " + var + " to: ");
-        java.util.Scanner scanner = new java.util.Scanner(System.in);
-        Integer i = scanner.nextInt();
-        env.setVariable(var, i);
+        env.setSlot(slot, input(env, var));
+    }
+
+    /**
+     * Resolves the variable being read to its slot
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        slot = symbols.slotOf(var);
+    }
+
+    /**
+     * Retrieves the name of the variable being read
+     *
+     * @return the name of the variable
+     */
+    public String getVar()
+    {
+        return var;
+    }
+
+    /**
+     * Compiles the Read to an instruction reading user input into the variable's slot
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        e.emit(Opcodes.READ, slot);
+        e.assigned(slot);
+    }
+
+    /**
+     * Prompts the user for the value of a variable on the Output of the Environment, if the
+     * Input of the Environment is prompting, and reads it as a number from that Input
+     *
+     * @param env the Environment whose Output displays the prompt and whose Input is read
+     * @param var the name of the variable being read
+     * @return the numeric user input
+     */
+    public static int input(Environment env, String var)
+    {
+        Input in = env.getInput();
+        if (in.isPrompting())
+            env.getOutput().printLine("Set the value of " + var + " to: ");
+        env.getOutput().beforeRead();
+        return in.readInt();
+    }
+
+    /**
+     * Retrieves the slot of the variable being read
+     *
+     * @return the slot number, or -1 if the Read has not been resolved
+     */
+    public int getSlot()
+    {
+        return slot;
     }
 }
@@ -0,0 +1,126 @@
+package ast;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
+
+/**
+ * Relop defines one comparison inside a BooleanExp: a comparative operator together with
+ * the Expression on its right hand side. Each operator (< > <= >= = <>) is its own subclass,
+ * chosen once by the Parser, so a comparison never has to look at the operator again
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public abstract class Relop
+{
+    protected final Expression exp;
+
+    /**
+     * Creates a Relop object with the Expression on the right of the operator
+     *
+     * @param exp the Expression being compared against
+     */
+    public Relop(Expression exp)
+    {
+        this.exp = exp;
+    }
+
+    /**
+     * Creates the Relop subclass corresponding to a given comparative operator
+     *
+     * @param relop the given comparative operator
+     * @param exp the Expression on the right of the operator
+     * @return an Lt, Gt, Le, Ge, Eq, or Ne object with the Expression
+     * @throws IllegalArgumentException if the operator is not one of < > <= >= = <>
+     */
+    public static Relop create(String relop, Expression exp)
+    {
+        if (relop.equals("<"))
+            return new Lt(exp);
+        else if (relop.equals(">"))
+            return new Gt(exp);
+        else if (relop.equals("<="))
+            return new Le(exp);
+        else if (relop.equals(">="))
+            return new Ge(exp);
+        else if (relop.equals("="))
+            return new Eq(exp);
+        else if (relop.equals("<>"))
+            return new Ne(exp);
+        throw new IllegalArgumentException("Unknown relop: " + relop);
+    }
+
+    /**
+     * Defines the comparison of an already evaluated left hand value with the Expression
+     *
+     * @param left the value on the left of the operator
+     * @param env the Environment in which variables are stored
+     * @return true if the comparison holds; Otherwise,
+     *         false
+     */
+    public abstract boolean test(int left, Environment env);
+
+    /**
+     * Resolves the variables in the Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the Expression on the right of the operator
+     *
+     * @return the compared Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Retrieves the symbol of the comparative operator this Relop performs
+     *
+     * @return the operator, one of < > <= >= = <>
+     */
+    public abstract String getOperator();
+
+    /**
+     * Performs the comparison on two already evaluated values
+     *
+     * @param left the value on the left of the operator
+     * @param right the value on the right of the operator
+     * @return true if the comparison holds; Otherwise,
+     *         false
+     */
+    public abstract boolean compare(int left, int right);
+
+    /**
+     * Compiles the comparison, with the left hand value already in a register, to an
+     * instruction which jumps to a label either when the comparison holds or when it fails
+     *
+     * @param e the Emitter which collects the instructions
+     * @param left the register holding the value on the left of the operator
+     * @param label the label being jumped to
+     * @param jumpIfTrue true to jump when the comparison holds, false to jump when it fails
+     */
+    public void compileBranch(Emitter e, int left, int label, boolean jumpIfTrue)
+    {
+        int right = exp.compile(e);
+        e.release(right);
+        if (jumpIfTrue)
+            e.emitJump(getJump(), left, right, label);
+        else
+            e.emitJump(Opcodes.negate(getJump()), left, right, label);
+    }
+
+    /**
+     * Retrieves the conditional jump which is taken exactly when this comparison holds
+     *
+     * @return the opcode of the comparison
+     */
+    public abstract int getJump();
+}
@@ -0,0 +1,89 @@
+package ast;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
+
+/**
+ * ShiftDivide defines the evaluation of a division by a power of two with shifts instead of
+ * an integer division. It is created by the Optimizer in place of a Div. Negative values are
+ * biased by the divisor minus one before the arithmetic shift so that the quotient rounds
+ * toward zero exactly as the division would
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ShiftDivide extends Expression
+{
+    private final Expression exp;
+    private final int bits;
+
+    /**
+     * Creates a ShiftDivide object with the Expression being divided and the power of two
+     *
+     * @param exp the Expression being divided
+     * @param bits the base two logarithm of the divisor, between 1 and 30
+     */
+    public ShiftDivide(Expression exp, int bits)
+    {
+        this.exp = exp;
+        this.bits = bits;
+    }
+
+    /**
+     * Evaluates the ShiftDivide by shifting the value of its Expression
+     *
+     * @param env the Environment in which variables are stored
+     * @return the value of the Expression divided by two to the power of bits
+     */
+    public int eval(Environment env)
+    {
+        int val = exp.eval(env);
+        return (val + ((val >> 31) >>> (32 - bits))) >> bits;
+    }
+
+    /**
+     * Resolves the variables in the divided Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the Expression being divided
+     *
+     * @return the divided Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Retrieves the number of bits the Expression is shifted by
+     *
+     * @return the base two logarithm of the divisor
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+
+    /**
+     * Compiles the ShiftDivide to an instruction shifting the value of its Expression
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the shifted value
+     */
+    public int compile(Emitter e)
+    {
+        int reg = exp.compile(e);
+        e.release(reg);
+        int result = e.allocateTemp();
+        e.emit(Opcodes.SDIV, result, reg, bits);
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package ast;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import vm.Opcodes;
+
+/**
+ * ShiftLeft defines the evaluation of a multiplication by a power of two as a left
+ * shift (exp << bits). It is created by the Optimizer in place of a Mul, and wraps around
+ * on overflow exactly as the multiplication would
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ShiftLeft extends Expression
+{
+    private final Expression exp;
+    private final int bits;
+
+    /**
+     * Creates a ShiftLeft object with the Expression being multiplied and the power of two
+     *
+     * @param exp the Expression being multiplied
+     * @param bits the base two logarithm of the multiplier
+     */
+    public ShiftLeft(Expression exp, int bits)
+    {
+        this.exp = exp;
+        this.bits = bits;
+    }
+
+    /**
+     * Evaluates the ShiftLeft by shifting the value of its Expression
+     *
+     * @param env the Environment in which variables are stored
+     * @return the value of the Expression multiplied by two to the power of bits
+     */
+    public int eval(Environment env)
+    {
+        return exp.eval(env) << bits;
+    }
+
+    /**
+     * Resolves the variables in the shifted Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the Expression being shifted
+     *
+     * @return the shifted Expression
+     */
+    public Expression getExp()
+    {
+        return exp;
+    }
+
+    /**
+     * Retrieves the number of bits the Expression is shifted by
+     *
+     * @return the base two logarithm of the multiplier
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+
+    /**
+     * Compiles the ShiftLeft to an instruction shifting the value of its Expression
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register holding the shifted value
+     */
+    public int compile(Emitter e)
+    {
+        int reg = exp.compile(e);
+        e.release(reg);
+        int result = e.allocateTemp();
+        e.emit(Opcodes.SHL, result, reg, bits);
+        return result;
+    }
+}
@@ -1,20 +1,75 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
  * The abstract class Statement provides a template for
  * the execution of different types of statements, such as display, assign,
- * while, if, and read
+ * while, if, and read. A Statement keeps no state of its own while it runs: everything a
+ * run changes lives in its Environment, and the only fields set after construction are the
+ * slots filled in by resolve and the heat and compiled code of a While, which are safe to
+ * share. Once resolved, a Program can therefore be run by any number of threads at once,
+ * each with its own Environment
  *
  * @author Puneet Nayyar
  * @version 5/31/18
  */
 public abstract class Statement
 {
+    private int line;
+    private int column;
+
     /**
      * Defines the execution of Statements
      *
      * @param env the Environment in which variables are stored
      */
     public abstract void exec(Environment env);
+
+    /**
+     * Defines the resolution of every variable name in the Statement to a fixed slot
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public abstract void resolve(SymbolTable symbols);
+
+    /**
+     * Defines the compilation of Statements to instructions for the VirtualMachine
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public abstract void compile(Emitter e);
+
+    /**
+     * Records where the Statement begins in the source
+     *
+     * @param line the line number, starting from 1
+     * @param column the column number, starting from 1
+     */
+    public void setPosition(int line, int column)
+    {
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Retrieves the line on which the Statement begins
+     *
+     * @return the line number, or 0 if the position is unknown
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Retrieves the column at which the Statement begins
+     *
+     * @return the column number, or 0 if the position is unknown
+     */
+    public int getColumn()
+    {
+        return column;
+    }
 }
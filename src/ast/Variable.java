@@ -1,5 +1,7 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
 
 /**
  * Variable defines the execution of simple Variable expressions
@@ -9,7 +11,8 @@ import environment.Environment;
  */
 public class Variable extends Expression
 {
-    private String varName;
+    private final String varName;
+    private int slot;
 
     /**
      * Creates a Variable object with a given name
@@ -19,16 +22,58 @@ public class Variable extends Expression
     public Variable(String varName)
     {
         this.varName = varName;
+        slot = -1;
     }
 
     /**
-     * Evaluates the Variable by retrieving its value from the Environment and returning it
+     * Evaluates the Variable by retrieving the value in its slot of the Environment
      *
      * @param env the Environment in which variables are stored
      * @return the value of the Variable
      */
     public int eval(Environment env)
     {
-        return env.getVariable(varName);
+        return env.getSlot(slot);
+    }
+
+    /**
+     * Resolves the Variable by looking up the slot assigned to its name
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        slot = symbols.slotOf(varName);
+    }
+
+    /**
+     * Retrieves the name of the Variable
+     *
+     * @return the name of the Variable
+     */
+    public String getName()
+    {
+        return varName;
+    }
+
+    /**
+     * Compiles the Variable, which is held in the register of its own slot
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the slot of the Variable
+     */
+    public int compile(Emitter e)
+    {
+        return e.readVariable(slot);
+    }
+
+    /**
+     * Retrieves the slot the Variable was resolved to
+     *
+     * @return the slot number, or -1 if the Variable has not been resolved
+     */
+    public int getSlot()
+    {
+        return slot;
     }
 }
@@ -1,17 +1,30 @@
 package ast;
 import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * While defines the execution of While statements consisting of a condition
- * Expression and a Program body
+ * Expression and a Program body. When the Environment has a LoopCompiler, the While counts
+ * its iterations and asks for itself to be compiled once it is hot. The heat and the
+ * compiled code are shared by every run of the While, unlike the per-run state kept in the
+ * Environment: the iterations of each run are counted locally and added atomically to the
+ * heat when the run of the loop ends, so runs on different threads never write to the While
+ * in its loop and never lose each other's iterations
  *
  * @author Puneet Nayyar
  * @version 5/31/18
  */
 public class While extends Statement
 {
-    private Expression condition;
-    private Program program;
+    private final Expression condition;
+    private final Program program;
+    private final AtomicBoolean requested;
+    private final AtomicLong heat;
+    private volatile CompiledLoop compiled;
 
     /**
      * Creates a While object with a given condition and body
@@ -23,6 +36,8 @@ public class While extends Statement
     {
         this.program = program;
         this.condition = condition;
+        requested = new AtomicBoolean();
+        heat = new AtomicLong();
     }
 
     /**
@@ -33,7 +48,126 @@ public class While extends Statement
      */
     public void exec(Environment env)
     {
-        while (condition.eval(env) == 99)
+        LoopCompiler tier = env.getLoopCompiler();
+        if (tier != null)
+        {
+            execTiered(env, tier);
+            return;
+        }
+        long iterations = 0;
+        while (condition.evalCondition(env))
+        {
             program.exec(env);
+            iterations++;
+        }
+        env.countIterations(iterations);
+    }
+
+    /**
+     * Executes the While statement while counting its heat, asking the LoopCompiler to
+     * compile it once the threshold is crossed, and switching to the compiled code at the
+     * start of the first iteration after it has been installed
+     *
+     * @param env the Environment in which variables are stored
+     * @param tier the LoopCompiler of the Environment
+     */
+    private void execTiered(Environment env, LoopCompiler tier)
+    {
+        long iterations = 0;
+        long trigger = requested.get() ? -1 : Math.max(tier.getThreshold() - heat.get(), 1);
+        while (true)
+        {
+            CompiledLoop code = compiled;
+            if (code != null)
+            {
+                env.countIterations(iterations);
+                code.exec(env);
+                return;
+            }
+            if (!condition.evalCondition(env))
+                break;
+            program.exec(env);
+            iterations++;
+            if (iterations == trigger && requested.compareAndSet(false, true))
+                tier.compile(this, env.getSymbols());
+        }
+        env.countIterations(iterations);
+        if (trigger > 0 && !requested.get())
+            heat.addAndGet(iterations);
+    }
+
+    /**
+     * Installs the code compiled for the While, which every run switches to at the start of
+     * its next iteration
+     *
+     * @param code the compiled loop
+     */
+    public void install(CompiledLoop code)
+    {
+        compiled = code;
+    }
+
+    /**
+     * Checks whether compiled code has been installed in the While
+     *
+     * @return true if runs of the While execute compiled code; Otherwise,
+     *         false
+     */
+    public boolean isCompiled()
+    {
+        return compiled != null;
+    }
+
+    /**
+     * Resolves the variables in the condition and the body
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        condition.resolve(symbols);
+        program.resolve(symbols);
+    }
+
+    /**
+     * Retrieves the boolean condition of the While statement
+     *
+     * @return the condition Expression
+     */
+    public Expression getCondition()
+    {
+        return condition;
+    }
+
+    /**
+     * Retrieves the body of the While statement
+     *
+     * @return the body Program
+     */
+    public Program getProgram()
+    {
+        return program;
+    }
+
+    /**
+     * Compiles the While statement with the condition after the body, so that each
+     * iteration ends with a single jump back to the top of the body while the condition
+     * holds. Assignments in the body are not treated as definite after the loop, since the
+     * body may never run
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        int topLabel = e.newLabel();
+        int conditionLabel = e.newLabel();
+        BitSet before = e.saveAssigned();
+        e.emitJump(conditionLabel);
+        e.bind(topLabel);
+        program.compile(e);
+        e.bind(conditionLabel);
+        e.restoreAssigned(before);
+        condition.compileConditionTrue(e, topLabel);
+        e.restoreAssigned(before);
     }
 }
@@ -0,0 +1,57 @@
+package batch;
+
+/**
+ * BatchResult holds what one run of a BatchRunner displayed, and the error which stopped
+ * it if it failed
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class BatchResult
+{
+    private final String output;
+    private final String error;
+
+    /**
+     * Creates a BatchResult
+     *
+     * @param output the text displayed by the run, up to the point where it stopped
+     * @param error the message of the error which stopped the run, or null if it finished
+     */
+    public BatchResult(String output, String error)
+    {
+        this.output = output;
+        this.error = error;
+    }
+
+    /**
+     * Retrieves the text displayed by the run
+     *
+     * @return the displayed text, one value per line
+     */
+    public String getOutput()
+    {
+        return output;
+    }
+
+    /**
+     * Retrieves the message of the error which stopped the run
+     *
+     * @return the message, or null if the run finished
+     */
+    public String getError()
+    {
+        return error;
+    }
+
+    /**
+     * Checks whether the run finished without an error
+     *
+     * @return true if the run finished; Otherwise,
+     *         false
+     */
+    public boolean isSuccess()
+    {
+        return error == null;
+    }
+}
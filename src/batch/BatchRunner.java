@@ -0,0 +1,93 @@
+package batch;
+import environment.Input;
+import environment.Output;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import server.ResidentProgram;
+
+/**
+ * BatchRunner runs one Program against many sets of input values in parallel on a
+ * ForkJoinPool. The Program is parsed, resolved and compiled once, and its AST and compiled
+ * code are shared by every run, which is safe because nodes keep no state of their own
+ * while they run. Each run gets its own Environment, its own Input holding its values and
+ * its own Output collecting its text in memory, and the results are returned in the order
+ * of the input sets
+ *
+ * Usage:
+ * BatchRunner runner = new BatchRunner(new ResidentProgram(prog), "closure",
+ *         Runtime.getRuntime().availableProcessors());
+ * List<BatchResult> results = runner.run(inputs);
+ * runner.close();
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class BatchRunner
+{
+    private final ResidentProgram program;
+    private final String backend;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a BatchRunner with a pool of a given size
+     *
+     * @param program the Program being run, which must not be instrumented by the Profiler
+     *                since the counts of the Profiler are not shared safely
+     * @param backend "tree", "tiered", "closure", "flat", "vm" or "jvm"
+     * @param parallelism the number of runs which may execute at once
+     */
+    public BatchRunner(ResidentProgram program, String backend, int parallelism)
+    {
+        this.program = program;
+        this.backend = backend;
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Runs the Program once for each set of input values and waits for every run to finish
+     *
+     * @param inputs the values of read statements for each run
+     * @return the result of each run, in the order of the input sets
+     */
+    public List<BatchResult> run(List<int[]> inputs)
+    {
+        List<ForkJoinTask<BatchResult>> tasks = new ArrayList<ForkJoinTask<BatchResult>>();
+        for (int[] values: inputs)
+            tasks.add(pool.submit(() -> runOnce(values)));
+        List<BatchResult> results = new ArrayList<BatchResult>(tasks.size());
+        for (ForkJoinTask<BatchResult> task: tasks)
+            results.add(task.join());
+        return results;
+    }
+
+    /**
+     * Runs the Program once in a fresh Environment
+     *
+     * @param values the values of read statements
+     * @return the result of the run
+     */
+    private BatchResult runOnce(int[] values)
+    {
+        Output output = Output.toMemory();
+        String error = null;
+        try
+        {
+            program.run(backend, output, new Input(values));
+        }
+        catch (RuntimeException | StackOverflowError err)
+        {
+            error = ResidentProgram.describe(err);
+        }
+        return new BatchResult(output.getText(), error);
+    }
+
+    /**
+     * Shuts the pool down once the runs in progress have finished
+     */
+    public void close()
+    {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package cache;
+
+/**
+ * AstFormat lists the constants of the binary format which parsed Programs are cached in.
+ * A cached Program starts with a header of the MAGIC bytes, the VERSION of the format, the
+ * 32 byte key it was stored under and the CRC-32 of the rest of the file, followed by the
+ * root Program node. Every node is written in prefix order as one tag byte, the position
+ * where it begins, and then its fields and children. Counts, shift bits and columns are
+ * unsigned variable length integers of seven bits per byte. Lines are written as the
+ * difference from the line of the node before, and they and the values of Numbers are
+ * zigzag encoded the same way. A variable name is written as its index in the table of
+ * names seen so far, and the first time a name is seen its index is the size of that table
+ * and it is followed by its length and its UTF-8 bytes
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class AstFormat
+{
+    /** the first four bytes of every cached Program: "SAST" */
+    public static final int MAGIC = 0x53415354;
+    /** the version of the format, which changes whenever the layout of a node changes */
+    public static final int VERSION = 2;
+    /** the number of bytes in a key */
+    public static final int KEY_SIZE = 32;
+    /** the number of bytes before the root node */
+    public static final int HEADER_SIZE = 12 + KEY_SIZE;
+
+    /** marks a missing else branch or read */
+    public static final int NONE = 0;
+    /** a Program: count, then that many Statements */
+    public static final int PROGRAM = 1;
+    /** an Assignment: name, Expression */
+    public static final int ASSIGNMENT = 2;
+    /** a Display: Expression, then READ or NONE */
+    public static final int DISPLAY = 3;
+    /** an If: condition, then branch, else branch or NONE */
+    public static final int IF = 4;
+    /** a While: condition, body */
+    public static final int WHILE = 5;
+    /** the Read of a Display: name */
+    public static final int READ = 6;
+    /** a Number: zigzag encoded value */
+    public static final int NUMBER = 7;
+    /** a Variable: name */
+    public static final int VARIABLE = 8;
+    /** an Add: left and right Expressions */
+    public static final int ADD = 9;
+    /** a Sub: left and right Expressions */
+    public static final int SUB = 10;
+    /** a Mul: left and right Expressions */
+    public static final int MUL = 11;
+    /** a Div: left and right Expressions */
+    public static final int DIV = 12;
+    /** a Neg: Expression */
+    public static final int NEG = 13;
+    /** a ShiftLeft: bits, Expression */
+    public static final int SHIFT_LEFT = 14;
+    /** a ShiftDivide: bits, Expression */
+    public static final int SHIFT_DIVIDE = 15;
+    /** a BooleanExp: Expression, count, then that many Relops */
+    public static final int BOOLEAN = 16;
+    /** an Lt Relop: Expression */
+    public static final int LT = 17;
+    /** a Gt Relop: Expression */
+    public static final int GT = 18;
+    /** an Le Relop: Expression */
+    public static final int LE = 19;
+    /** a Ge Relop: Expression */
+    public static final int GE = 20;
+    /** an Eq Relop: Expression */
+    public static final int EQ = 21;
+    /** an Ne Relop: Expression */
+    public static final int NE = 22;
+
+    /**
+     * AstFormat only holds constants and cannot be instantiated
+     */
+    private AstFormat()
+    {
+    }
+}
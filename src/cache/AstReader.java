@@ -0,0 +1,302 @@
+package cache;
+import ast.*;
+import ast.Number;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * AstReader rebuilds a Program from the binary format described by AstFormat. It reads
+ * straight from a ByteBuffer, which may be a memory mapped cache file, creating each node
+ * and each distinct variable name exactly once
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class AstReader
+{
+    private ByteBuffer buf;
+    private String[] names;
+    private int nameCount;
+    private int line;
+
+    /**
+     * Creates an AstReader which reads from the current position of a buffer
+     *
+     * @param buf the buffer holding the cached Program
+     */
+    private AstReader(ByteBuffer buf)
+    {
+        this.buf = buf;
+        names = new String[16];
+    }
+
+    /**
+     * Reads a cached Program, checking that it was written in the current version of the
+     * format under a given key
+     *
+     * @param buf the buffer holding the cached Program, which is read from its position
+     *            to its limit
+     * @param key the key the Program is expected to be stored under
+     * @return the Program, or null if the header does not match the version or the key
+     * @throws IllegalArgumentException if the cached Program is damaged or malformed
+     */
+    public static Program read(ByteBuffer buf, byte[] key)
+    {
+        AstReader reader = new AstReader(buf);
+        try
+        {
+            if (buf.remaining() < AstFormat.HEADER_SIZE || buf.getInt() != AstFormat.MAGIC
+                    || buf.getInt() != AstFormat.VERSION)
+                return null;
+            byte[] stored = new byte[AstFormat.KEY_SIZE];
+            buf.get(stored);
+            if (!Arrays.equals(stored, key))
+                return null;
+            int checksum = buf.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate());
+            if ((int) crc.getValue() != checksum)
+                throw new IllegalArgumentException("Damaged cached Program");
+            Statement stmt = reader.statement(reader.u1());
+            if (!(stmt instanceof Program) || buf.hasRemaining())
+                throw new IllegalArgumentException("Malformed cached Program");
+            return (Program) stmt;
+        }
+        catch (BufferUnderflowException err)
+        {
+            throw new IllegalArgumentException("Truncated cached Program", err);
+        }
+    }
+
+    /**
+     * Reads a Statement and its children
+     *
+     * @param tag the tag of the Statement, which has already been read
+     * @return the Statement
+     */
+    private Statement statement(int tag)
+    {
+        int line = line();
+        int column = varint();
+        Statement stmt;
+        if (tag == AstFormat.PROGRAM)
+        {
+            int count = count();
+            List<Statement> stmts = new ArrayList<Statement>(count);
+            for (int i = 0; i < count; i++)
+                stmts.add(statement(u1()));
+            stmt = new Program(stmts);
+        }
+        else if (tag == AstFormat.ASSIGNMENT)
+        {
+            String var = name();
+            stmt = new Assignment(var, expression());
+        }
+        else if (tag == AstFormat.DISPLAY)
+        {
+            Expression exp = expression();
+            int read = u1();
+            if (read == AstFormat.READ)
+                stmt = new Display(exp, new Read(name()));
+            else if (read == AstFormat.NONE)
+                stmt = new Display(exp, null);
+            else
+                throw malformed(read);
+        }
+        else if (tag == AstFormat.IF)
+        {
+            Expression condition = expression();
+            Statement then = statement(u1());
+            int elseTag = u1();
+            stmt = new If(then, elseTag == AstFormat.NONE ? null : statement(elseTag), condition);
+        }
+        else if (tag == AstFormat.WHILE)
+        {
+            Expression condition = expression();
+            Statement body = statement(u1());
+            if (!(body instanceof Program))
+                throw new IllegalArgumentException("Malformed cached Program: loop body");
+            stmt = new While(condition, (Program) body);
+        }
+        else
+            throw malformed(tag);
+        stmt.setPosition(line, column);
+        return stmt;
+    }
+
+    /**
+     * Reads an Expression and its children
+     *
+     * @return the Expression
+     */
+    private Expression expression()
+    {
+        int tag = u1();
+        int line = line();
+        int column = varint();
+        Expression exp;
+        switch (tag)
+        {
+            case AstFormat.NUMBER:
+                int zigzag = varint();
+                exp = new Number((zigzag >>> 1) ^ -(zigzag & 1));
+                break;
+            case AstFormat.VARIABLE:
+                exp = new Variable(name());
+                break;
+            case AstFormat.ADD:
+                exp = new Add(expression(), expression());
+                break;
+            case AstFormat.SUB:
+                exp = new Sub(expression(), expression());
+                break;
+            case AstFormat.MUL:
+                exp = new Mul(expression(), expression());
+                break;
+            case AstFormat.DIV:
+                exp = new Div(expression(), expression());
+                break;
+            case AstFormat.NEG:
+                exp = new Neg(expression());
+                break;
+            case AstFormat.SHIFT_LEFT:
+                int leftBits = varint();
+                exp = new ShiftLeft(expression(), leftBits);
+                break;
+            case AstFormat.SHIFT_DIVIDE:
+                int divideBits = varint();
+                exp = new ShiftDivide(expression(), divideBits);
+                break;
+            case AstFormat.BOOLEAN:
+                Expression first = expression();
+                int count = count();
+                List<Relop> relops = new ArrayList<Relop>(count);
+                for (int i = 0; i < count; i++)
+                    relops.add(relop(u1()));
+                exp = new BooleanExp(first, relops);
+                break;
+            default:
+                throw malformed(tag);
+        }
+        exp.setPosition(line, column);
+        return exp;
+    }
+
+    /**
+     * Reads a Relop
+     *
+     * @param tag the tag of the Relop, which has already been read
+     * @return the Relop
+     */
+    private Relop relop(int tag)
+    {
+        switch (tag)
+        {
+            case AstFormat.LT:
+                return new Lt(expression());
+            case AstFormat.GT:
+                return new Gt(expression());
+            case AstFormat.LE:
+                return new Le(expression());
+            case AstFormat.GE:
+                return new Ge(expression());
+            case AstFormat.EQ:
+                return new Eq(expression());
+            case AstFormat.NE:
+                return new Ne(expression());
+            default:
+                throw malformed(tag);
+        }
+    }
+
+    /**
+     * Reads a variable name, either as the index of a name already read or as a new name
+     *
+     * @return the name
+     */
+    private String name()
+    {
+        int index = varint();
+        if (index < nameCount)
+            return names[index];
+        if (index != nameCount)
+            throw new IllegalArgumentException("Malformed cached Program: name " + index);
+        byte[] bytes = new byte[count()];
+        buf.get(bytes);
+        if (nameCount == names.length)
+            names = Arrays.copyOf(names, nameCount * 2);
+        names[nameCount++] = new String(bytes, StandardCharsets.UTF_8);
+        return names[index];
+    }
+
+    /**
+     * Reads a count of items which each take at least one byte, so that a corrupt count
+     * cannot make the reader allocate more than the buffer holds
+     *
+     * @return the count
+     */
+    private int count()
+    {
+        int count = varint();
+        if (count < 0 || count > buf.remaining())
+            throw new IllegalArgumentException("Malformed cached Program: count " + count);
+        return count;
+    }
+
+    /**
+     * Reads the line of a node, which is written as the difference from the line of the
+     * node before
+     *
+     * @return the line
+     */
+    private int line()
+    {
+        int zigzag = varint();
+        line += (zigzag >>> 1) ^ -(zigzag & 1);
+        return line;
+    }
+
+    /**
+     * Reads an unsigned variable length integer written by AstWriter
+     *
+     * @return the value
+     */
+    private int varint()
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            int b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed cached Program: variable length integer");
+    }
+
+    /**
+     * Reads one unsigned byte
+     *
+     * @return the byte
+     */
+    private int u1()
+    {
+        return buf.get() & 0xFF;
+    }
+
+    /**
+     * Creates the exception reporting an unknown tag
+     *
+     * @param tag the tag
+     * @return the exception
+     */
+    private static IllegalArgumentException malformed(int tag)
+    {
+        return new IllegalArgumentException("Malformed cached Program: tag " + tag);
+    }
+}
@@ -0,0 +1,298 @@
+package cache;
+import ast.*;
+import ast.Number;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * AstWriter turns a Program into the binary format described by AstFormat, so that it can
+ * be cached and later rebuilt by an AstReader without scanning or parsing its source. Only
+ * the nodes the Parser and the Optimizer produce can be written, so a Program must be
+ * written before it is instrumented by the Profiler
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class AstWriter
+{
+    private byte[] data;
+    private int size;
+    private Map<String, Integer> names;
+    private int line;
+
+    /**
+     * Creates an empty AstWriter
+     */
+    private AstWriter()
+    {
+        data = new byte[256];
+        names = new HashMap<String, Integer>();
+    }
+
+    /**
+     * Writes a Program together with the header identifying it
+     *
+     * @param prog the Program being written
+     * @param key the key the Program is stored under, of AstFormat.KEY_SIZE bytes
+     * @return the bytes of the cached Program
+     * @throws IllegalArgumentException if the key has the wrong size or the Program contains
+     *                                  a node which cannot be written
+     */
+    public static byte[] write(Program prog, byte[] key)
+    {
+        if (key.length != AstFormat.KEY_SIZE)
+            throw new IllegalArgumentException("A key must have " + AstFormat.KEY_SIZE + " bytes");
+        AstWriter writer = new AstWriter();
+        writer.u4(AstFormat.MAGIC);
+        writer.u4(AstFormat.VERSION);
+        for (byte b: key)
+            writer.u1(b);
+        writer.u4(0);
+        writer.statement(prog);
+        int end = writer.size;
+        CRC32 crc = new CRC32();
+        crc.update(writer.data, AstFormat.HEADER_SIZE, end - AstFormat.HEADER_SIZE);
+        writer.size = AstFormat.HEADER_SIZE - 4;
+        writer.u4((int) crc.getValue());
+        return Arrays.copyOf(writer.data, end);
+    }
+
+    /**
+     * Writes a Statement and its children
+     *
+     * @param stmt the Statement being written
+     */
+    private void statement(Statement stmt)
+    {
+        if (stmt instanceof Program)
+        {
+            List<Statement> stmts = ((Program) stmt).getStatements();
+            node(AstFormat.PROGRAM, stmt.getLine(), stmt.getColumn());
+            varint(stmts.size());
+            for (Statement s: stmts)
+                statement(s);
+        }
+        else if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            node(AstFormat.ASSIGNMENT, stmt.getLine(), stmt.getColumn());
+            name(assign.getVar());
+            expression(assign.getExp());
+        }
+        else if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            node(AstFormat.DISPLAY, stmt.getLine(), stmt.getColumn());
+            expression(display.getExpression());
+            if (display.getRead() == null)
+                u1(AstFormat.NONE);
+            else
+            {
+                u1(AstFormat.READ);
+                name(display.getRead().getVar());
+            }
+        }
+        else if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            node(AstFormat.IF, stmt.getLine(), stmt.getColumn());
+            expression(ifStmt.getCondition());
+            statement(ifStmt.getThen());
+            if (ifStmt.getElse() == null)
+                u1(AstFormat.NONE);
+            else
+                statement(ifStmt.getElse());
+        }
+        else if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            node(AstFormat.WHILE, stmt.getLine(), stmt.getColumn());
+            expression(loop.getCondition());
+            statement(loop.getProgram());
+        }
+        else
+            throw new IllegalArgumentException("Cannot cache " + stmt.getClass().getName());
+    }
+
+    /**
+     * Writes an Expression and its children
+     *
+     * @param exp the Expression being written
+     */
+    private void expression(Expression exp)
+    {
+        if (exp instanceof Number)
+        {
+            node(AstFormat.NUMBER, exp.getLine(), exp.getColumn());
+            int value = ((Number) exp).getValue();
+            varint((value << 1) ^ (value >> 31));
+        }
+        else if (exp instanceof Variable)
+        {
+            node(AstFormat.VARIABLE, exp.getLine(), exp.getColumn());
+            name(((Variable) exp).getName());
+        }
+        else if (exp instanceof BinaryOperator)
+        {
+            BinaryOperator op = (BinaryOperator) exp;
+            node(binaryTag(op), exp.getLine(), exp.getColumn());
+            expression(op.getExp1());
+            expression(op.getExp2());
+        }
+        else if (exp instanceof Neg)
+        {
+            node(AstFormat.NEG, exp.getLine(), exp.getColumn());
+            expression(((Neg) exp).getExp());
+        }
+        else if (exp instanceof ShiftLeft)
+        {
+            node(AstFormat.SHIFT_LEFT, exp.getLine(), exp.getColumn());
+            varint(((ShiftLeft) exp).getBits());
+            expression(((ShiftLeft) exp).getExp());
+        }
+        else if (exp instanceof ShiftDivide)
+        {
+            node(AstFormat.SHIFT_DIVIDE, exp.getLine(), exp.getColumn());
+            varint(((ShiftDivide) exp).getBits());
+            expression(((ShiftDivide) exp).getExp());
+        }
+        else if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            node(AstFormat.BOOLEAN, exp.getLine(), exp.getColumn());
+            expression(bool.getExp());
+            varint(bool.getRelops().size());
+            for (Relop relop: bool.getRelops())
+            {
+                u1(relopTag(relop));
+                expression(relop.getExp());
+            }
+        }
+        else
+            throw new IllegalArgumentException("Cannot cache " + exp.getClass().getName());
+    }
+
+    /**
+     * Finds the tag of a BinaryOperator
+     *
+     * @param op the BinaryOperator
+     * @return ADD, SUB, MUL or DIV
+     */
+    private static int binaryTag(BinaryOperator op)
+    {
+        if (op instanceof Add)
+            return AstFormat.ADD;
+        if (op instanceof Sub)
+            return AstFormat.SUB;
+        if (op instanceof Mul)
+            return AstFormat.MUL;
+        if (op instanceof Div)
+            return AstFormat.DIV;
+        throw new IllegalArgumentException("Cannot cache " + op.getClass().getName());
+    }
+
+    /**
+     * Finds the tag of a Relop
+     *
+     * @param relop the Relop
+     * @return LT, GT, LE, GE, EQ or NE
+     */
+    private static int relopTag(Relop relop)
+    {
+        if (relop instanceof Lt)
+            return AstFormat.LT;
+        if (relop instanceof Gt)
+            return AstFormat.GT;
+        if (relop instanceof Le)
+            return AstFormat.LE;
+        if (relop instanceof Ge)
+            return AstFormat.GE;
+        if (relop instanceof Eq)
+            return AstFormat.EQ;
+        if (relop instanceof Ne)
+            return AstFormat.NE;
+        throw new IllegalArgumentException("Cannot cache " + relop.getClass().getName());
+    }
+
+    /**
+     * Writes the tag and source position of a node
+     *
+     * @param tag the tag of the node
+     * @param line the line where the node begins, or 0 if it is unknown
+     * @param column the column where the node begins, or 0 if it is unknown
+     */
+    private void node(int tag, int line, int column)
+    {
+        u1(tag);
+        int delta = line - this.line;
+        varint((delta << 1) ^ (delta >> 31));
+        varint(column);
+        this.line = line;
+    }
+
+    /**
+     * Writes a variable name, or its index if it has already been written
+     *
+     * @param name the variable name
+     */
+    private void name(String name)
+    {
+        Integer index = names.get(name);
+        if (index != null)
+        {
+            varint(index);
+            return;
+        }
+        varint(names.size());
+        names.put(name, names.size());
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        varint(bytes.length);
+        for (byte b: bytes)
+            u1(b);
+    }
+
+    /**
+     * Writes an unsigned variable length integer, seven bits at a time starting with the
+     * lowest, setting the high bit of every byte but the last
+     *
+     * @param value the value, treated as unsigned
+     */
+    private void varint(int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            u1((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        u1(value);
+    }
+
+    /**
+     * Writes four bytes, highest first
+     *
+     * @param value the value
+     */
+    private void u4(int value)
+    {
+        u1(value >>> 24);
+        u1(value >>> 16);
+        u1(value >>> 8);
+        u1(value);
+    }
+
+    /**
+     * Writes one byte, growing the array if it is full
+     *
+     * @param b the byte, of which only the low 8 bits are used
+     */
+    private void u1(int b)
+    {
+        if (size == data.length)
+            data = Arrays.copyOf(data, data.length * 2);
+        data[size++] = (byte) b;
+    }
+}
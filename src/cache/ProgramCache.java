@@ -0,0 +1,219 @@
+package cache;
+import ast.Program;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * ProgramCache keeps parsed, and possibly optimized, Programs in a directory so that a
+ * source file which has not changed is never scanned or parsed again. Each Program is
+ * stored in its own file, named after a key which is the SHA-256 hash of the source, the
+ * passes which were run on the AST, including the version of the optimizer passes, and the
+ * version of the format. A stale or damaged file is simply treated as missing, and files
+ * are replaced atomically, so several runs can share a cache directory
+ *
+ * Usage:
+ * ProgramCache cache = new ProgramCache(Paths.get(<cache directory>));
+ * byte[] key = ProgramCache.key(source, "opt" + Optimizer.VERSION);
+ * Program prog = cache.load(key);
+ * if (prog == null)
+ * {
+ *     prog = <parse and optimize source>;
+ *     cache.store(key, prog);
+ * }
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ProgramCache
+{
+    private Path directory;
+
+    /**
+     * Creates a ProgramCache which keeps its files in a given directory, creating the
+     * directory when the first Program is stored
+     *
+     * @param directory the directory of the cache
+     */
+    public ProgramCache(Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the key of a source file
+     *
+     * @param source the path of the source file
+     * @param passes a description of the passes run on the AST before it is stored, so that
+     *               differently optimized Programs are kept apart
+     * @return the key, of AstFormat.KEY_SIZE bytes
+     * @throws IOException if the source file cannot be read
+     */
+    public static byte[] key(Path source, String passes) throws IOException
+    {
+        MessageDigest digest = sha256();
+        try (FileChannel file = FileChannel.open(source, StandardOpenOption.READ))
+        {
+            long size = file.size();
+            for (long offset = 0; offset < size; offset += Integer.MAX_VALUE)
+                digest.update(file.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.min(size - offset, Integer.MAX_VALUE)));
+        }
+        return finish(digest, passes);
+    }
+
+    /**
+     * Computes the key of a source held in a String
+     *
+     * @param source the text of the source
+     * @param passes a description of the passes run on the AST before it is stored
+     * @return the key, of AstFormat.KEY_SIZE bytes
+     */
+    public static byte[] key(String source, String passes)
+    {
+        return key(source.getBytes(StandardCharsets.UTF_8), passes);
+    }
+
+    /**
+     * Computes the key of a source held in an array of bytes, which is the same as the key
+     * of a file holding those bytes
+     *
+     * @param source the bytes of the source
+     * @param passes a description of the passes run on the AST before it is stored
+     * @return the key, of AstFormat.KEY_SIZE bytes
+     */
+    public static byte[] key(byte[] source, String passes)
+    {
+        MessageDigest digest = sha256();
+        digest.update(source);
+        return finish(digest, passes);
+    }
+
+    /**
+     * Writes a key as hexadecimal digits
+     *
+     * @param key the key
+     * @return two lower case hexadecimal digits for each byte of the key
+     */
+    public static String toHex(byte[] key)
+    {
+        StringBuilder hex = new StringBuilder(key.length * 2);
+        for (byte b: key)
+        {
+            hex.append(Character.forDigit((b >>> 4) & 15, 16));
+            hex.append(Character.forDigit(b & 15, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Loads the Program stored under a key, reading it straight from the memory mapped file
+     *
+     * @param key the key of the Program
+     * @return the Program, or null if no valid Program is stored under the key
+     * @throws IOException if the file of the Program exists but cannot be read
+     */
+    public Program load(byte[] key) throws IOException
+    {
+        MappedByteBuffer buf;
+        try (FileChannel file = FileChannel.open(pathOf(key), StandardOpenOption.READ))
+        {
+            buf = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        catch (NoSuchFileException err)
+        {
+            return null;
+        }
+        try
+        {
+            return AstReader.read(buf, key);
+        }
+        catch (IllegalArgumentException err)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a Program under a key, replacing any Program already stored under it. The file
+     * is written under a temporary name and then moved into place, so other runs never see
+     * it half written
+     *
+     * @param key the key of the Program
+     * @param prog the Program, which must not have been instrumented by the Profiler
+     * @throws IOException if the file cannot be written
+     */
+    public void store(byte[] key, Program prog) throws IOException
+    {
+        byte[] bytes = AstWriter.write(prog, key);
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "program", ".tmp");
+        try
+        {
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE))
+            {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining())
+                    file.write(buf);
+            }
+            Files.move(temp, pathOf(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Finds the file a Program with a given key is stored in
+     *
+     * @param key the key of the Program
+     * @return the path of the file
+     */
+    private Path pathOf(byte[] key)
+    {
+        return directory.resolve(toHex(key) + ".ast");
+    }
+
+    /**
+     * Creates a SHA-256 MessageDigest, which every Java platform is required to provide
+     *
+     * @return the MessageDigest
+     */
+    private static MessageDigest sha256()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException err)
+        {
+            throw new IllegalStateException(err);
+        }
+    }
+
+    /**
+     * Adds the passes and the version of the format to a digest of a source and completes it
+     *
+     * @param digest the digest of the source
+     * @param passes a description of the passes run on the AST
+     * @return the key
+     */
+    private static byte[] finish(MessageDigest digest, String passes)
+    {
+        digest.update((byte) 0);
+        digest.update(passes.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) AstFormat.VERSION);
+        return digest.digest();
+    }
+}
@@ -0,0 +1,482 @@
+package closure;
+import ast.*;
+import ast.Number;
+import environment.SymbolTable;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * ClosureCompiler turns a resolved Program into a tree of closures once, before it runs.
+ * Each closure has its constants, slots, and operator bound when it is created, and the
+ * most common shapes, such as a variable plus a constant or a variable compared with a
+ * constant, get closures of their own which read the slot array directly. Every call site
+ * in the compiled tree is therefore small and specialized, which lets the JIT inline it.
+ *
+ * Like the vm.Emitter, the compiler tracks which variables are definitely assigned, so
+ * that only reads which could fail check for an undefined variable, and only assignments
+ * which could be the first go through Environment.setSlot.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ClosureCompiler
+{
+    private SymbolTable symbols;
+    private BitSet assigned;
+
+    /**
+     * Compiles a resolved Program into closures
+     *
+     * @param prog the Program being compiled, already resolved against symbols
+     * @param symbols the SymbolTable the Program was resolved against
+     * @return the compiled ClosureProgram
+     */
+    public ClosureProgram compile(Program prog, SymbolTable symbols)
+    {
+        this.symbols = symbols;
+        assigned = new BitSet();
+        return new ClosureProgram(compile(prog), symbols.size());
+    }
+
+    /**
+     * Compiles a resolved Statement on its own, as a LoopCompiler does, without knowing
+     * which variables the Statements before it assigned, so every read it compiles checks
+     * for an undefined variable
+     *
+     * @param stmt the Statement being compiled, already resolved against symbols
+     * @param symbols the SymbolTable the Statement was resolved against
+     * @return the closure executing the Statement
+     */
+    public StmtClosure compile(Statement stmt, SymbolTable symbols)
+    {
+        this.symbols = symbols;
+        assigned = new BitSet();
+        return compile(stmt);
+    }
+
+    /**
+     * Compiles a Statement into a closure
+     *
+     * @param stmt the Statement being compiled
+     * @return the closure executing the Statement
+     */
+    public StmtClosure compile(Statement stmt)
+    {
+        if (stmt instanceof Program)
+            return compileProgram(((Program) stmt).getStatements());
+        if (stmt instanceof Assignment)
+            return compileAssignment((Assignment) stmt);
+        if (stmt instanceof Display)
+            return compileDisplay((Display) stmt);
+        if (stmt instanceof Read)
+            return compileRead((Read) stmt);
+        if (stmt instanceof If)
+            return compileIf((If) stmt);
+        return compileWhile((While) stmt);
+    }
+
+    /**
+     * Compiles a list of Statements into a closure executing them in order
+     *
+     * @param stmts the Statements being compiled
+     * @return the closure executing the Statements
+     */
+    private StmtClosure compileProgram(List<Statement> stmts)
+    {
+        StmtClosure[] body = new StmtClosure[stmts.size()];
+        for (int i = 0; i < body.length; i++)
+        {
+            body[i] = compile(stmts.get(i));
+        }
+        if (body.length == 0)
+            return (r, env) -> { };
+        if (body.length == 1)
+        {
+            StmtClosure only = body[0];
+            return (r, env) ->
+            {
+                env.countStatements(1);
+                only.exec(r, env);
+            };
+        }
+        if (body.length == 2)
+        {
+            StmtClosure first = body[0];
+            StmtClosure second = body[1];
+            return (r, env) ->
+            {
+                env.countStatements(2);
+                first.exec(r, env);
+                second.exec(r, env);
+            };
+        }
+        return (r, env) ->
+        {
+            env.countStatements(body.length);
+            for (StmtClosure s: body)
+            {
+                s.exec(r, env);
+            }
+        };
+    }
+
+    /**
+     * Compiles an Assignment, turning x = x + constant into an in place increment
+     *
+     * @param assign the Assignment being compiled
+     * @return the closure executing the Assignment
+     */
+    private StmtClosure compileAssignment(Assignment assign)
+    {
+        int slot = assign.getSlot();
+        Expression exp = assign.getExp();
+        if (assigned.get(slot) && exp instanceof Add
+                && definiteSlot(((Add) exp).getExp1()) == slot
+                && ((Add) exp).getExp2() instanceof Number)
+        {
+            int c = ((Number) ((Add) exp).getExp2()).getValue();
+            return (r, env) -> r[slot] += c;
+        }
+        IntClosure value = compile(exp);
+        if (assigned.get(slot))
+            return (r, env) -> r[slot] = value.eval(r, env);
+        assigned.set(slot);
+        return (r, env) -> env.setSlot(slot, value.eval(r, env));
+    }
+
+    /**
+     * Compiles a Display and the Read which follows it, if any
+     *
+     * @param display the Display being compiled
+     * @return the closure executing the Display
+     */
+    private StmtClosure compileDisplay(Display display)
+    {
+        Expression exp = display.getExpression();
+        StmtClosure print;
+        if (exp.isBoolean())
+        {
+            CondClosure cond = compileCondition(exp);
+            print = (r, env) -> env.getOutput().printBoolean(cond.test(r, env));
+        }
+        else
+        {
+            IntClosure value = compile(exp);
+            print = (r, env) -> env.getOutput().printInt(value.eval(r, env));
+        }
+        if (display.getRead() == null)
+            return print;
+        StmtClosure read = compileRead(display.getRead());
+        return (r, env) ->
+        {
+            print.exec(r, env);
+            read.exec(r, env);
+        };
+    }
+
+    /**
+     * Compiles a Read
+     *
+     * @param read the Read being compiled
+     * @return the closure executing the Read
+     */
+    private StmtClosure compileRead(Read read)
+    {
+        int slot = read.getSlot();
+        String name = read.getVar();
+        assigned.set(slot);
+        return (r, env) -> env.setSlot(slot, Read.input(env, name));
+    }
+
+    /**
+     * Compiles an If statement. A variable is only treated as definitely assigned after
+     * the If when both bodies assign it
+     *
+     * @param ifStmt the If statement being compiled
+     * @return the closure executing the If statement
+     */
+    private StmtClosure compileIf(If ifStmt)
+    {
+        BitSet before = (BitSet) assigned.clone();
+        CondClosure cond = compileCondition(ifStmt.getCondition());
+        StmtClosure then = compile(ifStmt.getThen());
+        if (ifStmt.getElse() == null)
+        {
+            assigned = before;
+            return (r, env) ->
+            {
+                if (cond.test(r, env))
+                    then.exec(r, env);
+            };
+        }
+        BitSet afterThen = assigned;
+        assigned = before;
+        StmtClosure otherwise = compile(ifStmt.getElse());
+        assigned.and(afterThen);
+        return (r, env) ->
+        {
+            if (cond.test(r, env))
+                then.exec(r, env);
+            else
+                otherwise.exec(r, env);
+        };
+    }
+
+    /**
+     * Compiles a While statement. Assignments in the body are not treated as definite
+     * after the loop, since the body may never run
+     *
+     * @param loop the While statement being compiled
+     * @return the closure executing the While statement
+     */
+    private StmtClosure compileWhile(While loop)
+    {
+        BitSet before = (BitSet) assigned.clone();
+        CondClosure cond = compileCondition(loop.getCondition());
+        StmtClosure body = compile(loop.getProgram());
+        assigned = before;
+        return (r, env) ->
+        {
+            long iterations = 0;
+            while (cond.test(r, env))
+            {
+                body.exec(r, env);
+                iterations++;
+            }
+            env.countIterations(iterations);
+        };
+    }
+
+    /**
+     * Compiles an Expression into a closure
+     *
+     * @param exp the Expression being compiled
+     * @return the closure evaluating the Expression
+     */
+    public IntClosure compile(Expression exp)
+    {
+        if (exp instanceof Number)
+        {
+            int c = ((Number) exp).getValue();
+            return (r, env) -> c;
+        }
+        if (exp instanceof Variable)
+        {
+            int slot = ((Variable) exp).getSlot();
+            if (assigned.get(slot))
+                return (r, env) -> r[slot];
+            assigned.set(slot);
+            return (r, env) -> env.getSlot(slot);
+        }
+        if (exp instanceof BinaryOperator)
+            return compileBinary((BinaryOperator) exp);
+        if (exp instanceof Neg)
+        {
+            IntClosure x = compile(((Neg) exp).getExp());
+            return (r, env) -> -x.eval(r, env);
+        }
+        if (exp instanceof ShiftLeft)
+        {
+            int bits = ((ShiftLeft) exp).getBits();
+            IntClosure x = compile(((ShiftLeft) exp).getExp());
+            return (r, env) -> x.eval(r, env) << bits;
+        }
+        if (exp instanceof ShiftDivide)
+        {
+            int bits = ((ShiftDivide) exp).getBits();
+            IntClosure x = compile(((ShiftDivide) exp).getExp());
+            return (r, env) ->
+            {
+                int val = x.eval(r, env);
+                return (val + ((val >> 31) >>> (32 - bits))) >> bits;
+            };
+        }
+        BooleanExp bool = (BooleanExp) exp;
+        if (!bool.isBoolean())
+            return compile(bool.getExp());
+        BitSet before = (BitSet) assigned.clone();
+        CondClosure cond = compileCondition(bool);
+        assigned = before;
+        return (r, env) -> cond.test(r, env) ? 1 : 0;
+    }
+
+    /**
+     * Compiles a BinaryOperator, with separate closures when the left operand is a
+     * definitely assigned variable and the right operand is a constant or another such
+     * variable
+     *
+     * @param bin the BinaryOperator being compiled
+     * @return the closure evaluating the operation
+     */
+    private IntClosure compileBinary(BinaryOperator bin)
+    {
+        int a = definiteSlot(bin.getExp1());
+        int b = definiteSlot(bin.getExp2());
+        boolean constant = bin.getExp2() instanceof Number;
+        int c = constant ? ((Number) bin.getExp2()).getValue() : 0;
+        if (bin instanceof Add)
+        {
+            if (a >= 0 && constant)
+                return (r, env) -> r[a] + c;
+            if (a >= 0 && b >= 0)
+                return (r, env) -> r[a] + r[b];
+            IntClosure x = compile(bin.getExp1());
+            if (constant)
+                return (r, env) -> x.eval(r, env) + c;
+            IntClosure y = compile(bin.getExp2());
+            return (r, env) -> x.eval(r, env) + y.eval(r, env);
+        }
+        if (bin instanceof Sub)
+        {
+            if (a >= 0 && constant)
+                return (r, env) -> r[a] - c;
+            if (a >= 0 && b >= 0)
+                return (r, env) -> r[a] - r[b];
+            IntClosure x = compile(bin.getExp1());
+            if (constant)
+                return (r, env) -> x.eval(r, env) - c;
+            IntClosure y = compile(bin.getExp2());
+            return (r, env) -> x.eval(r, env) - y.eval(r, env);
+        }
+        if (bin instanceof Mul)
+        {
+            if (a >= 0 && constant)
+                return (r, env) -> r[a] * c;
+            if (a >= 0 && b >= 0)
+                return (r, env) -> r[a] * r[b];
+            IntClosure x = compile(bin.getExp1());
+            if (constant)
+                return (r, env) -> x.eval(r, env) * c;
+            IntClosure y = compile(bin.getExp2());
+            return (r, env) -> x.eval(r, env) * y.eval(r, env);
+        }
+        IntClosure x = compile(bin.getExp1());
+        IntClosure y = compile(bin.getExp2());
+        return (r, env) -> x.eval(r, env) / y.eval(r, env);
+    }
+
+    /**
+     * Compiles the condition of an If or While statement, or a displayed comparison, into
+     * a closure which stops at the first comparison that fails
+     *
+     * @param exp the condition being compiled
+     * @return the closure testing the condition
+     */
+    public CondClosure compileCondition(Expression exp)
+    {
+        if (!exp.isBoolean())
+        {
+            IntClosure value = compile(exp);
+            return (r, env) -> value.eval(r, env) != 0;
+        }
+        BooleanExp bool = (BooleanExp) exp;
+        List<Relop> relops = bool.getRelops();
+        if (relops.size() == 1)
+            return compileComparison(bool.getExp(), relops.get(0));
+        IntClosure left = compile(bool.getExp());
+        BitSet afterLeft = (BitSet) assigned.clone();
+        RelopClosure[] tests = new RelopClosure[relops.size()];
+        for (int i = 0; i < tests.length; i++)
+        {
+            tests[i] = compileRelop(relops.get(i));
+        }
+        assigned = afterLeft;
+        return (r, env) ->
+        {
+            int l = left.eval(r, env);
+            for (RelopClosure test: tests)
+            {
+                if (!test.test(l, r, env))
+                    return false;
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Compiles a single comparison, with separate closures when the left operand is a
+     * definitely assigned variable and the right operand is a constant or another such
+     * variable
+     *
+     * @param leftExp the Expression on the left of the operator
+     * @param relop the comparison
+     * @return the closure performing the comparison
+     */
+    private CondClosure compileComparison(Expression leftExp, Relop relop)
+    {
+        int a = definiteSlot(leftExp);
+        int b = definiteSlot(relop.getExp());
+        boolean constant = relop.getExp() instanceof Number;
+        int c = constant ? ((Number) relop.getExp()).getValue() : 0;
+        String op = relop.getOperator();
+        if (a >= 0 && constant)
+        {
+            switch (op)
+            {
+                case "<": return (r, env) -> r[a] < c;
+                case ">": return (r, env) -> r[a] > c;
+                case "<=": return (r, env) -> r[a] <= c;
+                case ">=": return (r, env) -> r[a] >= c;
+                case "=": return (r, env) -> r[a] == c;
+                default: return (r, env) -> r[a] != c;
+            }
+        }
+        if (a >= 0 && b >= 0)
+        {
+            switch (op)
+            {
+                case "<": return (r, env) -> r[a] < r[b];
+                case ">": return (r, env) -> r[a] > r[b];
+                case "<=": return (r, env) -> r[a] <= r[b];
+                case ">=": return (r, env) -> r[a] >= r[b];
+                case "=": return (r, env) -> r[a] == r[b];
+                default: return (r, env) -> r[a] != r[b];
+            }
+        }
+        IntClosure x = compile(leftExp);
+        IntClosure y = compile(relop.getExp());
+        switch (op)
+        {
+            case "<": return (r, env) -> x.eval(r, env) < y.eval(r, env);
+            case ">": return (r, env) -> x.eval(r, env) > y.eval(r, env);
+            case "<=": return (r, env) -> x.eval(r, env) <= y.eval(r, env);
+            case ">=": return (r, env) -> x.eval(r, env) >= y.eval(r, env);
+            case "=": return (r, env) -> x.eval(r, env) == y.eval(r, env);
+            default: return (r, env) -> x.eval(r, env) != y.eval(r, env);
+        }
+    }
+
+    /**
+     * Compiles one comparison of a chained BooleanExp
+     *
+     * @param relop the comparison
+     * @return the closure comparing a left hand value with the Relop's Expression
+     */
+    private RelopClosure compileRelop(Relop relop)
+    {
+        IntClosure y = compile(relop.getExp());
+        switch (relop.getOperator())
+        {
+            case "<": return (l, r, env) -> l < y.eval(r, env);
+            case ">": return (l, r, env) -> l > y.eval(r, env);
+            case "<=": return (l, r, env) -> l <= y.eval(r, env);
+            case ">=": return (l, r, env) -> l >= y.eval(r, env);
+            case "=": return (l, r, env) -> l == y.eval(r, env);
+            default: return (l, r, env) -> l != y.eval(r, env);
+        }
+    }
+
+    /**
+     * Retrieves the slot of an Expression which is a variable already definitely assigned,
+     * and so can be read straight from the slot array
+     *
+     * @param exp the Expression
+     * @return the slot of the variable, or -1 if exp is not such a variable
+     */
+    private int definiteSlot(Expression exp)
+    {
+        if (exp instanceof Variable && assigned.get(((Variable) exp).getSlot()))
+            return ((Variable) exp).getSlot();
+        return -1;
+    }
+}
@@ -0,0 +1,41 @@
+package closure;
+import environment.Environment;
+
+/**
+ * ClosureProgram is a Program which has been compiled by the ClosureCompiler into a tree of
+ * closures, ready to be executed any number of times in different Environments
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ClosureProgram
+{
+    private StmtClosure body;
+    private int slots;
+
+    /**
+     * Creates a ClosureProgram around the compiled body of a Program
+     *
+     * @param body the closure of the whole Program
+     * @param slots the number of slots the Environment must have room for
+     */
+    public ClosureProgram(StmtClosure body, int slots)
+    {
+        this.body = body;
+        this.slots = slots;
+    }
+
+    /**
+     * Executes the compiled Program
+     *
+     * @param env the Environment in which variables are stored
+     * @throws IllegalArgumentException if the Environment has no room for every slot
+     */
+    public void execute(Environment env)
+    {
+        int[] values = env.getValues();
+        if (values.length < slots)
+            throw new IllegalArgumentException("Environment was created before compilation");
+        body.exec(values, env);
+    }
+}
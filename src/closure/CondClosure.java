@@ -0,0 +1,22 @@
+package closure;
+import environment.Environment;
+
+/**
+ * CondClosure is the condition of an If or While statement which has been compiled by the
+ * ClosureCompiler into a function with its constants, slots, and operators already bound
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface CondClosure
+{
+    /**
+     * Evaluates the compiled condition
+     *
+     * @param r the values of the slots of the Environment
+     * @param env the Environment in which variables are stored
+     * @return true if the condition holds; Otherwise,
+     *         false
+     */
+    boolean test(int[] r, Environment env);
+}
@@ -0,0 +1,21 @@
+package closure;
+import environment.Environment;
+
+/**
+ * IntClosure is an Expression which has been compiled by the ClosureCompiler into a
+ * function with its constants, slots, and operators already bound
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface IntClosure
+{
+    /**
+     * Evaluates the compiled Expression
+     *
+     * @param r the values of the slots of the Environment
+     * @param env the Environment in which variables are stored
+     * @return the value of the Expression
+     */
+    int eval(int[] r, Environment env);
+}
@@ -0,0 +1,23 @@
+package closure;
+import environment.Environment;
+
+/**
+ * RelopClosure is one comparison of a chained BooleanExp which has been compiled by the
+ * ClosureCompiler, comparing an already evaluated left hand value with its own Expression
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface RelopClosure
+{
+    /**
+     * Performs the compiled comparison
+     *
+     * @param left the value on the left of the operator
+     * @param r the values of the slots of the Environment
+     * @param env the Environment in which variables are stored
+     * @return true if the comparison holds; Otherwise,
+     *         false
+     */
+    boolean test(int left, int[] r, Environment env);
+}
@@ -0,0 +1,20 @@
+package closure;
+import environment.Environment;
+
+/**
+ * StmtClosure is a Statement which has been compiled by the ClosureCompiler into a
+ * function with its constants, slots, and operators already bound
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface StmtClosure
+{
+    /**
+     * Executes the compiled Statement
+     *
+     * @param r the values of the slots of the Environment
+     * @param env the Environment in which variables are stored
+     */
+    void exec(int[] r, Environment env);
+}
@@ -1,35 +1,114 @@
 package environment;
-import java.util.HashMap;
+import ast.LoopCompiler;
 
 /**
  * the Environment class defines a location in which variables can be stored
- * and from which they can be accessed
+ * and from which they can be accessed. Variables live in a flat int array indexed by
+ * the slot numbers handed out by a SymbolTable, alongside a bitset recording which
+ * slots have been assigned so that reads of undefined variables can be reported. The
+ * Environment also holds the Output which display statements write to and the Input which
+ * read statements take their values from, and the LoopCompiler, if any, which compiles the
+ * hot loops of a run of the AST interpreter
  *
  * @author Puneet Nayyar
  * @version March 17 2018
  */
 public class Environment
 {
-    private HashMap<String, Integer> vars;
+    private SymbolTable symbols;
+    private int[] values;
+    private long[] assigned;
+    private Output output;
+    private Input input;
+    private LoopCompiler loopCompiler;
+    private long statements;
+    private long iterations;
+    private long firstRead;
+    private long firstDisplay;
 
     /**
-     * Creates a new Environment with an empty HashMap for variables
+     * Creates a new Environment with an empty SymbolTable for variables
      */
     public Environment()
     {
-        vars = new HashMap<>();
+        this(new SymbolTable());
     }
 
     /**
-     * Adds a variable to the HashMap with a given name and value or
-     * reassigns the value of a variable already in the Map
+     * Creates a new Environment with room for every slot in a given SymbolTable
+     *
+     * @param symbols the SymbolTable the program run in this Environment was resolved against
+     */
+    public Environment(SymbolTable symbols)
+    {
+        this(symbols, Output.toStandardOut(), Input.fromStandardIn());
+    }
+
+    /**
+     * Creates a new Environment with room for every slot in a given SymbolTable which
+     * displays values to a given Output and reads values from a given Input
+     *
+     * @param symbols the SymbolTable the program run in this Environment was resolved against
+     * @param output the Output which display statements write to
+     * @param input the Input which read statements take their values from
+     */
+    public Environment(SymbolTable symbols, Output output, Input input)
+    {
+        this.symbols = symbols;
+        this.output = output;
+        this.input = input;
+        firstRead = input.getReadCount();
+        firstDisplay = output.getDisplayCount();
+        values = new int[Math.max(symbols.size(), 1)];
+        assigned = new long[(values.length + 63) >>> 6];
+    }
+
+    /**
+     * Sets the value stored in a given slot and marks the slot as assigned
+     *
+     * @param slot the slot number of the variable
+     * @param value the given value for the variable
+     */
+    public void setSlot(int slot, int value)
+    {
+        values[slot] = value;
+        assigned[slot >>> 6] |= 1L << slot;
+    }
+
+    /**
+     * Retrieves the value stored in a given slot
+     *
+     * @param slot the slot number of the variable
+     * @return the value of the variable in the slot
+     * @throws IllegalArgumentException if the slot has never been assigned
+     */
+    public int getSlot(int slot)
+    {
+        if ((assigned[slot >>> 6] & (1L << slot)) == 0)
+            throw new IllegalArgumentException("Undefined variable: " + symbols.nameOf(slot));
+        return values[slot];
+    }
+
+    /**
+     * Adds a variable with a given name and value or reassigns the value of a variable
+     * already in the Environment
      *
      * @param variable the given name of the variable
      * @param value the given value for the variable
      */
     public void setVariable(String variable, int value)
     {
-        vars.put(variable, value);
+        int slot = symbols.slotOf(variable);
+        if (slot >= values.length)
+        {
+            int[] grownValues = new int[Math.max(values.length * 2, slot + 1)];
+            System.arraycopy(values, 0, grownValues, 0, values.length);
+            long[] grownAssigned = new long[(grownValues.length + 63) >>> 6];
+            System.arraycopy(assigned, 0, grownAssigned, 0, assigned.length);
+            values = grownValues;
+            assigned = grownAssigned;
+        }
+        setSlot(slot, value);
     }
 
     /**
@@ -37,9 +116,141 @@ public class Environment
      *
      * @param variable the name of the variable being accessed
      * @return the value of the given variable
+     * @throws IllegalArgumentException if the variable has never been assigned
      */
     public int getVariable(String variable)
     {
-        return vars.get(variable);
+        int slot = symbols.lookup(variable);
+        if (slot < 0 || slot >= values.length)
+            throw new IllegalArgumentException("Undefined variable: " + variable);
+        return getSlot(slot);
+    }
+
+    /**
+     * Retrieves the SymbolTable which maps variable names to slots in this Environment
+     *
+     * @return the SymbolTable of this Environment
+     */
+    public SymbolTable getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Retrieves the Output which display statements write to. Output is buffered, so it
+     * must be flushed once the program has finished
+     *
+     * @return the Output of this Environment
+     */
+    public Output getOutput()
+    {
+        return output;
+    }
+
+    /**
+     * Retrieves the Input which read statements take their values from
+     *
+     * @return the Input of this Environment
+     */
+    public Input getInput()
+    {
+        return input;
+    }
+
+    /**
+     * Retrieves the LoopCompiler which compiles hot While statements
+     *
+     * @return the LoopCompiler, or null if loops are always interpreted
+     */
+    public LoopCompiler getLoopCompiler()
+    {
+        return loopCompiler;
+    }
+
+    /**
+     * Sets the LoopCompiler which compiles hot While statements
+     *
+     * @param loopCompiler the LoopCompiler, or null to always interpret loops
+     */
+    public void setLoopCompiler(LoopCompiler loopCompiler)
+    {
+        this.loopCompiler = loopCompiler;
+    }
+
+    /**
+     * Adds to the number of Statements executed in this Environment. Backends count a whole
+     * block of Statements at once rather than one at a time
+     *
+     * @param count the number of Statements about to be executed
+     */
+    public void countStatements(int count)
+    {
+        statements += count;
+    }
+
+    /**
+     * Adds to the number of While loop iterations executed in this Environment. Loops count
+     * their iterations locally and add them once they finish
+     *
+     * @param count the number of iterations
+     */
+    public void countIterations(long count)
+    {
+        iterations += count;
+    }
+
+    /**
+     * Retrieves the number of Statements executed in this Environment
+     *
+     * @return the statement count
+     */
+    public long getStatementCount()
+    {
+        return statements;
+    }
+
+    /**
+     * Retrieves the number of While loop iterations executed in this Environment
+     *
+     * @return the iteration count
+     */
+    public long getIterationCount()
+    {
+        return iterations;
+    }
+
+    /**
+     * Retrieves the number of values read since this Environment was created, since its
+     * Input may be shared with earlier runs
+     *
+     * @return the read count
+     */
+    public long getReadCount()
+    {
+        return input.getReadCount() - firstRead;
+    }
+
+    /**
+     * Retrieves the number of values displayed since this Environment was created, since
+     * its Output may be shared with earlier runs
+     *
+     * @return the display count
+     */
+    public long getDisplayCount()
+    {
+        return output.getDisplayCount() - firstDisplay;
+    }
+
+    /**
+     * Retrieves the array which holds the value of every slot, so that compiled code can
+     * read and write variables without going through getSlot and setSlot. Writes made this
+     * way must be followed by setSlot the first time a slot is assigned, and the array is
+     * replaced if setVariable later adds a variable which does not fit
+     *
+     * @return the values of the slots
+     */
+    public int[] getValues()
+    {
+        return values;
     }
 }
@@ -0,0 +1,334 @@
+package environment;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Input is the source which read statements take their values from. It is created once for
+ * a run and reads numbers separated by whitespace from a channel through a reusable byte
+ * buffer, so no values are lost between reads. It can also hand out the values of an int
+ * array, for programs which are run from other Java code, or the values of a queue which
+ * another thread fills while the program runs
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Input
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private ReadableByteChannel channel;
+    private boolean closeChannel;
+    private ByteBuffer buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private int[] values;
+    private int next;
+    private int count;
+    private boolean queued;
+    private boolean ended;
+    private boolean prompting;
+    private long reads;
+
+    /**
+     * Creates an Input which reads numbers from a given channel
+     *
+     * @param channel the channel the numbers are read from
+     * @param prompting whether read statements should prompt for their values
+     */
+    public Input(ReadableByteChannel channel, boolean prompting)
+    {
+        this.channel = channel;
+        this.prompting = prompting;
+        closeChannel = true;
+        buf = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * Creates an Input which hands out the values of an array in order, without prompting
+     * for them
+     *
+     * @param values the values to be read
+     */
+    public Input(int[] values)
+    {
+        this.values = values;
+        count = values.length;
+        eof = true;
+    }
+
+    /**
+     * Creates an Input whose values are added with offer while the program runs. A read
+     * waits until a value has been offered, or fails once end has been called and every
+     * value has been read
+     *
+     * @return the empty Input
+     */
+    public static Input queue()
+    {
+        Input in = new Input(new int[16]);
+        in.count = 0;
+        in.queued = true;
+        return in;
+    }
+
+    /**
+     * Creates an Input which reads numbers from System.in and prompts for each of them
+     *
+     * @return the Input for standard input
+     */
+    public static Input fromStandardIn()
+    {
+        Input in = new Input(Channels.newChannel(System.in), true);
+        in.closeChannel = false;
+        return in;
+    }
+
+    /**
+     * Creates an Input which reads numbers from a file without prompting for them
+     *
+     * @param path the path of the file
+     * @return the Input for the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static Input fromFile(Path path) throws IOException
+    {
+        return new Input(FileChannel.open(path, StandardOpenOption.READ), false);
+    }
+
+    /**
+     * Checks whether read statements should prompt for their values
+     *
+     * @return true if a prompt is displayed before each read; Otherwise,
+     *         false
+     */
+    public boolean isPrompting()
+    {
+        return prompting;
+    }
+
+    /**
+     * Sets whether read statements should prompt for their values
+     *
+     * @param prompting true to display a prompt before each read
+     */
+    public void setPrompting(boolean prompting)
+    {
+        this.prompting = prompting;
+    }
+
+    /**
+     * Reads the next number, which may be preceded by whitespace and a sign
+     *
+     * @return the number
+     * @throws NoSuchElementException if there are no more numbers
+     * @throws InputMismatchException if the next word is not a number which fits in an int
+     * @throws UncheckedIOException if the channel cannot be read
+     */
+    public int readInt()
+    {
+        reads++;
+        if (queued)
+            return take();
+        if (values != null)
+        {
+            if (next == count)
+                throw new NoSuchElementException("No more input");
+            return values[next++];
+        }
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n')
+        {
+            pos++;
+            c = peek();
+        }
+        if (c < 0)
+            throw new NoSuchElementException("No more input");
+        boolean negative = c == '-';
+        if (c == '-' || c == '+')
+        {
+            pos++;
+            c = peek();
+        }
+        if (c < '0' || c > '9')
+            throw mismatch(c);
+        long value = 0;
+        while (c >= '0' && c <= '9')
+        {
+            value = value * 10 + (c - '0');
+            if (value > (negative ? 1L << 31 : Integer.MAX_VALUE))
+                throw new InputMismatchException("Number too large");
+            pos++;
+            c = peek();
+        }
+        if (c >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n')
+            throw mismatch(c);
+        return (int)(negative ? -value : value);
+    }
+
+    /**
+     * Adds a value to the end of a queue made by the queue method
+     *
+     * @param value the value for a later read
+     * @throws IllegalStateException if this Input is not a queue, or end has been called
+     */
+    public synchronized void offer(int value)
+    {
+        if (!queued || ended)
+            throw new IllegalStateException("Input does not accept more values");
+        if (count == values.length)
+            values = Arrays.copyOf(values, count * 2);
+        values[count++] = value;
+        notifyAll();
+    }
+
+    /**
+     * Marks the end of a queue made by the queue method, so reads past the last value fail
+     * instead of waiting
+     */
+    public synchronized void end()
+    {
+        ended = true;
+        notifyAll();
+    }
+
+    /**
+     * Checks whether the next read can finish without waiting for another thread. Only a
+     * queue which is empty and not yet ended can keep a read waiting
+     *
+     * @return true if a read would return a value or fail at once; Otherwise,
+     *         false
+     */
+    public boolean isReady()
+    {
+        if (!queued)
+            return true;
+        synchronized (this)
+        {
+            return next < count || ended;
+        }
+    }
+
+    /**
+     * Retrieves the number of values requested so far
+     *
+     * @return the read count
+     */
+    public long getReadCount()
+    {
+        return reads;
+    }
+
+    /**
+     * Closes the channel the numbers are read from, unless it is System.in
+     *
+     * @throws UncheckedIOException if the channel cannot be closed
+     */
+    public void close()
+    {
+        if (!closeChannel)
+            return;
+        try
+        {
+            channel.close();
+        }
+        catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    /**
+     * Takes the next value of a queue, waiting until one is offered
+     *
+     * @return the value
+     * @throws NoSuchElementException if the queue has ended and every value has been read
+     */
+    private synchronized int take()
+    {
+        boolean interrupted = false;
+        while (next == count && !ended)
+        {
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException err)
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        if (next == count)
+            throw new NoSuchElementException("No more input");
+        return values[next++];
+    }
+
+    /**
+     * Creates the exception reporting a character which cannot be part of a number
+     *
+     * @param c the character, or -1 at the end of the input
+     * @return the exception
+     */
+    private static InputMismatchException mismatch(int c)
+    {
+        return new InputMismatchException("Expected a number but found: "
+                + (c < 0 ? "end of input" : String.valueOf((char)c)));
+    }
+
+    /**
+     * Retrieves the byte at the current position without consuming it, reading more of the
+     * channel if necessary
+     *
+     * @return the current byte, or -1 at the end of the input
+     * @throws UncheckedIOException if the channel cannot be read
+     */
+    private int peek()
+    {
+        if (pos < limit || fill())
+            return buf.get(pos) & 0xFF;
+        return -1;
+    }
+
+    /**
+     * Replaces the contents of the buffer with the next bytes of the channel. A number which
+     * is cut off by the end of the buffer is never lost, because the value being parsed is
+     * kept in readInt rather than in the buffer
+     *
+     * @return true if at least one byte was read; Otherwise,
+     *         false
+     * @throws UncheckedIOException if the channel cannot be read
+     */
+    private boolean fill()
+    {
+        if (eof)
+            return false;
+        try
+        {
+            buf.clear();
+            int count = channel.read(buf);
+            pos = 0;
+            limit = Math.max(count, 0);
+            if (count <= 0)
+            {
+                eof = true;
+                return false;
+            }
+            return true;
+        }
+        catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+}
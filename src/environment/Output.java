@@ -0,0 +1,311 @@
+package environment;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Output is the sink which display statements write to. Numbers and booleans are formatted
+ * straight into a reusable byte buffer, which is written to a channel in batches according
+ * to a FlushPolicy instead of once per line. An Output can write to standard output, to a
+ * file, or to memory for programs which are run from other Java code
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Output
+{
+    /**
+     * FlushPolicy decides when buffered output is written to the channel
+     */
+    public enum FlushPolicy
+    {
+        /** writes whenever the buffer is full and before every read, so prompts are seen */
+        ON_READ,
+        /** writes only when the buffer is full or the Output is flushed */
+        ON_SIZE,
+        /** grows the buffer as needed and writes only when the Output is flushed */
+        ON_EXIT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] NEWLINE =
+            System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private WritableByteChannel channel;
+    private boolean closeChannel;
+    private ByteArrayOutputStream memory;
+    private FlushPolicy policy;
+    private byte[] buf;
+    private ByteBuffer view;
+    private int count;
+    private long displays;
+
+    /**
+     * Creates an Output which writes to a given channel
+     *
+     * @param channel the channel the output is written to
+     * @param policy when the buffered output is written to the channel
+     */
+    public Output(WritableByteChannel channel, FlushPolicy policy)
+    {
+        this.channel = channel;
+        this.policy = policy;
+        closeChannel = true;
+        buf = new byte[BUFFER_SIZE];
+        view = ByteBuffer.wrap(buf);
+    }
+
+    /**
+     * Creates an Output which writes to System.out, writing before every read so that
+     * interactive programs show their output and prompts in time
+     *
+     * @return the Output for standard output
+     */
+    public static Output toStandardOut()
+    {
+        return toStandardOut(FlushPolicy.ON_READ);
+    }
+
+    /**
+     * Creates an Output which writes to System.out. Closing the Output only flushes it, so
+     * System.out stays open
+     *
+     * @param policy when the buffered output is written to System.out
+     * @return the Output for standard output
+     */
+    public static Output toStandardOut(FlushPolicy policy)
+    {
+        Output out = new Output(Channels.newChannel(System.out), policy);
+        out.closeChannel = false;
+        return out;
+    }
+
+    /**
+     * Creates an Output which writes to a file, replacing its contents
+     *
+     * @param path the path of the file
+     * @param policy when the buffered output is written to the file
+     * @return the Output for the file
+     * @throws IOException if the file cannot be opened for writing
+     */
+    public static Output toFile(Path path, FlushPolicy policy) throws IOException
+    {
+        return new Output(FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), policy);
+    }
+
+    /**
+     * Creates an Output which collects everything written to it in memory, where it can be
+     * retrieved with getText
+     *
+     * @return the Output collecting text in memory
+     */
+    public static Output toMemory()
+    {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        Output out = new Output(Channels.newChannel(memory), FlushPolicy.ON_EXIT);
+        out.memory = memory;
+        return out;
+    }
+
+    /**
+     * Displays a number on its own line
+     *
+     * @param value the number being displayed
+     */
+    public void printInt(int value)
+    {
+        displays++;
+        ensure(11 + NEWLINE.length);
+        int end = count + stringSize(value);
+        int pos = end;
+        int v = value < 0 ? value : -value;
+        do
+        {
+            buf[--pos] = (byte)('0' - v % 10);
+            v /= 10;
+        }
+        while (v != 0);
+        if (value < 0)
+            buf[--pos] = '-';
+        count = end;
+        newline();
+    }
+
+    /**
+     * Displays a boolean as true or false on its own line
+     *
+     * @param value the boolean being displayed
+     */
+    public void printBoolean(boolean value)
+    {
+        displays++;
+        byte[] text = value ? TRUE : FALSE;
+        ensure(text.length + NEWLINE.length);
+        System.arraycopy(text, 0, buf, count, text.length);
+        count += text.length;
+        newline();
+    }
+
+    /**
+     * Displays a line of text, such as the prompt for a read
+     *
+     * @param text the text being displayed
+     */
+    public void printLine(String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(bytes.length + NEWLINE.length);
+        if (bytes.length + NEWLINE.length > buf.length - count)
+            write(ByteBuffer.wrap(bytes));
+        else
+        {
+            System.arraycopy(bytes, 0, buf, count, bytes.length);
+            count += bytes.length;
+        }
+        newline();
+    }
+
+    /**
+     * Prepares for a read of user input by writing the buffered output when the policy
+     * is ON_READ
+     */
+    public void beforeRead()
+    {
+        if (policy == FlushPolicy.ON_READ)
+            flush();
+    }
+
+    /**
+     * Writes all of the buffered output to the channel
+     *
+     * @throws UncheckedIOException if the channel cannot be written to
+     */
+    public void flush()
+    {
+        if (count > 0)
+        {
+            view.clear().limit(count);
+            count = 0;
+            write(view);
+        }
+    }
+
+    /**
+     * Flushes the Output and closes its channel, unless it writes to System.out
+     *
+     * @throws UncheckedIOException if the channel cannot be written to or closed
+     */
+    public void close()
+    {
+        flush();
+        if (closeChannel)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException err)
+            {
+                throw new UncheckedIOException(err);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of numbers and booleans displayed, not counting prompts
+     *
+     * @return the display count
+     */
+    public long getDisplayCount()
+    {
+        return displays;
+    }
+
+    /**
+     * Retrieves everything written to an Output created by toMemory, flushing it first
+     *
+     * @return the text written so far
+     * @throws IllegalStateException if the Output does not write to memory
+     */
+    public String getText()
+    {
+        if (memory == null)
+            throw new IllegalStateException("Output does not write to memory");
+        flush();
+        return new String(memory.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a line separator to the buffer
+     */
+    private void newline()
+    {
+        for (byte b: NEWLINE)
+            buf[count++] = b;
+    }
+
+    /**
+     * Makes room for a given number of bytes in the buffer, by writing the buffered output
+     * or, when the policy is ON_EXIT, by growing the buffer
+     *
+     * @param needed the number of bytes about to be added
+     */
+    private void ensure(int needed)
+    {
+        if (count + needed <= buf.length)
+            return;
+        if (policy == FlushPolicy.ON_EXIT)
+        {
+            byte[] bigger = new byte[Math.max(buf.length * 2, count + needed)];
+            System.arraycopy(buf, 0, bigger, 0, count);
+            buf = bigger;
+            view = ByteBuffer.wrap(buf);
+        }
+        else
+            flush();
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to the channel
+     *
+     * @param bytes the bytes being written
+     * @throws UncheckedIOException if the channel cannot be written to
+     */
+    private void write(ByteBuffer bytes)
+    {
+        try
+        {
+            while (bytes.hasRemaining())
+                channel.write(bytes);
+        }
+        catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    /**
+     * Computes the number of characters needed to write a number
+     *
+     * @param value the number
+     * @return the number of digits, plus one for the sign of a negative number
+     */
+    private static int stringSize(int value)
+    {
+        int digits = 1;
+        int v = value < 0 ? value : -value;
+        for (int limit = -10; digits < 10 && v <= limit; limit *= 10)
+            digits++;
+        return value < 0 ? digits + 1 : digits;
+    }
+}
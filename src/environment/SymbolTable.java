@@ -0,0 +1,80 @@
+package environment;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The SymbolTable class assigns each distinct variable name in a program a fixed slot
+ * number so that variables can be stored in and accessed from an array instead of a map
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class SymbolTable
+{
+    private HashMap<String, Integer> slots;
+    private List<String> names;
+
+    /**
+     * Creates a new SymbolTable with no variables
+     */
+    public SymbolTable()
+    {
+        slots = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    /**
+     * Retrieves the slot of a variable with a given name, assigning it the next free
+     * slot if the name has not been seen before
+     *
+     * @param name the name of the variable
+     * @return the slot number of the variable
+     */
+    public int slotOf(String name)
+    {
+        Integer slot = slots.get(name);
+        if (slot == null)
+        {
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+        }
+        return slot;
+    }
+
+    /**
+     * Retrieves the slot of a variable with a given name without assigning a new one
+     *
+     * @param name the name of the variable
+     * @return the slot number of the variable, or -1 if the name has no slot
+     */
+    public int lookup(String name)
+    {
+        Integer slot = slots.get(name);
+        if (slot == null)
+            return -1;
+        return slot;
+    }
+
+    /**
+     * Retrieves the name of the variable stored in a given slot
+     *
+     * @param slot the slot number of the variable
+     * @return the name of the variable
+     */
+    public String nameOf(int slot)
+    {
+        return names.get(slot);
+    }
+
+    /**
+     * Retrieves the number of slots assigned so far
+     *
+     * @return the number of distinct variables in the table
+     */
+    public int size()
+    {
+        return names.size();
+    }
+}
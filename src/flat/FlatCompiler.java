@@ -0,0 +1,239 @@
+package flat;
+import ast.*;
+import ast.Number;
+import environment.SymbolTable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FlatCompiler lays a Program out as a FlatProgram. Nodes are added to the arrays in prefix
+ * order, so every node is stored before its children, and the arrays grow by doubling and
+ * are trimmed to their final size once the whole Program has been added. A BooleanExp
+ * without comparisons is only a parenthesized Expression and is replaced by it.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class FlatCompiler
+{
+    private static final int INITIAL_SIZE = 64;
+
+    private SymbolTable symbols;
+    private int[] kinds;
+    private int[] first;
+    private int[] second;
+    private int[] third;
+    private int nodes;
+    private int[] runs;
+    private int runLength;
+
+    /**
+     * Lays a Program out as a FlatProgram
+     *
+     * @param prog the Program, which need not have been resolved
+     * @param symbols the SymbolTable which gives each variable its slot, and which every
+     *                Environment the FlatProgram runs in must use
+     * @return the FlatProgram
+     */
+    public FlatProgram compile(Program prog, SymbolTable symbols)
+    {
+        this.symbols = symbols;
+        kinds = new int[INITIAL_SIZE];
+        first = new int[INITIAL_SIZE];
+        second = new int[INITIAL_SIZE];
+        third = new int[INITIAL_SIZE];
+        nodes = 0;
+        runs = new int[INITIAL_SIZE];
+        runLength = 0;
+        int root = add(prog);
+        return new FlatProgram(Arrays.copyOf(kinds, nodes), Arrays.copyOf(first, nodes),
+                Arrays.copyOf(second, nodes), Arrays.copyOf(third, nodes),
+                Arrays.copyOf(runs, runLength), root, symbols);
+    }
+
+    /**
+     * Adds a Statement and everything beneath it
+     *
+     * @param stmt the Statement
+     * @return the node of the Statement
+     */
+    private int add(Statement stmt)
+    {
+        if (stmt instanceof Program)
+        {
+            List<Statement> stmts = ((Program) stmt).getStatements();
+            int node = node(FlatProgram.PROGRAM);
+            int[] children = new int[stmts.size()];
+            for (int i = 0; i < children.length; i++)
+                children[i] = add(stmts.get(i));
+            return set(node, run(children), children.length, 0);
+        }
+        if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            int node = node(FlatProgram.ASSIGNMENT);
+            return set(node, symbols.slotOf(assign.getVar()), add(assign.getExp()), 0);
+        }
+        if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            int node = node(FlatProgram.DISPLAY);
+            int exp = add(display.getExpression());
+            int read = display.getRead() == null ? -1 : add(display.getRead());
+            return set(node, exp, read, 0);
+        }
+        if (stmt instanceof Read)
+        {
+            int node = node(FlatProgram.READ);
+            return set(node, symbols.slotOf(((Read) stmt).getVar()), 0, 0);
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            int node = node(FlatProgram.IF);
+            int cond = add(ifStmt.getCondition());
+            int then = add(ifStmt.getThen());
+            int otherwise = ifStmt.getElse() == null ? -1 : add(ifStmt.getElse());
+            return set(node, cond, then, otherwise);
+        }
+        While loop = (While) stmt;
+        int node = node(FlatProgram.WHILE);
+        int cond = add(loop.getCondition());
+        return set(node, cond, add(loop.getProgram()), 0);
+    }
+
+    /**
+     * Adds an Expression and everything beneath it
+     *
+     * @param exp the Expression
+     * @return the node of the Expression
+     */
+    private int add(Expression exp)
+    {
+        if (exp instanceof Number)
+        {
+            return set(node(FlatProgram.NUMBER), ((Number) exp).getValue(), 0, 0);
+        }
+        if (exp instanceof Variable)
+        {
+            return set(node(FlatProgram.VARIABLE), symbols.slotOf(((Variable) exp).getName()),
+                    0, 0);
+        }
+        if (exp instanceof BinaryOperator)
+        {
+            BinaryOperator bin = (BinaryOperator) exp;
+            int kind = FlatProgram.DIV;
+            if (bin instanceof Add)
+                kind = FlatProgram.ADD;
+            else if (bin instanceof Sub)
+                kind = FlatProgram.SUB;
+            else if (bin instanceof Mul)
+                kind = FlatProgram.MUL;
+            int node = node(kind);
+            int left = add(bin.getExp1());
+            return set(node, left, add(bin.getExp2()), 0);
+        }
+        if (exp instanceof Neg)
+        {
+            int node = node(FlatProgram.NEG);
+            return set(node, add(((Neg) exp).getExp()), 0, 0);
+        }
+        if (exp instanceof ShiftLeft)
+        {
+            int node = node(FlatProgram.SHIFT_LEFT);
+            return set(node, add(((ShiftLeft) exp).getExp()), ((ShiftLeft) exp).getBits(), 0);
+        }
+        if (exp instanceof ShiftDivide)
+        {
+            int node = node(FlatProgram.SHIFT_DIVIDE);
+            return set(node, add(((ShiftDivide) exp).getExp()), ((ShiftDivide) exp).getBits(),
+                    0);
+        }
+        BooleanExp bool = (BooleanExp) exp;
+        List<Relop> relops = bool.getRelops();
+        if (relops.isEmpty())
+            return add(bool.getExp());
+        int node = node(FlatProgram.BOOLEAN);
+        int left = add(bool.getExp());
+        int[] children = new int[relops.size()];
+        for (int i = 0; i < children.length; i++)
+            children[i] = add(relops.get(i));
+        return set(node, left, run(children), children.length);
+    }
+
+    /**
+     * Adds a comparison and the Expression on its right
+     *
+     * @param relop the comparison
+     * @return the node of the comparison
+     */
+    private int add(Relop relop)
+    {
+        int kind = FlatProgram.NE;
+        if (relop instanceof Lt)
+            kind = FlatProgram.LT;
+        else if (relop instanceof Gt)
+            kind = FlatProgram.GT;
+        else if (relop instanceof Le)
+            kind = FlatProgram.LE;
+        else if (relop instanceof Ge)
+            kind = FlatProgram.GE;
+        else if (relop instanceof Eq)
+            kind = FlatProgram.EQ;
+        int node = node(kind);
+        return set(node, add(relop.getExp()), 0, 0);
+    }
+
+    /**
+     * Adds a node of a given kind, whose operands are set once its children have been added
+     *
+     * @param kind the kind of the node
+     * @return the node
+     */
+    private int node(int kind)
+    {
+        if (nodes == kinds.length)
+        {
+            kinds = Arrays.copyOf(kinds, nodes * 2);
+            first = Arrays.copyOf(first, nodes * 2);
+            second = Arrays.copyOf(second, nodes * 2);
+            third = Arrays.copyOf(third, nodes * 2);
+        }
+        kinds[nodes] = kind;
+        return nodes++;
+    }
+
+    /**
+     * Sets the operands of a node. They are only set once the children of the node have been
+     * added, since adding a child may replace the arrays with larger ones
+     *
+     * @param node the node
+     * @param a the first operand
+     * @param b the second operand
+     * @param c the third operand
+     * @return the node
+     */
+    private int set(int node, int a, int b, int c)
+    {
+        first[node] = a;
+        second[node] = b;
+        third[node] = c;
+        return node;
+    }
+
+    /**
+     * Adds a run of nodes, such as the Statements of a Program
+     *
+     * @param children the nodes
+     * @return the index of the first node of the run
+     */
+    private int run(int[] children)
+    {
+        if (runLength + children.length > runs.length)
+            runs = Arrays.copyOf(runs, Math.max(runs.length * 2, runLength + children.length));
+        System.arraycopy(children, 0, runs, runLength, children.length);
+        int start = runLength;
+        runLength += children.length;
+        return start;
+    }
+}
@@ -0,0 +1,184 @@
+package flat;
+import ast.Read;
+import environment.Environment;
+
+/**
+ * FlatInterpreter executes a FlatProgram by walking its nodes the way the AST executes
+ * itself, with a switch on the kind of each node in place of a virtual call. It counts
+ * Statements and loop iterations, reports undefined variables and divides exactly like the
+ * AST, so a run produces the same output and metrics with either of them. A FlatInterpreter
+ * keeps the arrays of the FlatProgram it is running, so each thread needs its own.
+ *
+ * Usage:
+ * FlatProgram flat = new FlatCompiler().compile(prog, symbols);
+ * new FlatInterpreter().execute(flat, new Environment(symbols, output, input));
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class FlatInterpreter
+{
+    private int[] kinds;
+    private int[] first;
+    private int[] second;
+    private int[] third;
+    private int[] runs;
+    private Environment env;
+
+    /**
+     * Executes a FlatProgram
+     *
+     * @param prog the FlatProgram
+     * @param env the Environment in which variables are stored
+     * @throws IllegalArgumentException if the Environment has no room for every slot
+     */
+    public void execute(FlatProgram prog, Environment env)
+    {
+        if (env.getValues().length < prog.symbols.size())
+            throw new IllegalArgumentException("Environment was created before compilation");
+        kinds = prog.kinds;
+        first = prog.first;
+        second = prog.second;
+        third = prog.third;
+        runs = prog.runs;
+        this.env = env;
+        exec(prog.root);
+    }
+
+    /**
+     * Executes a Statement node
+     *
+     * @param node the node
+     */
+    private void exec(int node)
+    {
+        switch (kinds[node])
+        {
+            case FlatProgram.PROGRAM:
+            {
+                int start = first[node];
+                int end = start + second[node];
+                env.countStatements(second[node]);
+                for (int i = start; i < end; i++)
+                    exec(runs[i]);
+                break;
+            }
+            case FlatProgram.ASSIGNMENT:
+                env.setSlot(first[node], eval(second[node]));
+                break;
+            case FlatProgram.DISPLAY:
+            {
+                int exp = first[node];
+                if (kinds[exp] == FlatProgram.BOOLEAN)
+                    env.getOutput().printBoolean(test(exp));
+                else
+                    env.getOutput().printInt(eval(exp));
+                if (second[node] >= 0)
+                    exec(second[node]);
+                break;
+            }
+            case FlatProgram.READ:
+            {
+                int slot = first[node];
+                env.setSlot(slot, Read.input(env, env.getSymbols().nameOf(slot)));
+                break;
+            }
+            case FlatProgram.IF:
+                if (test(first[node]))
+                    exec(second[node]);
+                else if (third[node] >= 0)
+                    exec(third[node]);
+                break;
+            case FlatProgram.WHILE:
+            {
+                int cond = first[node];
+                int body = second[node];
+                long iterations = 0;
+                while (test(cond))
+                {
+                    exec(body);
+                    iterations++;
+                }
+                env.countIterations(iterations);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Not a statement: " + kinds[node]);
+        }
+    }
+
+    /**
+     * Evaluates an Expression node
+     *
+     * @param node the node
+     * @return the value of the Expression, which is 1 or 0 for a comparison
+     */
+    private int eval(int node)
+    {
+        switch (kinds[node])
+        {
+            case FlatProgram.NUMBER:
+                return first[node];
+            case FlatProgram.VARIABLE:
+                return env.getSlot(first[node]);
+            case FlatProgram.ADD:
+                return eval(first[node]) + eval(second[node]);
+            case FlatProgram.SUB:
+                return eval(first[node]) - eval(second[node]);
+            case FlatProgram.MUL:
+                return eval(first[node]) * eval(second[node]);
+            case FlatProgram.DIV:
+                return eval(first[node]) / eval(second[node]);
+            case FlatProgram.NEG:
+                return -eval(first[node]);
+            case FlatProgram.SHIFT_LEFT:
+                return eval(first[node]) << second[node];
+            case FlatProgram.SHIFT_DIVIDE:
+            {
+                int val = eval(first[node]);
+                int bits = second[node];
+                return (val + ((val >> 31) >>> (32 - bits))) >> bits;
+            }
+            case FlatProgram.BOOLEAN:
+                return test(node) ? 1 : 0;
+            default:
+                throw new IllegalStateException("Not an expression: " + kinds[node]);
+        }
+    }
+
+    /**
+     * Evaluates an Expression node as the condition of an If or While statement. The left
+     * side of a BooleanExp is evaluated only once and the comparisons stop at the first one
+     * which does not hold
+     *
+     * @param node the node
+     * @return true if the condition holds; Otherwise,
+     *         false
+     */
+    private boolean test(int node)
+    {
+        if (kinds[node] != FlatProgram.BOOLEAN)
+            return eval(node) != 0;
+        int left = eval(first[node]);
+        int start = second[node];
+        int end = start + third[node];
+        for (int i = start; i < end; i++)
+        {
+            int relop = runs[i];
+            int right = eval(first[relop]);
+            boolean holds;
+            switch (kinds[relop])
+            {
+                case FlatProgram.LT: holds = left < right; break;
+                case FlatProgram.GT: holds = left > right; break;
+                case FlatProgram.LE: holds = left <= right; break;
+                case FlatProgram.GE: holds = left >= right; break;
+                case FlatProgram.EQ: holds = left == right; break;
+                default: holds = left != right; break;
+            }
+            if (!holds)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+package flat;
+import environment.SymbolTable;
+
+/**
+ * FlatProgram is a Program stored as a struct of arrays instead of a tree of node objects.
+ * A node is an index into four parallel int arrays, which hold its kind and up to three
+ * operands: the indices of its children, a slot, a constant, or a count. The Statements of
+ * a Program and the comparisons of a BooleanExp are stored as runs of node indices in one
+ * more array. Variables are referred to by their slot in a SymbolTable, which interns every
+ * name once. However large a program is, it is only five arrays, which the garbage
+ * collector scans without following a single reference, and a node is always stored before
+ * its children so a walk reads the arrays mostly forwards.
+ *
+ * The kinds and their operands are:
+ * PROGRAM: start of its run of Statements, count
+ * ASSIGNMENT: slot, Expression
+ * DISPLAY: Expression, READ node or -1
+ * READ: slot
+ * IF: condition, then branch, else branch or -1
+ * WHILE: condition, body
+ * NUMBER: value
+ * VARIABLE: slot
+ * ADD, SUB, MUL, DIV: left Expression, right Expression
+ * NEG: Expression
+ * SHIFT_LEFT, SHIFT_DIVIDE: Expression, bits
+ * BOOLEAN: Expression on the left, start of its run of comparisons, count
+ * LT, GT, LE, GE, EQ, NE: Expression on the right
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class FlatProgram
+{
+    /** a Program */
+    public static final int PROGRAM = 0;
+    /** an Assignment */
+    public static final int ASSIGNMENT = 1;
+    /** a Display */
+    public static final int DISPLAY = 2;
+    /** a Read */
+    public static final int READ = 3;
+    /** an If */
+    public static final int IF = 4;
+    /** a While */
+    public static final int WHILE = 5;
+    /** a Number */
+    public static final int NUMBER = 6;
+    /** a Variable */
+    public static final int VARIABLE = 7;
+    /** an Add */
+    public static final int ADD = 8;
+    /** a Sub */
+    public static final int SUB = 9;
+    /** a Mul */
+    public static final int MUL = 10;
+    /** a Div */
+    public static final int DIV = 11;
+    /** a Neg */
+    public static final int NEG = 12;
+    /** a ShiftLeft */
+    public static final int SHIFT_LEFT = 13;
+    /** a ShiftDivide */
+    public static final int SHIFT_DIVIDE = 14;
+    /** a BooleanExp with at least one comparison */
+    public static final int BOOLEAN = 15;
+    /** an Lt Relop */
+    public static final int LT = 16;
+    /** a Gt Relop */
+    public static final int GT = 17;
+    /** an Le Relop */
+    public static final int LE = 18;
+    /** a Ge Relop */
+    public static final int GE = 19;
+    /** an Eq Relop */
+    public static final int EQ = 20;
+    /** an Ne Relop */
+    public static final int NE = 21;
+
+    final int[] kinds;
+    final int[] first;
+    final int[] second;
+    final int[] third;
+    final int[] runs;
+    final int root;
+    final SymbolTable symbols;
+
+    /**
+     * Creates a FlatProgram from its arrays, which are trimmed to the number of nodes
+     *
+     * @param kinds the kind of every node
+     * @param first the first operand of every node
+     * @param second the second operand of every node
+     * @param third the third operand of every node
+     * @param runs the runs of Statements and comparisons
+     * @param root the node of the whole Program
+     * @param symbols the SymbolTable which holds the names of the slots
+     */
+    FlatProgram(int[] kinds, int[] first, int[] second, int[] third, int[] runs, int root,
+                SymbolTable symbols)
+    {
+        this.kinds = kinds;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.runs = runs;
+        this.root = root;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Retrieves the number of nodes in the FlatProgram
+     *
+     * @return the node count
+     */
+    public int getNodeCount()
+    {
+        return kinds.length;
+    }
+
+    /**
+     * Retrieves the number of bytes the nodes and runs of the FlatProgram take up, not
+     * counting the SymbolTable
+     *
+     * @return the size of the arrays in bytes
+     */
+    public long getSize()
+    {
+        return 4L * (4L * kinds.length + runs.length);
+    }
+
+    /**
+     * Retrieves the SymbolTable which holds the names of the slots the FlatProgram uses
+     *
+     * @return the SymbolTable
+     */
+    public SymbolTable getSymbols()
+    {
+        return symbols;
+    }
+}
@@ -0,0 +1,102 @@
+package jvm;
+import java.util.Arrays;
+
+/**
+ * ByteVector is a growable array of bytes in the big-endian layout used by class files,
+ * which also allows bytes already written to be patched later
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ByteVector
+{
+    private byte[] data;
+    private int size;
+
+    /**
+     * Creates an empty ByteVector
+     */
+    public ByteVector()
+    {
+        data = new byte[64];
+    }
+
+    /**
+     * Appends one byte
+     *
+     * @param b the byte being appended, of which only the low 8 bits are used
+     */
+    public void u1(int b)
+    {
+        if (size == data.length)
+            data = Arrays.copyOf(data, size * 2);
+        data[size++] = (byte) b;
+    }
+
+    /**
+     * Appends two bytes
+     *
+     * @param s the value being appended, of which only the low 16 bits are used
+     */
+    public void u2(int s)
+    {
+        u1(s >>> 8);
+        u1(s);
+    }
+
+    /**
+     * Appends four bytes
+     *
+     * @param i the value being appended
+     */
+    public void u4(int i)
+    {
+        u2(i >>> 16);
+        u2(i);
+    }
+
+    /**
+     * Appends the contents of another ByteVector
+     *
+     * @param other the ByteVector being appended
+     */
+    public void append(ByteVector other)
+    {
+        for (int i = 0; i < other.size; i++)
+        {
+            u1(other.data[i]);
+        }
+    }
+
+    /**
+     * Overwrites two bytes which were already appended
+     *
+     * @param pos the position of the first byte
+     * @param s the value being written, of which only the low 16 bits are used
+     */
+    public void patch2(int pos, int s)
+    {
+        data[pos] = (byte) (s >>> 8);
+        data[pos + 1] = (byte) s;
+    }
+
+    /**
+     * Retrieves the number of bytes appended so far
+     *
+     * @return the size of the ByteVector
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Copies the appended bytes into a new array
+     *
+     * @return the contents of the ByteVector
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOf(data, size);
+    }
+}
@@ -0,0 +1,232 @@
+package jvm;
+import java.util.HashMap;
+
+/**
+ * ClassWriter builds the bytes of a minimal class file: a constant pool, a class which
+ * extends Object, and static methods with their code. It writes class file version 49,
+ * which the JVM verifies by type inference, so no stack map frames need to be computed
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ClassWriter
+{
+    private static final int VERSION = 49;
+
+    private ByteVector pool;
+    private int poolCount;
+    private HashMap<String, Integer> entries;
+    private ByteVector methods;
+    private int methodCount;
+
+    /**
+     * Creates an empty ClassWriter
+     */
+    public ClassWriter()
+    {
+        pool = new ByteVector();
+        poolCount = 1;
+        entries = new HashMap<>();
+        methods = new ByteVector();
+    }
+
+    /**
+     * Adds a UTF-8 string to the constant pool
+     *
+     * @param value the string, which must only contain ASCII characters
+     * @return the index of the entry
+     */
+    public int utf8(String value)
+    {
+        Integer index = entries.get("U" + value);
+        if (index != null)
+            return index;
+        pool.u1(1);
+        pool.u2(value.length());
+        for (int i = 0; i < value.length(); i++)
+        {
+            pool.u1(value.charAt(i));
+        }
+        return add("U" + value);
+    }
+
+    /**
+     * Adds a class reference to the constant pool
+     *
+     * @param internalName the name of the class with / between packages
+     * @return the index of the entry
+     */
+    public int classRef(String internalName)
+    {
+        Integer index = entries.get("C" + internalName);
+        if (index != null)
+            return index;
+        int name = utf8(internalName);
+        pool.u1(7);
+        pool.u2(name);
+        return add("C" + internalName);
+    }
+
+    /**
+     * Adds a string constant to the constant pool
+     *
+     * @param value the string, which must only contain ASCII characters
+     * @return the index of the entry
+     */
+    public int string(String value)
+    {
+        Integer index = entries.get("S" + value);
+        if (index != null)
+            return index;
+        int chars = utf8(value);
+        pool.u1(8);
+        pool.u2(chars);
+        return add("S" + value);
+    }
+
+    /**
+     * Adds an int constant to the constant pool
+     *
+     * @param value the int
+     * @return the index of the entry
+     */
+    public int integer(int value)
+    {
+        Integer index = entries.get("I" + value);
+        if (index != null)
+            return index;
+        pool.u1(3);
+        pool.u4(value);
+        return add("I" + value);
+    }
+
+    /**
+     * Adds a field reference to the constant pool
+     *
+     * @param owner the internal name of the class declaring the field
+     * @param name the name of the field
+     * @param descriptor the type descriptor of the field
+     * @return the index of the entry
+     */
+    public int fieldRef(String owner, String name, String descriptor)
+    {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a method reference to the constant pool
+     *
+     * @param owner the internal name of the class declaring the method
+     * @param name the name of the method
+     * @param descriptor the type descriptor of the method
+     * @return the index of the entry
+     */
+    public int methodRef(String owner, String name, String descriptor)
+    {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a public static method with the given code
+     *
+     * @param name the name of the method
+     * @param descriptor the type descriptor of the method
+     * @param code the bytecode of the method
+     * @param maxStack the greatest height the operand stack reaches
+     * @param maxLocals the number of local variable slots used, including parameters
+     * @param handlers the exception table as start, end, handler, catch type quadruples
+     */
+    public void addMethod(String name, String descriptor, ByteVector code, int maxStack,
+                          int maxLocals, int[] handlers)
+    {
+        methods.u2(0x0001 | 0x0008);
+        methods.u2(utf8(name));
+        methods.u2(utf8(descriptor));
+        methods.u2(1);
+        methods.u2(utf8("Code"));
+        methods.u4(12 + code.size() + handlers.length * 2);
+        methods.u2(maxStack);
+        methods.u2(maxLocals);
+        methods.u4(code.size());
+        methods.append(code);
+        methods.u2(handlers.length / 4);
+        for (int h: handlers)
+        {
+            methods.u2(h);
+        }
+        methods.u2(0);
+        methodCount++;
+    }
+
+    /**
+     * Assembles the class file of a final class extending Object with the methods added
+     *
+     * @param internalName the name of the class with / between packages
+     * @return the bytes of the class file
+     */
+    public byte[] toByteArray(String internalName)
+    {
+        int thisClass = classRef(internalName);
+        int superClass = classRef("java/lang/Object");
+        ByteVector out = new ByteVector();
+        out.u4(0xCAFEBABE);
+        out.u2(0);
+        out.u2(VERSION);
+        out.u2(poolCount);
+        out.append(pool);
+        out.u2(0x0001 | 0x0010 | 0x0020);
+        out.u2(thisClass);
+        out.u2(superClass);
+        out.u2(0);
+        out.u2(0);
+        out.u2(methodCount);
+        out.append(methods);
+        out.u2(0);
+        return out.toByteArray();
+    }
+
+    /**
+     * Adds a field or method reference to the constant pool
+     *
+     * @param tag 9 for a field or 10 for a method
+     * @param owner the internal name of the declaring class
+     * @param name the name of the member
+     * @param descriptor the type descriptor of the member
+     * @return the index of the entry
+     */
+    private int memberRef(int tag, String owner, String name, String descriptor)
+    {
+        String key = "M" + tag + owner + "." + name + descriptor;
+        Integer index = entries.get(key);
+        if (index != null)
+            return index;
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descIndex = utf8(descriptor);
+        String natKey = "N" + name + descriptor;
+        Integer nat = entries.get(natKey);
+        if (nat == null)
+        {
+            pool.u1(12);
+            pool.u2(nameIndex);
+            pool.u2(descIndex);
+            nat = add(natKey);
+        }
+        pool.u1(tag);
+        pool.u2(ownerIndex);
+        pool.u2(nat);
+        return add(key);
+    }
+
+    /**
+     * Records the key of the constant pool entry just written
+     *
+     * @param key the key which identifies the entry
+     * @return the index of the entry
+     */
+    private int add(String key)
+    {
+        entries.put(key, poolCount);
+        return poolCount++;
+    }
+}
@@ -0,0 +1,381 @@
+package jvm;
+import environment.Environment;
+import environment.SymbolTable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import vm.Bytecode;
+import vm.Opcodes;
+
+/**
+ * JvmCompiler translates the register instructions of compiled Bytecode into JVM bytecode
+ * and loads it as a hidden class, so the Program runs as ordinary Java code which HotSpot
+ * can JIT compile. Every register which is not a constant becomes a JVM local: the locals
+ * are loaded from the Environment on entry and stored back to it when the code halts or
+ * throws. Constants are pushed inline.
+ *
+ * HotSpot never JIT compiles a method larger than 8000 bytes of bytecode, and such a method
+ * would run slower than the VirtualMachine, so larger Programs are not translated.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class JvmCompiler
+{
+    /** the largest method, in bytes of JVM code, which HotSpot will still JIT compile */
+    public static final int HUGE_METHOD_LIMIT = 8000;
+
+    private static final String ENV = "environment/Environment";
+    private static final String OUTPUT = "environment/Output";
+    private static final String RUN_DESC = "([ILenvironment/Environment;)V";
+
+    private ClassWriter cw;
+    private ByteVector out;
+    private HashMap<Integer, Integer> constants;
+    private int[] locals;
+    private int localCount;
+
+    /**
+     * Compiles Bytecode to a hidden class
+     *
+     * @param bytecode the Bytecode being translated
+     * @return the loaded JvmProgram, or null if the JVM code would be too large to be
+     *         JIT compiled
+     */
+    public JvmProgram compile(Bytecode bytecode)
+    {
+        byte[] bytes = translate(bytecode);
+        if (bytes == null)
+            return null;
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return new JvmProgram(lookup.findStatic(lookup.lookupClass(), "run",
+                    MethodType.methodType(void.class, int[].class, Environment.class)),
+                    bytecode.getSymbols().size());
+        }
+        catch (IllegalAccessException | NoSuchMethodException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Translates Bytecode to the bytes of a class file with a single static method
+     * run(int[] registers, Environment env)
+     *
+     * @param bytecode the Bytecode being translated
+     * @return the class file, or null if the run method would be larger than
+     *         HUGE_METHOD_LIMIT
+     */
+    public byte[] translate(Bytecode bytecode)
+    {
+        int[] code = bytecode.getCode();
+        SymbolTable symbols = bytecode.getSymbols();
+        cw = new ClassWriter();
+        out = new ByteVector();
+        constants = new HashMap<>();
+        int[] constSlots = bytecode.getConstSlots();
+        for (int i = 0; i < constSlots.length; i++)
+        {
+            constants.put(constSlots[i], bytecode.getConstValues()[i]);
+        }
+        locals = new int[symbols.size()];
+        localCount = 2;
+        int[] registers = new int[symbols.size()];
+        int registerCount = 0;
+        for (int pc = 0; pc < code.length; pc += 1 + Opcodes.operands(code[pc]))
+        {
+            int op = code[pc];
+            int count = Opcodes.operands(op);
+            if (Opcodes.isJump(op) || op == Opcodes.SHL || op == Opcodes.SDIV)
+                count--;
+            for (int i = 1; i <= count; i++)
+            {
+                int reg = code[pc + i];
+                if (locals[reg] == 0 && !constants.containsKey(reg))
+                {
+                    locals[reg] = localCount++;
+                    registers[registerCount++] = reg;
+                }
+            }
+        }
+        for (int i = 0; i < registerCount; i++)
+        {
+            out.u1(0x2a);
+            pushInt(registers[i]);
+            out.u1(0x2e);
+            local(0x36, registers[i]);
+        }
+        int start = out.size();
+        int[] jvmPc = new int[code.length + 1];
+        int[] branches = new int[code.length];
+        int[] targets = new int[code.length];
+        int branchCount = 0;
+        for (int pc = 0; pc < code.length; pc += 1 + Opcodes.operands(code[pc]))
+        {
+            jvmPc[pc] = out.size();
+            int op = code[pc];
+            switch (op)
+            {
+                case Opcodes.MOVE:
+                    push(code[pc + 2]);
+                    local(0x36, code[pc + 1]);
+                    break;
+                case Opcodes.ADD:
+                case Opcodes.SUB:
+                case Opcodes.MUL:
+                case Opcodes.DIV:
+                    push(code[pc + 2]);
+                    push(code[pc + 3]);
+                    out.u1(op == Opcodes.ADD ? 0x60 : op == Opcodes.SUB ? 0x64
+                            : op == Opcodes.MUL ? 0x68 : 0x6c);
+                    local(0x36, code[pc + 1]);
+                    break;
+                case Opcodes.NEG:
+                    push(code[pc + 2]);
+                    out.u1(0x74);
+                    local(0x36, code[pc + 1]);
+                    break;
+                case Opcodes.SHL:
+                    push(code[pc + 2]);
+                    pushInt(code[pc + 3]);
+                    out.u1(0x78);
+                    local(0x36, code[pc + 1]);
+                    break;
+                case Opcodes.SDIV:
+                    push(code[pc + 2]);
+                    out.u1(0x59);
+                    pushInt(31);
+                    out.u1(0x7a);
+                    pushInt(32 - code[pc + 3]);
+                    out.u1(0x7c);
+                    out.u1(0x60);
+                    pushInt(code[pc + 3]);
+                    out.u1(0x7a);
+                    local(0x36, code[pc + 1]);
+                    break;
+                case Opcodes.JUMP:
+                    branches[branchCount] = out.size();
+                    targets[branchCount++] = code[pc + 1];
+                    out.u1(0xa7);
+                    out.u2(0);
+                    break;
+                case Opcodes.JZ:
+                case Opcodes.JNZ:
+                    push(code[pc + 1]);
+                    branches[branchCount] = out.size();
+                    targets[branchCount++] = code[pc + 2];
+                    out.u1(op == Opcodes.JZ ? 0x99 : 0x9a);
+                    out.u2(0);
+                    break;
+                case Opcodes.JEQ:
+                case Opcodes.JNE:
+                case Opcodes.JLT:
+                case Opcodes.JLE:
+                case Opcodes.JGT:
+                case Opcodes.JGE:
+                    push(code[pc + 1]);
+                    push(code[pc + 2]);
+                    branches[branchCount] = out.size();
+                    targets[branchCount++] = code[pc + 3];
+                    out.u1(compareJump(op));
+                    out.u2(0);
+                    break;
+                case Opcodes.PRINT:
+                    getOutput();
+                    push(code[pc + 1]);
+                    out.u1(0xb6);
+                    out.u2(cw.methodRef(OUTPUT, "printInt", "(I)V"));
+                    break;
+                case Opcodes.PRINT_BOOL:
+                    getOutput();
+                    push(code[pc + 1]);
+                    out.u1(0x59);
+                    out.u1(0x74);
+                    out.u1(0x80);
+                    pushInt(31);
+                    out.u1(0x7c);
+                    out.u1(0xb6);
+                    out.u2(cw.methodRef(OUTPUT, "printBoolean", "(Z)V"));
+                    break;
+                case Opcodes.READ:
+                    out.u1(0x2b);
+                    ldc(cw.string(symbols.nameOf(code[pc + 1])));
+                    out.u1(0xb8);
+                    out.u2(cw.methodRef("ast/Read", "input",
+                            "(L" + ENV + ";Ljava/lang/String;)I"));
+                    local(0x36, code[pc + 1]);
+                    setSlot(code[pc + 1]);
+                    break;
+                case Opcodes.CHECK:
+                    out.u1(0x2b);
+                    pushInt(code[pc + 1]);
+                    out.u1(0xb6);
+                    out.u2(cw.methodRef(ENV, "getSlot", "(I)I"));
+                    out.u1(0x57);
+                    break;
+                case Opcodes.MARK:
+                    setSlot(code[pc + 1]);
+                    break;
+                case Opcodes.HALT:
+                    storeBack(registers, registerCount);
+                    out.u1(0xb1);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode at " + pc);
+            }
+        }
+        int end = out.size();
+        storeBack(registers, registerCount);
+        out.u1(0xbf);
+        for (int i = 0; i < branchCount; i++)
+        {
+            out.patch2(branches[i] + 1, jvmPc[targets[i]] - branches[i]);
+        }
+        if (out.size() > HUGE_METHOD_LIMIT)
+            return null;
+        cw.addMethod("run", RUN_DESC, out, 6, localCount, new int[] {start, end, end, 0});
+        return cw.toByteArray("jvm/CompiledProgram");
+    }
+
+    /**
+     * Retrieves the JVM branch which takes the same decision as a conditional jump of the
+     * VirtualMachine on two ints
+     *
+     * @param op one of JEQ, JNE, JLT, JLE, JGT, or JGE
+     * @return the matching if_icmp opcode
+     */
+    private static int compareJump(int op)
+    {
+        switch (op)
+        {
+            case Opcodes.JEQ: return 0x9f;
+            case Opcodes.JNE: return 0xa0;
+            case Opcodes.JLT: return 0xa1;
+            case Opcodes.JGE: return 0xa2;
+            case Opcodes.JGT: return 0xa3;
+            default: return 0xa4;
+        }
+    }
+
+    /**
+     * Emits code pushing the value of a register, which is its constant for constant
+     * registers and its local otherwise
+     *
+     * @param reg the register
+     */
+    private void push(int reg)
+    {
+        Integer value = constants.get(reg);
+        if (value != null)
+            pushInt(value);
+        else
+            local(0x15, reg);
+    }
+
+    /**
+     * Emits code pushing an int constant with the shortest instruction available
+     *
+     * @param value the constant
+     */
+    private void pushInt(int value)
+    {
+        if (value >= -1 && value <= 5)
+            out.u1(0x03 + value);
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+        {
+            out.u1(0x10);
+            out.u1(value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+        {
+            out.u1(0x11);
+            out.u2(value);
+        }
+        else
+            ldc(cw.integer(value));
+    }
+
+    /**
+     * Emits an ldc of a constant pool entry, using the wide form when needed
+     *
+     * @param index the index of the entry
+     */
+    private void ldc(int index)
+    {
+        if (index < 256)
+        {
+            out.u1(0x12);
+            out.u1(index);
+        }
+        else
+        {
+            out.u1(0x13);
+            out.u2(index);
+        }
+    }
+
+    /**
+     * Emits an iload or istore of the local holding a register
+     *
+     * @param op 0x15 for iload or 0x36 for istore
+     * @param reg the register
+     */
+    private void local(int op, int reg)
+    {
+        int index = locals[reg];
+        if (index < 256)
+        {
+            out.u1(op);
+            out.u1(index);
+        }
+        else
+        {
+            out.u1(0xc4);
+            out.u1(op);
+            out.u2(index);
+        }
+    }
+
+    /**
+     * Emits env.setSlot(reg, local) so the Environment records the variable as assigned
+     *
+     * @param reg the register of the variable
+     */
+    private void setSlot(int reg)
+    {
+        out.u1(0x2b);
+        pushInt(reg);
+        local(0x15, reg);
+        out.u1(0xb6);
+        out.u2(cw.methodRef(ENV, "setSlot", "(II)V"));
+    }
+
+    /**
+     * Emits env.getOutput() so the Output of the Environment is on the operand stack
+     */
+    private void getOutput()
+    {
+        out.u1(0x2b);
+        out.u1(0xb6);
+        out.u2(cw.methodRef(ENV, "getOutput", "()L" + OUTPUT + ";"));
+    }
+
+    /**
+     * Emits code storing every local back into the register array
+     *
+     * @param registers the registers held in locals
+     * @param count the number of registers
+     */
+    private void storeBack(int[] registers, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out.u1(0x2a);
+            pushInt(registers[i]);
+            local(0x15, registers[i]);
+            out.u1(0x4f);
+        }
+    }
+}
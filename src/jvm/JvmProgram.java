@@ -0,0 +1,55 @@
+package jvm;
+import environment.Environment;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * JvmProgram is a Program which has been compiled by the JvmCompiler into a hidden class.
+ * Executing it calls the static run method of that class, which HotSpot compiles to native
+ * code like any other Java method
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class JvmProgram
+{
+    private MethodHandle run;
+    private int registers;
+
+    /**
+     * Creates a JvmProgram around the run method of a hidden class
+     *
+     * @param run a handle to the static run(int[], Environment) method of the class
+     * @param registers the number of slots the Environment must have room for
+     */
+    public JvmProgram(MethodHandle run, int registers)
+    {
+        this.run = run;
+        this.registers = registers;
+    }
+
+    /**
+     * Executes the compiled Program. Variables are held in JVM locals while it runs and are
+     * written back to the Environment when it halts or throws
+     *
+     * @param env the Environment in which variables are stored
+     * @throws IllegalArgumentException if the Environment has no room for every register
+     */
+    public void execute(Environment env)
+    {
+        int[] values = env.getValues();
+        if (values.length < registers)
+            throw new IllegalArgumentException("Environment was created before compilation");
+        try
+        {
+            run.invokeExact(values, env);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable t)
+        {
+            throw new IllegalStateException(t);
+        }
+    }
+}
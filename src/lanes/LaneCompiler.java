@@ -0,0 +1,375 @@
+package lanes;
+import ast.*;
+import ast.Number;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * LaneCompiler compiles a resolved Program into functions which execute it in a fixed
+ * number of lanes at once. Every node gets its own result array, allocated once here, so
+ * evaluating an Expression is a loop over the lanes without any allocation, and the loops
+ * for addition, subtraction, multiplication, negation and shifts run over every lane
+ * without branches, which the JIT compiler can turn into vector instructions. Only the
+ * operations which can fail, division and reads of variables, look at the mask.
+ *
+ * Divergent control flow is handled with masks: an If runs its then branch in the lanes
+ * where the condition holds and its else branch in the others, and a While keeps running
+ * its body until the condition fails in every lane which entered it. A chained comparison
+ * only evaluates each further operand in the lanes where the comparisons so far have held,
+ * just as it stops early in a single run, so lanes fail exactly where they would alone.
+ *
+ * The compiled functions hold their result arrays, so they must only be used by one thread
+ * at a time
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LaneCompiler
+{
+    private final int width;
+
+    /**
+     * Creates a LaneCompiler for a given number of lanes
+     *
+     * @param width the number of lanes
+     */
+    public LaneCompiler(int width)
+    {
+        this.width = width;
+    }
+
+    /**
+     * Compiles a Statement
+     *
+     * @param stmt the Statement being compiled, already resolved
+     * @return the function executing the Statement in every lane
+     */
+    public LaneStatement compile(Statement stmt)
+    {
+        if (stmt instanceof Program)
+            return compileProgram(((Program) stmt).getStatements());
+        if (stmt instanceof Assignment)
+        {
+            int slot = ((Assignment) stmt).getSlot();
+            LaneExpression exp = compile(((Assignment) stmt).getExp());
+            return (env, mask) -> env.setSlot(slot, exp.eval(env, mask), mask);
+        }
+        if (stmt instanceof Display)
+            return compileDisplay((Display) stmt);
+        if (stmt instanceof Read)
+        {
+            int slot = ((Read) stmt).getSlot();
+            return (env, mask) -> env.readSlot(slot, mask);
+        }
+        if (stmt instanceof If)
+            return compileIf((If) stmt);
+        return compileWhile((While) stmt);
+    }
+
+    /**
+     * Compiles a list of Statements into a function executing them in order
+     *
+     * @param stmts the Statements being compiled
+     * @return the function executing the Statements
+     */
+    private LaneStatement compileProgram(List<Statement> stmts)
+    {
+        LaneStatement[] body = new LaneStatement[stmts.size()];
+        for (int i = 0; i < body.length; i++)
+            body[i] = compile(stmts.get(i));
+        return (env, mask) ->
+        {
+            for (LaneStatement s: body)
+                s.exec(env, mask);
+        };
+    }
+
+    /**
+     * Compiles a Display and the Read which follows it, if any
+     *
+     * @param display the Display being compiled
+     * @return the function executing the Display
+     */
+    private LaneStatement compileDisplay(Display display)
+    {
+        Expression exp = display.getExpression();
+        LaneStatement print;
+        if (exp.isBoolean())
+        {
+            LaneCondition cond = compileCondition(exp);
+            print = (env, mask) -> env.printBoolean(cond.test(env, mask), mask);
+        }
+        else
+        {
+            LaneExpression value = compile(exp);
+            print = (env, mask) -> env.printInt(value.eval(env, mask), mask);
+        }
+        if (display.getRead() == null)
+            return print;
+        LaneStatement read = compile(display.getRead());
+        return (env, mask) ->
+        {
+            print.exec(env, mask);
+            read.exec(env, mask);
+        };
+    }
+
+    /**
+     * Compiles an If statement, which runs each branch only in the lanes which take it and
+     * skips a branch which no lane takes
+     *
+     * @param ifStmt the If statement being compiled
+     * @return the function executing the If statement
+     */
+    private LaneStatement compileIf(If ifStmt)
+    {
+        LaneCondition cond = compileCondition(ifStmt.getCondition());
+        LaneStatement then = compile(ifStmt.getThen());
+        LaneStatement otherwise = ifStmt.getElse() == null ? null : compile(ifStmt.getElse());
+        boolean[] thenMask = new boolean[width];
+        boolean[] elseMask = new boolean[width];
+        return (env, mask) ->
+        {
+            boolean[] holds = cond.test(env, mask);
+            boolean anyThen = false;
+            boolean anyElse = false;
+            for (int i = 0; i < width; i++)
+            {
+                boolean running = mask[i] && env.isAlive(i);
+                thenMask[i] = running && holds[i];
+                elseMask[i] = running && !holds[i];
+                anyThen |= thenMask[i];
+                anyElse |= elseMask[i];
+            }
+            if (anyThen)
+                then.exec(env, thenMask);
+            if (anyElse && otherwise != null)
+                otherwise.exec(env, elseMask);
+        };
+    }
+
+    /**
+     * Compiles a While statement, which runs its body in the lanes where the condition
+     * still holds until there are none left
+     *
+     * @param loop the While statement being compiled
+     * @return the function executing the While statement
+     */
+    private LaneStatement compileWhile(While loop)
+    {
+        LaneCondition cond = compileCondition(loop.getCondition());
+        LaneStatement body = compile(loop.getProgram());
+        boolean[] active = new boolean[width];
+        return (env, mask) ->
+        {
+            System.arraycopy(mask, 0, active, 0, width);
+            while (true)
+            {
+                boolean[] holds = cond.test(env, active);
+                boolean any = false;
+                for (int i = 0; i < width; i++)
+                {
+                    active[i] = holds[i] && env.isAlive(i);
+                    any |= active[i];
+                }
+                if (!any)
+                    return;
+                body.exec(env, active);
+            }
+        };
+    }
+
+    /**
+     * Compiles an Expression
+     *
+     * @param exp the Expression being compiled, already resolved
+     * @return the function evaluating the Expression in every lane
+     */
+    public LaneExpression compile(Expression exp)
+    {
+        int[] r = new int[width];
+        if (exp instanceof Number)
+        {
+            Arrays.fill(r, ((Number) exp).getValue());
+            return (env, mask) -> r;
+        }
+        if (exp instanceof Variable)
+        {
+            int slot = ((Variable) exp).getSlot();
+            return (env, mask) -> env.getSlot(slot, mask);
+        }
+        if (exp instanceof BinaryOperator)
+            return compileBinary((BinaryOperator) exp, r);
+        if (exp instanceof Neg)
+        {
+            LaneExpression x = compile(((Neg) exp).getExp());
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = -a[i];
+                return r;
+            };
+        }
+        if (exp instanceof ShiftLeft)
+        {
+            LaneExpression x = compile(((ShiftLeft) exp).getExp());
+            int bits = ((ShiftLeft) exp).getBits();
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = a[i] << bits;
+                return r;
+            };
+        }
+        if (exp instanceof ShiftDivide)
+        {
+            LaneExpression x = compile(((ShiftDivide) exp).getExp());
+            int bits = ((ShiftDivide) exp).getBits();
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = (a[i] + ((a[i] >> 31) >>> (32 - bits))) >> bits;
+                return r;
+            };
+        }
+        BooleanExp bool = (BooleanExp) exp;
+        if (!bool.isBoolean())
+            return compile(bool.getExp());
+        LaneCondition cond = compileCondition(bool);
+        return (env, mask) ->
+        {
+            boolean[] holds = cond.test(env, mask);
+            for (int i = 0; i < width; i++)
+                r[i] = holds[i] ? 1 : 0;
+            return r;
+        };
+    }
+
+    /**
+     * Compiles a BinaryOperator into a loop over the lanes
+     *
+     * @param bin the BinaryOperator being compiled
+     * @param r the array the result is written to
+     * @return the function evaluating the BinaryOperator in every lane
+     */
+    private LaneExpression compileBinary(BinaryOperator bin, int[] r)
+    {
+        LaneExpression x = compile(bin.getExp1());
+        LaneExpression y = compile(bin.getExp2());
+        if (bin instanceof Add)
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                int[] b = y.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = a[i] + b[i];
+                return r;
+            };
+        if (bin instanceof Sub)
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                int[] b = y.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = a[i] - b[i];
+                return r;
+            };
+        if (bin instanceof Mul)
+            return (env, mask) ->
+            {
+                int[] a = x.eval(env, mask);
+                int[] b = y.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    r[i] = a[i] * b[i];
+                return r;
+            };
+        return (env, mask) ->
+        {
+            int[] a = x.eval(env, mask);
+            int[] b = y.eval(env, mask);
+            for (int i = 0; i < width; i++)
+            {
+                if (!mask[i])
+                    continue;
+                if (b[i] == 0)
+                    env.fail(i, "/ by zero");
+                else
+                    r[i] = a[i] / b[i];
+            }
+            return r;
+        };
+    }
+
+    /**
+     * Compiles an Expression used as a condition
+     *
+     * @param exp the Expression being compiled
+     * @return the function testing the condition in every lane
+     */
+    private LaneCondition compileCondition(Expression exp)
+    {
+        boolean[] holds = new boolean[width];
+        if (!(exp instanceof BooleanExp) || !exp.isBoolean())
+        {
+            LaneExpression value = compile(exp);
+            return (env, mask) ->
+            {
+                int[] a = value.eval(env, mask);
+                for (int i = 0; i < width; i++)
+                    holds[i] = mask[i] && a[i] != 0;
+                return holds;
+            };
+        }
+        BooleanExp bool = (BooleanExp) exp;
+        LaneExpression left = compile(bool.getExp());
+        List<Relop> relops = bool.getRelops();
+        LaneExpression[] rights = new LaneExpression[relops.size()];
+        Relop[] ops = relops.toArray(new Relop[0]);
+        for (int k = 0; k < rights.length; k++)
+            rights[k] = compile(ops[k].getExp());
+        return (env, mask) ->
+        {
+            int[] a = left.eval(env, mask);
+            System.arraycopy(mask, 0, holds, 0, width);
+            for (int k = 0; k < rights.length; k++)
+            {
+                int[] b = rights[k].eval(env, holds);
+                compare(ops[k], a, b, holds);
+            }
+            return holds;
+        };
+    }
+
+    /**
+     * Clears the lanes of a mask in which a comparison does not hold
+     *
+     * @param relop the Relop deciding the comparison
+     * @param a the values on the left of the comparison
+     * @param b the values on the right of the comparison
+     * @param holds the lanes in which the comparisons so far have held
+     */
+    private void compare(Relop relop, int[] a, int[] b, boolean[] holds)
+    {
+        if (relop instanceof Lt)
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] < b[i];
+        else if (relop instanceof Gt)
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] > b[i];
+        else if (relop instanceof Le)
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] <= b[i];
+        else if (relop instanceof Ge)
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] >= b[i];
+        else if (relop instanceof Eq)
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] == b[i];
+        else
+            for (int i = 0; i < width; i++)
+                holds[i] &= a[i] != b[i];
+    }
+}
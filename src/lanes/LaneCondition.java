@@ -0,0 +1,21 @@
+package lanes;
+
+/**
+ * LaneCondition is a condition which has been compiled by the LaneCompiler into a function
+ * testing it in every lane at once
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface LaneCondition
+{
+    /**
+     * Tests the compiled condition in every lane
+     *
+     * @param env the LaneEnvironment in which variables are stored
+     * @param mask the lanes in which the condition is tested
+     * @return a mask of the lanes in the given mask in which the condition holds, in an
+     *         array which the caller must not modify
+     */
+    boolean[] test(LaneEnvironment env, boolean[] mask);
+}
@@ -0,0 +1,225 @@
+package lanes;
+import batch.BatchResult;
+import environment.Input;
+import environment.SymbolTable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * LaneEnvironment is the Environment of a group of runs of the same Program which execute
+ * in lockstep, one run per lane. It is laid out as a structure of arrays: each slot holds
+ * an array with the value of the variable in every lane, so that an operation on a
+ * variable is a loop over one array. Each lane also has its own record of which slots have
+ * been assigned, its own Input, and its own displayed text. A lane which fails is stopped
+ * with the error message a run of its own would have failed with, while the others go on
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LaneEnvironment
+{
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final SymbolTable symbols;
+    private final int width;
+    private final int[][] values;
+    private final boolean[][] assigned;
+    private final int[] assignedCount;
+    private final boolean[] alive;
+    private final String[] errors;
+    private final StringBuilder[] outputs;
+    private final Input[] inputs;
+
+    /**
+     * Creates a LaneEnvironment with one lane for each set of input values. Lanes past the
+     * last set of input values are never run, and count as having every slot assigned so
+     * that reads of variables assigned in every running lane are not checked
+     *
+     * @param symbols the SymbolTable the Program was resolved against
+     * @param width the number of lanes
+     * @param inputs the values of read statements for each lane, at most width of them
+     */
+    public LaneEnvironment(SymbolTable symbols, int width, List<int[]> inputs)
+    {
+        this.symbols = symbols;
+        this.width = width;
+        values = new int[Math.max(symbols.size(), 1)][width];
+        assigned = new boolean[values.length][width];
+        assignedCount = new int[values.length];
+        alive = new boolean[width];
+        errors = new String[width];
+        outputs = new StringBuilder[width];
+        this.inputs = new Input[width];
+        Arrays.fill(assignedCount, width - inputs.size());
+        for (int i = 0; i < inputs.size(); i++)
+        {
+            alive[i] = true;
+            outputs[i] = new StringBuilder();
+            this.inputs[i] = new Input(inputs.get(i));
+        }
+    }
+
+    /**
+     * Retrieves the number of lanes
+     *
+     * @return the width of the LaneEnvironment
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Retrieves the values of a slot in every lane, failing the lanes of a mask in which
+     * the slot has never been assigned
+     *
+     * @param slot the slot number of the variable
+     * @param mask the lanes which read the variable
+     * @return the value of the variable in each lane
+     */
+    public int[] getSlot(int slot, boolean[] mask)
+    {
+        if (assignedCount[slot] < width)
+        {
+            boolean[] set = assigned[slot];
+            for (int i = 0; i < width; i++)
+            {
+                if (mask[i] && !set[i])
+                    fail(i, "Undefined variable: " + symbols.nameOf(slot));
+            }
+        }
+        return values[slot];
+    }
+
+    /**
+     * Stores values in a slot in the lanes of a mask which are still running
+     *
+     * @param slot the slot number of the variable
+     * @param value the value for each lane
+     * @param mask the lanes which assign the variable
+     */
+    public void setSlot(int slot, int[] value, boolean[] mask)
+    {
+        int[] dst = values[slot];
+        for (int i = 0; i < width; i++)
+        {
+            if (mask[i] && alive[i])
+            {
+                dst[i] = value[i];
+                markAssigned(slot, i);
+            }
+        }
+    }
+
+    /**
+     * Reads the next input value of each lane of a mask which is still running into a slot,
+     * failing the lanes which have no more input
+     *
+     * @param slot the slot number of the variable being read
+     * @param mask the lanes which read the variable
+     */
+    public void readSlot(int slot, boolean[] mask)
+    {
+        int[] dst = values[slot];
+        for (int i = 0; i < width; i++)
+        {
+            if (mask[i] && alive[i])
+            {
+                try
+                {
+                    dst[i] = inputs[i].readInt();
+                    markAssigned(slot, i);
+                }
+                catch (NoSuchElementException err)
+                {
+                    fail(i, err.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Displays a number on its own line in each lane of a mask which is still running
+     *
+     * @param value the number for each lane
+     * @param mask the lanes which display the number
+     */
+    public void printInt(int[] value, boolean[] mask)
+    {
+        for (int i = 0; i < width; i++)
+        {
+            if (mask[i] && alive[i])
+                outputs[i].append(value[i]).append(NEWLINE);
+        }
+    }
+
+    /**
+     * Displays true in each lane of a mask which is still running and in which a
+     * condition holds, and false in the others
+     *
+     * @param value the lanes in which the condition holds
+     * @param mask the lanes which display the condition
+     */
+    public void printBoolean(boolean[] value, boolean[] mask)
+    {
+        for (int i = 0; i < width; i++)
+        {
+            if (mask[i] && alive[i])
+                outputs[i].append(value[i]).append(NEWLINE);
+        }
+    }
+
+    /**
+     * Checks whether a lane is still running
+     *
+     * @param lane the lane
+     * @return true if the lane has neither failed nor been left empty; Otherwise,
+     *         false
+     */
+    public boolean isAlive(int lane)
+    {
+        return alive[lane];
+    }
+
+    /**
+     * Stops a lane because of an error, unless it has already stopped
+     *
+     * @param lane the lane
+     * @param message the message of the error
+     */
+    public void fail(int lane, String message)
+    {
+        if (alive[lane])
+        {
+            alive[lane] = false;
+            errors[lane] = message;
+        }
+    }
+
+    /**
+     * Retrieves the result of a lane once the Program has finished
+     *
+     * @param lane the lane
+     * @return what the lane displayed and the error which stopped it, if any
+     */
+    public BatchResult getResult(int lane)
+    {
+        return new BatchResult(outputs[lane].toString(), errors[lane]);
+    }
+
+    /**
+     * Records that a slot has been assigned in a lane
+     *
+     * @param slot the slot number of the variable
+     * @param lane the lane
+     */
+    private void markAssigned(int slot, int lane)
+    {
+        if (!assigned[slot][lane])
+        {
+            assigned[slot][lane] = true;
+            assignedCount[slot]++;
+        }
+    }
+}
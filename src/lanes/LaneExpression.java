@@ -0,0 +1,21 @@
+package lanes;
+
+/**
+ * LaneExpression is an Expression which has been compiled by the LaneCompiler into a
+ * function evaluating it in every lane at once
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface LaneExpression
+{
+    /**
+     * Evaluates the compiled Expression in every lane. Lanes outside the mask may hold any
+     * value in the result, and have no effect on which lanes fail
+     *
+     * @param env the LaneEnvironment in which variables are stored
+     * @param mask the lanes whose values are needed
+     * @return the value in each lane, in an array which the caller must not modify
+     */
+    int[] eval(LaneEnvironment env, boolean[] mask);
+}
@@ -0,0 +1,70 @@
+package lanes;
+import ast.Program;
+import batch.BatchResult;
+import environment.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LaneProgram runs one Program against many sets of input values in lockstep: the runs are
+ * grouped into blocks of lanes, and each block executes the Program once, with every
+ * operation applied to all of its lanes in a single loop. This removes the cost of
+ * interpreting each node from every run but one in a block, which pays off for programs run
+ * over many inputs whose loops mostly take the same number of iterations. Lanes whose
+ * control flow diverges are masked off, so every lane displays and fails exactly as it
+ * would in a run of its own.
+ *
+ * A LaneProgram reuses the result arrays of its compiled code, so it must only be used by
+ * one thread at a time
+ *
+ * Usage:
+ * List<BatchResult> results = new LaneProgram(prog).run(inputs);
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LaneProgram
+{
+    /** the number of lanes in a block, small enough for a block's arrays to stay in cache */
+    public static final int BLOCK_SIZE = 1024;
+
+    private final SymbolTable symbols;
+    private final LaneStatement body;
+    private final boolean[] all;
+
+    /**
+     * Resolves and compiles a Program for blocks of BLOCK_SIZE lanes
+     *
+     * @param prog the parsed, and possibly optimized, Program which has not been resolved
+     */
+    public LaneProgram(Program prog)
+    {
+        symbols = new SymbolTable();
+        prog.resolve(symbols);
+        body = new LaneCompiler(BLOCK_SIZE).compile(prog);
+        all = new boolean[BLOCK_SIZE];
+    }
+
+    /**
+     * Runs the Program once for each set of input values
+     *
+     * @param inputs the values of read statements for each run
+     * @return the result of each run, in the order of the input sets
+     */
+    public List<BatchResult> run(List<int[]> inputs)
+    {
+        List<BatchResult> results = new ArrayList<BatchResult>(inputs.size());
+        for (int start = 0; start < inputs.size(); start += BLOCK_SIZE)
+        {
+            List<int[]> block = inputs.subList(start, Math.min(start + BLOCK_SIZE,
+                    inputs.size()));
+            LaneEnvironment env = new LaneEnvironment(symbols, BLOCK_SIZE, block);
+            for (int i = 0; i < BLOCK_SIZE; i++)
+                all[i] = i < block.size();
+            body.exec(env, all);
+            for (int i = 0; i < block.size(); i++)
+                results.add(env.getResult(i));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,19 @@
+package lanes;
+
+/**
+ * LaneStatement is a Statement which has been compiled by the LaneCompiler into a function
+ * executing it in every lane at once
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface LaneStatement
+{
+    /**
+     * Executes the compiled Statement in the lanes of a mask which are still running
+     *
+     * @param env the LaneEnvironment in which variables are stored
+     * @param mask the lanes in which the Statement is executed
+     */
+    void exec(LaneEnvironment env, boolean[] mask);
+}
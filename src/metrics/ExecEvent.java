@@ -0,0 +1,36 @@
+package metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ExecEvent is the Flight Recorder event covering one run of a Program
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@Name("simple.Exec")
+@Label("SIMPLE Exec")
+@Category("SIMPLE")
+@Description("Execution of a SIMPLE program by one of the backends")
+public class ExecEvent extends Event
+{
+    @Label("Backend")
+    String backend;
+
+    @Label("Statements Executed")
+    @Description("Statements executed, or -1 if the backend does not count them")
+    long statements;
+
+    @Label("Loop Iterations")
+    @Description("While loop iterations, or -1 if the backend does not count them")
+    long loopIterations;
+
+    @Label("Reads")
+    long reads;
+
+    @Label("Displays")
+    long displays;
+}
@@ -0,0 +1,278 @@
+package metrics;
+import environment.Environment;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * InterpreterMetrics keeps running totals of the work done by every parse and run in the
+ * JVM, and is registered as the platform MBean simple:type=Interpreter the first time it
+ * is used. Parses and runs count their work in plain fields of the Scanner, Parser and
+ * Environment and add it to the striped LongAdders here once, when they finish, so the
+ * totals cost nothing while a program is running and can stay enabled.
+ *
+ * Statements and loop iterations are counted only by the tree, closure and flat backends.
+ * The tiered backend stops counting once a loop has been compiled, and the register
+ * backends and the Scheduler no longer have statements to count, so their runs add only
+ * time, reads and displays. Their ExecEvents report -1 for the counts they do not have,
+ * and the MBean reports the counts of the runs which had them, or -1 if there were none.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class InterpreterMetrics implements InterpreterMetricsMBean
+{
+    /** the name the MBean is registered under */
+    public static final String OBJECT_NAME = "simple:type=Interpreter";
+
+    private static final InterpreterMetrics INSTANCE = new InterpreterMetrics();
+    private static volatile boolean registered;
+
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder astNodes = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder execNanos = new LongAdder();
+    private final LongAdder countedRuns = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder loopIterations = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder displays = new LongAdder();
+
+    /**
+     * Prevents InterpreterMetrics from being instantiated except as the single INSTANCE
+     */
+    private InterpreterMetrics()
+    {
+    }
+
+    /**
+     * Retrieves the metrics of this JVM, registering them as a platform MBean if they have
+     * not been registered yet
+     *
+     * @return the InterpreterMetrics
+     */
+    public static InterpreterMetrics get()
+    {
+        if (!registered)
+            register();
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBeanServer. A failure to register is not
+     * allowed to stop a program from running, so it only leaves the metrics unregistered
+     */
+    private static synchronized void register()
+    {
+        if (registered)
+            return;
+        registered = true;
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName(OBJECT_NAME));
+        }
+        catch (InstanceAlreadyExistsException err)
+        {
+            // another copy of the interpreter in this JVM already publishes its metrics
+        }
+        catch (JMException err)
+        {
+            System.err.println("Unable to register " + OBJECT_NAME + ": " + err.getMessage());
+        }
+    }
+
+    /**
+     * Records a finished parse and commits its Flight Recorder event
+     *
+     * @param event the ParseEvent begun when the parse started
+     * @param nanos the time the parse took
+     * @param tokenCount the number of tokens scanned
+     * @param nodeCount the number of AST nodes created
+     */
+    public void recordParse(ParseEvent event, long nanos, long tokenCount, long nodeCount)
+    {
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.tokens = tokenCount;
+            event.astNodes = nodeCount;
+            event.commit();
+        }
+        parses.increment();
+        parseNanos.add(nanos);
+        tokens.add(tokenCount);
+        astNodes.add(nodeCount);
+    }
+
+    /**
+     * Checks whether a backend counts every Statement and loop iteration it executes
+     *
+     * @param backend the name of the backend
+     * @return true if the backend is "tree", "closure" or "flat"; Otherwise,
+     *         false
+     */
+    public static boolean countsStatements(String backend)
+    {
+        return backend.equals("tree") || backend.equals("closure") || backend.equals("flat");
+    }
+
+    /**
+     * Records a finished run, taking its counts from the Environment it ran in, and commits
+     * its Flight Recorder event
+     *
+     * @param event the ExecEvent begun when the run started
+     * @param backend the name of the backend which ran the Program
+     * @param nanos the time the run took
+     * @param env the Environment the Program ran in
+     */
+    public void recordRun(ExecEvent event, String backend, long nanos, Environment env)
+    {
+        boolean counted = countsStatements(backend);
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.backend = backend;
+            event.statements = counted ? env.getStatementCount() : -1;
+            event.loopIterations = counted ? env.getIterationCount() : -1;
+            event.reads = env.getReadCount();
+            event.displays = env.getDisplayCount();
+            event.commit();
+        }
+        runs.increment();
+        execNanos.add(nanos);
+        if (counted)
+        {
+            countedRuns.increment();
+            statements.add(env.getStatementCount());
+            loopIterations.add(env.getIterationCount());
+        }
+        reads.add(env.getReadCount());
+        displays.add(env.getDisplayCount());
+    }
+
+    /**
+     * Retrieves the number of Programs parsed
+     *
+     * @return the parse count
+     */
+    public long getParseCount()
+    {
+        return parses.sum();
+    }
+
+    /**
+     * Retrieves the total time spent parsing
+     *
+     * @return the time in milliseconds
+     */
+    public double getParseTimeMillis()
+    {
+        return parseNanos.sum() / 1e6;
+    }
+
+    /**
+     * Retrieves the number of tokens scanned while parsing
+     *
+     * @return the token count
+     */
+    public long getTokenCount()
+    {
+        return tokens.sum();
+    }
+
+    /**
+     * Retrieves the number of AST nodes created while parsing
+     *
+     * @return the node count
+     */
+    public long getAstNodeCount()
+    {
+        return astNodes.sum();
+    }
+
+    /**
+     * Retrieves the number of runs
+     *
+     * @return the run count
+     */
+    public long getRunCount()
+    {
+        return runs.sum();
+    }
+
+    /**
+     * Retrieves the total time spent executing Programs
+     *
+     * @return the time in milliseconds
+     */
+    public double getExecTimeMillis()
+    {
+        return execNanos.sum() / 1e6;
+    }
+
+    /**
+     * Retrieves the number of runs by the backends which count their Statements and loop
+     * iterations
+     *
+     * @return the counted run count
+     */
+    public long getCountedRunCount()
+    {
+        return countedRuns.sum();
+    }
+
+    /**
+     * Retrieves the number of Statements executed by the backends which count them
+     *
+     * @return the statement count, or -1 if no run has counted its Statements
+     */
+    public long getStatementsExecuted()
+    {
+        return countedRuns.sum() == 0 ? -1 : statements.sum();
+    }
+
+    /**
+     * Retrieves the number of While loop iterations by the backends which count them
+     *
+     * @return the iteration count, or -1 if no run has counted its iterations
+     */
+    public long getLoopIterations()
+    {
+        return countedRuns.sum() == 0 ? -1 : loopIterations.sum();
+    }
+
+    /**
+     * Retrieves the number of values read
+     *
+     * @return the read count
+     */
+    public long getReads()
+    {
+        return reads.sum();
+    }
+
+    /**
+     * Retrieves the number of values displayed
+     *
+     * @return the display count
+     */
+    public long getDisplays()
+    {
+        return displays.sum();
+    }
+
+    /**
+     * Sets every total back to zero
+     */
+    public void reset()
+    {
+        for (LongAdder adder: new LongAdder[] {parses, parseNanos, tokens, astNodes, runs,
+                execNanos, countedRuns, statements, loopIterations, reads, displays})
+            adder.reset();
+    }
+}
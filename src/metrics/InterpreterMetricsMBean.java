@@ -0,0 +1,94 @@
+package metrics;
+
+/**
+ * InterpreterMetricsMBean is the management interface through which JMX clients read the
+ * totals collected by InterpreterMetrics
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public interface InterpreterMetricsMBean
+{
+    /**
+     * Retrieves the number of Programs parsed
+     *
+     * @return the parse count
+     */
+    long getParseCount();
+
+    /**
+     * Retrieves the total time spent parsing
+     *
+     * @return the time in milliseconds
+     */
+    double getParseTimeMillis();
+
+    /**
+     * Retrieves the number of tokens scanned while parsing
+     *
+     * @return the token count
+     */
+    long getTokenCount();
+
+    /**
+     * Retrieves the number of AST nodes created while parsing
+     *
+     * @return the node count
+     */
+    long getAstNodeCount();
+
+    /**
+     * Retrieves the number of runs
+     *
+     * @return the run count
+     */
+    long getRunCount();
+
+    /**
+     * Retrieves the total time spent executing Programs
+     *
+     * @return the time in milliseconds
+     */
+    double getExecTimeMillis();
+
+    /**
+     * Retrieves the number of runs by the backends which count their Statements and loop
+     * iterations
+     *
+     * @return the counted run count
+     */
+    long getCountedRunCount();
+
+    /**
+     * Retrieves the number of Statements executed by the backends which count them
+     *
+     * @return the statement count, or -1 if no run has counted its Statements
+     */
+    long getStatementsExecuted();
+
+    /**
+     * Retrieves the number of While loop iterations by the backends which count them
+     *
+     * @return the iteration count, or -1 if no run has counted its iterations
+     */
+    long getLoopIterations();
+
+    /**
+     * Retrieves the number of values read
+     *
+     * @return the read count
+     */
+    long getReads();
+
+    /**
+     * Retrieves the number of values displayed
+     *
+     * @return the display count
+     */
+    long getDisplays();
+
+    /**
+     * Sets every total back to zero
+     */
+    void reset();
+}
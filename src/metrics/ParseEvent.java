@@ -0,0 +1,25 @@
+package metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ParseEvent is the Flight Recorder event covering one call of Parser.parseProgram
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+@Name("simple.Parse")
+@Label("SIMPLE Parse")
+@Category("SIMPLE")
+@Description("Scanning and parsing of a SIMPLE program")
+public class ParseEvent extends Event
+{
+    @Label("Tokens")
+    long tokens;
+
+    @Label("AST Nodes")
+    long astNodes;
+}
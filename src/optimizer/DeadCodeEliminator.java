@@ -0,0 +1,372 @@
+package optimizer;
+import ast.*;
+import ast.Number;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DeadCodeEliminator removes the Statements of a Program which can have no effect on what it
+ * displays. It first removes unreachable Statements: the branch an If with a constant
+ * condition never takes, a While whose condition is constant and false, and every Statement
+ * after a While whose condition is constant and true. It then finds the variables which are
+ * live after each Statement, meaning they may be read before being assigned again, by
+ * working backwards through the Program, and removes every assignment to a variable which is
+ * not live there, along with any If left with nothing to do.
+ *
+ * Display and Read statements are always kept, as is every Statement whose Expressions may
+ * divide by zero or read a variable which is not definitely assigned before it, so the
+ * removed code never hides an error. A variable is definitely assigned when every path to
+ * the Statement assigns it, which the pass finds by working forwards through the Program
+ * before it removes anything. Nothing reads the variables once a program has finished, so
+ * no variable is live at its end.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class DeadCodeEliminator
+{
+    private int unreachable;
+    private int dead;
+    private Set<Statement> checked;
+
+    /**
+     * Removes the unreachable Statements and dead stores of a Program
+     *
+     * @param prog the Program, which has not been resolved yet
+     * @return a new Program without the removed Statements
+     */
+    public Program eliminate(Program prog)
+    {
+        List<Statement> reachable = new ArrayList<Statement>();
+        prune(prog, reachable);
+        checked = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+        check(reachable.get(0), new HashSet<String>());
+        return orEmpty(removeStores(reachable.get(0), new HashSet<String>()), prog);
+    }
+
+    /**
+     * Retrieves the number of Statements removed because they could never run
+     *
+     * @return the unreachable Statement count
+     */
+    public int getUnreachableCount()
+    {
+        return unreachable;
+    }
+
+    /**
+     * Retrieves the number of Statements removed because they assigned a variable which is
+     * not read afterwards, or were an If left without a body
+     *
+     * @return the dead Statement count
+     */
+    public int getDeadCount()
+    {
+        return dead;
+    }
+
+    /**
+     * Removes the unreachable parts of a Statement, adding what is left of it to a list of
+     * Statements. An If whose condition is constant is replaced by the branch it takes
+     *
+     * @param stmt the Statement
+     * @param out the list the reachable Statement, if any, is added to
+     * @return true if the Statement can finish, so the Statements after it are reachable;
+     *         Otherwise,
+     *         false
+     */
+    private boolean prune(Statement stmt, List<Statement> out)
+    {
+        if (stmt instanceof Program)
+        {
+            List<Statement> stmts = new ArrayList<Statement>();
+            boolean completes = true;
+            for (Statement s: ((Program) stmt).getStatements())
+            {
+                if (completes)
+                    completes = prune(s, stmts);
+                else
+                    unreachable += statements(s);
+            }
+            out.add(at(new Program(stmts), stmt));
+            return completes;
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            Expression cond = ifStmt.getCondition();
+            if (cond instanceof Number)
+            {
+                boolean holds = ((Number) cond).getValue() != 0;
+                Statement taken = holds ? ifStmt.getThen() : ifStmt.getElse();
+                Statement skipped = holds ? ifStmt.getElse() : ifStmt.getThen();
+                if (skipped != null)
+                    unreachable += statements(skipped);
+                return taken == null || prune(taken, out);
+            }
+            List<Statement> thenStmts = new ArrayList<Statement>();
+            boolean completes = prune(ifStmt.getThen(), thenStmts);
+            Statement elseStmt = null;
+            if (ifStmt.getElse() == null)
+                completes = true;
+            else
+            {
+                List<Statement> elseStmts = new ArrayList<Statement>();
+                completes |= prune(ifStmt.getElse(), elseStmts);
+                elseStmt = block(elseStmts, ifStmt.getElse());
+            }
+            out.add(at(new If(block(thenStmts, ifStmt.getThen()), elseStmt, cond), stmt));
+            return completes;
+        }
+        if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            Expression cond = loop.getCondition();
+            if (cond instanceof Number && ((Number) cond).getValue() == 0)
+            {
+                unreachable += statements(loop);
+                return true;
+            }
+            List<Statement> body = new ArrayList<Statement>();
+            prune(loop.getProgram(), body);
+            out.add(at(new While(cond, (Program) body.get(0)), stmt));
+            return !(cond instanceof Number);
+        }
+        out.add(stmt);
+        return true;
+    }
+
+    /**
+     * Finds the assignments and Ifs which cannot fail, because they never divide by zero and
+     * only read variables definitely assigned before them, so removing them can never hide
+     * an error. Statements in a loop are checked against the variables assigned before it,
+     * as they are in its first iteration
+     *
+     * @param stmt the Statement
+     * @param defined the variables definitely assigned before the Statement, which is
+     *                updated to those definitely assigned after it
+     */
+    private void check(Statement stmt, Set<String> defined)
+    {
+        if (stmt instanceof Program)
+        {
+            for (Statement s: ((Program) stmt).getStatements())
+                check(s, defined);
+        }
+        else if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            if (!Optimizer.canFail(assign.getExp(), defined))
+                checked.add(stmt);
+            defined.add(assign.getVar());
+        }
+        else if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            if (display.getRead() != null)
+                defined.add(display.getRead().getVar());
+        }
+        else if (stmt instanceof Read)
+            defined.add(((Read) stmt).getVar());
+        else if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            if (!Optimizer.canFail(ifStmt.getCondition(), defined))
+                checked.add(stmt);
+            Set<String> thenDefined = new HashSet<String>(defined);
+            check(ifStmt.getThen(), thenDefined);
+            Set<String> elseDefined = new HashSet<String>(defined);
+            if (ifStmt.getElse() != null)
+                check(ifStmt.getElse(), elseDefined);
+            thenDefined.retainAll(elseDefined);
+            defined.addAll(thenDefined);
+        }
+        else if (stmt instanceof While)
+            check(((While) stmt).getProgram(), new HashSet<String>(defined));
+    }
+
+    /**
+     * Removes the dead stores of a Statement, working backwards from the variables which are
+     * live after it
+     *
+     * @param stmt the Statement
+     * @param live the variables live after the Statement, which is updated to those live
+     *             before it
+     * @return the Statement without its dead stores, or null if nothing is left of it
+     */
+    private Statement removeStores(Statement stmt, Set<String> live)
+    {
+        if (stmt instanceof Program)
+        {
+            List<Statement> stmts = ((Program) stmt).getStatements();
+            List<Statement> kept = new ArrayList<Statement>();
+            for (int i = stmts.size() - 1; i >= 0; i--)
+            {
+                Statement s = removeStores(stmts.get(i), live);
+                if (s != null)
+                    kept.add(s);
+            }
+            if (kept.isEmpty())
+                return null;
+            Collections.reverse(kept);
+            return at(new Program(kept), stmt);
+        }
+        if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            if (!live.contains(assign.getVar()) && checked.contains(stmt))
+            {
+                dead++;
+                return null;
+            }
+            live.remove(assign.getVar());
+            addReads(assign.getExp(), live);
+            return stmt;
+        }
+        if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            if (display.getRead() != null)
+                live.remove(display.getRead().getVar());
+            addReads(display.getExpression(), live);
+            return stmt;
+        }
+        if (stmt instanceof Read)
+        {
+            live.remove(((Read) stmt).getVar());
+            return stmt;
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            Set<String> thenLive = new HashSet<String>(live);
+            Statement thenStmt = removeStores(ifStmt.getThen(), thenLive);
+            Statement elseStmt = null;
+            if (ifStmt.getElse() != null)
+                elseStmt = removeStores(ifStmt.getElse(), live);
+            if (thenStmt == null && elseStmt == null && checked.contains(stmt))
+            {
+                dead++;
+                return null;
+            }
+            live.addAll(thenLive);
+            addReads(ifStmt.getCondition(), live);
+            if (thenStmt == null)
+                thenStmt = orEmpty(null, ifStmt.getThen());
+            return at(new If(thenStmt, elseStmt, ifStmt.getCondition()), stmt);
+        }
+        if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            Set<String> entry = new HashSet<String>(live);
+            addReads(loop.getCondition(), entry);
+            int removed = dead;
+            boolean changed = true;
+            while (changed)
+            {
+                Set<String> bodyLive = new HashSet<String>(entry);
+                removeStores(loop.getProgram(), bodyLive);
+                changed = entry.addAll(bodyLive);
+            }
+            dead = removed;
+            live.addAll(entry);
+            Statement body = removeStores(loop.getProgram(), new HashSet<String>(entry));
+            return at(new While(loop.getCondition(), orEmpty(body, loop.getProgram())), stmt);
+        }
+        return stmt;
+    }
+
+    /**
+     * Adds the variables an Expression reads to a set
+     *
+     * @param exp the Expression
+     * @param live the set the variables are added to
+     */
+    private static void addReads(Expression exp, Set<String> live)
+    {
+        if (exp instanceof Variable)
+            live.add(((Variable) exp).getName());
+        for (Expression sub: LoopOptimizer.children(exp))
+            addReads(sub, live);
+    }
+
+    /**
+     * Counts the Statements in a Statement, not counting the Programs which only group them
+     *
+     * @param stmt the Statement
+     * @return the number of Statements
+     */
+    private static int statements(Statement stmt)
+    {
+        if (stmt instanceof Program)
+        {
+            int total = 0;
+            for (Statement s: ((Program) stmt).getStatements())
+                total += statements(s);
+            return total;
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            int total = 1 + statements(ifStmt.getThen());
+            if (ifStmt.getElse() != null)
+                total += statements(ifStmt.getElse());
+            return total;
+        }
+        if (stmt instanceof While)
+            return 1 + statements(((While) stmt).getProgram());
+        return 1;
+    }
+
+    /**
+     * Turns what is left of an If branch into a single Statement
+     *
+     * @param stmts the Statements left of the branch
+     * @param original the branch
+     * @return the only Statement left, or a Program holding the Statements left
+     */
+    private static Statement block(List<Statement> stmts, Statement original)
+    {
+        if (stmts.size() == 1)
+            return stmts.get(0);
+        return at(new Program(stmts), original);
+    }
+
+    /**
+     * Replaces a Statement which has been removed entirely by an empty Program, where a
+     * Statement is required
+     *
+     * @param stmt what is left of the Statement, or null if nothing is
+     * @param original the Statement
+     * @return the Statement left, or an empty Program at the position of the original
+     */
+    private static Program orEmpty(Statement stmt, Statement original)
+    {
+        if (stmt == null)
+            return at(new Program(new ArrayList<Statement>()), original);
+        if (stmt instanceof Program)
+            return (Program) stmt;
+        List<Statement> stmts = new ArrayList<Statement>();
+        stmts.add(stmt);
+        return at(new Program(stmts), original);
+    }
+
+    /**
+     * Gives a new Statement the source position of the one it replaces
+     *
+     * @param <T> the type of the new Statement
+     * @param stmt the new Statement
+     * @param original the Statement it replaces
+     * @return the new Statement
+     */
+    private static <T extends Statement> T at(T stmt, Statement original)
+    {
+        if (stmt != original)
+            stmt.setPosition(original.getLine(), original.getColumn());
+        return stmt;
+    }
+}
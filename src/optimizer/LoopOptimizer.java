@@ -0,0 +1,570 @@
+package optimizer;
+import ast.*;
+import ast.Number;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * LoopOptimizer moves work out of While loops. It finds the variables each loop body writes,
+ * hoists every subexpression of the loop which reads none of them into a temporary assigned
+ * just before the loop, and, inside loop bodies, evaluates a subexpression which appears more
+ * than once in the same statement only once, into a temporary assigned just before the
+ * statement. Outer loops are handled before the loops nested in them, so an expression which
+ * no loop changes is hoisted out of all of them at once. Before a loop is hoisted, the
+ * LoopReducer is given the chance to compute its result in closed form.
+ *
+ * Moving an expression must never add an error, since a hoisted expression runs even when
+ * the loop does not and a shared one runs before the parts of the statement to its left.
+ * Only expressions which cannot divide by zero and whose variables are definitely assigned
+ * at the new position are moved, so a moved expression always succeeds and produces the same
+ * value. Temporaries are named with a leading $, which no source variable can have.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LoopOptimizer
+{
+    private static final String TEMP_PREFIX = "$";
+
+    private final LoopReducer reducer;
+    private int temps;
+
+    /**
+     * Creates a LoopOptimizer
+     */
+    public LoopOptimizer()
+    {
+        reducer = new LoopReducer(this);
+    }
+
+    /**
+     * Optimizes the loops of a Program
+     *
+     * @param prog the Program being optimized, which has not been resolved yet
+     * @return a new Program with the invariant and repeated expressions of its loops moved
+     *         into temporaries
+     */
+    public Program optimize(Program prog)
+    {
+        return optimize(prog, new HashSet<String>(), false);
+    }
+
+    /**
+     * Optimizes the Statements of a Program in order
+     *
+     * @param prog the Program being optimized
+     * @param defined the variables definitely assigned before the Program, which is updated
+     *                to those definitely assigned after it
+     * @param inLoop whether the Program is inside the body of a While
+     * @return the optimized Program
+     */
+    private Program optimize(Program prog, Set<String> defined, boolean inLoop)
+    {
+        List<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s: prog.getStatements())
+        {
+            optimize(s, defined, inLoop, stmts);
+        }
+        return at(new Program(stmts), prog);
+    }
+
+    /**
+     * Optimizes a Statement, adding it and the assignments to any temporaries it needs to a
+     * list of Statements
+     *
+     * @param stmt the Statement being optimized
+     * @param defined the variables definitely assigned before the Statement, which is updated
+     *                to those definitely assigned after it
+     * @param inLoop whether the Statement is inside the body of a While
+     * @param out the list the optimized Statements are added to
+     */
+    private void optimize(Statement stmt, Set<String> defined, boolean inLoop,
+                          List<Statement> out)
+    {
+        if (stmt instanceof Program)
+            out.add(optimize((Program) stmt, defined, inLoop));
+        else if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            Expression exp = assign.getExp();
+            if (inLoop)
+                exp = share(exp, stmt, defined, out);
+            out.add(at(new Assignment(assign.getVar(), exp), stmt));
+            defined.add(assign.getVar());
+        }
+        else if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            Expression exp = display.getExpression();
+            if (inLoop)
+                exp = share(exp, stmt, defined, out);
+            out.add(at(new Display(exp, display.getRead()), stmt));
+            if (display.getRead() != null)
+                defined.add(display.getRead().getVar());
+        }
+        else if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            Expression cond = ifStmt.getCondition();
+            if (inLoop)
+                cond = share(cond, stmt, defined, out);
+            Set<String> thenDefined = new HashSet<String>(defined);
+            Statement thenStmt = optimizeBlock(ifStmt.getThen(), thenDefined, inLoop);
+            Statement elseStmt = null;
+            if (ifStmt.getElse() != null)
+            {
+                Set<String> elseDefined = new HashSet<String>(defined);
+                elseStmt = optimizeBlock(ifStmt.getElse(), elseDefined, inLoop);
+                thenDefined.retainAll(elseDefined);
+                defined.addAll(thenDefined);
+            }
+            out.add(at(new If(thenStmt, elseStmt, cond), stmt));
+        }
+        else if (stmt instanceof While)
+            hoist((While) stmt, defined, out);
+        else
+            out.add(stmt);
+    }
+
+    /**
+     * Optimizes the then or else branch of an If, which is a single Statement
+     *
+     * @param stmt the branch being optimized
+     * @param defined the variables definitely assigned before the branch, which is updated
+     *                to those definitely assigned after it
+     * @param inLoop whether the branch is inside the body of a While
+     * @return the optimized branch, which is a Program if temporaries had to be added
+     */
+    private Statement optimizeBlock(Statement stmt, Set<String> defined, boolean inLoop)
+    {
+        List<Statement> stmts = new ArrayList<Statement>();
+        optimize(stmt, defined, inLoop, stmts);
+        if (stmts.size() == 1)
+            return stmts.get(0);
+        return at(new Program(stmts), stmt);
+    }
+
+    /**
+     * Reduces a While to closed form if the LoopReducer can, then hoists the invariant
+     * expressions of the While into temporaries assigned before it, and optimizes its body
+     *
+     * @param loop the While being optimized
+     * @param defined the variables definitely assigned before the While, which is updated to
+     *                those definitely assigned after it
+     * @param out the list the reduced loop, the assignments to the temporaries and the
+     *            optimized While are added to
+     */
+    private void hoist(While loop, Set<String> defined, List<Statement> out)
+    {
+        Statement reduced = reducer.reduce(loop, defined);
+        if (reduced != null)
+            out.add(reduced);
+        Set<String> written = new HashSet<String>();
+        collectWrites(loop.getProgram(), written);
+        Map<String, String> hoisted = new HashMap<String, String>();
+        List<Statement> before = new ArrayList<Statement>();
+        Expression cond = hoist(loop.getCondition(), written, defined, hoisted, before, loop);
+        Statement body = hoist(loop.getProgram(), written, defined, hoisted, before, loop);
+        out.addAll(before);
+        for (String temp: hoisted.values())
+            defined.add(temp);
+        Set<String> bodyDefined = new HashSet<String>(defined);
+        out.add(at(new While(cond, optimize((Program) body, bodyDefined, true)), loop));
+    }
+
+    /**
+     * Replaces the invariant expressions of a Statement inside a While with temporaries
+     *
+     * @param stmt the Statement
+     * @param written the variables the While writes
+     * @param defined the variables definitely assigned before the While
+     * @param hoisted the temporaries made so far, keyed by the expression they hold
+     * @param before the list the assignments to new temporaries are added to
+     * @param loop the While, whose position the assignments take
+     * @return the Statement with its invariant expressions replaced
+     */
+    private Statement hoist(Statement stmt, Set<String> written, Set<String> defined,
+                            Map<String, String> hoisted, List<Statement> before, While loop)
+    {
+        Statement result = stmt;
+        if (stmt instanceof Program)
+        {
+            List<Statement> stmts = new ArrayList<Statement>();
+            for (Statement s: ((Program) stmt).getStatements())
+            {
+                stmts.add(hoist(s, written, defined, hoisted, before, loop));
+            }
+            result = new Program(stmts);
+        }
+        else if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            result = new Assignment(assign.getVar(),
+                    hoist(assign.getExp(), written, defined, hoisted, before, loop));
+        }
+        else if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            result = new Display(hoist(display.getExpression(), written, defined, hoisted,
+                    before, loop), display.getRead());
+        }
+        else if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            Statement elseStmt = ifStmt.getElse();
+            if (elseStmt != null)
+                elseStmt = hoist(elseStmt, written, defined, hoisted, before, loop);
+            result = new If(hoist(ifStmt.getThen(), written, defined, hoisted, before, loop),
+                    elseStmt, hoist(ifStmt.getCondition(), written, defined, hoisted, before,
+                    loop));
+        }
+        else if (stmt instanceof While)
+        {
+            While inner = (While) stmt;
+            result = new While(hoist(inner.getCondition(), written, defined, hoisted, before,
+                    loop), (Program) hoist(inner.getProgram(), written, defined, hoisted,
+                    before, loop));
+        }
+        return at(result, stmt);
+    }
+
+    /**
+     * Replaces the largest invariant subexpressions of an Expression inside a While with
+     * temporaries, reusing the temporary of an identical expression hoisted earlier
+     *
+     * @param exp the Expression
+     * @param written the variables the While writes
+     * @param defined the variables definitely assigned before the While
+     * @param hoisted the temporaries made so far, keyed by the expression they hold
+     * @param before the list the assignments to new temporaries are added to
+     * @param loop the While, whose position the assignments take
+     * @return the Expression with its invariant subexpressions replaced
+     */
+    private Expression hoist(Expression exp, Set<String> written, Set<String> defined,
+                             Map<String, String> hoisted, List<Statement> before, While loop)
+    {
+        if (!(exp instanceof BooleanExp) && operators(exp) > 0
+                && !Optimizer.canFail(exp, defined)
+                && !reads(exp, written))
+        {
+            String key = key(exp);
+            String temp = hoisted.get(key);
+            if (temp == null)
+            {
+                temp = newTemp();
+                hoisted.put(key, temp);
+                before.add(at(new Assignment(temp, exp), loop));
+            }
+            return at(new Variable(temp), exp);
+        }
+        return rebuild(exp, sub -> hoist(sub, written, defined, hoisted, before, loop));
+    }
+
+    /**
+     * Evaluates each subexpression which appears more than once in an Expression only once,
+     * into a temporary assigned before the Statement holding the Expression. The largest
+     * repeated subexpression is shared first
+     *
+     * @param exp the Expression
+     * @param stmt the Statement holding the Expression, whose position the assignments take
+     * @param defined the variables definitely assigned before the Statement, which is updated
+     *                with the new temporaries
+     * @param out the list the assignments to the temporaries are added to
+     * @return the Expression with its repeated subexpressions replaced
+     */
+    private Expression share(Expression exp, Statement stmt, Set<String> defined,
+                             List<Statement> out)
+    {
+        while (true)
+        {
+            Map<String, Integer> counts = new HashMap<String, Integer>();
+            Map<String, Expression> samples = new LinkedHashMap<String, Expression>();
+            collectRepeats(exp, counts, samples);
+            Expression best = null;
+            String bestKey = null;
+            for (Map.Entry<String, Expression> entry: samples.entrySet())
+            {
+                Expression candidate = entry.getValue();
+                if (counts.get(entry.getKey()) > 1 && !Optimizer.canFail(candidate, defined)
+                        && (best == null || operators(candidate) > operators(best)))
+                {
+                    best = candidate;
+                    bestKey = entry.getKey();
+                }
+            }
+            if (best == null)
+                return exp;
+            String temp = newTemp();
+            out.add(at(new Assignment(temp, best), stmt));
+            defined.add(temp);
+            exp = replace(exp, bestKey, temp);
+        }
+    }
+
+    /**
+     * Counts the subexpressions of an Expression with at least two operators, which are
+     * worth a temporary when they repeat
+     *
+     * @param exp the Expression
+     * @param counts the number of times each subexpression appears, keyed by key
+     * @param samples one copy of each subexpression, keyed by key
+     */
+    private void collectRepeats(Expression exp, Map<String, Integer> counts,
+                                Map<String, Expression> samples)
+    {
+        if (!(exp instanceof BooleanExp) && operators(exp) > 1)
+        {
+            String key = key(exp);
+            counts.merge(key, 1, Integer::sum);
+            samples.putIfAbsent(key, exp);
+        }
+        for (Expression sub: children(exp))
+            collectRepeats(sub, counts, samples);
+    }
+
+    /**
+     * Replaces every occurrence of a subexpression with a temporary
+     *
+     * @param exp the Expression
+     * @param key the key of the subexpression
+     * @param temp the name of the temporary
+     * @return the Expression with the subexpression replaced
+     */
+    private Expression replace(Expression exp, String key, String temp)
+    {
+        if (!(exp instanceof BooleanExp) && operators(exp) > 1 && key(exp).equals(key))
+            return at(new Variable(temp), exp);
+        return rebuild(exp, sub -> replace(sub, key, temp));
+    }
+
+    /**
+     * Rebuilds an Expression with each of its direct subexpressions transformed, keeping the
+     * Expression itself when none of them changed
+     *
+     * @param exp the Expression
+     * @param transform the transformation of a subexpression
+     * @return the rebuilt Expression, at the source position of the original
+     */
+    private static Expression rebuild(Expression exp, UnaryOperator<Expression> transform)
+    {
+        Expression result = exp;
+        if (exp instanceof BinaryOperator)
+        {
+            BinaryOperator bin = (BinaryOperator) exp;
+            Expression left = transform.apply(bin.getExp1());
+            Expression right = transform.apply(bin.getExp2());
+            if (left != bin.getExp1() || right != bin.getExp2())
+                result = BinaryOperator.create(bin.getOperator(), left, right);
+        }
+        else if (exp instanceof Neg)
+        {
+            Expression inner = transform.apply(((Neg) exp).getExp());
+            if (inner != ((Neg) exp).getExp())
+                result = new Neg(inner);
+        }
+        else if (exp instanceof ShiftLeft)
+        {
+            ShiftLeft shift = (ShiftLeft) exp;
+            Expression inner = transform.apply(shift.getExp());
+            if (inner != shift.getExp())
+                result = new ShiftLeft(inner, shift.getBits());
+        }
+        else if (exp instanceof ShiftDivide)
+        {
+            ShiftDivide shift = (ShiftDivide) exp;
+            Expression inner = transform.apply(shift.getExp());
+            if (inner != shift.getExp())
+                result = new ShiftDivide(inner, shift.getBits());
+        }
+        else if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            Expression left = transform.apply(bool.getExp());
+            boolean changed = left != bool.getExp();
+            List<Relop> relops = new ArrayList<Relop>();
+            for (Relop relop: bool.getRelops())
+            {
+                Expression right = transform.apply(relop.getExp());
+                changed |= right != relop.getExp();
+                relops.add(Relop.create(relop.getOperator(), right));
+            }
+            if (changed)
+                result = new BooleanExp(left, relops);
+        }
+        return at(result, exp);
+    }
+
+    /**
+     * Retrieves the direct subexpressions of an Expression
+     *
+     * @param exp the Expression
+     * @return the subexpressions, from left to right
+     */
+    static List<Expression> children(Expression exp)
+    {
+        List<Expression> subs = new ArrayList<Expression>();
+        if (exp instanceof BinaryOperator)
+        {
+            subs.add(((BinaryOperator) exp).getExp1());
+            subs.add(((BinaryOperator) exp).getExp2());
+        }
+        else if (exp instanceof Neg)
+            subs.add(((Neg) exp).getExp());
+        else if (exp instanceof ShiftLeft)
+            subs.add(((ShiftLeft) exp).getExp());
+        else if (exp instanceof ShiftDivide)
+            subs.add(((ShiftDivide) exp).getExp());
+        else if (exp instanceof BooleanExp)
+        {
+            subs.add(((BooleanExp) exp).getExp());
+            for (Relop relop: ((BooleanExp) exp).getRelops())
+                subs.add(relop.getExp());
+        }
+        return subs;
+    }
+
+    /**
+     * Counts the arithmetic operators in an Expression
+     *
+     * @param exp the Expression
+     * @return the number of operators, which is 0 for a Number or a Variable
+     */
+    private static int operators(Expression exp)
+    {
+        int total = exp instanceof Number || exp instanceof Variable
+                || exp instanceof BooleanExp ? 0 : 1;
+        for (Expression sub: children(exp))
+            total += operators(sub);
+        return total;
+    }
+
+    /**
+     * Checks whether an Expression reads any of a set of variables
+     *
+     * @param exp the Expression
+     * @param names the variables
+     * @return true if the Expression reads one of the variables; Otherwise,
+     *         false
+     */
+    private static boolean reads(Expression exp, Set<String> names)
+    {
+        if (exp instanceof Variable)
+            return names.contains(((Variable) exp).getName());
+        for (Expression sub: children(exp))
+        {
+            if (reads(sub, names))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collects the variables a Statement may assign, by assignment or by reading input
+     *
+     * @param stmt the Statement
+     * @param written the set the variables are added to
+     */
+    private static void collectWrites(Statement stmt, Set<String> written)
+    {
+        if (stmt instanceof Program)
+        {
+            for (Statement s: ((Program) stmt).getStatements())
+                collectWrites(s, written);
+        }
+        else if (stmt instanceof Assignment)
+            written.add(((Assignment) stmt).getVar());
+        else if (stmt instanceof Display)
+        {
+            if (((Display) stmt).getRead() != null)
+                written.add(((Display) stmt).getRead().getVar());
+        }
+        else if (stmt instanceof Read)
+            written.add(((Read) stmt).getVar());
+        else if (stmt instanceof If)
+        {
+            collectWrites(((If) stmt).getThen(), written);
+            if (((If) stmt).getElse() != null)
+                collectWrites(((If) stmt).getElse(), written);
+        }
+        else if (stmt instanceof While)
+            collectWrites(((While) stmt).getProgram(), written);
+    }
+
+    /**
+     * Describes the structure of an Expression, so that identical Expressions have the same
+     * key
+     *
+     * @param exp the Expression
+     * @return the key
+     */
+    private static String key(Expression exp)
+    {
+        if (exp instanceof Number)
+            return Integer.toString(((Number) exp).getValue());
+        if (exp instanceof Variable)
+            return ((Variable) exp).getName();
+        StringBuilder key = new StringBuilder("(");
+        if (exp instanceof BinaryOperator)
+            key.append(((BinaryOperator) exp).getOperator());
+        else if (exp instanceof Neg)
+            key.append("neg");
+        else if (exp instanceof ShiftLeft)
+            key.append("<<").append(((ShiftLeft) exp).getBits());
+        else if (exp instanceof ShiftDivide)
+            key.append(">>").append(((ShiftDivide) exp).getBits());
+        else
+        {
+            key.append("bool");
+            for (Relop relop: ((BooleanExp) exp).getRelops())
+                key.append(' ').append(relop.getOperator());
+        }
+        for (Expression sub: children(exp))
+            key.append(' ').append(key(sub));
+        return key.append(')').toString();
+    }
+
+    /**
+     * Makes the name of a new temporary
+     *
+     * @return the name, which no source variable can have
+     */
+    String newTemp()
+    {
+        return TEMP_PREFIX + temps++;
+    }
+
+    /**
+     * Gives a new Expression the source position of the one it replaces
+     *
+     * @param exp the new Expression
+     * @param original the Expression it replaces
+     * @return the new Expression
+     */
+    private static Expression at(Expression exp, Expression original)
+    {
+        if (exp != original)
+            exp.setPosition(original.getLine(), original.getColumn());
+        return exp;
+    }
+
+    /**
+     * Gives a new Statement the source position of the one it replaces
+     *
+     * @param <T> the type of the new Statement
+     * @param stmt the new Statement
+     * @param original the Statement it replaces
+     * @return the new Statement
+     */
+    private static <T extends Statement> T at(T stmt, Statement original)
+    {
+        if (stmt != original)
+            stmt.setPosition(original.getLine(), original.getColumn());
+        return stmt;
+    }
+}
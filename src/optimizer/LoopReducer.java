@@ -0,0 +1,541 @@
+package optimizer;
+import ast.*;
+import ast.Number;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LoopReducer replaces simple counting loops with the values they compute. A loop qualifies
+ * when its condition compares a variable i with a bound the loop does not change, its body
+ * is only assignments, i is stepped by a constant towards the bound, and every other variable
+ * is either an accumulator, assigned s = s + e, or assigned an expression which no earlier
+ * iteration affects. s may appear anywhere in a chain of additions and subtractions, as long
+ * as it is added, as in s = s - x + i. Each e must be linear in the iteration number, such as
+ * 3 * i + n.
+ *
+ * The reduced loop computes the number of iterations N and assigns every variable its final
+ * value directly, using the sum of an arithmetic series for the accumulators:
+ *
+ *     while i < n do                if i < n then
+ *         assign s = s + i              compute N, and if i does not overflow,
+ *         assign i = i + 1                  assign s = s + (N * i + 1 * N(N-1)/2)
+ *     end                                   assign i = i + N
+ *                                   end
+ *                                   while i < n do ... end
+ *
+ * All arithmetic wraps around exactly as the loop would, since the series is computed with
+ * int operations only and N(N-1)/2 is found by halving whichever of N and N-1 is even. The
+ * original loop stays after the reduced one, which leaves it with no iterations to run,
+ * for the cases the closed form does not cover: a distance to the bound which overflows an
+ * int, a loop which runs 2^31 times, whose N wraps around to a negative count, or an i
+ * which would wrap around before reaching the bound. As in the LoopOptimizer, every
+ * variable the closed form reads must be definitely assigned and no expression may divide
+ * by anything but a non-zero constant, so it fails exactly when the loop would.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LoopReducer
+{
+    private final LoopOptimizer temps;
+    private final Optimizer simplifier;
+
+    /**
+     * Creates a LoopReducer which names its temporaries through a LoopOptimizer
+     *
+     * @param temps the LoopOptimizer whose temporaries the reduced loops use
+     */
+    public LoopReducer(LoopOptimizer temps)
+    {
+        this.temps = temps;
+        simplifier = new Optimizer();
+    }
+
+    /**
+     * Linear is the value of an expression in iteration k of a loop, as a * k + b, where
+     * a and b do not change while the loop runs
+     */
+    private static class Linear
+    {
+        private final Expression a;
+        private final Expression b;
+
+        /**
+         * Creates a Linear value
+         *
+         * @param a the factor of the iteration number, or null if the value never changes
+         * @param b the value in the first iteration
+         */
+        Linear(Expression a, Expression b)
+        {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    /**
+     * Reduces a While to the closed form of its variables, if it qualifies
+     *
+     * @param loop the While
+     * @param defined the variables definitely assigned before the While
+     * @return the If computing the final values in closed form, which belongs immediately
+     *         before the While, or null if the While cannot be reduced
+     */
+    public Statement reduce(While loop, Set<String> defined)
+    {
+        if (!(loop.getCondition() instanceof BooleanExp))
+            return null;
+        BooleanExp cond = (BooleanExp) loop.getCondition();
+        if (!(cond.getExp() instanceof Variable) || cond.getRelops().size() != 1)
+            return null;
+        String counter = ((Variable) cond.getExp()).getName();
+        Relop relop = cond.getRelops().get(0);
+        String op = relop.getOperator();
+        Expression bound = relop.getExp();
+        List<Assignment> body = new ArrayList<Assignment>();
+        if (!flatten(loop.getProgram(), body))
+            return null;
+
+        Set<String> written = new HashSet<String>();
+        for (Assignment assign: body)
+        {
+            if (!written.add(assign.getVar()) || Optimizer.canDivideByZero(assign.getExp()))
+                return null;
+        }
+        if (!(bound instanceof Number || bound instanceof Variable
+                && !written.contains(((Variable) bound).getName())))
+            return null;
+        int step = step(body, counter);
+        boolean up = op.equals("<") || op.equals("<=");
+        boolean down = op.equals(">") || op.equals(">=");
+        if (step == 0 || step == Integer.MIN_VALUE || !(up && step > 0 || down && step < 0))
+            return null;
+
+        Map<String, Linear> current = new HashMap<String, Linear>();
+        current.put(counter, new Linear(new Number(step), new Variable(counter)));
+        Map<String, Linear> sums = new HashMap<String, Linear>();
+        Map<String, Linear> finals = new HashMap<String, Linear>();
+        List<String> order = new ArrayList<String>();
+        for (Assignment assign: body)
+        {
+            String var = assign.getVar();
+            if (var.equals(counter))
+            {
+                current.put(counter, new Linear(new Number(step),
+                        new Add(new Variable(counter), new Number(step))));
+                continue;
+            }
+            Expression added = accumulated(assign);
+            if (added != null && !reads(body, assign, var) && defined.contains(var))
+            {
+                Linear term = linear(added, counter, written, current, defined);
+                if (term == null)
+                    return null;
+                sums.put(var, term);
+            }
+            else
+            {
+                Linear value = linear(assign.getExp(), counter, written, current, defined);
+                if (value == null)
+                    return null;
+                current.put(var, value);
+                finals.put(var, value);
+            }
+            order.add(var);
+        }
+        return closedForm(loop, counter, op, bound, step, order, sums, finals, defined);
+    }
+
+    /**
+     * Builds the If which assigns the final values of a reducible loop
+     *
+     * @param loop the While being reduced
+     * @param counter the name of the counting variable
+     * @param op the comparison of the condition
+     * @param bound the bound of the condition
+     * @param step the constant added to the counter in every iteration
+     * @param order the other assigned variables, in the order of the body
+     * @param sums the term each accumulator adds in iteration k
+     * @param finals the value each other variable is assigned in iteration k
+     * @param defined the variables definitely assigned before the While
+     * @return the If, simplified by the Optimizer
+     */
+    private Statement closedForm(While loop, String counter, String op, Expression bound,
+                                 int step, List<String> order, Map<String, Linear> sums,
+                                 Map<String, Linear> finals, Set<String> defined)
+    {
+        boolean up = step > 0;
+        boolean inclusive = op.equals("<=") || op.equals(">=");
+        String distance = temps.newTemp();
+        String count = temps.newTemp();
+        String last = temps.newTemp();
+        List<Statement> apply = new ArrayList<Statement>();
+        boolean series = false;
+        for (Linear term: sums.values())
+            series |= term.a != null;
+        String pairs = null;
+        if (series)
+        {
+            String half = temps.newTemp();
+            pairs = temps.newTemp();
+            apply.add(new Assignment(half, new Div(var(count), new Number(2))));
+            apply.add(new Assignment(pairs, new Mul(var(half), new Sub(
+                    new Sub(new Add(var(count), var(count)), new Number(1)),
+                    new Add(var(half), var(half))))));
+        }
+        for (String var: order)
+        {
+            Linear term = sums.get(var);
+            if (term != null)
+            {
+                Expression total = new Mul(var(count), term.b);
+                if (term.a != null)
+                    total = new Add(total, new Mul(term.a, var(pairs)));
+                apply.add(new Assignment(var, new Add(var(var), total)));
+            }
+            else
+            {
+                Linear value = finals.get(var);
+                Expression result = value.b;
+                if (value.a != null)
+                    result = new Add(new Mul(value.a, new Sub(var(count), new Number(1))),
+                            result);
+                apply.add(new Assignment(var, result));
+            }
+        }
+        apply.add(new Assignment(counter, new Add(var(last), new Number(step))));
+
+        Expression wraps = up ? new Number(Integer.MAX_VALUE - step)
+                : new Number(Integer.MIN_VALUE - step);
+        If noWrap = new If(new Program(apply), null,
+                compare(var(last), up ? "<=" : ">=", wraps));
+
+        List<Statement> counted = new ArrayList<Statement>();
+        int size = Math.abs(step);
+        Expression iterations = inclusive
+                ? new Add(new Div(var(distance), new Number(size)), new Number(1))
+                : new Add(new Div(new Sub(var(distance), new Number(1)), new Number(size)),
+                        new Number(1));
+        counted.add(new Assignment(count, iterations));
+        List<Statement> stepped = new ArrayList<Statement>();
+        stepped.add(new Assignment(last, new Add(var(counter),
+                new Mul(new Sub(var(count), new Number(1)), new Number(step)))));
+        stepped.add(noWrap);
+        if (inclusive && size == 1)
+            counted.add(new If(new Program(stepped), null,
+                    compare(var(count), ">", new Number(0))));
+        else
+            counted.addAll(stepped);
+        If fits = new If(new Program(counted), null,
+                compare(var(distance), inclusive ? ">=" : ">", new Number(0)));
+
+        List<Statement> entered = new ArrayList<Statement>();
+        entered.add(new Assignment(distance, up ? new Sub(copy(bound), var(counter))
+                : new Sub(var(counter), copy(bound))));
+        entered.add(fits);
+        If reduced = new If(new Program(entered), null, compare(var(counter), op, copy(bound)));
+        reduced.setPosition(loop.getLine(), loop.getColumn());
+        return simplifier.optimize(reduced, new HashSet<String>(defined));
+    }
+
+    /**
+     * Collects the assignments of a loop body, which may be nested in Programs
+     *
+     * @param stmt the body
+     * @param body the list the assignments are added to
+     * @return true if the body holds nothing but assignments; Otherwise,
+     *         false
+     */
+    private static boolean flatten(Statement stmt, List<Assignment> body)
+    {
+        if (stmt instanceof Assignment)
+        {
+            body.add((Assignment) stmt);
+            return true;
+        }
+        if (!(stmt instanceof Program))
+            return false;
+        for (Statement s: ((Program) stmt).getStatements())
+        {
+            if (!flatten(s, body))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the constant by which a loop body steps its counter
+     *
+     * @param body the assignments of the body
+     * @param counter the name of the counter
+     * @return the step, or 0 if the counter is not assigned exactly once, as itself plus a
+     *         constant
+     */
+    private static int step(List<Assignment> body, String counter)
+    {
+        for (Assignment assign: body)
+        {
+            if (!assign.getVar().equals(counter))
+                continue;
+            if (!(assign.getExp() instanceof Add))
+                return 0;
+            Add add = (Add) assign.getExp();
+            if (isVariable(add.getExp1(), counter) && add.getExp2() instanceof Number)
+                return ((Number) add.getExp2()).getValue();
+            if (isVariable(add.getExp2(), counter) && add.getExp1() instanceof Number)
+                return ((Number) add.getExp1()).getValue();
+            return 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Finds what an assignment s = e adds to s, when s is read exactly once in e and is added
+     * to the rest of e through additions and subtractions
+     *
+     * @param assign the assignment
+     * @return e - s without the read of s, or null if the assignment does not have that form
+     */
+    private static Expression accumulated(Assignment assign)
+    {
+        if (countReads(assign.getExp(), assign.getVar()) != 1)
+            return null;
+        return withoutAdded(assign.getExp(), assign.getVar());
+    }
+
+    /**
+     * Removes a variable which is added to the rest of an expression
+     *
+     * @param exp the expression, which reads the variable exactly once
+     * @param var the name of the variable
+     * @return the expression with the variable replaced by 0, or null if the variable is
+     *         not simply added
+     */
+    private static Expression withoutAdded(Expression exp, String var)
+    {
+        if (isVariable(exp, var))
+            return new Number(0);
+        if (!(exp instanceof Add || exp instanceof Sub))
+            return null;
+        BinaryOperator bin = (BinaryOperator) exp;
+        if (countReads(bin.getExp1(), var) > 0)
+        {
+            Expression left = withoutAdded(bin.getExp1(), var);
+            return left == null ? null
+                    : BinaryOperator.create(bin.getOperator(), left, bin.getExp2());
+        }
+        if (exp instanceof Sub)
+            return null;
+        Expression right = withoutAdded(bin.getExp2(), var);
+        return right == null ? null : new Add(bin.getExp1(), right);
+    }
+
+    /**
+     * Checks whether a variable is read anywhere in a loop body other than as the s of its
+     * own accumulating assignment, whose other reads accumulated has already ruled out
+     *
+     * @param body the assignments of the body
+     * @param own the accumulating assignment
+     * @param var the variable
+     * @return true if another read of the variable exists; Otherwise,
+     *         false
+     */
+    private static boolean reads(List<Assignment> body, Assignment own, String var)
+    {
+        for (Assignment assign: body)
+        {
+            if (assign != own && countReads(assign.getExp(), var) > 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the value of an expression in iteration k of a loop as a linear function of k
+     *
+     * @param exp the expression
+     * @param counter the name of the counter
+     * @param written the variables the loop assigns
+     * @param current the linear values of the assigned variables at this point of the body
+     * @param defined the variables definitely assigned before the loop
+     * @return the linear value, or null if the expression is not linear in k, or reads an
+     *         assigned variable whose value at this point is not known
+     */
+    private static Linear linear(Expression exp, String counter, Set<String> written,
+                                 Map<String, Linear> current, Set<String> defined)
+    {
+        if (exp instanceof Number)
+            return new Linear(null, exp);
+        if (exp instanceof Variable)
+        {
+            String name = ((Variable) exp).getName();
+            if (written.contains(name))
+                return current.get(name);
+            return defined.contains(name) ? new Linear(null, exp) : null;
+        }
+        if (exp instanceof Add || exp instanceof Sub)
+        {
+            BinaryOperator bin = (BinaryOperator) exp;
+            Linear left = linear(bin.getExp1(), counter, written, current, defined);
+            Linear right = linear(bin.getExp2(), counter, written, current, defined);
+            if (left == null || right == null)
+                return null;
+            String operator = bin.getOperator();
+            Expression a = left.a;
+            if (right.a != null)
+                a = a == null ? (exp instanceof Add ? right.a : new Neg(right.a))
+                        : BinaryOperator.create(operator, a, right.a);
+            return new Linear(a, BinaryOperator.create(operator, left.b, right.b));
+        }
+        if (exp instanceof Neg)
+        {
+            Linear inner = linear(((Neg) exp).getExp(), counter, written, current, defined);
+            if (inner == null)
+                return null;
+            return new Linear(inner.a == null ? null : new Neg(inner.a), new Neg(inner.b));
+        }
+        if (exp instanceof Mul)
+        {
+            Mul mul = (Mul) exp;
+            Linear left = linear(mul.getExp1(), counter, written, current, defined);
+            Linear right = linear(mul.getExp2(), counter, written, current, defined);
+            if (left == null || right == null || left.a != null && right.a != null)
+                return null;
+            if (left.a != null)
+                return new Linear(new Mul(left.a, right.b), new Mul(left.b, right.b));
+            if (right.a != null)
+                return new Linear(new Mul(left.b, right.a), new Mul(left.b, right.b));
+            return new Linear(null, new Mul(left.b, right.b));
+        }
+        if (exp instanceof ShiftLeft)
+        {
+            ShiftLeft shift = (ShiftLeft) exp;
+            Linear inner = linear(shift.getExp(), counter, written, current, defined);
+            if (inner == null)
+                return null;
+            Number factor = new Number(1 << shift.getBits());
+            return new Linear(inner.a == null ? null : new Mul(inner.a, factor),
+                    new Mul(inner.b, factor));
+        }
+        if (exp instanceof Div || exp instanceof ShiftDivide)
+        {
+            for (String name: written)
+            {
+                if (countReads(exp, name) > 0)
+                    return null;
+            }
+            return allDefined(exp, defined) ? new Linear(null, exp) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether every variable of an expression is definitely assigned
+     *
+     * @param exp the expression
+     * @param defined the variables definitely assigned
+     * @return true if every variable read by the expression is defined; Otherwise,
+     *         false
+     */
+    private static boolean allDefined(Expression exp, Set<String> defined)
+    {
+        if (exp instanceof Variable)
+            return defined.contains(((Variable) exp).getName());
+        if (exp instanceof BinaryOperator)
+            return allDefined(((BinaryOperator) exp).getExp1(), defined)
+                    && allDefined(((BinaryOperator) exp).getExp2(), defined);
+        if (exp instanceof ShiftDivide)
+            return allDefined(((ShiftDivide) exp).getExp(), defined);
+        if (exp instanceof ShiftLeft)
+            return allDefined(((ShiftLeft) exp).getExp(), defined);
+        if (exp instanceof Neg)
+            return allDefined(((Neg) exp).getExp(), defined);
+        return exp instanceof Number;
+    }
+
+    /**
+     * Counts the reads of a variable in an expression
+     *
+     * @param exp the expression
+     * @param var the name of the variable
+     * @return the number of reads
+     */
+    private static int countReads(Expression exp, String var)
+    {
+        if (exp instanceof Variable)
+            return ((Variable) exp).getName().equals(var) ? 1 : 0;
+        if (exp instanceof BinaryOperator)
+            return countReads(((BinaryOperator) exp).getExp1(), var)
+                    + countReads(((BinaryOperator) exp).getExp2(), var);
+        if (exp instanceof Neg)
+            return countReads(((Neg) exp).getExp(), var);
+        if (exp instanceof ShiftLeft)
+            return countReads(((ShiftLeft) exp).getExp(), var);
+        if (exp instanceof ShiftDivide)
+            return countReads(((ShiftDivide) exp).getExp(), var);
+        if (exp instanceof BooleanExp)
+        {
+            int total = countReads(((BooleanExp) exp).getExp(), var);
+            for (Relop relop: ((BooleanExp) exp).getRelops())
+                total += countReads(relop.getExp(), var);
+            return total;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether an expression is a given variable
+     *
+     * @param exp the expression
+     * @param name the name of the variable
+     * @return true if the expression reads the variable and nothing else; Otherwise,
+     *         false
+     */
+    private static boolean isVariable(Expression exp, String name)
+    {
+        return exp instanceof Variable && ((Variable) exp).getName().equals(name);
+    }
+
+    /**
+     * Creates a read of a variable
+     *
+     * @param name the name of the variable
+     * @return the Variable
+     */
+    private static Variable var(String name)
+    {
+        return new Variable(name);
+    }
+
+    /**
+     * Copies the bound of a condition, which is a Number or a Variable
+     *
+     * @param bound the bound
+     * @return a new node with the same value
+     */
+    private static Expression copy(Expression bound)
+    {
+        if (bound instanceof Number)
+            return new Number(((Number) bound).getValue());
+        return new Variable(((Variable) bound).getName());
+    }
+
+    /**
+     * Creates a condition comparing two expressions
+     *
+     * @param left the expression on the left
+     * @param op the comparative operator
+     * @param right the expression on the right
+     * @return the condition
+     */
+    private static Expression compare(Expression left, String op, Expression right)
+    {
+        List<Relop> relops = new ArrayList<Relop>();
+        relops.add(Relop.create(op, right));
+        return new BooleanExp(left, relops);
+    }
+}
@@ -0,0 +1,85 @@
+package optimizer;
+import ast.*;
+
+/**
+ * NodeCounter counts the nodes of an AST, which is used to report how much smaller the
+ * Optimizer has made a program. Every Statement, Expression, and Relop counts as one node
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class NodeCounter
+{
+    /**
+     * Counts the nodes of a Statement and everything beneath it
+     *
+     * @param stmt the Statement being counted
+     * @return the number of nodes in the Statement
+     */
+    public static int count(Statement stmt)
+    {
+        if (stmt instanceof Program)
+        {
+            int total = 1;
+            for (Statement s: ((Program) stmt).getStatements())
+            {
+                total += count(s);
+            }
+            return total;
+        }
+        if (stmt instanceof Assignment)
+            return 1 + count(((Assignment) stmt).getExp());
+        if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            int total = 1 + count(display.getExpression());
+            if (display.getRead() != null)
+                total++;
+            return total;
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            int total = 1 + count(ifStmt.getCondition()) + count(ifStmt.getThen());
+            if (ifStmt.getElse() != null)
+                total += count(ifStmt.getElse());
+            return total;
+        }
+        if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            return 1 + count(loop.getCondition()) + count(loop.getProgram());
+        }
+        return 1;
+    }
+
+    /**
+     * Counts the nodes of an Expression and everything beneath it
+     *
+     * @param exp the Expression being counted
+     * @return the number of nodes in the Expression
+     */
+    public static int count(Expression exp)
+    {
+        if (exp instanceof BinaryOperator)
+            return 1 + count(((BinaryOperator) exp).getExp1())
+                    + count(((BinaryOperator) exp).getExp2());
+        if (exp instanceof Neg)
+            return 1 + count(((Neg) exp).getExp());
+        if (exp instanceof ShiftLeft)
+            return 1 + count(((ShiftLeft) exp).getExp());
+        if (exp instanceof ShiftDivide)
+            return 1 + count(((ShiftDivide) exp).getExp());
+        if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            int total = 1 + count(bool.getExp());
+            for (Relop relop: bool.getRelops())
+            {
+                total += 1 + count(relop.getExp());
+            }
+            return total;
+        }
+        return 1;
+    }
+}
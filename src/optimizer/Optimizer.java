@@ -0,0 +1,515 @@
+package optimizer;
+import ast.*;
+import ast.Number;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The Optimizer rewrites a parsed AST, before it is resolved and executed, into an equivalent
+ * AST which does less work every time it is evaluated. It folds constant subtrees into Numbers,
+ * removes arithmetic identities (x+0, x-0, x*1, x/1, x*0), gathers constants in chains of
+ * additions and multiplications, and replaces multiplications and divisions by powers of two
+ * with shifts. All int arithmetic wraps around exactly as it would at runtime.
+ *
+ * An Expression which may fail is never removed or folded, so its error is still reported
+ * when the program runs. It may fail when it divides by anything but a non-zero constant,
+ * or when it reads a variable which is not definitely assigned, meaning some path to the
+ * Expression does not assign it. The Optimizer finds the definitely assigned variables by
+ * working forwards through the Program, as the LoopOptimizer does, so x * 0 only becomes 0
+ * once x has been assigned on every path.
+ *
+ * Once every Statement has been simplified, the LoopOptimizer moves invariant and repeated
+ * expressions out of While loops, and the DeadCodeEliminator then removes unreachable
+ * Statements and assignments whose values are never read.
+ *
+ * Every optimized node keeps the source position of the node it replaces.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Optimizer
+{
+    /**
+     * the version of the optimizer passes, which is part of the key of every optimized
+     * Program in a ProgramCache and must be increased whenever a pass changes what it produces
+     */
+    public static final int VERSION = 2;
+
+    private final DeadCodeEliminator eliminator = new DeadCodeEliminator();
+
+    /**
+     * Optimizes every Statement of a Program, then its loops, and then removes its dead code
+     *
+     * @param prog the Program being optimized
+     * @return a new Program containing the optimized Statements
+     */
+    public Program optimize(Program prog)
+    {
+        Program simplified = simplify(prog, new HashSet<String>());
+        return eliminator.eliminate(new LoopOptimizer().optimize(simplified));
+    }
+
+    /**
+     * Retrieves the number of Statements removed so far because they could never run
+     *
+     * @return the unreachable Statement count
+     */
+    public int getUnreachableCount()
+    {
+        return eliminator.getUnreachableCount();
+    }
+
+    /**
+     * Retrieves the number of Statements removed so far because they had no effect, such as
+     * assignments to variables which are never read afterwards
+     *
+     * @return the dead Statement count
+     */
+    public int getDeadCount()
+    {
+        return eliminator.getDeadCount();
+    }
+
+    /**
+     * Simplifies every Statement of a Program
+     *
+     * @param prog the Program being simplified
+     * @param defined the variables definitely assigned before the Program, which is updated
+     *                to those definitely assigned after it
+     * @return a new Program containing the simplified Statements
+     */
+    private Program simplify(Program prog, Set<String> defined)
+    {
+        List<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s: prog.getStatements())
+        {
+            stmts.add(optimize(s, defined));
+        }
+        return new Program(stmts);
+    }
+
+    /**
+     * Optimizes a single Statement, keeping its source position. No variable is taken to be
+     * assigned before the Statement
+     *
+     * @param stmt the Statement being optimized
+     * @return the optimized Statement, at the source position of the original
+     */
+    public Statement optimize(Statement stmt)
+    {
+        return optimize(stmt, new HashSet<String>());
+    }
+
+    /**
+     * Optimizes a single Statement, keeping its source position
+     *
+     * @param stmt the Statement being optimized
+     * @param defined the variables definitely assigned before the Statement, which is updated
+     *                to those definitely assigned after it
+     * @return the optimized Statement, at the source position of the original
+     */
+    public Statement optimize(Statement stmt, Set<String> defined)
+    {
+        Statement result = simplify(stmt, defined);
+        if (result.getLine() == 0)
+            result.setPosition(stmt.getLine(), stmt.getColumn());
+        return result;
+    }
+
+    /**
+     * Optimizes the Expressions and bodies of a single Statement
+     *
+     * @param stmt the Statement being optimized
+     * @param defined the variables definitely assigned before the Statement, which is updated
+     *                to those definitely assigned after it
+     * @return the optimized Statement
+     */
+    private Statement simplify(Statement stmt, Set<String> defined)
+    {
+        if (stmt instanceof Program)
+            return simplify((Program) stmt, defined);
+        if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            Statement result = new Assignment(assign.getVar(),
+                    optimize(assign.getExp(), defined));
+            defined.add(assign.getVar());
+            return result;
+        }
+        if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            Statement result = new Display(optimize(display.getExpression(), defined),
+                    display.getRead());
+            if (display.getRead() != null)
+                defined.add(display.getRead().getVar());
+            return result;
+        }
+        if (stmt instanceof Read)
+        {
+            defined.add(((Read) stmt).getVar());
+            return stmt;
+        }
+        if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            Expression cond = optimizeCondition(ifStmt.getCondition(), defined);
+            Set<String> thenDefined = new HashSet<String>(defined);
+            Statement thenStmt = optimize(ifStmt.getThen(), thenDefined);
+            Statement elseStmt = ifStmt.getElse();
+            if (elseStmt != null)
+            {
+                Set<String> elseDefined = new HashSet<String>(defined);
+                elseStmt = optimize(elseStmt, elseDefined);
+                thenDefined.retainAll(elseDefined);
+                defined.addAll(thenDefined);
+            }
+            return new If(thenStmt, elseStmt, cond);
+        }
+        if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            return new While(optimizeCondition(loop.getCondition(), defined),
+                    simplify(loop.getProgram(), new HashSet<String>(defined)));
+        }
+        return stmt;
+    }
+
+    /**
+     * Optimizes the condition of an If or While statement, keeping its source position.
+     * Unlike a displayed Expression, a condition whose comparisons are all between
+     * constants can be folded into a Number since only its truth value is used. No variable
+     * is taken to be assigned before the condition
+     *
+     * @param cond the condition being optimized
+     * @return the optimized condition, at the source position of the original
+     */
+    public Expression optimizeCondition(Expression cond)
+    {
+        return optimizeCondition(cond, new HashSet<String>());
+    }
+
+    /**
+     * Optimizes the condition of an If or While statement, keeping its source position
+     *
+     * @param cond the condition being optimized
+     * @param defined the variables definitely assigned before the condition
+     * @return the optimized condition, at the source position of the original
+     */
+    private Expression optimizeCondition(Expression cond, Set<String> defined)
+    {
+        Expression result = simplifyCondition(cond, defined);
+        if (result.getLine() == 0)
+            result.setPosition(cond.getLine(), cond.getColumn());
+        return result;
+    }
+
+    /**
+     * Optimizes the condition of an If or While statement, folding it into a Number when
+     * all of its comparisons are between constants
+     *
+     * @param cond the condition being optimized
+     * @param defined the variables definitely assigned before the condition
+     * @return the optimized condition
+     */
+    private Expression simplifyCondition(Expression cond, Set<String> defined)
+    {
+        Expression exp = optimize(cond, defined);
+        if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            if (!(bool.getExp() instanceof Number))
+                return exp;
+            int left = ((Number) bool.getExp()).getValue();
+            boolean check = true;
+            for (Relop relop: bool.getRelops())
+            {
+                if (!(relop.getExp() instanceof Number))
+                    return exp;
+                if (!relop.compare(left, ((Number) relop.getExp()).getValue()))
+                    check = false;
+            }
+            if (check)
+                return new Number(1);
+            return new Number(0);
+        }
+        return exp;
+    }
+
+    /**
+     * Optimizes an Expression, keeping its source position. No variable is taken to be
+     * assigned before the Expression
+     *
+     * @param exp the Expression being optimized
+     * @return the optimized Expression, at the source position of the original
+     */
+    public Expression optimize(Expression exp)
+    {
+        return optimize(exp, new HashSet<String>());
+    }
+
+    /**
+     * Optimizes an Expression, keeping its source position
+     *
+     * @param exp the Expression being optimized
+     * @param defined the variables definitely assigned before the Expression
+     * @return the optimized Expression, at the source position of the original
+     */
+    private Expression optimize(Expression exp, Set<String> defined)
+    {
+        Expression result = simplify(exp, defined);
+        if (result.getLine() == 0)
+            result.setPosition(exp.getLine(), exp.getColumn());
+        return result;
+    }
+
+    /**
+     * Optimizes an Expression by optimizing its subexpressions first and then simplifying
+     * the Expression itself
+     *
+     * @param exp the Expression being optimized
+     * @param defined the variables definitely assigned before the Expression
+     * @return the optimized Expression
+     */
+    private Expression simplify(Expression exp, Set<String> defined)
+    {
+        if (exp instanceof BinaryOperator)
+        {
+            BinaryOperator bin = (BinaryOperator) exp;
+            Expression left = optimize(bin.getExp1(), defined);
+            Expression right = optimize(bin.getExp2(), defined);
+            if (left instanceof Number && right instanceof Number
+                    && !(bin instanceof Div && ((Number) right).getValue() == 0))
+            {
+                return new Number(bin.apply(((Number) left).getValue(),
+                        ((Number) right).getValue()));
+            }
+            if (bin instanceof Add)
+                return simplifyAdd(left, right);
+            if (bin instanceof Sub)
+                return simplifySub(left, right);
+            if (bin instanceof Mul)
+                return simplifyMul(left, right, defined);
+            return simplifyDiv(left, right);
+        }
+        if (exp instanceof Neg)
+            return negate(optimize(((Neg) exp).getExp(), defined));
+        if (exp instanceof ShiftLeft)
+        {
+            ShiftLeft shift = (ShiftLeft) exp;
+            return simplifyMul(optimize(shift.getExp(), defined),
+                    new Number(1 << shift.getBits()), defined);
+        }
+        if (exp instanceof ShiftDivide)
+        {
+            ShiftDivide shift = (ShiftDivide) exp;
+            return simplifyDiv(optimize(shift.getExp(), defined),
+                    new Number(1 << shift.getBits()));
+        }
+        if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            List<Relop> relops = new ArrayList<Relop>();
+            for (Relop relop: bool.getRelops())
+            {
+                relops.add(Relop.create(relop.getOperator(),
+                        optimize(relop.getExp(), defined)));
+            }
+            return new BooleanExp(optimize(bool.getExp(), defined), relops);
+        }
+        return exp;
+    }
+
+    /**
+     * Simplifies the addition of two optimized Expressions
+     *
+     * @param left the first Expression
+     * @param right the second Expression
+     * @return an Expression equivalent to left + right
+     */
+    private Expression simplifyAdd(Expression left, Expression right)
+    {
+        if (left instanceof Number)
+        {
+            Expression temp = left;
+            left = right;
+            right = temp;
+        }
+        if (right instanceof Neg)
+            return simplifySub(left, ((Neg) right).getExp());
+        if (!(right instanceof Number))
+            return new Add(left, right);
+        int c = ((Number) right).getValue();
+        if (c == 0)
+            return left;
+        if (left instanceof Add && ((Add) left).getExp2() instanceof Number)
+        {
+            int c2 = ((Number) ((Add) left).getExp2()).getValue();
+            return simplifyAdd(((Add) left).getExp1(), new Number(c + c2));
+        }
+        return new Add(left, right);
+    }
+
+    /**
+     * Simplifies the subtraction of two optimized Expressions. Subtracting a constant is
+     * rewritten as adding its negation, which wraps around identically
+     *
+     * @param left the first Expression
+     * @param right the second Expression
+     * @return an Expression equivalent to left - right
+     */
+    private Expression simplifySub(Expression left, Expression right)
+    {
+        if (right instanceof Number)
+            return simplifyAdd(left, new Number(-((Number) right).getValue()));
+        if (right instanceof Neg)
+            return simplifyAdd(left, ((Neg) right).getExp());
+        if (left instanceof Number && ((Number) left).getValue() == 0)
+            return negate(right);
+        return new Sub(left, right);
+    }
+
+    /**
+     * Simplifies the multiplication of two optimized Expressions
+     *
+     * @param left the first Expression
+     * @param right the second Expression
+     * @param defined the variables definitely assigned before the multiplication
+     * @return an Expression equivalent to left * right
+     */
+    private Expression simplifyMul(Expression left, Expression right, Set<String> defined)
+    {
+        if (left instanceof Number)
+        {
+            Expression temp = left;
+            left = right;
+            right = temp;
+        }
+        if (!(right instanceof Number))
+            return new Mul(left, right);
+        int c = ((Number) right).getValue();
+        if (c == 1)
+            return left;
+        if (c == -1)
+            return negate(left);
+        if (c == 0 && !canFail(left, defined))
+            return new Number(0);
+        if (left instanceof Mul && ((Mul) left).getExp2() instanceof Number)
+        {
+            int c2 = ((Number) ((Mul) left).getExp2()).getValue();
+            return simplifyMul(((Mul) left).getExp1(), new Number(c * c2), defined);
+        }
+        if (left instanceof ShiftLeft)
+        {
+            ShiftLeft shift = (ShiftLeft) left;
+            return simplifyMul(shift.getExp(), new Number(c << shift.getBits()), defined);
+        }
+        if (c > 1 && Integer.bitCount(c) == 1)
+            return new ShiftLeft(left, Integer.numberOfTrailingZeros(c));
+        return new Mul(left, right);
+    }
+
+    /**
+     * Simplifies the division of two optimized Expressions
+     *
+     * @param left the first Expression
+     * @param right the second Expression
+     * @return an Expression equivalent to left / right
+     */
+    private Expression simplifyDiv(Expression left, Expression right)
+    {
+        if (!(right instanceof Number))
+            return new Div(left, right);
+        int c = ((Number) right).getValue();
+        if (c == 1)
+            return left;
+        if (c == -1)
+            return negate(left);
+        if (c > 1 && Integer.bitCount(c) == 1)
+            return new ShiftDivide(left, Integer.numberOfTrailingZeros(c));
+        return new Div(left, right);
+    }
+
+    /**
+     * Simplifies the negation of an optimized Expression
+     *
+     * @param exp the Expression being negated
+     * @return an Expression equivalent to -exp
+     */
+    private Expression negate(Expression exp)
+    {
+        if (exp instanceof Number)
+            return new Number(-((Number) exp).getValue());
+        if (exp instanceof Neg)
+            return ((Neg) exp).getExp();
+        if (exp instanceof Sub)
+            return new Sub(((Sub) exp).getExp2(), ((Sub) exp).getExp1());
+        return new Neg(exp);
+    }
+
+    /**
+     * Checks whether evaluating an Expression could throw, which is the case when it divides
+     * by anything other than a non-zero constant or reads a variable which is not definitely
+     * assigned
+     *
+     * @param exp the Expression being checked
+     * @param defined the variables definitely assigned where the Expression is evaluated
+     * @return true if the Expression may divide by zero or read an undefined variable;
+     *         Otherwise,
+     *         false
+     */
+    public static boolean canFail(Expression exp, Set<String> defined)
+    {
+        if (exp instanceof Variable)
+            return !defined.contains(((Variable) exp).getName());
+        if (exp instanceof Div && !(((Div) exp).getExp2() instanceof Number
+                && ((Number) ((Div) exp).getExp2()).getValue() != 0))
+            return true;
+        for (Expression sub: LoopOptimizer.children(exp))
+        {
+            if (canFail(sub, defined))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an Expression could divide by zero, which is the case when it divides
+     * by anything other than a non-zero constant
+     *
+     * @param exp the Expression being checked
+     * @return true if the Expression contains a division which may be by zero; Otherwise,
+     *         false
+     */
+    public static boolean canDivideByZero(Expression exp)
+    {
+        if (exp instanceof BinaryOperator)
+        {
+            BinaryOperator bin = (BinaryOperator) exp;
+            if (bin instanceof Div && !(bin.getExp2() instanceof Number
+                    && ((Number) bin.getExp2()).getValue() != 0))
+                return true;
+            return canDivideByZero(bin.getExp1()) || canDivideByZero(bin.getExp2());
+        }
+        if (exp instanceof Neg)
+            return canDivideByZero(((Neg) exp).getExp());
+        if (exp instanceof ShiftLeft)
+            return canDivideByZero(((ShiftLeft) exp).getExp());
+        if (exp instanceof ShiftDivide)
+            return canDivideByZero(((ShiftDivide) exp).getExp());
+        if (exp instanceof BooleanExp)
+        {
+            BooleanExp bool = (BooleanExp) exp;
+            if (canDivideByZero(bool.getExp()))
+                return true;
+            for (Relop relop: bool.getRelops())
+            {
+                if (canDivideByZero(relop.getExp()))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,40 @@
 package parser;
-import scanner.Scanner;
-import scanner.ScanErrorException;
-import java.io.*;
 import ast.*;
-import environment.Environment;
 import ast.Number;
+import batch.BatchResult;
+import batch.BatchRunner;
+import cache.ProgramCache;
+import closure.ClosureCompiler;
+import closure.ClosureProgram;
+import environment.Environment;
+import environment.Input;
+import environment.Output;
+import environment.SymbolTable;
+import flat.FlatCompiler;
+import flat.FlatInterpreter;
+import flat.FlatProgram;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import jvm.JvmCompiler;
+import jvm.JvmProgram;
+import lanes.LaneProgram;
+import metrics.ExecEvent;
+import metrics.InterpreterMetrics;
+import metrics.ParseEvent;
+import optimizer.NodeCounter;
+import optimizer.Optimizer;
+import profiler.Profiler;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import scanner.TokenKind;
+import server.InterpreterServer;
+import server.ResidentProgram;
+import tiered.TieredCompiler;
+import vm.Bytecode;
+import vm.VirtualMachine;
 
 /**
  * The Parser takes in a stream of tokens outputted by a lexical analyzer, or Scanner,
@@ -40,11 +69,12 @@ import java.util.*;
 public class Parser
 {
     private Scanner lex;
-    private String currentToken;
+    private TokenKind current;
+    private long nodes;
 
     /**
      * Creates a Parser object with a given Scanner object to perform lexical analysis
-     * and sets its instance Scanner and currentToken
+     * and sets its instance Scanner and the kind of the current token
      *
      * @param scan a Scanner object to be used with the Parser
      * @throws ScanErrorException if an unidentified character is encountered
@@ -52,28 +82,77 @@ public class Parser
     public Parser(Scanner scan) throws ScanErrorException
     {
         lex = scan;
-        currentToken = lex.nextToken();
+        current = lex.next();
     }
 
     /**
-     * eat will take in a character, check it against the currentToken, and then set
-     * the next character in the input stream
+     * eat will take in a kind of token, check it against the current token, and then scan
+     * the next token in the input stream. The end of the input is accepted in place of "end".
      *
-     * @param expected the expected token to be eaten
+     * @param expected the kind of the expected token to be eaten
      * @throws ScanErrorException if an unidentified character is encountered
      * @throws IllegalArgumentException if the expected and found tokens are not the same
      */
-    private void eat(String expected) throws ScanErrorException, IllegalArgumentException
+    private void eat(TokenKind expected) throws ScanErrorException, IllegalArgumentException
     {
-        if (expected.equals(currentToken))
-            currentToken = lex.nextToken();
-        else
+        if (expected == current)
+            current = lex.next();
+        else if (expected != TokenKind.END || current != TokenKind.EOF)
+            throw new IllegalArgumentException("Expected: " + expected.getText()
+                    + " but found: " + lex.getText() + " at " + position());
+    }
+
+    /**
+     * position describes where the current token is, for error messages
+     *
+     * @return the line and column of the current token
+     */
+    private String position()
+    {
+        return "line " + lex.getLine() + ", column " + lex.getColumn();
+    }
+
+    /**
+     * eatIdentifier will check that the current token is an identifier, and then scan the
+     * next token in the input stream
+     *
+     * @return the name of the identifier
+     * @throws ScanErrorException if an unidentified character is encountered
+     * @throws IllegalArgumentException if the current token is not an identifier
+     */
+    private String eatIdentifier() throws ScanErrorException, IllegalArgumentException
+    {
+        if (current != TokenKind.IDENTIFIER)
             throw new IllegalArgumentException(
-                    "Expected: " + expected + "but found: " + currentToken);
+                    "Expected: identifier but found: " + lex.getText() + " at " + position());
+        String name = lex.getText();
+        current = lex.next();
+        return name;
+    }
+
+    /**
+     * parseProgram will parse the whole input into a Program, and records how long the
+     * parse took and how many tokens and AST nodes it produced with the InterpreterMetrics
+     *
+     * @return a Program object which contains a list of all Statements
+     * @throws ScanErrorException if an unidentified character is encountered
+     */
+    public Program parseProgram() throws ScanErrorException
+    {
+        InterpreterMetrics metrics = InterpreterMetrics.get();
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long firstToken = lex.getTokenCount() - 1;
+        long firstNode = nodes;
+        Program prog = parseStatements();
+        metrics.recordParse(event, System.nanoTime() - start,
+                lex.getTokenCount() - firstToken, nodes - firstNode);
+        return prog;
     }
 
     /**
-     * parseProgram will parse through a list of Statements until "end" "else" or the
+     * parseStatements will parse through a list of Statements until "end" "else" or the
      * end of the file is reached and return a Program object with the list of these Statements
      *
      * Program -> Statement P
@@ -82,13 +161,14 @@ public class Parser
      * @return a Program object which contains a list of all Statements
      * @throws ScanErrorException if an unidentified character is encountered
      */
-    private Program parseProgram() throws ScanErrorException
+    private Program parseStatements() throws ScanErrorException
     {
         List<Statement> stmts = new ArrayList<Statement>();
-        while (currentToken != null && !currentToken.equals("end") && !currentToken.equals("else"))
+        while (current != TokenKind.END && current != TokenKind.ELSE && current != TokenKind.EOF)
         {
             stmts.add(parseStatement());
         }
+        nodes++;
         return new Program(stmts);
     }
 
@@ -105,55 +185,55 @@ public class Parser
      */
     private Statement parseStatement() throws ScanErrorException
     {
-        if (currentToken.equals("display"))
+        int line = lex.getLine();
+        int column = lex.getColumn();
+        if (current == TokenKind.DISPLAY)
         {
-            eat("display");
+            eat(TokenKind.DISPLAY);
             Expression exp = parseExpression();
             Read read = null;
-            if (currentToken.equals("read"))
+            if (current == TokenKind.READ)
             {
-                eat("read");
-                String varName = currentToken;
-                eat(varName);
-                read = new Read(varName);
+                eat(TokenKind.READ);
+                read = new Read(eatIdentifier());
+                nodes++;
             }
-            return new Display(exp, read);
+            return at(new Display(exp, read), line, column);
         }
-        else if (currentToken.equals("assign"))
+        else if (current == TokenKind.ASSIGN)
         {
-            eat("assign");
-            String varName = currentToken;
-            eat(varName);
-            eat("=");
-            return new Assignment(varName, parseExpression());
+            eat(TokenKind.ASSIGN);
+            String varName = eatIdentifier();
+            eat(TokenKind.EQUALS);
+            return at(new Assignment(varName, parseExpression()), line, column);
         }
-        else if (currentToken.equals("if"))
+        else if (current == TokenKind.IF)
         {
-            eat("if");
+            eat(TokenKind.IF);
             Expression cond = parseExpression();
-            eat("then");
-            Program prog = parseProgram();
-            if (currentToken.equals("else"))
+            eat(TokenKind.THEN);
+            Program prog = parseStatements();
+            if (current == TokenKind.ELSE)
             {
-                eat("else");
-                If ifStatement = new If(prog, parseProgram(), cond);
-                eat("end");
-                return ifStatement;
+                eat(TokenKind.ELSE);
+                If ifStatement = new If(prog, parseStatements(), cond);
+                eat(TokenKind.END);
+                return at(ifStatement, line, column);
             }
             else
             {
-                eat("end");
-                return new If(prog,null, cond);
+                eat(TokenKind.END);
+                return at(new If(prog,null, cond), line, column);
             }
         }
         else
         {
-            eat("while");
+            eat(TokenKind.WHILE);
             Expression exp = parseExpression();
-            eat("do");
-            Program prog = parseProgram();
-            eat("end");
-            return new While(exp, prog);
+            eat(TokenKind.DO);
+            Program prog = parseStatements();
+            eat(TokenKind.END);
+            return at(new While(exp, prog), line, column);
         }
     }
 
@@ -165,9 +245,12 @@ public class Parser
      */
     private Number parseNumber() throws ScanErrorException
     {
-        int num = Integer.parseInt(currentToken);
-        eat(currentToken);
-        return new Number(num);
+        int num = lex.getNumber();
+        Number number = new Number(num);
+        number.setPosition(lex.getLine(), lex.getColumn());
+        nodes++;
+        eat(TokenKind.NUMBER);
+        return number;
     }
 
     /**
@@ -181,22 +264,22 @@ public class Parser
      */
     private Expression parseValue() throws ScanErrorException
     {
-        if (currentToken.equals("("))
+        if (current == TokenKind.LPAREN)
         {
-            eat("(");
+            eat(TokenKind.LPAREN);
             Expression exp = parseExpression();
-            eat(")");
+            eat(TokenKind.RPAREN);
             return exp;
         }
-        else if (lex.isDigit(currentToken.charAt(0)))
+        else if (current == TokenKind.NUMBER)
         {
             return parseNumber();
         }
         else
         {
-            String varName = currentToken;
-            eat(varName);
-            return new Variable(varName);
+            int line = lex.getLine();
+            int column = lex.getColumn();
+            return at(new Variable(eatIdentifier()), line, column);
         }
     }
 
@@ -211,10 +294,12 @@ public class Parser
      */
     private Expression parseNegExpr() throws ScanErrorException
     {
-        if (currentToken.equals("-"))
+        if (current == TokenKind.MINUS)
         {
-            eat("-");
-            return new BinaryOperator("*" , new Number(-1), parseValue());
+            int line = lex.getLine();
+            int column = lex.getColumn();
+            eat(TokenKind.MINUS);
+            return at(new Neg(parseValue()), line, column);
         }
         return parseValue();
     }
@@ -232,12 +317,15 @@ public class Parser
      */
     private Expression parseMultExpr() throws ScanErrorException
     {
+        int line = lex.getLine();
+        int column = lex.getColumn();
         Expression product = parseNegExpr();
-        while (currentToken.equals("/") || currentToken.equals("*"))
+        while (current == TokenKind.DIVIDE || current == TokenKind.TIMES)
         {
-            String operator = currentToken;
+            TokenKind operator = current;
             eat(operator);
-            product = new BinaryOperator(operator, product, parseNegExpr());
+            product = at(BinaryOperator.create(operator.getText(), product, parseNegExpr()),
+                    line, column);
         }
         return product;
     }
@@ -255,12 +343,15 @@ public class Parser
      */
     private Expression parseAddExpr() throws ScanErrorException
     {
+        int line = lex.getLine();
+        int column = lex.getColumn();
         Expression sum = parseMultExpr();
-        while (currentToken.equals("+") || currentToken.equals("-"))
+        while (current == TokenKind.PLUS || current == TokenKind.MINUS)
         {
-            String operator = currentToken;
+            TokenKind operator = current;
             eat(operator);
-            sum = new BinaryOperator(operator, sum, parseMultExpr());
+            sum = at(BinaryOperator.create(operator.getText(), sum, parseMultExpr()),
+                    line, column);
         }
         return sum;
     }
@@ -277,43 +368,424 @@ public class Parser
      */
     private Expression parseExpression() throws ScanErrorException
     {
+        int line = lex.getLine();
+        int column = lex.getColumn();
         Expression exp1 = parseAddExpr();
-        if (!((currentToken.equals("=")) || (currentToken.equals("<>")) ||
-                (currentToken.equals("<=")) || (currentToken.equals(">=")) ||
-                (currentToken.equals("<")) || (currentToken.equals(">"))))
+        if (!current.isRelop())
         {
             return exp1;
         }
-        List<Expression> expressions = new ArrayList<Expression>();
-        expressions.add(exp1);
-        List<String> relops = new ArrayList<String>();
-        while ((currentToken.equals("=")) || (currentToken.equals("<>")) ||
-                (currentToken.equals("<=")) || (currentToken.equals(">=")) ||
-                (currentToken.equals("<")) || (currentToken.equals(">")))
+        List<Relop> relops = new ArrayList<Relop>();
+        while (current.isRelop())
         {
-            relops.add(currentToken);
-            eat(currentToken);
-            expressions.add(parseAddExpr());
+            TokenKind relop = current;
+            eat(relop);
+            relops.add(Relop.create(relop.getText(), parseAddExpr()));
+            nodes++;
         }
-        return new BooleanExp(relops, expressions);
+        return at(new BooleanExp(exp1, relops), line, column);
     }
 
     /**
-     * Compiles an input text file written in SIMPLE and converts it into an AST which will
-     * then be executed
+     * at records where a Statement begins in the source, and counts it as an AST node
+     *
+     * @param stmt the Statement
+     * @param line the line of its first token
+     * @param column the column of its first token
+     * @return the Statement
+     */
+    private Statement at(Statement stmt, int line, int column)
+    {
+        nodes++;
+        stmt.setPosition(line, column);
+        return stmt;
+    }
+
+    /**
+     * at records where an Expression begins in the source, and counts it as an AST node
+     *
+     * @param exp the Expression
+     * @param line the line of its first token
+     * @param column the column of its first token
+     * @return the Expression
+     */
+    private Expression at(Expression exp, int line, int column)
+    {
+        nodes++;
+        exp.setPosition(line, column);
+        return exp;
+    }
+
+    /**
+     * Compiles an input text file written in SIMPLE and converts it into an AST, optimizes
+     * the AST, resolves every variable in the AST to a slot, and then executes it
+     *
+     * Usage: java parser.Parser [-noopt] [-counts]
+     *                           [-vm | -jvm | -closure | -flat | -tiered [-threshold n]
+     *                            | -compare]
+     *                           [-out outFile] [-flush read | size | exit]
+     *                           [-in inFile] [-noprompt] [-profile] [-cache dir]
+     *                           [-batch inputsFile [-threads n | -lanes]] file
+     * -noopt skips the Optimizer
+     * -counts prints the number of AST nodes before and after optimization
+     * -vm compiles the AST to Bytecode and runs it on the VirtualMachine
+     * -jvm compiles the Bytecode further into a hidden JVM class, falling back to the
+     *      VirtualMachine when the Program is too large to be JIT compiled
+     * -closure compiles the AST into a tree of closures with the ClosureCompiler
+     * -flat lays the AST out in int arrays with the FlatCompiler and runs it with the
+     *       FlatInterpreter
+     * -tiered interprets the AST, but compiles every While loop to closures in the
+     *         background once it has run n iterations, 1000 by default, and switches to the
+     *         closures at the next iteration; with -counts it prints how many loops were
+     *         compiled
+     * -compare runs the Program once with every backend but -tiered, each in a fresh Environment,
+     *          and prints how long each run took; every value for read statements is read
+     *          before the first run, and each run reads the same values
+     * -out writes the displayed values to outFile instead of standard output
+     * -flush chooses when buffered output is written: before every read (the default),
+     *        only when the buffer is full, or only once the Program has finished
+     * -in reads the values of read statements from inFile instead of standard input
+     * -noprompt does not prompt for the values of read statements
+     * -profile instruments the AST with the Profiler and, once the Program has finished,
+     *          prints the hottest loops and statements; it only applies to the AST backend
+     * -cache keeps the parsed and optimized AST of the file in dir, and loads it from there
+     *        instead of parsing the file again for as long as the file does not change
+     * -batch runs the Program once for every line of inputsFile, in parallel, taking the
+     *        values of read statements from the numbers on the line, and then prints the
+     *        output of each run in order under a "--- run n" line
+     * -threads runs at most n of the batch at once, one per processor by default
+     * -lanes runs the batch in lockstep with a LaneProgram instead, on one thread
      *
      * @param args arguments for the command line
-     * @throws FileNotFoundException if the file for the scanner does not exist
+     * @throws IOException if the file for the scanner cannot be read
      * @throws ScanErrorException if an unidentified character  is encountered
      */
-    public static void main(String[] args) throws FileNotFoundException, ScanErrorException
+    public static void main(String[] args) throws IOException, ScanErrorException
     {
-        FileInputStream inStream = new FileInputStream(
-                new File("C:\\Users\\Puneet\\IdeaProjects\\FinalProjectSIMPLE\\src\\program"));
-        Scanner lex = new Scanner(inStream);
-        Parser parse = new Parser(lex);
-        Environment env = new Environment();
-        Program prog = parse.parseProgram();
-        prog.exec(env);
+        boolean optimize = true;
+        boolean nodeCounts = false;
+        boolean compare = false;
+        boolean profile = false;
+        String backend = "tree";
+        String fileName = null;
+        String outName = null;
+        String inName = null;
+        String cacheName = null;
+        String batchName = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int threshold = TieredCompiler.DEFAULT_THRESHOLD;
+        boolean lanes = false;
+        boolean prompt = true;
+        Output.FlushPolicy flush = Output.FlushPolicy.ON_READ;
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (arg.equals("-out") && i + 1 < args.length)
+                outName = args[++i];
+            else if (arg.equals("-batch") && i + 1 < args.length)
+                batchName = args[++i];
+            else if (arg.equals("-threads") && i + 1 < args.length)
+                threads = Integer.parseInt(args[++i]);
+            else if (arg.equals("-lanes"))
+                lanes = true;
+            else if (arg.equals("-cache") && i + 1 < args.length)
+                cacheName = args[++i];
+            else if (arg.equals("-in") && i + 1 < args.length)
+                inName = args[++i];
+            else if (arg.equals("-noprompt"))
+                prompt = false;
+            else if (arg.equals("-flush") && i + 1 < args.length)
+                flush = Output.FlushPolicy.valueOf("ON_" + args[++i].toUpperCase());
+            else if (arg.equals("-noopt"))
+                optimize = false;
+            else if (arg.equals("-counts"))
+                nodeCounts = true;
+            else if (arg.equals("-threshold") && i + 1 < args.length)
+                threshold = Integer.parseInt(args[++i]);
+            else if (arg.equals("-vm") || arg.equals("-jvm") || arg.equals("-closure")
+                    || arg.equals("-flat") || arg.equals("-tiered"))
+                backend = arg.substring(1);
+            else if (arg.equals("-compare"))
+                compare = true;
+            else if (arg.equals("-profile"))
+                profile = true;
+            else
+                fileName = arg;
+        }
+        if (fileName == null)
+        {
+            System.err.println("Usage: java parser.Parser [options] file");
+            return;
+        }
+        Path source = Paths.get(fileName);
+        ProgramCache cache = null;
+        byte[] key = null;
+        Program prog = null;
+        if (cacheName != null)
+        {
+            cache = new ProgramCache(Paths.get(cacheName));
+            key = ProgramCache.key(source, InterpreterServer.passes(optimize));
+            prog = cache.load(key);
+            if (prog != null && nodeCounts)
+                System.err.println("AST nodes: " + NodeCounter.count(prog) + " from the cache");
+        }
+        if (prog == null)
+        {
+            Parser parse = new Parser(new Scanner(source));
+            prog = parse.parseProgram();
+            if (optimize)
+            {
+                int before = NodeCounter.count(prog);
+                Optimizer optimizer = new Optimizer();
+                prog = optimizer.optimize(prog);
+                if (nodeCounts)
+                {
+                    System.err.println("AST nodes: " + before + " before optimization, "
+                            + NodeCounter.count(prog) + " after");
+                    System.err.println("Statements removed: "
+                            + optimizer.getUnreachableCount() + " unreachable, "
+                            + optimizer.getDeadCount() + " dead");
+                }
+            }
+            else if (nodeCounts)
+                System.err.println("AST nodes: " + NodeCounter.count(prog));
+            if (cache != null)
+                store(cache, key, prog);
+        }
+        if (batchName != null)
+        {
+            if (profile || compare)
+                System.err.println("-profile and -compare do not apply to -batch, ignoring them");
+            Output output = outName == null ? Output.toStandardOut(Output.FlushPolicy.ON_SIZE)
+                    : Output.toFile(Paths.get(outName), Output.FlushPolicy.ON_SIZE);
+            try
+            {
+                runBatch(prog, lanes ? "lanes" : backend, threads, Paths.get(batchName), output);
+            }
+            finally
+            {
+                output.close();
+            }
+            return;
+        }
+        Profiler profiler = null;
+        if (profile && (compare || !backend.equals("tree")))
+            System.err.println("-profile only applies to the AST backend, ignoring it");
+        else if (profile)
+        {
+            profiler = new Profiler();
+            prog = profiler.instrument(prog);
+        }
+        SymbolTable symbols = new SymbolTable();
+        prog.resolve(symbols);
+        Output output = outName == null ? Output.toStandardOut(flush)
+                : Output.toFile(Paths.get(outName), flush);
+        Input input = inName == null ? Input.fromStandardIn() : Input.fromFile(Paths.get(inName));
+        if (!prompt)
+            input.setPrompting(false);
+        TieredCompiler tier = null;
+        try
+        {
+            if (compare)
+            {
+                input.setPrompting(false);
+                int[] values = readAll(input);
+                for (String b: new String[] {"tree", "flat", "closure", "vm", "jvm"})
+                {
+                    long start = System.nanoTime();
+                    execute(b, prog, symbols, output, new Input(values), null);
+                    System.err.println(b + ": " + (System.nanoTime() - start) / 1000000 + " ms");
+                }
+            }
+            else
+            {
+                tier = backend.equals("tiered") ? new TieredCompiler(threshold) : null;
+                execute(backend, prog, symbols, output, input, tier);
+            }
+        }
+        finally
+        {
+            output.close();
+            input.close();
+            if (tier != null)
+            {
+                tier.close();
+                if (nodeCounts)
+                    System.err.println("Loops compiled: " + tier.getCompiledCount());
+            }
+            if (profiler != null)
+                profiler.report(System.err, 10);
+        }
+    }
+
+    /**
+     * Runs a Program once for every line of a file of input sets, either with a BatchRunner
+     * or in lockstep with a LaneProgram, and writes the output of each run in order,
+     * reporting failed runs to System.err
+     *
+     * @param prog the Program being run, which has not been resolved
+     * @param backend the backend which runs the Program, or "lanes" for a LaneProgram
+     * @param threads the number of runs which may execute at once
+     * @param inputs the path of the file holding one set of input values on each line
+     * @param output the Output the output of every run is written to
+     * @throws IOException if the file of input sets cannot be read
+     */
+    private static void runBatch(Program prog, String backend, int threads, Path inputs,
+                                 Output output) throws IOException
+    {
+        List<int[]> sets = new ArrayList<int[]>();
+        for (String line: Files.readAllLines(inputs))
+        {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty())
+                continue;
+            String[] words = trimmed.split("\\s+");
+            int[] values = new int[words.length];
+            for (int i = 0; i < words.length; i++)
+                values[i] = Integer.parseInt(words[i]);
+            sets.add(values);
+        }
+        List<BatchResult> results;
+        if (backend.equals("lanes"))
+            results = new LaneProgram(prog).run(sets);
+        else
+        {
+            BatchRunner runner = new BatchRunner(new ResidentProgram(prog), backend, threads);
+            try
+            {
+                results = runner.run(sets);
+            }
+            finally
+            {
+                runner.close();
+            }
+        }
+        for (int i = 0; i < results.size(); i++)
+        {
+            BatchResult result = results.get(i);
+            output.printLine("--- run " + (i + 1));
+            String text = result.getOutput();
+            if (text.endsWith(System.lineSeparator()))
+                output.printLine(text.substring(0, text.length()
+                        - System.lineSeparator().length()));
+            if (!result.isSuccess())
+                System.err.println("Run " + (i + 1) + " failed: " + result.getError());
+        }
+    }
+
+    /**
+     * Reads every value left in an Input, so that several runs can each be given the same
+     * values
+     *
+     * @param input the Input
+     * @return the values in order
+     * @throws InputMismatchException if the Input holds something other than a number
+     */
+    private static int[] readAll(Input input)
+    {
+        int[] values = new int[16];
+        int count = 0;
+        while (true)
+        {
+            try
+            {
+                int value = input.readInt();
+                if (count == values.length)
+                    values = Arrays.copyOf(values, count * 2);
+                values[count++] = value;
+            }
+            catch (InputMismatchException err)
+            {
+                throw err;
+            }
+            catch (NoSuchElementException err)
+            {
+                return Arrays.copyOf(values, count);
+            }
+        }
+    }
+
+    /**
+     * Stores a Program in a ProgramCache, only warning if it cannot be stored since the
+     * Program can still be run
+     *
+     * @param cache the ProgramCache
+     * @param key the key of the source of the Program
+     * @param prog the Program being stored
+     */
+    private static void store(ProgramCache cache, byte[] key, Program prog)
+    {
+        try
+        {
+            cache.store(key, prog);
+        }
+        catch (IOException err)
+        {
+            System.err.println("Unable to cache the program - " + err.getMessage());
+        }
+    }
+
+    /**
+     * Executes a resolved Program with one of the backends, in a new Environment which is
+     * created once the Program has been compiled, and records the run with the
+     * InterpreterMetrics
+     *
+     * @param backend "tree" to execute the AST directly, "tiered" to execute it with a
+     *                LoopCompiler, "closure" to compile it to closures, "flat" to lay it
+     *                out as a FlatProgram, "vm" to compile it to Bytecode, or "jvm" to
+     *                compile it to a JVM class
+     * @param prog the Program being executed
+     * @param symbols the SymbolTable the Program was resolved against
+     * @param output the Output the Program displays values to, which is flushed once the
+     *               Program has finished
+     * @param input the Input the Program reads values from
+     * @param tier the LoopCompiler which compiles the hot loops of the AST, or null to
+     *             interpret every loop
+     */
+    private static void execute(String backend, Program prog, SymbolTable symbols,
+                                Output output, Input input, LoopCompiler tier)
+    {
+        ClosureProgram closure = null;
+        FlatProgram flat = null;
+        Bytecode code = null;
+        JvmProgram compiled = null;
+        if (backend.equals("closure"))
+            closure = new ClosureCompiler().compile(prog, symbols);
+        else if (backend.equals("flat"))
+            flat = new FlatCompiler().compile(prog, symbols);
+        else if (backend.equals("vm") || backend.equals("jvm"))
+        {
+            code = Bytecode.compile(prog, symbols);
+            if (backend.equals("jvm"))
+            {
+                compiled = new JvmCompiler().compile(code);
+                if (compiled == null)
+                    System.err.println("Program too large for -jvm, using -vm instead");
+            }
+        }
+        Environment env = new Environment(symbols, output, input);
+        env.setLoopCompiler(tier);
+        InterpreterMetrics metrics = InterpreterMetrics.get();
+        ExecEvent event = new ExecEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try
+        {
+            if (closure != null)
+                closure.execute(env);
+            else if (flat != null)
+                new FlatInterpreter().execute(flat, env);
+            else if (compiled != null)
+                compiled.execute(env);
+            else if (code != null)
+                new VirtualMachine().execute(code, env);
+            else
+                prog.exec(env);
+        }
+        finally
+        {
+            output.flush();
+            metrics.recordRun(event, backend, System.nanoTime() - start, env);
+        }
     }
 }
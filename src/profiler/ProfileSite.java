@@ -0,0 +1,107 @@
+package profiler;
+
+/**
+ * ProfileSite collects how often one Statement or Expression of a program was executed and
+ * how much time those executions took in total, including the time of everything nested
+ * inside it
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ProfileSite
+{
+    private String label;
+    private int line;
+    private int column;
+    private boolean loop;
+    private long count;
+    private long nanos;
+
+    /**
+     * Creates a ProfileSite for a node at a given source position
+     *
+     * @param label a short description of the node, such as "while" or "assign x"
+     * @param line the line on which the node begins
+     * @param column the column at which the node begins
+     * @param loop true if the node is a While statement
+     */
+    public ProfileSite(String label, int line, int column, boolean loop)
+    {
+        this.label = label;
+        this.line = line;
+        this.column = column;
+        this.loop = loop;
+    }
+
+    /**
+     * Records one execution of the node
+     *
+     * @param elapsed the time the execution took, in nanoseconds
+     */
+    public void record(long elapsed)
+    {
+        count++;
+        nanos += elapsed;
+    }
+
+    /**
+     * Retrieves the description of the node
+     *
+     * @return the label of the site
+     */
+    public String getLabel()
+    {
+        return label;
+    }
+
+    /**
+     * Retrieves the line on which the node begins
+     *
+     * @return the line number, or 0 if it is unknown
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Retrieves the column at which the node begins
+     *
+     * @return the column number, or 0 if it is unknown
+     */
+    public int getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * Checks whether the node is a While statement
+     *
+     * @return true if the site is a loop; Otherwise,
+     *         false
+     */
+    public boolean isLoop()
+    {
+        return loop;
+    }
+
+    /**
+     * Retrieves the number of times the node was executed
+     *
+     * @return the execution count
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Retrieves the total time spent executing the node
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos()
+    {
+        return nanos;
+    }
+}
@@ -0,0 +1,134 @@
+package profiler;
+import ast.Expression;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+
+/**
+ * ProfiledExpression wraps the Expression of a Statement to record every evaluation of it
+ * in a ProfileSite. It only exists in ASTs instrumented by the Profiler
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ProfiledExpression extends Expression
+{
+    private Expression exp;
+    private ProfileSite site;
+
+    /**
+     * Creates a ProfiledExpression around a given Expression
+     *
+     * @param exp the Expression being profiled
+     * @param site the ProfileSite which records its evaluations
+     */
+    public ProfiledExpression(Expression exp, ProfileSite site)
+    {
+        this.exp = exp;
+        this.site = site;
+        setPosition(exp.getLine(), exp.getColumn());
+    }
+
+    /**
+     * Evaluates the Expression and records how long it took, even if it fails
+     *
+     * @param env the Environment in which variables are stored
+     * @return the value of the Expression
+     */
+    public int eval(Environment env)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return exp.eval(env);
+        }
+        finally
+        {
+            site.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Evaluates the Expression as a condition and records how long it took, even if it fails
+     *
+     * @param env the Environment in which variables are stored
+     * @return true if the condition holds; Otherwise,
+     *         false
+     */
+    public boolean evalCondition(Environment env)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return exp.evalCondition(env);
+        }
+        finally
+        {
+            site.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks whether the Expression produces a boolean rather than a numerical value
+     *
+     * @return true if the Expression is a comparison; Otherwise,
+     *         false
+     */
+    public boolean isBoolean()
+    {
+        return exp.isBoolean();
+    }
+
+    /**
+     * Resolves the variables of the Expression
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        exp.resolve(symbols);
+    }
+
+    /**
+     * Compiles the Expression without any profiling
+     *
+     * @param e the Emitter which collects the instructions
+     * @return the register which holds the value of the Expression
+     */
+    public int compile(Emitter e)
+    {
+        return exp.compile(e);
+    }
+
+    /**
+     * Compiles the Expression as a condition without any profiling
+     *
+     * @param e the Emitter which collects the instructions
+     * @param falseLabel the label jumped to when the condition does not hold
+     */
+    public void compileCondition(Emitter e, int falseLabel)
+    {
+        exp.compileCondition(e, falseLabel);
+    }
+
+    /**
+     * Compiles the Expression as a condition without any profiling
+     *
+     * @param e the Emitter which collects the instructions
+     * @param trueLabel the label jumped to when the condition holds
+     */
+    public void compileConditionTrue(Emitter e, int trueLabel)
+    {
+        exp.compileConditionTrue(e, trueLabel);
+    }
+
+    /**
+     * Retrieves the Expression being profiled
+     *
+     * @return the wrapped Expression
+     */
+    public Expression getExpression()
+    {
+        return exp;
+    }
+}
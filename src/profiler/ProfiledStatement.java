@@ -0,0 +1,79 @@
+package profiler;
+import ast.Statement;
+import environment.Environment;
+import environment.SymbolTable;
+import vm.Emitter;
+
+/**
+ * ProfiledStatement wraps a Statement to record every execution of it in a ProfileSite.
+ * It only exists in ASTs instrumented by the Profiler
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ProfiledStatement extends Statement
+{
+    private Statement stmt;
+    private ProfileSite site;
+
+    /**
+     * Creates a ProfiledStatement around a given Statement
+     *
+     * @param stmt the Statement being profiled
+     * @param site the ProfileSite which records its executions
+     */
+    public ProfiledStatement(Statement stmt, ProfileSite site)
+    {
+        this.stmt = stmt;
+        this.site = site;
+        setPosition(stmt.getLine(), stmt.getColumn());
+    }
+
+    /**
+     * Executes the Statement and records how long it took, even if it fails
+     *
+     * @param env the Environment in which variables are stored
+     */
+    public void exec(Environment env)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            stmt.exec(env);
+        }
+        finally
+        {
+            site.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Resolves the variables of the Statement
+     *
+     * @param symbols the SymbolTable which assigns slot numbers to variable names
+     */
+    public void resolve(SymbolTable symbols)
+    {
+        stmt.resolve(symbols);
+    }
+
+    /**
+     * Compiles the Statement without any profiling
+     *
+     * @param e the Emitter which collects the instructions
+     */
+    public void compile(Emitter e)
+    {
+        stmt.compile(e);
+    }
+
+    /**
+     * Retrieves the Statement being profiled
+     *
+     * @return the wrapped Statement
+     */
+    public Statement getStatement()
+    {
+        return stmt;
+    }
+}
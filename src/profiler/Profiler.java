@@ -0,0 +1,188 @@
+package profiler;
+import ast.*;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Profiler instruments an AST so that running it on the tree backend counts how often
+ * each Statement runs and how long it takes, and then reports the hottest While loops and
+ * Statements by their source position. Every Statement is wrapped in a ProfiledStatement
+ * and the Expression it evaluates in a ProfiledExpression. An AST which has not been
+ * instrumented contains no wrappers at all, so profiling costs nothing when it is off.
+ *
+ * Usage:
+ * Profiler profiler = new Profiler();
+ * Program prog = profiler.instrument(parsedProgram);
+ * prog.resolve(symbols);
+ * prog.exec(env);
+ * profiler.report(System.err, 10);
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Profiler
+{
+    private List<ProfileSite> sites;
+
+    /**
+     * Creates a Profiler with no sites
+     */
+    public Profiler()
+    {
+        sites = new ArrayList<ProfileSite>();
+    }
+
+    /**
+     * Instruments every Statement of a Program
+     *
+     * @param prog the Program being instrumented
+     * @return a new Program containing the instrumented Statements
+     */
+    public Program instrument(Program prog)
+    {
+        List<Statement> stmts = new ArrayList<Statement>();
+        for (Statement s: prog.getStatements())
+        {
+            stmts.add(instrument(s));
+        }
+        return new Program(stmts);
+    }
+
+    /**
+     * Instruments a Statement, its Expression, and the Statements nested inside it
+     *
+     * @param stmt the Statement being instrumented
+     * @return the ProfiledStatement wrapping the instrumented Statement
+     */
+    public Statement instrument(Statement stmt)
+    {
+        if (stmt instanceof Program)
+            return instrument((Program) stmt);
+        Statement result = stmt;
+        String label = "statement";
+        if (stmt instanceof Assignment)
+        {
+            Assignment assign = (Assignment) stmt;
+            label = "assign " + assign.getVar();
+            result = new Assignment(assign.getVar(), instrument(assign.getExp(), label));
+        }
+        else if (stmt instanceof Display)
+        {
+            Display display = (Display) stmt;
+            label = display.getRead() == null ? "display"
+                    : "display read " + display.getRead().getVar();
+            result = new Display(instrument(display.getExpression(), label), display.getRead());
+        }
+        else if (stmt instanceof If)
+        {
+            If ifStmt = (If) stmt;
+            label = "if";
+            Statement elseStmt = ifStmt.getElse();
+            if (elseStmt != null)
+                elseStmt = instrument(elseStmt);
+            result = new If(instrument(ifStmt.getThen()), elseStmt,
+                    instrument(ifStmt.getCondition(), label));
+        }
+        else if (stmt instanceof While)
+        {
+            While loop = (While) stmt;
+            label = "while";
+            result = new While(instrument(loop.getCondition(), label),
+                    instrument(loop.getProgram()));
+        }
+        result.setPosition(stmt.getLine(), stmt.getColumn());
+        return new ProfiledStatement(result, site(label, stmt.getLine(), stmt.getColumn(),
+                stmt instanceof While));
+    }
+
+    /**
+     * Instruments the Expression evaluated by a Statement
+     *
+     * @param exp the Expression being instrumented
+     * @param owner the label of the Statement which evaluates it
+     * @return the ProfiledExpression wrapping the Expression
+     */
+    private Expression instrument(Expression exp, String owner)
+    {
+        return new ProfiledExpression(exp, site(owner + " (expression)", exp.getLine(),
+                exp.getColumn(), false));
+    }
+
+    /**
+     * Creates a ProfileSite and adds it to the sites of this Profiler
+     *
+     * @param label a short description of the node
+     * @param line the line on which the node begins
+     * @param column the column at which the node begins
+     * @param loop true if the node is a While statement
+     * @return the new ProfileSite
+     */
+    private ProfileSite site(String label, int line, int column, boolean loop)
+    {
+        ProfileSite site = new ProfileSite(label, line, column, loop);
+        sites.add(site);
+        return site;
+    }
+
+    /**
+     * Retrieves every site of the instrumented AST
+     *
+     * @return the ProfileSites, in the order their nodes were instrumented
+     */
+    public List<ProfileSite> getSites()
+    {
+        return sites;
+    }
+
+    /**
+     * Prints the While loops and then the other Statements and Expressions which took the
+     * most time, each ranked by their total time including everything nested inside them
+     *
+     * @param out the stream the report is printed to
+     * @param limit the largest number of entries in each ranking
+     */
+    public void report(PrintStream out, int limit)
+    {
+        List<ProfileSite> loops = new ArrayList<ProfileSite>();
+        List<ProfileSite> others = new ArrayList<ProfileSite>();
+        for (ProfileSite site: sites)
+        {
+            if (site.getCount() == 0)
+                continue;
+            if (site.isLoop())
+                loops.add(site);
+            else
+                others.add(site);
+        }
+        Comparator<ProfileSite> hottest =
+                Comparator.comparingLong(ProfileSite::getNanos).reversed();
+        loops.sort(hottest);
+        others.sort(hottest);
+        out.println("Hottest loops:");
+        print(out, loops, limit);
+        out.println("Hottest statements:");
+        print(out, others, limit);
+    }
+
+    /**
+     * Prints a ranking of sites as a table
+     *
+     * @param out the stream the table is printed to
+     * @param ranked the sites, hottest first
+     * @param limit the largest number of rows
+     */
+    private static void print(PrintStream out, List<ProfileSite> ranked, int limit)
+    {
+        out.printf("  %4s  %-10s %14s %12s %12s  %s%n",
+                "rank", "line:col", "count", "total ms", "avg ns", "node");
+        for (int i = 0; i < ranked.size() && i < limit; i++)
+        {
+            ProfileSite site = ranked.get(i);
+            out.printf("  %4d  %-10s %14d %12.3f %12d  %s%n", i + 1,
+                    site.getLine() + ":" + site.getColumn(), site.getCount(),
+                    site.getNanos() / 1e6, site.getNanos() / site.getCount(), site.getLabel());
+        }
+    }
+}
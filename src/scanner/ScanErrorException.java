@@ -26,4 +26,14 @@ public class ScanErrorException extends Exception
     {
         super(reason);
     }
+    /**
+     * Constructor for ScanErrorObjects that includes a reason for the error and the
+     * exception which caused it, such as an IOException from the input
+     * @param reason the reason for the ScanErrorException is being thrown
+     * @param cause the exception which caused the error
+     */
+    public ScanErrorException(String reason, Throwable cause)
+    {
+        super(reason, cause);
+    }
 }
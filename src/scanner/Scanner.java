@@ -1,23 +1,75 @@
 package scanner;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Scanner is a simple scanner for Compilers and Interpreters (2014-2015) lab exercise 1
  * @author Puneet Nayyar
  * @author Ms. Datar
  *
- * @version March 6 2018
+ * @version 10/18/26
  *
  * Usage:
- * FileInputStream inStream = new FileInputStream(new File(<file name>);
- * Scanner lex = new Scanner(inStream);
+ * Scanner lex = new Scanner(Paths.get(<file name>));
+ * while (lex.next() != TokenKind.EOF)
+ *     System.out.println(lex.getKind() + " " + lex.getText());
  *
+ * The Scanner works directly on the bytes of its input, which must be ASCII outside of
+ * comments, through a window that is either a memory mapped region of a file or a reusable
+ * buffer filled from a stream. It describes the current token by its TokenKind, its position
+ * in that window, and, for numbers, its value. Keywords and operators are never copied out of
+ * the window, and each distinct identifier is turned into a String only the first time it is
+ * seen, so scanning does not allocate per token.
  */
 public class Scanner
 {
-    private BufferedReader in;
-    private char currentChar;
+    private static final int WINDOW_SIZE = 8192;
+    private static final int MAP_SIZE = 1 << 30;
+    private static final int NO_CHAR = -1;
+    private static final TokenKind[] KEYWORDS = new TokenKind[16];
+
+    static
+    {
+        for (TokenKind kind: TokenKind.values())
+        {
+            String text = kind.getText();
+            if (kind.isKeyword())
+                KEYWORDS[keywordHash(text.charAt(0), text.charAt(text.length() - 1),
+                        text.length())] = kind;
+        }
+    }
+
+    private ReadableByteChannel in;
+    private FileChannel file;
+    private long fileSize;
+    private ByteBuffer buf;
+    private int pos;
+    private int limit;
+    private long offset;
     private boolean eof;
+    private int tokenStart;
+    private int line;
+    private long lineStart;
+
+    private TokenKind kind;
+    private int start;
+    private int length;
+    private int number;
+    private String text;
+    private int tokenLine;
+    private int tokenColumn;
+    private long tokenCount;
+
+    private String[] names;
+    private int[] nameHashes;
+    private int nameCount;
 
     /**
      * Scanner constructor for construction of a scanner that
@@ -29,299 +81,653 @@ public class Scanner
      */
     public Scanner(InputStream inStream)
     {
-        in = new BufferedReader(new InputStreamReader(inStream));
-        eof = false;
-        getNextChar();
+        in = Channels.newChannel(inStream);
+        buf = ByteBuffer.allocate(WINDOW_SIZE);
+        init();
+    }
+
+    /**
+     * Scanner constructor for constructing a scanner that memory maps a file and scans its
+     * bytes in place. Files larger than the largest possible mapping are mapped one region
+     * at a time, and the file is closed as soon as its last region has been mapped.
+     * Usage: Scanner lex = new Scanner(Paths.get(<file name>));
+     * @param path the path of the file to scan
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public Scanner(Path path) throws IOException
+    {
+        file = FileChannel.open(path, StandardOpenOption.READ);
+        try
+        {
+            fileSize = file.size();
+            map(0);
+        }
+        catch (IOException err)
+        {
+            file.close();
+            throw err;
+        }
+        init();
     }
     /**
      * Scanner constructor for constructing a scanner that
-     * scans a given input string.  It sets the end-of-file flag an then reads
-     * the first character of the input string into the instance field currentChar.
+     * scans a given input string.  The UTF-8 bytes of the whole string are used as the
+     * window, so the scanner never has to read any more input.
      * Usage: Scanner lex = new Scanner(input_string);
      * @param inString the string to scan
      */
     public Scanner(String inString)
     {
-        in = new BufferedReader(new StringReader(inString));
-        eof = false;
-        getNextChar();
+        buf = ByteBuffer.wrap(inString.getBytes(StandardCharsets.UTF_8));
+        limit = buf.capacity();
+        eof = true;
+        init();
     }
 
     /**
-     * Method: getNextChar reads the input steam and updates the currentChar
-     * to the next character in the input stream
+     * Method: init resets the state of the current token and creates the identifier table
      */
-    private void getNextChar()
+    private void init()
     {
-        try
-        {
-            int temp = in.read();
-            if (temp == -1)
-                eof = true;
-            else
-                currentChar = (char)temp;
-        }
-        catch (IOException err)
-        {
-            System.exit(0);
-        }
+        tokenStart = -1;
+        line = 1;
+        names = new String[64];
+        nameHashes = new int[64];
+    }
 
+    /**
+     * Method: keywordHash computes a hash of a word from its first and last characters and its
+     * length, which places each of the nine keywords in a different bucket of KEYWORDS
+     *
+     * @param first the first character of the word
+     * @param last the last character of the word
+     * @param len the length of the word
+     * @return the index in KEYWORDS where the word would be found if it were a keyword
+     */
+    private static int keywordHash(char first, char last, int len)
+    {
+        return (first + 5 * last + len) & 15;
     }
+
     /**
-     * Method: eat will take in a character, check it against the currentChar, and then get
-     * the next character in the input stream
+     * Method: peek retrieves the character at the current position without consuming it,
+     * moving the window forward if necessary
      *
-     * @param expected the char which is being checked
-     * @throws ScanErrorException if the given char is not the same as currentChar
+     * @return the current character, or NO_CHAR at the end of the input
+     * @throws ScanErrorException if the input cannot be read
      */
-    private void eat(char expected) throws ScanErrorException
+    private int peek() throws ScanErrorException
     {
-        if(expected==currentChar)
-            getNextChar();
-        else
-            throw new ScanErrorException("Illegal character - expected" + currentChar +
-                                         "and found" + expected);
+        if (pos < limit || fill())
+            return buf.get(pos) & 0xFF;
+        return NO_CHAR;
     }
 
     /**
-     * Method: hasNext will check whether the scanner has reached the end of the input stream
+     * Method: fill moves the window forward over more of the input, keeping the characters
+     * of the token being scanned so that a token is always contiguous in the window
      *
-     * @return true if there is a next character in the input stream; Otherwise,
+     * @return true if at least one new character was added to the window; Otherwise,
      *         false
+     * @throws ScanErrorException if the input cannot be read
      */
-    public boolean hasNext()
+    private boolean fill() throws ScanErrorException
     {
-        return (!eof && !(currentChar=='.'));
+        if (eof)
+            return false;
+        int keep = tokenStart >= 0 ? tokenStart : pos;
+        try
+        {
+            if (file != null)
+            {
+                int old = limit;
+                map(offset + keep);
+                pos -= keep;
+                if (tokenStart >= 0)
+                    tokenStart = 0;
+                return limit > old - keep;
+            }
+            return read(keep);
+        }
+        catch (IOException err)
+        {
+            eof = true;
+            throw new ScanErrorException("Unable to read input - " + err.getMessage(), err);
+        }
     }
 
-
     /**
-     * Method: skipLineComment will skip a full line comment and return the next token
+     * Method: map maps the largest possible region of the file starting at a given position
+     * as the window, and closes the file once the region reaches its end
      *
-     * @return the next token in the input
-     * @throws ScanErrorException if an unrecognized character is scanned
+     * @param from the position in the file of the first byte of the region
+     * @throws IOException if the region cannot be mapped
      */
-    private String skipLineComment() throws ScanErrorException
+    private void map(long from) throws IOException
     {
-        while (hasNext() && currentChar!='\n')
+        int size = (int)Math.min(fileSize - from, MAP_SIZE);
+        buf = file.map(FileChannel.MapMode.READ_ONLY, from, size);
+        offset = from;
+        limit = size;
+        if (from + size == fileSize)
         {
-            eat(currentChar);
+            eof = true;
+            file.close();
         }
-        if (hasNext())
-            return nextToken();
-        return "end";
     }
 
     /**
-     * Method: skipBlockComment will skip a full block comment and return the next token
+     * Method: read moves the characters of the window starting at a given index to the
+     * front of the buffer, doubling the buffer if they already fill it, and then reads as
+     * much of the stream as fits after them
      *
-     * @return the next token in the input
-     * @throws ScanErrorException if an unrecognized character is scanned
+     * @param keep the index of the first character in the window which is still needed
+     * @return true if at least one new character was read; Otherwise,
+     *         false
+     * @throws IOException if the stream cannot be read
      */
-    private String skipBlockComment() throws ScanErrorException
+    private boolean read(int keep) throws IOException
     {
-        while (hasNext() && currentChar!='/')
+        if (keep > 0)
         {
-            eat(currentChar);
+            buf.limit(limit).position(keep);
+            buf.compact();
+            offset += keep;
+            limit -= keep;
+            pos -= keep;
+            if (tokenStart >= 0)
+                tokenStart = 0;
         }
-        if (hasNext())
+        if (limit == buf.capacity())
         {
-            eat(currentChar);
-            return nextToken();
+            ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2);
+            buf.clear().limit(limit);
+            bigger.put(buf);
+            buf = bigger;
         }
-        return "end";
+        buf.clear().position(limit);
+        int count = in.read(buf);
+        if (count <= 0)
+        {
+            eof = true;
+            return false;
+        }
+        limit += count;
+        return true;
     }
 
     /**
-     * Method: nextToken will scan the input stream, skipping any leading whitespace,
-     * and find the next token
+     * Method: hasNext will check whether the scanner has reached the end of the input stream
      *
-     * @return the next token in the input stream
-     * @throws ScanErrorException if an unknown character is found
+     * @return true if there is a next character in the input stream; Otherwise,
+     *         false
+     * @throws ScanErrorException if the input cannot be read
      */
-    public String nextToken() throws ScanErrorException
+    public boolean hasNext() throws ScanErrorException
     {
-        String token = new String();
-        while (hasNext() && isWhiteSpace(currentChar))
-        {
-            eat(currentChar);
-        }
-        if (hasNext())
+        int c = peek();
+        return c != NO_CHAR && c != '.';
+    }
+
+    /**
+     * Method: next will scan the input stream, skipping any leading whitespace and
+     * comments, and find the next token. A '.' or the end of the input is reported as EOF.
+     *
+     * @return the kind of the next token in the input stream
+     * @throws ScanErrorException if an unknown character is found or a number is too large
+     */
+    public TokenKind next() throws ScanErrorException
+    {
+        text = null;
+        while (true)
         {
-            if (currentChar == '/')
-            {
-                token += currentChar;
-                eat(currentChar);
-                if (hasNext() && currentChar == '/')
-                    return skipLineComment();
-                else if (hasNext() && currentChar == '*')
-                    return skipBlockComment();
-                return token;
-            }
-            if (currentChar == ':')
+            tokenStart = -1;
+            int c = peek();
+            while (c != NO_CHAR && isWhiteSpace((char)c))
             {
-                token += currentChar;
-                eat(currentChar);
-                if (hasNext() && currentChar == '=')
-                {
-                    token += currentChar;
-                    eat(currentChar);
-                }
+                if (c == '\n')
+                    newLine();
+                pos++;
+                c = peek();
             }
-            else if (currentChar == '<')
+            if (c == NO_CHAR || c == '.')
+                return setToken(TokenKind.EOF, pos);
+            tokenStart = pos;
+            pos++;
+            if (c == '/')
             {
-                token += currentChar;
-                eat(currentChar);
-                if (hasNext() && currentChar == '=')
+                int c2 = peek();
+                if (c2 == '/')
                 {
-                    token += currentChar;
-                    eat(currentChar);
+                    skipLineComment();
+                    continue;
                 }
-                else if (hasNext() && currentChar == '>')
+                if (c2 == '*')
                 {
-                    token += currentChar;
-                    eat(currentChar);
+                    skipBlockComment();
+                    continue;
                 }
+                return setToken(TokenKind.DIVIDE, tokenStart);
             }
-            else if (currentChar == '>')
+            if (isDigit((char)c))
+                return scanNumber(c);
+            if (isLetter((char)c))
+                return scanIdentifier(c);
+            switch (c)
             {
-                token += currentChar;
-                eat(currentChar);
-                if (hasNext() && currentChar == '=')
-                {
-                    token += currentChar;
-                    eat(currentChar);
-                }
+                case ':':
+                    return setToken(match('=') ? TokenKind.COLON_EQUALS : TokenKind.COLON,
+                            tokenStart);
+                case '<':
+                    if (match('='))
+                        return setToken(TokenKind.LESS_EQUAL, tokenStart);
+                    return setToken(match('>') ? TokenKind.NOT_EQUAL : TokenKind.LESS,
+                            tokenStart);
+                case '>':
+                    return setToken(match('=') ? TokenKind.GREATER_EQUAL : TokenKind.GREATER,
+                            tokenStart);
+                case '=':
+                    return setToken(TokenKind.EQUALS, tokenStart);
+                case '+':
+                    return setToken(TokenKind.PLUS, tokenStart);
+                case '-':
+                    return setToken(TokenKind.MINUS, tokenStart);
+                case '*':
+                    return setToken(TokenKind.TIMES, tokenStart);
+                case '%':
+                    return setToken(TokenKind.MOD, tokenStart);
+                case '(':
+                    return setToken(TokenKind.LPAREN, tokenStart);
+                case ')':
+                    return setToken(TokenKind.RPAREN, tokenStart);
+                case ';':
+                    return setToken(TokenKind.SEMICOLON, tokenStart);
+                case ',':
+                    return setToken(TokenKind.COMMA, tokenStart);
+                default:
+                    tokenStart = -1;
+                    throw new ScanErrorException("Character not recognized - " + (char)c);
             }
-            else if (isDigit(currentChar))
-                token = scanNumber();
-            else if (isLetter(currentChar))
-                token = scanIdentifier();
-            else
-                token = scanOperand();
-            return token;
         }
-        return "end";
     }
 
     /**
-     * Method: isDigit checks whether a given char is a number
+     * Method: match consumes the current character if it is the expected one
      *
-     * @param c the character being checked
-     * @return true if char c is a digit; Otherwise,
+     * @param expected the character which is being checked
+     * @return true if the character was consumed; Otherwise,
      *         false
+     * @throws ScanErrorException if the input cannot be read
      */
-    public static boolean isDigit(char c)
+    private boolean match(char expected) throws ScanErrorException
     {
-        return (c>='0' && c<='9');
+        if (peek() == expected)
+        {
+            pos++;
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Method: isLetter checks whether a given char is a letter
+     * Method: setToken records the kind and extent of the token ending at the current position
      *
-     * @param c the character being checked
-     * @return true if char c is a letter; Otherwise,
-     *         false
+     * @param tokenKind the kind of the token
+     * @param first the index in the window of the first character of the token
+     * @return the kind of the token
      */
-    public static boolean isLetter(char c)
+    private TokenKind setToken(TokenKind tokenKind, int first)
     {
-        return ((c>='a' && c<='z') || (c>='A') && (c<='Z'));
+        kind = tokenKind;
+        tokenCount++;
+        start = first;
+        tokenLine = line;
+        tokenColumn = (int)(offset + first - lineStart) + 1;
+        length = pos - first;
+        return tokenKind;
     }
 
     /**
-     * Method: isWhiteSpace checks whether a given char is whitespace
+     * Method: newLine records that the character at the current position ends a line
+     */
+    private void newLine()
+    {
+        line++;
+        lineStart = offset + pos + 1;
+    }
+
+    /**
+     * Method: skipLineComment will skip a full line comment
      *
-     * @param c the character being checked
-     * @return true if char c is whitespace; Otherwise,
-     *         false
+     * @throws ScanErrorException if the input cannot be read
      */
-    public static boolean isWhiteSpace(char c)
+    private void skipLineComment() throws ScanErrorException
     {
-        return (c==' ' || c=='\t' || c=='\r' || c=='\n' );
+        tokenStart = -1;
+        int c = peek();
+        while (c != NO_CHAR && c != '.' && c != '\n')
+        {
+            pos++;
+            c = peek();
+        }
     }
 
     /**
-     * Method: scanNumber will scan the input stream and return a number token
+     * Method: skipBlockComment will skip a full block comment, which ends at the next '/'
      *
-     * @return the number token
-     * @throws ScanErrorException if an unknown character is found
+     * @throws ScanErrorException if the input cannot be read
      */
-    private String scanNumber() throws ScanErrorException
+    private void skipBlockComment() throws ScanErrorException
     {
-        String num = new String();
-        while (hasNext() && isDigit(currentChar))
+        tokenStart = -1;
+        int c = peek();
+        while (c != NO_CHAR && c != '.' && c != '/')
         {
-            if (isDigit(currentChar))
-            {
-                num += currentChar;
-                eat(currentChar);
-            }
-            else if (!isWhiteSpace(currentChar))
-                throw new ScanErrorException("Character not recognized - " + currentChar);
+            if (c == '\n')
+                newLine();
+            pos++;
+            c = peek();
         }
-        return num;
+        if (c == '/')
+            pos++;
     }
 
     /**
-     * Method: scanIdentifier will scan the input stream and return an identifier token
+     * Method: scanNumber will scan the rest of a number token and compute its value
      *
-     * @return the identifier token
-     * @throws ScanErrorException if an unknown character is found
+     * @param first the first digit of the number, which has already been consumed
+     * @return TokenKind.NUMBER
+     * @throws ScanErrorException if the number does not fit in an int or the input cannot
+     *                             be read
      */
-    private String scanIdentifier() throws ScanErrorException
+    private TokenKind scanNumber(int first) throws ScanErrorException
     {
-        String id = new String();
-        while(hasNext() && (isDigit(currentChar) || isLetter(currentChar)))
+        long value = first - '0';
+        int c = peek();
+        while (c != NO_CHAR && isDigit((char)c))
         {
-            if ((isDigit(currentChar) || isLetter(currentChar)))
-            {
-                id += currentChar;
-                eat(currentChar);
-            }
-            else if (!isWhiteSpace(currentChar))
-                throw new ScanErrorException("Character not recognized - " + currentChar);
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE)
+                throw new ScanErrorException("Number too large - " + getTokenText() + (char)c);
+            pos++;
+            c = peek();
         }
-        return id;
+        number = (int)value;
+        return setToken(TokenKind.NUMBER, tokenStart);
     }
 
     /**
-     * Method: scanOperand will scan the input stream and return an operater token
+     * Method: scanIdentifier will scan the rest of an identifier token and decide whether it
+     * is a keyword
      *
-     * @return the operator token
-     * @throws ScanErrorException if an unknown character is found
+     * @param first the first character of the identifier, which has already been consumed
+     * @return the kind of the keyword, or TokenKind.IDENTIFIER
+     * @throws ScanErrorException if the input cannot be read
+     */
+    private TokenKind scanIdentifier(int first) throws ScanErrorException
+    {
+        int hash = first;
+        int c = peek();
+        while (c != NO_CHAR && (isDigit((char)c) || isLetter((char)c)))
+        {
+            hash = 31 * hash + c;
+            pos++;
+            c = peek();
+        }
+        int len = pos - tokenStart;
+        TokenKind keyword = KEYWORDS[keywordHash((char)first, (char)buf.get(pos - 1), len)];
+        if (keyword != null && regionMatches(keyword.getText(), tokenStart, len))
+            return setToken(keyword, tokenStart);
+        text = intern(hash, tokenStart, len);
+        return setToken(TokenKind.IDENTIFIER, tokenStart);
+    }
+
+    /**
+     * Method: regionMatches checks whether a region of the window spells a given word
+     *
+     * @param word the word being checked
+     * @param from the index in the window of the first character of the region
+     * @param len the length of the region
+     * @return true if the region spells the word; Otherwise,
+     *         false
+     */
+    private boolean regionMatches(String word, int from, int len)
+    {
+        if (word.length() != len)
+            return false;
+        for (int i = 0; i < len; i++)
+        {
+            if (buf.get(from + i) != word.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method: intern finds the String for an identifier in the identifier table, creating it
+     * only if the identifier has not been seen before
+     *
+     * @param hash the hash of the identifier's characters
+     * @param from the index in the window of the first character of the identifier
+     * @param len the length of the identifier
+     * @return the one String used for every occurrence of the identifier
+     */
+    private String intern(int hash, int from, int len)
+    {
+        int mask = names.length - 1;
+        int i = (hash ^ (hash >>> 16)) & mask;
+        while (names[i] != null)
+        {
+            if (nameHashes[i] == hash && regionMatches(names[i], from, len))
+                return names[i];
+            i = (i + 1) & mask;
+        }
+        String name = text(from, len).intern();
+        names[i] = name;
+        nameHashes[i] = hash;
+        if (++nameCount * 2 > names.length)
+            growNames();
+        return name;
+    }
+
+    /**
+     * Method: growNames doubles the size of the identifier table
      */
-    private String scanOperand() throws ScanErrorException
+    private void growNames()
     {
-        String operand = new String();
-        if (hasNext())
+        String[] oldNames = names;
+        int[] oldHashes = nameHashes;
+        names = new String[oldNames.length * 2];
+        nameHashes = new int[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int j = 0; j < oldNames.length; j++)
         {
-            if ((currentChar=='=') || (currentChar=='+') || (currentChar=='-') ||
-                    (currentChar=='*') || (currentChar=='/') || (currentChar=='%') ||
-                    (currentChar=='(') || (currentChar==')') || (currentChar==';') ||
-                    (currentChar=='.') || (currentChar==','))
+            if (oldNames[j] != null)
             {
-                operand += currentChar;
-                eat(currentChar);
+                int i = (oldHashes[j] ^ (oldHashes[j] >>> 16)) & mask;
+                while (names[i] != null)
+                    i = (i + 1) & mask;
+                names[i] = oldNames[j];
+                nameHashes[i] = oldHashes[j];
             }
-            else if(!isWhiteSpace(currentChar))
-                throw new ScanErrorException("Character not recognized - " + currentChar);
         }
-        return operand;
     }
 
     /**
-     * Method: main tests the scanner class by loading a test file and scanning it for tokens
+     * Method: getTokenText creates a String of the characters scanned so far for the current
+     * token
+     *
+     * @return the characters of the current token
+     */
+    private String getTokenText()
+    {
+        return text(tokenStart, pos - tokenStart);
+    }
+
+    /**
+     * Method: text creates a String of the characters in a region of the window
+     *
+     * @param from the index in the window of the first character
+     * @param len the number of characters
+     * @return the characters of the region
+     */
+    private String text(int from, int len)
+    {
+        byte[] bytes = new byte[len];
+        buf.get(from, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Retrieves the kind of the current token
+     *
+     * @return the TokenKind of the token most recently returned by next
+     */
+    public TokenKind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * Retrieves the text of the current token. Identifiers share one String per name and
+     * keywords and operators use the spelling of their TokenKind, so only numbers create a
+     * new String here.
+     *
+     * @return the text of the current token
+     */
+    public String getText()
+    {
+        if (kind == TokenKind.IDENTIFIER)
+            return text;
+        if (kind == TokenKind.NUMBER)
+            return Integer.toString(number);
+        return kind.getText();
+    }
+
+    /**
+     * Retrieves the value of the current token when it is a number
+     *
+     * @return the value of the number
+     */
+    public int getNumber()
+    {
+        return number;
+    }
+
+    /**
+     * Retrieves the position of the current token in the input
+     *
+     * @return the number of characters in the input before the current token
+     */
+    public long getStart()
+    {
+        return offset + start;
+    }
+
+    /**
+     * Retrieves the line the current token is on
+     *
+     * @return the line number, starting from 1
+     */
+    public int getLine()
+    {
+        return tokenLine;
+    }
+
+    /**
+     * Retrieves the column of the first character of the current token
+     *
+     * @return the column number, starting from 1
+     */
+    public int getColumn()
+    {
+        return tokenColumn;
+    }
+
+    /**
+     * Retrieves the number of tokens scanned so far, including the end of input
+     *
+     * @return the token count
+     */
+    public long getTokenCount()
+    {
+        return tokenCount;
+    }
+
+    /**
+     * Retrieves the length of the current token
+     *
+     * @return the number of characters in the current token
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Method: nextToken will scan the input stream, skipping any leading whitespace,
+     * and find the next token
+     *
+     * @return the text of the next token in the input stream, or "end" at the end of the input
+     * @throws ScanErrorException if an unknown character is found
+     */
+    public String nextToken() throws ScanErrorException
+    {
+        if (next() == TokenKind.EOF)
+            return "end";
+        return getText();
+    }
+
+    /**
+     * Method: isDigit checks whether a given char is a number
+     *
+     * @param c the character being checked
+     * @return true if char c is a digit; Otherwise,
+     *         false
+     */
+    public static boolean isDigit(char c)
+    {
+        return (c>='0' && c<='9');
+    }
+
+    /**
+     * Method: isLetter checks whether a given char is a letter
+     *
+     * @param c the character being checked
+     * @return true if char c is a letter; Otherwise,
+     *         false
+     */
+    public static boolean isLetter(char c)
+    {
+        return ((c>='a' && c<='z') || (c>='A') && (c<='Z'));
+    }
+
+    /**
+     * Method: isWhiteSpace checks whether a given char is whitespace
+     *
+     * @param c the character being checked
+     * @return true if char c is whitespace; Otherwise,
+     *         false
+     */
+    public static boolean isWhiteSpace(char c)
+    {
+        return (c==' ' || c=='\t' || c=='\r' || c=='\n' );
+    }
+
+    /**
+     * Method: main tests the scanner class by scanning a file, or standard input if no file
+     * is given, and printing every token
+     *
+     * Usage: java scanner.Scanner [file]
      *
      * @param args arguments for the command line
      * @throws ScanErrorException if an unknown character is found
-     * @throws FileNotFoundException if the given file cannot be found
+     * @throws IOException if the given file cannot be read
      */
-    public static void main(String[] args) throws ScanErrorException, FileNotFoundException
+    public static void main(String[] args) throws ScanErrorException, IOException
     {
-        FileInputStream inStream = new FileInputStream(
-                new File("C:\\Users\\Puneet\\Downloads\\parserTest.txt"));
-        Scanner lex = new Scanner(inStream);
-        while (lex.hasNext())
-            System.out.println(lex.nextToken());
+        Scanner lex = args.length > 0 ? new Scanner(Paths.get(args[0])) : new Scanner(System.in);
+        while (lex.next() != TokenKind.EOF)
+            System.out.println(lex.getText());
     }
-}
\ No newline at end of file
+}
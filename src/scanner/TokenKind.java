@@ -0,0 +1,85 @@
+package scanner;
+
+/**
+ * TokenKind lists the kinds of tokens the Scanner recognizes. Keywords and operators have a
+ * fixed spelling, while identifiers and numbers take their text from the input
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public enum TokenKind
+{
+    IDENTIFIER(null),
+    NUMBER(null),
+    DISPLAY("display"),
+    ASSIGN("assign"),
+    WHILE("while"),
+    DO("do"),
+    END("end"),
+    IF("if"),
+    THEN("then"),
+    ELSE("else"),
+    READ("read"),
+    PLUS("+"),
+    MINUS("-"),
+    TIMES("*"),
+    DIVIDE("/"),
+    MOD("%"),
+    LPAREN("("),
+    RPAREN(")"),
+    SEMICOLON(";"),
+    COMMA(","),
+    COLON(":"),
+    COLON_EQUALS(":="),
+    EQUALS("="),
+    NOT_EQUAL("<>"),
+    LESS("<"),
+    GREATER(">"),
+    LESS_EQUAL("<="),
+    GREATER_EQUAL(">="),
+    EOF("end of input");
+
+    private final String text;
+
+    /**
+     * Creates a TokenKind with a given fixed spelling
+     *
+     * @param text the spelling of the token, or null if it comes from the input
+     */
+    TokenKind(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Retrieves the fixed spelling of tokens of this kind
+     *
+     * @return the spelling, or null for identifiers and numbers
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Checks whether this kind is one of the keywords of SIMPLE
+     *
+     * @return true if the kind is a keyword; Otherwise,
+     *         false
+     */
+    public boolean isKeyword()
+    {
+        return ordinal() >= DISPLAY.ordinal() && ordinal() <= READ.ordinal();
+    }
+
+    /**
+     * Checks whether this kind is one of the comparative operators < > <= >= = <>
+     *
+     * @return true if the kind is a relop; Otherwise,
+     *         false
+     */
+    public boolean isRelop()
+    {
+        return ordinal() >= EQUALS.ordinal() && ordinal() <= GREATER_EQUAL.ordinal();
+    }
+}
@@ -0,0 +1,245 @@
+package scheduler;
+import ast.Program;
+import batch.BatchResult;
+import environment.Input;
+import environment.Output;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import optimizer.Optimizer;
+import parser.Parser;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import server.ResidentProgram;
+import vm.VirtualMachine;
+
+/**
+ * Scheduler runs thousands of Programs at once on a few worker threads, as green threads.
+ * Each Task runs on the VirtualMachine for a slice of a fixed number of jumps and reads, its
+ * fuel, and then goes to the back of a first in, first out run queue, so every runnable Task
+ * gets the same share of the workers however long it runs. A Task whose read statement has
+ * no value yet is parked off the queue until a value is offered, so waiting Tasks cost no
+ * worker time at all
+ *
+ * Usage:
+ * Scheduler scheduler = new Scheduler(4, Scheduler.DEFAULT_FUEL);
+ * Task task = scheduler.submit(new ResidentProgram(prog), Output.toMemory());
+ * task.offer(5);
+ * task.endInput();
+ * task.await();
+ * scheduler.close();
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Scheduler
+{
+    /** The number of jumps and reads a Task runs before the next Task's turn */
+    public static final long DEFAULT_FUEL = 1000;
+
+    private final long fuel;
+    private final LinkedBlockingQueue<Task> runQueue;
+    private final Thread[] workers;
+    private final AtomicInteger submitted;
+    private final AtomicInteger live;
+
+    /**
+     * Creates a Scheduler and starts its workers
+     *
+     * @param threads the number of worker threads
+     * @param fuel the number of jumps and reads in a slice
+     * @throws IllegalArgumentException if there is not at least one worker or one
+     *         jump or read in a slice
+     */
+    public Scheduler(int threads, long fuel)
+    {
+        if (threads < 1 || fuel < 1)
+            throw new IllegalArgumentException("A Scheduler needs a worker and some fuel");
+        this.fuel = fuel;
+        runQueue = new LinkedBlockingQueue<Task>();
+        submitted = new AtomicInteger();
+        live = new AtomicInteger();
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            workers[i] = new Thread(this::work, "scheduler-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Starts a run of a Program as a new Task at the back of the run queue. Its input is
+     * empty until values are offered to the Task
+     *
+     * @param program the Program being run
+     * @param output the Output the Program displays values to, which should not be shared
+     *               with other Tasks since their slices interleave
+     * @return the Task
+     */
+    public Task submit(ResidentProgram program, Output output)
+    {
+        Task task = new Task(this, submitted.getAndIncrement(), program, output);
+        live.incrementAndGet();
+        enqueue(task);
+        return task;
+    }
+
+    /**
+     * Retrieves the number of Tasks which have not finished, whether runnable or parked
+     *
+     * @return the live count
+     */
+    public int getLiveCount()
+    {
+        return live.get();
+    }
+
+    /**
+     * Stops the workers. Tasks which have not finished are abandoned
+     */
+    public void close()
+    {
+        for (Thread worker: workers)
+            worker.interrupt();
+    }
+
+    /**
+     * Puts a Task at the back of the run queue
+     *
+     * @param task the Task
+     */
+    void enqueue(Task task)
+    {
+        runQueue.add(task);
+    }
+
+    /**
+     * Notes that a Task has finished
+     */
+    void finished()
+    {
+        live.decrementAndGet();
+    }
+
+    /**
+     * Runs slices of the Tasks on the run queue until the worker is interrupted
+     */
+    private void work()
+    {
+        VirtualMachine vm = new VirtualMachine();
+        try
+        {
+            while (true)
+                runQueue.take().runSlice(vm, fuel);
+        }
+        catch (InterruptedException err)
+        {
+            return;
+        }
+    }
+
+    /**
+     * Runs Programs concurrently from command line settings. Every file is run -copies
+     * times, and the values of the -in file are offered to every Task one at a time after
+     * all of them have started, so Tasks park until their values arrive. The text of each
+     * Task is printed after a line naming it once all of them have finished
+     *
+     * Usage: java scheduler.Scheduler [-threads n] [-fuel n] [-copies n] [-in file]
+     *            [-noopt] file...
+     *
+     * @param args arguments for the command line
+     * @throws IOException if a file cannot be read
+     * @throws ScanErrorException if a file cannot be scanned
+     * @throws InterruptedException if the main thread is interrupted while waiting
+     */
+    public static void main(String[] args)
+            throws IOException, ScanErrorException, InterruptedException
+    {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long fuel = DEFAULT_FUEL;
+        int copies = 1;
+        String inName = null;
+        boolean optimize = true;
+        List<String> files = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("-threads"))
+                threads = Integer.parseInt(args[++i]);
+            else if (args[i].equals("-fuel"))
+                fuel = Long.parseLong(args[++i]);
+            else if (args[i].equals("-copies"))
+                copies = Integer.parseInt(args[++i]);
+            else if (args[i].equals("-in"))
+                inName = args[++i];
+            else if (args[i].equals("-noopt"))
+                optimize = false;
+            else
+                files.add(args[i]);
+        }
+        List<Integer> values = new ArrayList<Integer>();
+        if (inName != null)
+        {
+            Input in = Input.fromFile(Paths.get(inName));
+            try
+            {
+                while (true)
+                    values.add(in.readInt());
+            }
+            catch (NoSuchElementException err)
+            {
+                // every value has been read
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        Scheduler scheduler = new Scheduler(threads, fuel);
+        List<Task> tasks = new ArrayList<Task>();
+        List<String> names = new ArrayList<String>();
+        for (String file: files)
+        {
+            Program prog;
+            try (FileInputStream stream = new FileInputStream(file))
+            {
+                prog = new Parser(new Scanner(stream)).parseProgram();
+            }
+            if (optimize)
+                prog = new Optimizer().optimize(prog);
+            ResidentProgram program = new ResidentProgram(prog);
+            for (int c = 0; c < copies; c++)
+            {
+                tasks.add(scheduler.submit(program, Output.toMemory()));
+                names.add(file);
+            }
+        }
+        for (int value: values)
+        {
+            for (Task task: tasks)
+            {
+                if (!task.isDone())
+                    task.offer(value);
+            }
+        }
+        for (Task task: tasks)
+            task.endInput();
+        for (Task task: tasks)
+            task.await();
+        scheduler.close();
+        for (Task task: tasks)
+        {
+            BatchResult result = task.getResult();
+            System.out.println("--- task " + task.getId() + " " + names.get(task.getId()));
+            System.out.print(result.getOutput());
+            if (!result.isSuccess())
+                System.err.println("Task " + task.getId() + " failed: " + result.getError());
+        }
+        System.out.flush();
+    }
+}
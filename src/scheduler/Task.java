@@ -0,0 +1,230 @@
+package scheduler;
+import batch.BatchResult;
+import environment.Input;
+import environment.Output;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import metrics.ExecEvent;
+import metrics.InterpreterMetrics;
+import server.ResidentProgram;
+import vm.Continuation;
+import vm.VirtualMachine;
+
+/**
+ * Task is one run of a Program on a Scheduler, a green thread. Its Continuation holds the
+ * whole state of the run between slices, so any worker of the Scheduler may run the next
+ * slice. Values for its read statements are offered from any thread while it runs; a Task
+ * whose read finds no value is parked without holding a worker, and is scheduled again as
+ * soon as a value is offered or the input is ended
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Task
+{
+    private final Scheduler owner;
+    private final int id;
+    private final Continuation k;
+    private final Output output;
+    private final Input input;
+    private final CountDownLatch done;
+    private final ExecEvent event;
+    private boolean parked;
+    private long slices;
+    private long nanos;
+    private volatile String error;
+
+    /**
+     * Creates a Task which has not run yet
+     *
+     * @param owner the Scheduler which runs the Task
+     * @param id the number of the Task, counting from 0 in the order of submission
+     * @param program the Program being run
+     * @param output the Output the Program displays values to
+     */
+    Task(Scheduler owner, int id, ResidentProgram program, Output output)
+    {
+        this.owner = owner;
+        this.id = id;
+        this.output = output;
+        input = Input.queue();
+        k = program.start(output, input);
+        done = new CountDownLatch(1);
+        event = new ExecEvent();
+        event.begin();
+    }
+
+    /**
+     * Retrieves the number of the Task
+     *
+     * @return the id, counting from 0 in the order of submission
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * Adds a value for a read statement of the Task, waking the Task if it is parked waiting
+     * for one
+     *
+     * @param value the value
+     * @throws IllegalStateException if the input has been ended
+     */
+    public void offer(int value)
+    {
+        input.offer(value);
+        wake();
+    }
+
+    /**
+     * Marks the end of the input of the Task, so a read past the last value fails the Task
+     * instead of parking it
+     */
+    public void endInput()
+    {
+        input.end();
+        wake();
+    }
+
+    /**
+     * Checks whether the Task is parked waiting for input
+     *
+     * @return true if a read statement is waiting for a value; Otherwise,
+     *         false
+     */
+    public synchronized boolean isParked()
+    {
+        return parked;
+    }
+
+    /**
+     * Checks whether the Task has halted or failed
+     *
+     * @return true if the Task has finished; Otherwise,
+     *         false
+     */
+    public boolean isDone()
+    {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Waits until the Task has finished
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void await() throws InterruptedException
+    {
+        done.await();
+    }
+
+    /**
+     * Waits until the Task has finished or a timeout has passed
+     *
+     * @param timeout the longest time to wait
+     * @param unit the unit of the timeout
+     * @return true if the Task has finished; Otherwise,
+     *         false
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return done.await(timeout, unit);
+    }
+
+    /**
+     * Retrieves the result of the Task once it has finished. The text is only complete when
+     * the Output of the Task collects it in memory
+     *
+     * @return the text displayed and the error which stopped the Task, if any
+     * @throws IllegalStateException if the Task has not finished
+     */
+    public BatchResult getResult()
+    {
+        if (!isDone())
+            throw new IllegalStateException("Task " + id + " has not finished");
+        return new BatchResult(output.getText(), error);
+    }
+
+    /**
+     * Retrieves the number of slices the Task has been run for
+     *
+     * @return the slice count
+     */
+    public synchronized long getSliceCount()
+    {
+        return slices;
+    }
+
+    /**
+     * Runs the Task for one slice on the current worker, then puts it back on the run queue,
+     * parks it or finishes it, depending on why the slice ended
+     *
+     * @param vm the VirtualMachine of the worker
+     * @param fuel the largest number of jumps and reads in the slice
+     */
+    void runSlice(VirtualMachine vm, long fuel)
+    {
+        long start = System.nanoTime();
+        Continuation.State state;
+        try
+        {
+            state = vm.resume(k, fuel);
+        }
+        catch (RuntimeException err)
+        {
+            error = ResidentProgram.describe(err);
+            state = Continuation.State.HALTED;
+        }
+        boolean requeue = false;
+        synchronized (this)
+        {
+            slices++;
+            nanos += System.nanoTime() - start;
+            if (state == Continuation.State.READY)
+                requeue = true;
+            else if (state == Continuation.State.BLOCKED)
+            {
+                requeue = input.isReady();
+                parked = !requeue;
+            }
+        }
+        if (requeue)
+            owner.enqueue(this);
+        else if (state == Continuation.State.HALTED)
+            finish();
+    }
+
+    /**
+     * Puts the Task back on the run queue if it is parked
+     */
+    private void wake()
+    {
+        synchronized (this)
+        {
+            if (!parked)
+                return;
+            parked = false;
+        }
+        owner.enqueue(this);
+    }
+
+    /**
+     * Flushes the Output of the Task, records the run with the InterpreterMetrics and
+     * releases the threads waiting for the Task
+     */
+    private void finish()
+    {
+        try
+        {
+            output.flush();
+        }
+        finally
+        {
+            InterpreterMetrics.get().recordRun(event, "scheduler", nanos, k.getEnvironment());
+            owner.finished();
+            done.countDown();
+        }
+    }
+}
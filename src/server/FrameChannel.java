@@ -0,0 +1,74 @@
+package server;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * FrameChannel sends everything written to it to the client as OUTPUT frames, so that an
+ * Output streams displayed values back over the connection as its buffer fills
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+class FrameChannel implements WritableByteChannel
+{
+    private DataOutputStream out;
+    private boolean open;
+
+    /**
+     * Creates a FrameChannel which writes frames to a stream
+     *
+     * @param out the stream of the connection
+     */
+    FrameChannel(DataOutputStream out)
+    {
+        this.out = out;
+        open = true;
+    }
+
+    /**
+     * Sends the remaining bytes of a buffer as one OUTPUT frame
+     *
+     * @param src the bytes being sent
+     * @return the number of bytes sent
+     * @throws IOException if the connection cannot be written to
+     */
+    public int write(ByteBuffer src) throws IOException
+    {
+        int length = src.remaining();
+        out.writeByte(Protocol.OUTPUT);
+        out.writeInt(length);
+        if (src.hasArray())
+        {
+            out.write(src.array(), src.arrayOffset() + src.position(), length);
+            src.position(src.limit());
+        }
+        else
+        {
+            while (src.hasRemaining())
+                out.writeByte(src.get());
+        }
+        out.flush();
+        return length;
+    }
+
+    /**
+     * Checks whether the channel is open
+     *
+     * @return true until the channel is closed; Otherwise,
+     *         false
+     */
+    public boolean isOpen()
+    {
+        return open;
+    }
+
+    /**
+     * Closes the channel, leaving the connection open for the end of the response
+     */
+    public void close()
+    {
+        open = false;
+    }
+}
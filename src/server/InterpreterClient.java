@@ -0,0 +1,204 @@
+package server;
+import cache.ProgramCache;
+import environment.Input;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * InterpreterClient runs a SIMPLE program on an InterpreterServer in place of starting a
+ * new interpreter. It sends the hash of the source first and the source itself only when
+ * the server does not have the Program yet, then copies the displayed values the server
+ * streams back to standard output. The values of read statements are sent with the
+ * request, since the server cannot prompt for them.
+ *
+ * Usage: java server.InterpreterClient [-socket path | -port n] [-noopt]
+ *                                      [-vm | -jvm | -closure | -flat | -tiered]
+ *                                      [-in inFile] file
+ *        java server.InterpreterClient [-socket path | -port n] -stop
+ * -socket connects to the Unix domain socket at path instead of to a loopback port
+ * -port connects to loopback port n, 7071 by default
+ * -noopt runs the Program without optimizing it
+ * -vm, -jvm, -closure, -flat and -tiered choose the backend as they do for the Parser
+ * -in sends the numbers in inFile as the values of read statements
+ * -stop shuts the server down
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class InterpreterClient
+{
+    /**
+     * Sends a request from the command line to the server, and exits with status 1 if the
+     * program fails
+     *
+     * @param args arguments for the command line
+     * @throws IOException if the file cannot be read or the server cannot be reached
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String socket = null;
+        int port = Protocol.DEFAULT_PORT;
+        boolean optimize = true;
+        boolean stop = false;
+        String backend = "tree";
+        String inName = null;
+        String fileName = null;
+        for (int i = 0; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (arg.equals("-socket") && i + 1 < args.length)
+                socket = args[++i];
+            else if (arg.equals("-port") && i + 1 < args.length)
+                port = Integer.parseInt(args[++i]);
+            else if (arg.equals("-in") && i + 1 < args.length)
+                inName = args[++i];
+            else if (arg.equals("-noopt"))
+                optimize = false;
+            else if (arg.equals("-stop"))
+                stop = true;
+            else if (arg.equals("-vm") || arg.equals("-jvm") || arg.equals("-closure")
+                    || arg.equals("-flat") || arg.equals("-tiered"))
+                backend = arg.substring(1);
+            else
+                fileName = arg;
+        }
+        if (!stop && fileName == null)
+        {
+            System.err.println("Usage: java server.InterpreterClient [options] file");
+            return;
+        }
+        try (SocketChannel channel = Protocol.connect(Protocol.address(socket, port)))
+        {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(Protocol.MAGIC);
+            if (stop)
+            {
+                out.writeByte(Protocol.STOP);
+                out.flush();
+                in.readByte();
+                return;
+            }
+            Path source = Paths.get(fileName);
+            out.writeByte(Protocol.RUN);
+            out.writeUTF(backend);
+            out.writeBoolean(optimize);
+            out.write(ProgramCache.key(source, InterpreterServer.passes(optimize)));
+            int[] values = inName == null ? new int[0] : readValues(Paths.get(inName));
+            out.writeInt(values.length);
+            for (int value: values)
+                out.writeInt(value);
+            out.flush();
+            if (!receive(in, out, source))
+                System.exit(1);
+        }
+    }
+
+    /**
+     * Copies the response of the server to standard output, sending the source of the
+     * Program if the server asks for it
+     *
+     * @param in the stream the response is read from
+     * @param out the stream the source is written to
+     * @param source the path of the source
+     * @return true if the Program ran successfully; Otherwise,
+     *         false
+     * @throws IOException if the connection fails or the source cannot be read
+     */
+    private static boolean receive(DataInputStream in, DataOutputStream out, Path source)
+            throws IOException
+    {
+        OutputStream display = System.out;
+        byte[] buf = new byte[8192];
+        try
+        {
+            while (true)
+            {
+                int tag = in.readByte();
+                if (tag == Protocol.NEED_SOURCE)
+                {
+                    byte[] bytes = Files.readAllBytes(source);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    out.flush();
+                }
+                else if (tag == Protocol.OUTPUT)
+                {
+                    for (int left = Protocol.readLength(in); left > 0; )
+                    {
+                        int count = in.read(buf, 0, Math.min(left, buf.length));
+                        if (count < 0)
+                            throw new IOException("Connection closed");
+                        display.write(buf, 0, count);
+                        left -= count;
+                    }
+                }
+                else if (tag == Protocol.ERROR)
+                {
+                    display.flush();
+                    System.err.println(in.readUTF());
+                    return false;
+                }
+                else
+                    return tag == Protocol.DONE;
+            }
+        }
+        finally
+        {
+            display.flush();
+        }
+    }
+
+    /**
+     * Reads every number in a file, to be sent as the values of read statements
+     *
+     * @param path the path of the file
+     * @return the numbers in order
+     * @throws IOException if the file cannot be read
+     */
+    private static int[] readValues(Path path) throws IOException
+    {
+        Input input = Input.fromFile(path);
+        try
+        {
+            int[] values = new int[16];
+            int count = 0;
+            while (true)
+            {
+                try
+                {
+                    int value = input.readInt();
+                    if (count == values.length)
+                        values = Arrays.copyOf(values, count * 2);
+                    values[count++] = value;
+                }
+                catch (InputMismatchException err)
+                {
+                    throw new IOException(path + ": " + err.getMessage());
+                }
+                catch (NoSuchElementException err)
+                {
+                    return Arrays.copyOf(values, count);
+                }
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+}
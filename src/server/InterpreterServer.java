@@ -0,0 +1,267 @@
+package server;
+import ast.Program;
+import cache.AstFormat;
+import cache.ProgramCache;
+import environment.Input;
+import environment.Output;
+import optimizer.Optimizer;
+import parser.Parser;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InterpreterServer is a long lived interpreter which runs SIMPLE programs sent to it by the
+ * InterpreterClient, so that runs pay neither for starting a JVM nor for warming up its JIT
+ * compiler. It listens on a Unix domain socket or a loopback port and hands each connection
+ * to a pool of worker threads. Every Program it parses stays resident, keyed by the hash of
+ * its source, together with the code the backends compile it to, so a client only sends a
+ * source the server has not seen before. Each run gets a fresh Environment, its input
+ * values from the request, and an Output which streams displayed values back to the client.
+ *
+ * Usage: java server.InterpreterServer [-socket path | -port n] [-workers n] [-cache dir]
+ * -socket listens on a Unix domain socket at path instead of on a loopback port
+ * -port listens on loopback port n, 7071 by default
+ * -workers runs at most n programs at once, one per processor by default
+ * -cache also keeps parsed Programs in dir with a ProgramCache, so they survive restarts
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class InterpreterServer
+{
+    private SocketAddress address;
+    private ExecutorService workers;
+    private ProgramCache cache;
+    private Map<String, ResidentProgram> programs;
+    private volatile ServerSocketChannel server;
+
+    /**
+     * Creates an InterpreterServer
+     *
+     * @param address the address to listen on
+     * @param workers the number of worker threads
+     * @param cache the ProgramCache which Programs are also kept in, or null for none
+     */
+    public InterpreterServer(SocketAddress address, int workers, ProgramCache cache)
+    {
+        this.address = address;
+        this.cache = cache;
+        this.workers = Executors.newFixedThreadPool(workers);
+        programs = new ConcurrentHashMap<String, ResidentProgram>();
+    }
+
+    /**
+     * Accepts connections until the server is stopped, and then waits for the runs in
+     * progress to finish
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public void serve() throws IOException
+    {
+        if (address instanceof UnixDomainSocketAddress)
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        server = Protocol.listen(address);
+        try
+        {
+            while (true)
+            {
+                SocketChannel client = server.accept();
+                workers.execute(() -> handle(client));
+            }
+        }
+        catch (ClosedChannelException err)
+        {
+            // stop closed the server channel
+        }
+        finally
+        {
+            server.close();
+            workers.shutdown();
+            try
+            {
+                workers.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException err)
+            {
+                Thread.currentThread().interrupt();
+            }
+            if (address instanceof UnixDomainSocketAddress)
+                Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+    }
+
+    /**
+     * Stops accepting connections
+     *
+     * @throws IOException if the server channel cannot be closed
+     */
+    public void stop() throws IOException
+    {
+        server.close();
+    }
+
+    /**
+     * Serves one request on a connection and closes it
+     *
+     * @param client the connection
+     */
+    private void handle(SocketChannel client)
+    {
+        try (SocketChannel channel = client)
+        {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)));
+            if (in.readInt() != Protocol.MAGIC)
+                return;
+            int command = in.readByte();
+            if (command == Protocol.STOP)
+            {
+                out.writeByte(Protocol.DONE);
+                out.flush();
+                stop();
+            }
+            else if (command == Protocol.RUN)
+                run(in, out);
+        }
+        catch (IOException err)
+        {
+            System.err.println("Connection failed - " + err.getMessage());
+        }
+    }
+
+    /**
+     * Serves a RUN request
+     *
+     * @param in the stream the request is read from
+     * @param out the stream the response is written to
+     * @throws IOException if the connection fails
+     */
+    private void run(DataInputStream in, DataOutputStream out) throws IOException
+    {
+        String backend = in.readUTF();
+        boolean optimize = in.readBoolean();
+        byte[] key = new byte[AstFormat.KEY_SIZE];
+        in.readFully(key);
+        int[] values = new int[Protocol.readLength(in)];
+        for (int i = 0; i < values.length; i++)
+            values[i] = in.readInt();
+        Output output = new Output(new FrameChannel(out), Output.FlushPolicy.ON_SIZE);
+        try
+        {
+            ResidentProgram prog = lookup(key, optimize, in, out);
+            prog.run(backend, output, new Input(values));
+            out.writeByte(Protocol.DONE);
+        }
+        catch (RuntimeException | ScanErrorException | StackOverflowError err)
+        {
+            output.flush();
+            out.writeByte(Protocol.ERROR);
+            out.writeUTF(ResidentProgram.describe(err));
+        }
+        out.flush();
+    }
+
+    /**
+     * Finds the resident Program with a given key, loading it from the ProgramCache or
+     * asking the client for its source and parsing it if it is not resident yet
+     *
+     * @param key the key of the source of the Program
+     * @param optimize whether the Program is optimized
+     * @param in the stream the source is read from
+     * @param out the stream the request for the source is written to
+     * @return the ResidentProgram
+     * @throws IOException if the connection fails
+     * @throws ScanErrorException if the source cannot be scanned
+     */
+    private ResidentProgram lookup(byte[] key, boolean optimize, DataInputStream in,
+                                   DataOutputStream out) throws IOException, ScanErrorException
+    {
+        String name = ProgramCache.toHex(key);
+        ResidentProgram resident = programs.get(name);
+        if (resident != null)
+            return resident;
+        Program prog = cache == null ? null : cache.load(key);
+        if (prog == null)
+        {
+            out.writeByte(Protocol.NEED_SOURCE);
+            out.flush();
+            byte[] source = new byte[Protocol.readLength(in)];
+            in.readFully(source);
+            if (!Arrays.equals(key, ProgramCache.key(source, passes(optimize))))
+                throw new IllegalArgumentException("The source does not match its key");
+            prog = new Parser(new Scanner(new ByteArrayInputStream(source))).parseProgram();
+            if (optimize)
+                prog = new Optimizer().optimize(prog);
+            if (cache != null)
+                cache.store(key, prog);
+        }
+        resident = new ResidentProgram(prog);
+        ResidentProgram raced = programs.putIfAbsent(name, resident);
+        return raced != null ? raced : resident;
+    }
+
+    /**
+     * Describes the passes run on an AST, in the form used in the keys of a ProgramCache
+     *
+     * @param optimize whether the Optimizer is run
+     * @return "opt" followed by the version of the optimizer passes, or "noopt"
+     */
+    public static String passes(boolean optimize)
+    {
+        return optimize ? "opt" + Optimizer.VERSION : "noopt";
+    }
+
+    /**
+     * Starts an InterpreterServer from command line settings and serves until a client
+     * stops it
+     *
+     * @param args arguments for the command line
+     * @throws IOException if the address cannot be bound
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String socket = null;
+        int port = Protocol.DEFAULT_PORT;
+        int workers = Runtime.getRuntime().availableProcessors();
+        ProgramCache cache = null;
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            String value = args[i + 1];
+            if (args[i].equals("-socket"))
+                socket = value;
+            else if (args[i].equals("-port"))
+                port = Integer.parseInt(value);
+            else if (args[i].equals("-workers"))
+                workers = Integer.parseInt(value);
+            else if (args[i].equals("-cache"))
+                cache = new ProgramCache(Paths.get(value));
+            else
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        SocketAddress address = Protocol.address(socket, port);
+        System.err.println("Listening on " + address);
+        new InterpreterServer(address, workers, cache).serve();
+    }
+}
@@ -0,0 +1,116 @@
+package server;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+
+/**
+ * Protocol lists the messages exchanged by the InterpreterClient and the InterpreterServer,
+ * which are written with DataOutputStream over a Unix domain or loopback socket. Each
+ * connection carries one request.
+ *
+ * A request is the MAGIC int followed by a command byte. RUN is followed by the backend,
+ * whether the Program is optimized, the key of its source as computed by ProgramCache, and
+ * the count and values of its input. If the Program with that key is not resident the server
+ * answers NEED_SOURCE, and the client sends the length and bytes of the source. The server
+ * then streams OUTPUT frames, each an int length and that many bytes of displayed text, and
+ * ends with DONE or with ERROR and a message. STOP asks the server to shut down and is
+ * answered with DONE.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class Protocol
+{
+    /** the first four bytes of every request: "SIMD" */
+    public static final int MAGIC = 0x53494D44;
+    /** the port the server listens on when no socket is given */
+    public static final int DEFAULT_PORT = 7071;
+
+    /** runs a Program */
+    public static final int RUN = 1;
+    /** shuts the server down */
+    public static final int STOP = 2;
+
+    /** asks the client for the source of a Program which is not resident */
+    public static final int NEED_SOURCE = 1;
+    /** carries displayed text: length, bytes */
+    public static final int OUTPUT = 2;
+    /** ends a response with a failure: message */
+    public static final int ERROR = 3;
+    /** ends a successful response */
+    public static final int DONE = 4;
+
+    /** the largest source, input or output frame accepted, in bytes or values */
+    public static final int MAX_LENGTH = 1 << 30;
+
+    /**
+     * Protocol only holds constants and helpers and cannot be instantiated
+     */
+    private Protocol()
+    {
+    }
+
+    /**
+     * Finds the address of the server from the command line settings
+     *
+     * @param socket the path of a Unix domain socket, or null to use a loopback port
+     * @param port the loopback port, used when there is no socket path
+     * @return the address
+     */
+    public static SocketAddress address(String socket, int port)
+    {
+        if (socket != null)
+            return UnixDomainSocketAddress.of(Paths.get(socket));
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Opens a server channel bound to an address
+     *
+     * @param address the address of the server
+     * @return the bound channel
+     * @throws IOException if the address cannot be bound
+     */
+    public static ServerSocketChannel listen(SocketAddress address) throws IOException
+    {
+        ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        server.bind(address);
+        return server;
+    }
+
+    /**
+     * Connects to a server
+     *
+     * @param address the address of the server
+     * @return the connected channel
+     * @throws IOException if the server cannot be reached
+     */
+    public static SocketChannel connect(SocketAddress address) throws IOException
+    {
+        return SocketChannel.open(address);
+    }
+
+    /**
+     * Reads a length written before a source, an input or an output frame
+     *
+     * @param in the stream being read
+     * @return the length
+     * @throws IOException if the stream cannot be read or the length is out of range
+     */
+    public static int readLength(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_LENGTH)
+            throw new IOException("Bad length: " + length);
+        return length;
+    }
+}
@@ -0,0 +1,181 @@
+package server;
+import ast.Program;
+import closure.ClosureCompiler;
+import closure.ClosureProgram;
+import environment.Environment;
+import environment.Input;
+import environment.Output;
+import environment.SymbolTable;
+import flat.FlatCompiler;
+import flat.FlatInterpreter;
+import flat.FlatProgram;
+import jvm.JvmCompiler;
+import jvm.JvmProgram;
+import metrics.ExecEvent;
+import metrics.InterpreterMetrics;
+import tiered.TieredCompiler;
+import vm.Bytecode;
+import vm.Continuation;
+import vm.VirtualMachine;
+
+/**
+ * ResidentProgram keeps a resolved Program in memory together with the code each backend
+ * compiles it to, so that it can be run again and again, by any number of threads at once,
+ * without being parsed or compiled again. Its Bytecode is compiled as soon as it is created,
+ * because compiling Bytecode adds slots to the SymbolTable, and the SymbolTable must not
+ * change once runs share it. The closures, the FlatProgram and the JVM class only read the
+ * SymbolTable and are compiled the first time they are needed, and so is the
+ * TieredCompiler, which every tiered run shares so that the iterations of all runs make a
+ * loop hot
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ResidentProgram
+{
+    private Program prog;
+    private SymbolTable symbols;
+    private Bytecode code;
+    private ClosureProgram closure;
+    private FlatProgram flat;
+    private JvmProgram jvm;
+    private boolean jvmCompiled;
+    private TieredCompiler tier;
+
+    /**
+     * Creates a ResidentProgram from a parsed, and possibly optimized, Program
+     *
+     * @param prog the Program, which has not been resolved yet
+     */
+    public ResidentProgram(Program prog)
+    {
+        this.prog = prog;
+        symbols = new SymbolTable();
+        prog.resolve(symbols);
+        code = Bytecode.compile(prog, symbols);
+    }
+
+    /**
+     * Runs the Program in a fresh Environment and records the run with the
+     * InterpreterMetrics
+     *
+     * @param backend "tree", "tiered", "closure", "flat", "vm" or "jvm"; "jvm" runs on the
+     *                VirtualMachine when the Program is too large to be compiled to a JVM
+     *                class
+     * @param output the Output the Program displays values to, which is flushed once the
+     *               Program has finished
+     * @param input the Input the Program reads values from
+     */
+    public void run(String backend, Output output, Input input)
+    {
+        ClosureProgram closureProgram = backend.equals("closure") ? closure() : null;
+        FlatProgram flatProgram = backend.equals("flat") ? flat() : null;
+        JvmProgram jvmProgram = backend.equals("jvm") ? jvm() : null;
+        Environment env = new Environment(symbols, output, input);
+        if (backend.equals("tiered"))
+            env.setLoopCompiler(tier());
+        InterpreterMetrics metrics = InterpreterMetrics.get();
+        ExecEvent event = new ExecEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try
+        {
+            if (closureProgram != null)
+                closureProgram.execute(env);
+            else if (flatProgram != null)
+                new FlatInterpreter().execute(flatProgram, env);
+            else if (jvmProgram != null)
+                jvmProgram.execute(env);
+            else if (backend.equals("vm") || backend.equals("jvm"))
+                new VirtualMachine().execute(code, env);
+            else
+                prog.exec(env);
+        }
+        finally
+        {
+            output.flush();
+            metrics.recordRun(event, backend, System.nanoTime() - start, env);
+        }
+    }
+
+    /**
+     * Creates a Continuation which runs the Bytecode of the Program in a fresh Environment,
+     * so that the run can be paused and resumed by a scheduler
+     *
+     * @param output the Output the Program displays values to
+     * @param input the Input the Program reads values from
+     * @return the Continuation, which has not executed any instructions yet
+     */
+    public Continuation start(Output output, Input input)
+    {
+        return new Continuation(code, new Environment(symbols, output, input));
+    }
+
+    /**
+     * Describes an error which stopped a run. Once division has been compiled by the JIT
+     * compiler, a division by zero may throw a preallocated ArithmeticException without a
+     * message, so such an exception is described the way the first one was
+     *
+     * @param err the error
+     * @return the message of the error
+     */
+    public static String describe(Throwable err)
+    {
+        if (err.getMessage() != null)
+            return err.getMessage();
+        if (err instanceof ArithmeticException)
+            return "/ by zero";
+        return err.toString();
+    }
+
+    /**
+     * Retrieves the closures of the Program, compiling them the first time
+     *
+     * @return the ClosureProgram
+     */
+    private synchronized ClosureProgram closure()
+    {
+        if (closure == null)
+            closure = new ClosureCompiler().compile(prog, symbols);
+        return closure;
+    }
+
+    /**
+     * Retrieves the FlatProgram of the Program, laying it out the first time
+     *
+     * @return the FlatProgram
+     */
+    private synchronized FlatProgram flat()
+    {
+        if (flat == null)
+            flat = new FlatCompiler().compile(prog, symbols);
+        return flat;
+    }
+
+    /**
+     * Retrieves the TieredCompiler shared by tiered runs, creating it the first time
+     *
+     * @return the TieredCompiler
+     */
+    private synchronized TieredCompiler tier()
+    {
+        if (tier == null)
+            tier = new TieredCompiler(TieredCompiler.DEFAULT_THRESHOLD);
+        return tier;
+    }
+
+    /**
+     * Retrieves the JVM class of the Program, compiling it the first time
+     *
+     * @return the JvmProgram, or null if the Program is too large to be compiled
+     */
+    private synchronized JvmProgram jvm()
+    {
+        if (!jvmCompiled)
+        {
+            jvm = new JvmCompiler().compile(code);
+            jvmCompiled = true;
+        }
+        return jvm;
+    }
+}
@@ -0,0 +1,58 @@
+package metrics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+
+/**
+ * InterpreterMetricsTest checks that runs by the backends which do not count Statements and
+ * loop iterations report those counts as unavailable rather than as zero
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class InterpreterMetricsTest
+{
+    private static final String SOURCE = "assign i = 0\nwhile i < 5 do\nassign i = i + 1\nend\n"
+            + "display i\n";
+
+    /**
+     * Runs on the register backends leave the counts unavailable, and a run on the tree
+     * backend makes them available without the register runs adding to them
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void reportsUncountedRunsAsUnavailable() throws ScanErrorException
+    {
+        InterpreterMetrics metrics = InterpreterMetrics.get();
+        metrics.reset();
+        TestPrograms.run(TestPrograms.parse(SOURCE), "vm");
+        TestPrograms.run(TestPrograms.parse(SOURCE), "jvm");
+        assertEquals(2, metrics.getRunCount());
+        assertEquals(0, metrics.getCountedRunCount());
+        assertEquals(-1, metrics.getStatementsExecuted());
+        assertEquals(-1, metrics.getLoopIterations());
+        assertEquals(2, metrics.getDisplays());
+
+        TestPrograms.run(TestPrograms.parse(SOURCE), "tree");
+        assertEquals(1, metrics.getCountedRunCount());
+        assertEquals(5, metrics.getLoopIterations());
+        assertTrue(metrics.getStatementsExecuted() > 5);
+    }
+
+    /**
+     * Only the backends which count every Statement they execute are counted
+     */
+    @Test
+    public void knowsWhichBackendsCount()
+    {
+        for (String backend: new String[] {"tree", "closure", "flat"})
+            assertTrue(InterpreterMetrics.countsStatements(backend), backend);
+        for (String backend: new String[] {"tiered", "vm", "jvm", "scheduler"})
+            assertFalse(InterpreterMetrics.countsStatements(backend), backend);
+    }
+}
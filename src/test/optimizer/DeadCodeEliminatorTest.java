@@ -0,0 +1,109 @@
+package optimizer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ast.*;
+import org.junit.jupiter.api.Test;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+
+/**
+ * DeadCodeEliminatorTest checks which Statements the DeadCodeEliminator removes, how it
+ * counts them, and that the programs it shrinks still run exactly as before
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class DeadCodeEliminatorTest
+{
+    /**
+     * Branches which are never taken, loops which never run and everything after a loop
+     * which never ends are unreachable
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void removesUnreachableStatements() throws ScanErrorException
+    {
+        DeadCodeEliminator eliminator = new DeadCodeEliminator();
+        Program prog = eliminator.eliminate(TestPrograms.parse(
+                "if 0 then\ndisplay 1\ndisplay 2\nelse\ndisplay 3\nend\n"
+                + "while 0 do\ndisplay 4\nend\nwhile 1 do\ndisplay 5\nend\ndisplay 6\n"));
+        assertEquals(5, eliminator.getUnreachableCount());
+        assertEquals(2, prog.getStatements().size());
+        Program taken = (Program) prog.getStatements().get(0);
+        assertEquals(3, ((ast.Number) ((Display) taken.getStatements().get(0))
+                .getExpression()).getValue());
+    }
+
+    /**
+     * Assignments which are overwritten or never read are removed, along with an If which
+     * is left without a body, while displays and reads stay
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void removesDeadStores() throws ScanErrorException
+    {
+        DeadCodeEliminator eliminator = new DeadCodeEliminator();
+        Program prog = eliminator.eliminate(TestPrograms.parse(
+                "assign x = 1\nassign x = 2\ndisplay x read n\nassign y = n\n"
+                + "if n > 2 then\nassign z = 4\nelse\nassign z = 5\nend\n"));
+        assertEquals(5, eliminator.getDeadCount());
+        assertEquals(2, prog.getStatements().size());
+    }
+
+    /**
+     * A value assigned in one iteration of a loop and read in the next stays live
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsValuesReadByLaterIterations() throws ScanErrorException
+    {
+        DeadCodeEliminator eliminator = new DeadCodeEliminator();
+        eliminator.eliminate(TestPrograms.parse("assign i = 0\nassign p = 0\n"
+                + "while i < 5 do\ndisplay p\nassign p = i\nassign i = i + 1\nend\n"));
+        assertEquals(0, eliminator.getDeadCount());
+        TestPrograms.assertSameRun("assign i = 0\nassign p = 0\nassign q = 1\nwhile i < 5 do\n"
+                + "display p\nassign p = i\nassign q = q * 2\nassign i = i + 1\nend\n");
+    }
+
+    /**
+     * An assignment which divides by zero is kept even when its value is never read
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsStoresWhichMayFail() throws ScanErrorException
+    {
+        TestPrograms.assertSameRun("display 0 read n\nassign x = 10 / n\ndisplay 1\n", 0);
+    }
+
+    /**
+     * Assignments and Ifs which read a variable that may not have been assigned are kept,
+     * so reading it still fails, while those after it has been assigned are removed
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsReadsOfUndefinedVariables() throws ScanErrorException
+    {
+        DeadCodeEliminator eliminator = new DeadCodeEliminator();
+        Program prog = eliminator.eliminate(TestPrograms.parse(
+                "assign x = y\nassign x = 2\ndisplay x\n"));
+        assertEquals(0, eliminator.getDeadCount());
+        assertEquals(3, prog.getStatements().size());
+        TestPrograms.assertSameRun("assign x = y\nassign x = 2\ndisplay x\n");
+        TestPrograms.assertSameRun("display 0 read n\nif n > 2 then\nassign z = 1\nend\n"
+                + "if z > 0 then\nassign w = 1\nend\ndisplay 1\n", 0);
+        TestPrograms.assertSameRun("assign i = 0\nwhile i < 3 do\nassign t = u\nassign u = i\n"
+                + "assign i = i + 1\nend\ndisplay i\n");
+
+        eliminator = new DeadCodeEliminator();
+        prog = eliminator.eliminate(TestPrograms.parse("display 0 read n\n"
+                + "if n > 2 then\nassign z = 1\nelse\nassign z = 2\nend\n"
+                + "assign x = z\nif z > 0 then\nassign w = x\nend\ndisplay 1\n"));
+        assertEquals(6, eliminator.getDeadCount());
+        assertEquals(2, prog.getStatements().size());
+    }
+}
@@ -0,0 +1,117 @@
+package optimizer;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ast.*;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+
+/**
+ * LoopOptimizerTest checks that the LoopOptimizer hoists invariant expressions out of loops
+ * and shares repeated ones, without moving anything which could fail
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LoopOptimizerTest
+{
+    /**
+     * Optimizes the loops of a program which has only been simplified
+     *
+     * @param source the program
+     * @return the optimized Program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    private static Program optimizeLoops(String source) throws ScanErrorException
+    {
+        Optimizer simplifier = new Optimizer();
+        Program prog = TestPrograms.parse(source);
+        Program simplified = (Program) simplifier.optimize((Statement) prog);
+        return new LoopOptimizer().optimize(simplified);
+    }
+
+    /**
+     * Finds the While among the Statements of a Program
+     *
+     * @param prog the Program
+     * @return the first While
+     */
+    private static While loopOf(Program prog)
+    {
+        for (Statement s: prog.getStatements())
+        {
+            if (s instanceof While)
+                return (While) s;
+        }
+        throw new AssertionError("No loop");
+    }
+
+    /**
+     * An expression of variables the loop never writes is computed once, before the loop
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void hoistsInvariants() throws ScanErrorException
+    {
+        String source = "display 0 read n\nassign i = 0\nwhile i < 10 do\n"
+                + "display i * (n * 3 + 1)\nassign i = i + 1\nend\n";
+        Program prog = optimizeLoops(source);
+        List<Statement> stmts = prog.getStatements();
+        Assignment temp = (Assignment) stmts.get(stmts.size() - 2);
+        assertTrue(temp.getVar().startsWith("$"));
+        assertTrue(temp.getExp() instanceof Add);
+        Display display = (Display) loopOf(prog).getProgram().getStatements().get(0);
+        assertTrue(((Mul) display.getExpression()).getExp2() instanceof Variable);
+        TestPrograms.assertSameRun(source, 4);
+    }
+
+    /**
+     * A division by a variable is never hoisted, since the loop may not run at all
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsDivisionsInTheLoop() throws ScanErrorException
+    {
+        String source = "display 0 read n\nassign i = 0\nwhile i < 0 do\n"
+                + "display 100 / n + 1\nassign i = i + 1\nend\ndisplay i\n";
+        Program prog = optimizeLoops(source);
+        for (Statement s: prog.getStatements())
+            assertFalse(s instanceof Assignment && ((Assignment) s).getVar().startsWith("$"));
+        TestPrograms.assertSameRun(source, 0);
+    }
+
+    /**
+     * An expression which appears twice in a statement in a loop is computed once
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void sharesRepeatedExpressions() throws ScanErrorException
+    {
+        String source = "assign i = 0\nassign s = 0\nwhile i < 10 do\n"
+                + "assign s = s + (i * 3 + 1) * (i * 3 + 1)\nassign i = i + 1\nend\ndisplay s\n";
+        Program prog = optimizeLoops(source);
+        List<Statement> body = loopOf(prog).getProgram().getStatements();
+        Assignment shared = (Assignment) body.get(0);
+        assertTrue(shared.getVar().startsWith("$"));
+        TestPrograms.assertSameRun(source);
+    }
+
+    /**
+     * Nested loops keep their results when invariants are hoisted out of both of them
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsNestedLoopsCorrect() throws ScanErrorException
+    {
+        String source = "display 0 read n\nassign s = 0\nassign i = 0\nwhile i < n do\n"
+                + "assign j = 0\nwhile j < n do\nassign s = s + n * n - i * (n + 2) + j\n"
+                + "assign j = j + 1\nend\nassign i = i + 1\nend\ndisplay s\n";
+        TestPrograms.assertSameRun(source, 9);
+    }
+}
@@ -0,0 +1,234 @@
+package optimizer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import ast.*;
+import environment.Environment;
+import environment.SymbolTable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+
+/**
+ * LoopReducerTest checks which loops the LoopReducer computes in closed form, and that the
+ * closed form leaves every variable with the value the loop would have
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class LoopReducerTest
+{
+    /**
+     * Reduces the While at the end of a program, whose other Statements are assignments
+     * which define the variables the While reads
+     *
+     * @param source the program
+     * @return the closed form, or null if the While cannot be reduced
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    private static Statement reduce(String source) throws ScanErrorException
+    {
+        Set<String> defined = new HashSet<String>();
+        While loop = null;
+        for (Statement s: TestPrograms.parse(source).getStatements())
+        {
+            if (s instanceof Assignment)
+                defined.add(((Assignment) s).getVar());
+            else
+                loop = (While) new Optimizer().optimize(s);
+        }
+        return new LoopReducer(new LoopOptimizer()).reduce(loop, defined);
+    }
+
+    /**
+     * Runs the assignments at the start of a program, and then only the closed form of the
+     * While at its end, without the While which would run whatever the closed form leaves
+     *
+     * @param source the program
+     * @return the Environment holding the values the closed form assigned
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    private static Environment execReduced(String source) throws ScanErrorException
+    {
+        Set<String> defined = new HashSet<String>();
+        List<Statement> stmts = new ArrayList<Statement>();
+        While loop = null;
+        for (Statement s: TestPrograms.parse(source).getStatements())
+        {
+            if (s instanceof Assignment)
+            {
+                defined.add(((Assignment) s).getVar());
+                stmts.add(s);
+            }
+            else
+                loop = (While) new Optimizer().optimize(s);
+        }
+        Statement reduced = new LoopReducer(new LoopOptimizer()).reduce(loop, defined);
+        assertNotNull(reduced);
+        stmts.add(reduced);
+        SymbolTable symbols = new SymbolTable();
+        for (Statement s: stmts)
+            s.resolve(symbols);
+        Environment env = new Environment(symbols);
+        for (Statement s: stmts)
+            s.exec(env);
+        return env;
+    }
+
+    /**
+     * A loop summing its counter is reduced
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void reducesASum() throws ScanErrorException
+    {
+        String source = "assign i = 0\nassign s = 0\nassign n = 1000\nwhile i < n do\n"
+                + "assign s = s + i * 3 - 2\nassign i = i + 1\nend\n";
+        assertNotNull(reduce(source));
+        TestPrograms.assertSameRun(source + "display s\ndisplay i\n");
+    }
+
+    /**
+     * A loop which displays a value is never reduced
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsLoopsWithEffects() throws ScanErrorException
+    {
+        assertNull(reduce("assign i = 0\nwhile i < 10 do\ndisplay i\nassign i = i + 1\nend\n"));
+    }
+
+    /**
+     * A loop whose accumulator has not been assigned before it is not reduced, so reading
+     * it still fails
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsUndefinedAccumulators() throws ScanErrorException
+    {
+        String source = "assign i = 0\nwhile i < 10 do\nassign s = s + i\n"
+                + "assign i = i + 1\nend\n";
+        assertNull(reduce(source));
+        TestPrograms.assertSameRun(source + "display s\n");
+    }
+
+    /**
+     * Values assigned in the last iteration, and sums over several counters, are exact
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void computesFinalValues() throws ScanErrorException
+    {
+        String source = "assign i = 7\nassign s = 100\nassign t = 0\nassign n = 95\n"
+                + "while i <= n do\nassign x = i * 4 - n\nassign s = s - x + i\n"
+                + "assign t = t + n\nassign i = i + 5\nend\n";
+        TestPrograms.assertSameRun(source + "display x\ndisplay s\ndisplay t\ndisplay i\n");
+    }
+
+    /**
+     * A loop which runs 2^31 times has a count which wraps around to a negative number, so
+     * the closed form leaves it to the loop
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void leavesLoopsWhoseCountWraps() throws ScanErrorException
+    {
+        Environment env = execReduced("assign i = -1\nassign s = 0\nassign b = 2147483646\n"
+                + "while i <= b do\nassign s = s + i\nassign i = i + 1\nend\n");
+        assertEquals(-1, env.getVariable("i"));
+        assertEquals(0, env.getVariable("s"));
+    }
+
+    /**
+     * A loop which runs 2^31 - 1 times, the most an int count can hold, is still reduced
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void reducesTheLongestCount() throws ScanErrorException
+    {
+        Environment env = execReduced("assign i = 0\nassign s = 0\nassign b = 2147483646\n"
+                + "while i <= b do\nassign s = s + i\nassign i = i + 1\nend\n");
+        long n = Integer.MAX_VALUE;
+        assertEquals(Integer.MAX_VALUE, env.getVariable("i"));
+        assertEquals((int) (n * (n - 1) / 2), env.getVariable("s"));
+    }
+
+    /**
+     * Counters which stop exactly at the largest or smallest int are reduced, while those
+     * which would have to step past it to leave the loop are not
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void handlesTheBoundsOfAnInt() throws ScanErrorException
+    {
+        Environment env = execReduced("assign i = 2147483637\nassign s = 0\n"
+                + "while i < 2147483647 do\nassign s = s + i\nassign i = i + 1\nend\n");
+        assertEquals(Integer.MAX_VALUE, env.getVariable("i"));
+        assertEquals(sum(Integer.MAX_VALUE - 10, 10, 1), env.getVariable("s"));
+
+        env = execReduced("assign i = 2147483637\nassign s = 0\n"
+                + "while i <= 2147483647 do\nassign s = s + i\nassign i = i + 1\nend\n");
+        assertEquals(Integer.MAX_VALUE - 10, env.getVariable("i"));
+        assertEquals(0, env.getVariable("s"));
+
+        env = execReduced("assign i = -2147483638\nassign s = 0\nassign b = -2147483647 - 1\n"
+                + "while i > b do\nassign s = s + i\nassign i = i - 1\nend\n");
+        assertEquals(Integer.MIN_VALUE, env.getVariable("i"));
+        assertEquals(sum(Integer.MIN_VALUE + 10, 10, -1), env.getVariable("s"));
+
+        env = execReduced("assign i = -2147483638\nassign s = 0\nassign b = -2147483647 - 1\n"
+                + "while i >= b do\nassign s = s + i\nassign i = i - 1\nend\n");
+        assertEquals(Integer.MIN_VALUE + 10, env.getVariable("i"));
+        assertEquals(0, env.getVariable("s"));
+    }
+
+    /**
+     * Loops which count down, by one or by more, end with the values the loop would leave
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void reducesNegativeSteps() throws ScanErrorException
+    {
+        Environment env = execReduced("assign i = 100\nassign s = 7\n"
+                + "while i >= -20 do\nassign s = s + i * 2\nassign i = i - 3\nend\n");
+        assertEquals(-23, env.getVariable("i"));
+        assertEquals(7 + 2 * sum(100, 41, -3), env.getVariable("s"));
+
+        env = execReduced("assign i = 10\nassign s = 0\nassign b = -5\n"
+                + "while i > b do\nassign s = s - i\nassign i = i - 1\nend\n");
+        assertEquals(-5, env.getVariable("i"));
+        assertEquals(-sum(10, 15, -1), env.getVariable("s"));
+        TestPrograms.assertSameRun("assign i = 2000000\nassign s = 0\nassign n = -2000000\n"
+                + "while i > n do\nassign s = s + i\nassign i = i - 7\nend\n"
+                + "display s\ndisplay i\n");
+    }
+
+    /**
+     * Adds up the values of a counter the way an int accumulator would
+     *
+     * @param first the first value
+     * @param count the number of values
+     * @param step the difference between consecutive values
+     * @return the sum, wrapped around to an int
+     */
+    private static int sum(int first, int count, int step)
+    {
+        int total = 0;
+        for (int k = 0; k < count; k++)
+            total += first + k * step;
+        return total;
+    }
+}
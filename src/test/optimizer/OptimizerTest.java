@@ -0,0 +1,124 @@
+package optimizer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ast.*;
+import ast.Number;
+import org.junit.jupiter.api.Test;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+
+/**
+ * OptimizerTest checks that the Optimizer folds constants, removes identities and reduces
+ * the strength of operations, and that it never removes a division which may fail
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class OptimizerTest
+{
+    /**
+     * Optimizes the Expression displayed by a one line program
+     *
+     * @param source the program
+     * @return the optimized Expression
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    private static Expression displayed(String source) throws ScanErrorException
+    {
+        Program prog = TestPrograms.optimize("assign x = 5\nassign y = 6\n" + source);
+        Statement last = prog.getStatements().get(prog.getStatements().size() - 1);
+        return ((Display) last).getExpression();
+    }
+
+    /**
+     * Constant subtrees become Numbers, wrapping around like int arithmetic
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void foldsConstants() throws ScanErrorException
+    {
+        Expression exp = displayed("display 2147483647 + 1 - 3 * (4 - 6)");
+        assertTrue(exp instanceof Number);
+        assertEquals(Integer.MIN_VALUE + 6, ((Number) exp).getValue());
+    }
+
+    /**
+     * Adding zero, multiplying by one and dividing by one leave only the variable
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void removesIdentities() throws ScanErrorException
+    {
+        Expression exp = displayed("display (x + 0) * 1 / 1 - 0");
+        assertTrue(exp instanceof Variable);
+        assertEquals("x", ((Variable) exp).getName());
+    }
+
+    /**
+     * Multiplying and dividing by powers of two become shifts
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void reducesStrength() throws ScanErrorException
+    {
+        assertTrue(displayed("display x * 8") instanceof ShiftLeft);
+        assertTrue(displayed("display x / 16") instanceof ShiftDivide);
+    }
+
+    /**
+     * A division by a variable is kept even when its result is multiplied by zero, so the
+     * division by zero is still reported
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsDivisionsWhichMayFail() throws ScanErrorException
+    {
+        Expression exp = displayed("display (x / (y - 6)) * 0");
+        assertTrue(exp instanceof Mul);
+        TestPrograms.assertSameRun("assign y = 6\ndisplay (1 / (y - 6)) * 0\n");
+    }
+
+    /**
+     * A read of a variable which may not have been assigned is kept even when it is
+     * multiplied by zero, so the undefined variable is still reported, while a read of one
+     * assigned on every path is removed
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void keepsReadsOfUndefinedVariables() throws ScanErrorException
+    {
+        assertTrue(displayed("display z * 0") instanceof Mul);
+        assertTrue(displayed("display x * 0") instanceof Number);
+        TestPrograms.assertSameRun("display z * 0\n");
+        TestPrograms.assertSameRun("display 0 read n\nif n > 2 then\nassign z = 1\nend\n"
+                + "display z * 0\n", 0);
+        TestPrograms.assertSameRun("display 0 read n\nwhile n < 2 do\nassign z = 1\n"
+                + "assign n = n + 1\nend\ndisplay z * 0\n", 5);
+        Program prog = TestPrograms.optimize("display 0 read n\nif n > 2 then\n"
+                + "assign z = 1\nelse\nassign z = 2\nend\ndisplay z * 0\n");
+        Statement last = prog.getStatements().get(prog.getStatements().size() - 1);
+        assertTrue(((Display) last).getExpression() instanceof Number);
+    }
+
+    /**
+     * A condition whose comparisons are all between constants becomes a Number
+     *
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void foldsConstantConditions() throws ScanErrorException
+    {
+        Optimizer optimizer = new Optimizer();
+        Expression cond = optimizer.optimizeCondition(((If) TestPrograms.parse(
+                "if 1 < 2 <= 2 <> 3 then\n display 1\nend\n").getStatements().get(0))
+                .getCondition());
+        assertTrue(cond instanceof Number);
+        assertEquals(1, ((Number) cond).getValue());
+    }
+}
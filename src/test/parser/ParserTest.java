@@ -0,0 +1,44 @@
+package parser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scanner.ScanErrorException;
+
+/**
+ * ParserTest runs the command line of the Parser on programs written to a temporary
+ * directory
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class ParserTest
+{
+    /**
+     * -compare gives every backend the same values for its read statements, rather than
+     * leaving the later backends nothing to read
+     *
+     * @param dir the temporary directory
+     * @throws IOException if the files cannot be written or read
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Test
+    public void compareGivesEveryBackendTheSameInput(@TempDir Path dir)
+            throws IOException, ScanErrorException
+    {
+        Path source = Files.writeString(dir.resolve("sum.sim"),
+                "display 1 read a\ndisplay 2 read b\ndisplay a + b\n");
+        Path in = Files.writeString(dir.resolve("in.txt"), "4 5\n");
+        Path out = dir.resolve("out.txt");
+        Parser.main(new String[] {"-compare", "-in", in.toString(), "-out", out.toString(),
+            source.toString()});
+        List<String> lines = Files.readAllLines(out);
+        assertEquals(15, lines.size());
+        for (int i = 0; i < lines.size(); i += 3)
+            assertEquals(List.of("1", "2", "9"), lines.subList(i, i + 3));
+    }
+}
@@ -0,0 +1,127 @@
+package parser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ast.Program;
+import environment.Input;
+import environment.Output;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import optimizer.Optimizer;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import server.ResidentProgram;
+
+/**
+ * TestPrograms loads, parses and runs the SIMPLE programs the tests are written against.
+ * A run is described by everything it displayed followed, if it stopped with an error, by
+ * a line naming the error, so two runs can be compared as Strings
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class TestPrograms
+{
+    /**
+     * TestPrograms only holds static methods and cannot be instantiated
+     */
+    private TestPrograms()
+    {
+    }
+
+    /**
+     * Loads the source of a program of the corpus
+     *
+     * @param name the name of the program
+     * @return the source
+     */
+    public static String load(String name)
+    {
+        String file = name.equals("program") ? name : name + ".sim";
+        try (InputStream in = TestPrograms.class.getResourceAsStream("/corpus/" + file))
+        {
+            if (in == null)
+                throw new IllegalArgumentException("No corpus program: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException err)
+        {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    /**
+     * Parses the source of a program
+     *
+     * @param source the source
+     * @return the Program, which has not been optimized or resolved
+     * @throws ScanErrorException if the source contains an unidentified character
+     */
+    public static Program parse(String source) throws ScanErrorException
+    {
+        return new Parser(new Scanner(source)).parseProgram();
+    }
+
+    /**
+     * Parses and optimizes the source of a program
+     *
+     * @param source the source
+     * @return the optimized Program, which has not been resolved
+     * @throws ScanErrorException if the source contains an unidentified character
+     */
+    public static Program optimize(String source) throws ScanErrorException
+    {
+        return new Optimizer().optimize(parse(source));
+    }
+
+    /**
+     * Runs a Program once with one of the backends of a ResidentProgram
+     *
+     * @param prog the Program, which has not been resolved
+     * @param backend the backend
+     * @param values the values of the read statements
+     * @return the description of the run
+     */
+    public static String run(Program prog, String backend, int... values)
+    {
+        Output output = Output.toMemory();
+        String error = null;
+        try
+        {
+            new ResidentProgram(prog).run(backend, output, new Input(values));
+        }
+        catch (RuntimeException err)
+        {
+            error = ResidentProgram.describe(err);
+        }
+        return describe(output.getText(), error);
+    }
+
+    /**
+     * Describes a run by what it displayed and the error which stopped it
+     *
+     * @param text everything the run displayed
+     * @param error the message of the error, or null if the run finished
+     * @return the description of the run
+     */
+    public static String describe(String text, String error)
+    {
+        if (error == null)
+            return text;
+        return text + "error: " + error + System.lineSeparator();
+    }
+
+    /**
+     * Checks that a program runs on the AST exactly as it did before it was optimized,
+     * displaying the same values and stopping with the same error
+     *
+     * @param source the program
+     * @param values the values of its read statements
+     * @throws ScanErrorException if the source contains an unidentified character
+     */
+    public static void assertSameRun(String source, int... values) throws ScanErrorException
+    {
+        assertEquals(run(parse(source), "tree", values), run(optimize(source), "tree", values));
+    }
+}
@@ -0,0 +1,117 @@
+package server;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ast.Program;
+import batch.BatchResult;
+import environment.Output;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lanes.LaneProgram;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import parser.TestPrograms;
+import scanner.ScanErrorException;
+import scheduler.Scheduler;
+import scheduler.Task;
+
+/**
+ * BackendTest runs every program of the corpus with every backend, optimized and not, and
+ * checks that each run displays the same values and stops with the same error as the
+ * unoptimized AST, which is the reference every other way of running a program must match
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class BackendTest
+{
+    private static final String[] CORPUS = {"program", "arithmetic", "conditions", "loops",
+        "dead", "undefined", "divide", "forever"};
+    private static final String[] BACKENDS = {"tree", "tiered", "closure", "flat", "vm", "jvm"};
+    private static final int[] VALUES = {3, 7};
+
+    /**
+     * Retrieves the names of the programs of the corpus
+     *
+     * @return the names
+     */
+    static String[] corpus()
+    {
+        return CORPUS;
+    }
+
+    /**
+     * Runs a program with every backend of a ResidentProgram
+     *
+     * @param name the name of the program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @ParameterizedTest
+    @MethodSource("corpus")
+    public void residentBackendsMatchTheAst(String name) throws ScanErrorException
+    {
+        String source = TestPrograms.load(name);
+        String expected = TestPrograms.run(TestPrograms.parse(source), "tree", VALUES);
+        for (String backend: BACKENDS)
+        {
+            assertEquals(expected, TestPrograms.run(TestPrograms.parse(source), backend, VALUES),
+                    name + " with " + backend);
+            assertEquals(expected, TestPrograms.run(TestPrograms.optimize(source), backend,
+                    VALUES), name + " optimized with " + backend);
+        }
+    }
+
+    /**
+     * Runs a program in lockstep lanes, once for each of several input sets
+     *
+     * @param name the name of the program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @ParameterizedTest
+    @MethodSource("corpus")
+    public void lanesMatchTheAst(String name) throws ScanErrorException
+    {
+        String source = TestPrograms.load(name);
+        List<int[]> sets = List.of(VALUES, new int[] {0}, new int[] {12, 1});
+        List<BatchResult> results = new LaneProgram(TestPrograms.optimize(source)).run(sets);
+        for (int i = 0; i < sets.size(); i++)
+        {
+            String expected = TestPrograms.run(TestPrograms.parse(source), "tree", sets.get(i));
+            BatchResult result = results.get(i);
+            assertEquals(expected, TestPrograms.describe(result.getOutput(), result.getError()),
+                    name + " in lane " + i);
+        }
+    }
+
+    /**
+     * Runs a program as a Task of a Scheduler with so little fuel that it is preempted at
+     * every jump and read, and only gives it its input once it has started
+     *
+     * @param name the name of the program
+     * @throws Exception if the program cannot be scanned or the wait is interrupted
+     */
+    @ParameterizedTest
+    @MethodSource("corpus")
+    public void scheduledTasksMatchTheAst(String name) throws Exception
+    {
+        String source = TestPrograms.load(name);
+        String expected = TestPrograms.run(TestPrograms.parse(source), "tree", VALUES);
+        Scheduler scheduler = new Scheduler(2, 1);
+        try
+        {
+            Program prog = TestPrograms.optimize(source);
+            Task task = scheduler.submit(new ResidentProgram(prog), Output.toMemory());
+            for (int value: VALUES)
+                task.offer(value);
+            task.endInput();
+            assertTrue(task.await(30, TimeUnit.SECONDS), name + " did not finish");
+            BatchResult result = task.getResult();
+            assertEquals(expected, TestPrograms.describe(result.getOutput(), result.getError()),
+                    name + " on the Scheduler");
+        }
+        finally
+        {
+            scheduler.close();
+        }
+    }
+}
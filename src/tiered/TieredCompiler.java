@@ -0,0 +1,107 @@
+package tiered;
+import ast.LoopCompiler;
+import ast.While;
+import closure.ClosureCompiler;
+import closure.StmtClosure;
+import environment.SymbolTable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TieredCompiler is a LoopCompiler which compiles hot While statements to closures on a
+ * background thread, while the AST interpreter keeps running them. The closures read and
+ * write the same slot array as the interpreter, so a run switches to them between two
+ * iterations without moving any state, and code which never becomes hot is never compiled
+ *
+ * Usage:
+ * TieredCompiler tier = new TieredCompiler(TieredCompiler.DEFAULT_THRESHOLD);
+ * env.setLoopCompiler(tier);
+ * prog.exec(env);
+ * tier.close();
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class TieredCompiler implements LoopCompiler
+{
+    /** The number of iterations after which a While is compiled */
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private final int threshold;
+    private final ExecutorService compiler;
+    private final AtomicInteger compiled;
+
+    /**
+     * Creates a TieredCompiler with a background thread for compiling
+     *
+     * @param threshold the number of iterations after which a While is compiled
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public TieredCompiler(int threshold)
+    {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold must be positive");
+        this.threshold = threshold;
+        compiled = new AtomicInteger();
+        compiler = Executors.newSingleThreadExecutor(task ->
+        {
+            Thread thread = new Thread(task, "loop-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retrieves the number of iterations after which a While is compiled
+     *
+     * @return the threshold
+     */
+    public int getThreshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * Compiles a hot While to closures in the background and installs them in the While.
+     * Once the TieredCompiler has been closed, the While stays interpreted
+     *
+     * @param loop the While statement
+     * @param symbols the SymbolTable the While was resolved against
+     */
+    public void compile(While loop, SymbolTable symbols)
+    {
+        try
+        {
+            compiler.execute(() ->
+            {
+                StmtClosure code = new ClosureCompiler().compile(loop, symbols);
+                loop.install(env -> code.exec(env.getValues(), env));
+                compiled.incrementAndGet();
+            });
+        }
+        catch (RejectedExecutionException err)
+        {
+            return;
+        }
+    }
+
+    /**
+     * Retrieves the number of While statements compiled so far
+     *
+     * @return the compiled count
+     */
+    public int getCompiledCount()
+    {
+        return compiled.get();
+    }
+
+    /**
+     * Stops the background thread. Loops which have not been compiled yet stay interpreted
+     */
+    public void close()
+    {
+        compiler.shutdownNow();
+    }
+}
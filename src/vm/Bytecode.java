@@ -0,0 +1,121 @@
+package vm;
+import ast.Program;
+import environment.SymbolTable;
+
+/**
+ * Bytecode holds a Program compiled to a flat array of register instructions, ready to be
+ * executed by a VirtualMachine, together with the constants which must be placed in their
+ * slots before it runs. It is never modified after compilation, so the same Bytecode can be
+ * run any number of times in different Environments
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Bytecode
+{
+    private int[] code;
+    private int[] constSlots;
+    private int[] constValues;
+    private SymbolTable symbols;
+
+    /**
+     * Creates a Bytecode object with the finished instructions of a Program
+     *
+     * @param code the instructions with their inline operands
+     * @param constSlots the slots which hold constants
+     * @param constValues the value of the constant in each of constSlots
+     * @param symbols the SymbolTable which the slots in the code refer to
+     */
+    public Bytecode(int[] code, int[] constSlots, int[] constValues, SymbolTable symbols)
+    {
+        this.code = code;
+        this.constSlots = constSlots;
+        this.constValues = constValues;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Compiles a resolved Program to Bytecode
+     *
+     * @param prog the Program being compiled, already resolved against symbols
+     * @param symbols the SymbolTable the Program was resolved against
+     * @return the compiled Bytecode
+     */
+    public static Bytecode compile(Program prog, SymbolTable symbols)
+    {
+        Emitter e = new Emitter(symbols);
+        prog.compile(e);
+        return e.finish();
+    }
+
+    /**
+     * Retrieves the instructions of the Bytecode
+     *
+     * @return the code array, which must not be modified
+     */
+    public int[] getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Retrieves the slots which hold constants
+     *
+     * @return the constant slots, which must not be modified
+     */
+    public int[] getConstSlots()
+    {
+        return constSlots;
+    }
+
+    /**
+     * Retrieves the values of the constants, in the same order as getConstSlots
+     *
+     * @return the constant values, which must not be modified
+     */
+    public int[] getConstValues()
+    {
+        return constValues;
+    }
+
+    /**
+     * Retrieves the SymbolTable which the slots in the code refer to
+     *
+     * @return the SymbolTable of the Bytecode
+     */
+    public SymbolTable getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Lists the instructions one per line with their offsets and operands. Registers are
+     * shown by the name of their slot and jump targets by their offset
+     *
+     * @return the disassembled code
+     */
+    public String disassemble()
+    {
+        StringBuilder out = new StringBuilder();
+        int pc = 0;
+        while (pc < code.length)
+        {
+            int op = code[pc];
+            int count = Opcodes.operands(op);
+            out.append(pc).append(": ").append(Opcodes.name(op));
+            for (int i = 1; i <= count; i++)
+            {
+                out.append(' ');
+                if (Opcodes.isJump(op) && i == count)
+                    out.append('@').append(code[pc + i]);
+                else if ((op == Opcodes.SHL || op == Opcodes.SDIV) && i == count)
+                    out.append(code[pc + i]);
+                else
+                    out.append(symbols.nameOf(code[pc + i]));
+            }
+            out.append('\n');
+            pc += 1 + count;
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package vm;
+import environment.Environment;
+
+/**
+ * Continuation is the whole state of a paused run of Bytecode: the program counter of the
+ * next instruction and the Environment holding the registers. Bytecode never recurses, so
+ * nothing of the run lives on the Java stack between two calls to resume, and a Continuation
+ * can be resumed later on any thread.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Continuation
+{
+    /**
+     * State is why a call to resume returned
+     */
+    public enum State
+    {
+        /** The fuel ran out and the run can be resumed at once */
+        READY,
+        /** A read statement is waiting for input which has not arrived yet */
+        BLOCKED,
+        /** The Bytecode reached its end */
+        HALTED
+    }
+
+    private final Bytecode bytecode;
+    private final Environment env;
+    int pc;
+    State state;
+
+    /**
+     * Creates a Continuation which starts Bytecode at its first instruction
+     *
+     * @param bytecode the Bytecode being run
+     * @param env the Environment in which variables are stored, created from the SymbolTable
+     *            of the Bytecode after it was compiled
+     */
+    public Continuation(Bytecode bytecode, Environment env)
+    {
+        this.bytecode = bytecode;
+        this.env = env;
+        pc = -1;
+        state = State.READY;
+    }
+
+    /**
+     * Retrieves the Bytecode being run
+     *
+     * @return the bytecode
+     */
+    public Bytecode getBytecode()
+    {
+        return bytecode;
+    }
+
+    /**
+     * Retrieves the Environment holding the registers of the run
+     *
+     * @return the environment
+     */
+    public Environment getEnvironment()
+    {
+        return env;
+    }
+
+    /**
+     * Retrieves the position of the next instruction
+     *
+     * @return the program counter, or -1 before the run has started
+     */
+    public int getPc()
+    {
+        return pc;
+    }
+
+    /**
+     * Retrieves why the last call to resume returned
+     *
+     * @return the state
+     */
+    public State getState()
+    {
+        return state;
+    }
+}
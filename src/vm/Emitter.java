@@ -0,0 +1,369 @@
+package vm;
+import environment.SymbolTable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Emitter collects the instructions produced while compiling a Program into an int array.
+ * Registers are slots of the SymbolTable: Expressions give back the register holding their
+ * value, which is a variable's own slot, a constant's slot, or a temporary. Jumps refer to
+ * labels which are patched to code offsets when the Emitter is finished.
+ *
+ * The Emitter also tracks which variables are definitely assigned at the current point of
+ * the code, so that a CHECK for an undefined variable is only emitted before reads which
+ * could actually fail, and a MARK only after the assignments which could be the first.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class Emitter
+{
+    private SymbolTable symbols;
+    private int[] code;
+    private int size;
+    private int lastPos;
+    private int lastLabelPos;
+    private int[] labels;
+    private int labelCount;
+    private int[] jumps;
+    private int jumpCount;
+    private HashMap<Integer, Integer> constants;
+    private int[] temps;
+    private int tempsInUse;
+    private int tempsCreated;
+    private BitSet assigned;
+
+    /**
+     * Creates an Emitter which compiles against a given SymbolTable
+     *
+     * @param symbols the SymbolTable the Program was resolved against, which also receives
+     *                the slots of the constants and temporaries the compiled code needs
+     */
+    public Emitter(SymbolTable symbols)
+    {
+        this.symbols = symbols;
+        code = new int[64];
+        lastPos = -1;
+        labels = new int[16];
+        jumps = new int[16];
+        constants = new HashMap<>();
+        temps = new int[8];
+        assigned = new BitSet();
+    }
+
+    /**
+     * Emits an instruction with one inline operand
+     *
+     * @param op the opcode
+     * @param a the operand of the instruction
+     */
+    public void emit(int op, int a)
+    {
+        begin(op);
+        append(a);
+    }
+
+    /**
+     * Emits an instruction with two inline operands
+     *
+     * @param op the opcode
+     * @param a the first operand of the instruction
+     * @param b the second operand of the instruction
+     */
+    public void emit(int op, int a, int b)
+    {
+        begin(op);
+        append(a);
+        append(b);
+    }
+
+    /**
+     * Emits an instruction with three inline operands
+     *
+     * @param op the opcode
+     * @param a the first operand of the instruction
+     * @param b the second operand of the instruction
+     * @param c the third operand of the instruction
+     */
+    public void emit(int op, int a, int b, int c)
+    {
+        begin(op);
+        append(a);
+        append(b);
+        append(c);
+    }
+
+    /**
+     * Emits an unconditional jump to a label
+     *
+     * @param label the label being jumped to
+     */
+    public void emitJump(int label)
+    {
+        begin(Opcodes.JUMP);
+        appendLabel(label);
+    }
+
+    /**
+     * Emits a jump to a label which is taken depending on the value of one register
+     *
+     * @param op JZ or JNZ
+     * @param a the register being tested
+     * @param label the label being jumped to
+     */
+    public void emitJump(int op, int a, int label)
+    {
+        begin(op);
+        append(a);
+        appendLabel(label);
+    }
+
+    /**
+     * Emits a jump to a label which is taken depending on a comparison of two registers
+     *
+     * @param op one of JEQ, JNE, JLT, JLE, JGT, or JGE
+     * @param a the register on the left of the comparison
+     * @param b the register on the right of the comparison
+     * @param label the label being jumped to
+     */
+    public void emitJump(int op, int a, int b, int label)
+    {
+        begin(op);
+        append(a);
+        append(b);
+        appendLabel(label);
+    }
+
+    /**
+     * Creates a new label which is not yet bound to any position
+     *
+     * @return the number of the label
+     */
+    public int newLabel()
+    {
+        if (labelCount == labels.length)
+            labels = Arrays.copyOf(labels, labelCount * 2);
+        labels[labelCount] = -1;
+        return labelCount++;
+    }
+
+    /**
+     * Binds a label to the position of the next instruction
+     *
+     * @param label the label being bound
+     */
+    public void bind(int label)
+    {
+        labels[label] = size;
+        lastLabelPos = size;
+    }
+
+    /**
+     * Retrieves the register holding a constant, giving the constant a slot the first time
+     * it is used. Constant slots are filled in when the VirtualMachine starts
+     *
+     * @param value the value of the constant
+     * @return the register holding the constant
+     */
+    public int constant(int value)
+    {
+        Integer slot = constants.get(value);
+        if (slot == null)
+        {
+            slot = symbols.slotOf("$c" + value);
+            constants.put(value, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Reserves a register for an intermediate value. Temporaries are named so that they can
+     * never clash with a variable of the program, and are released in the reverse order
+     * of their allocation
+     *
+     * @return the register of the temporary
+     */
+    public int allocateTemp()
+    {
+        if (tempsInUse == tempsCreated)
+        {
+            if (tempsCreated == temps.length)
+                temps = Arrays.copyOf(temps, tempsCreated * 2);
+            temps[tempsCreated++] = symbols.slotOf("$t" + tempsInUse);
+        }
+        return temps[tempsInUse++];
+    }
+
+    /**
+     * Releases a register if it is the temporary most recently reserved, so that its slot
+     * can be reused. Registers of variables and constants are left alone
+     *
+     * @param reg the register which is no longer needed
+     */
+    public void release(int reg)
+    {
+        if (tempsInUse > 0 && temps[tempsInUse - 1] == reg)
+            tempsInUse--;
+    }
+
+    /**
+     * Prepares a variable to be read, emitting a CHECK unless the variable is definitely
+     * assigned at this point
+     *
+     * @param slot the slot of the variable
+     * @return the register holding the variable, which is its slot
+     */
+    public int readVariable(int slot)
+    {
+        if (!assigned.get(slot))
+        {
+            emit(Opcodes.CHECK, slot);
+            assigned.set(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Stores the value of a register into a variable. When the register is a temporary
+     * computed by the instruction just emitted, that instruction is changed to compute
+     * straight into the variable instead of emitting a MOVE. A MARK follows unless the
+     * variable is definitely assigned already
+     *
+     * @param slot the slot of the variable
+     * @param reg the register holding the value being stored
+     */
+    public void writeVariable(int slot, int reg)
+    {
+        if (lastPos >= lastLabelPos && Opcodes.hasDestination(code[lastPos])
+                && code[lastPos + 1] == reg && isTemp(reg))
+            code[lastPos + 1] = slot;
+        else
+            emit(Opcodes.MOVE, slot, reg);
+        if (!assigned.get(slot))
+        {
+            emit(Opcodes.MARK, slot);
+            assigned.set(slot);
+        }
+    }
+
+    /**
+     * Records that an instruction other than a MOVE or MARK, such as READ, has assigned a
+     * variable
+     *
+     * @param slot the slot of the variable
+     */
+    public void assigned(int slot)
+    {
+        assigned.set(slot);
+    }
+
+    /**
+     * Takes a snapshot of the variables definitely assigned at this point, to be restored
+     * or merged when compiling code which may not run
+     *
+     * @return the set of definitely assigned slots
+     */
+    public BitSet saveAssigned()
+    {
+        return (BitSet) assigned.clone();
+    }
+
+    /**
+     * Replaces the variables definitely assigned with an earlier snapshot
+     *
+     * @param state a snapshot from saveAssigned
+     */
+    public void restoreAssigned(BitSet state)
+    {
+        assigned = (BitSet) state.clone();
+    }
+
+    /**
+     * Keeps only the variables definitely assigned both now and in another snapshot, as at
+     * the point where two branches join
+     *
+     * @param state a snapshot from saveAssigned
+     */
+    public void mergeAssigned(BitSet state)
+    {
+        assigned.and(state);
+    }
+
+    /**
+     * Finishes the code with a HALT instruction and patches every jump to its label
+     *
+     * @return the compiled Bytecode
+     */
+    public Bytecode finish()
+    {
+        begin(Opcodes.HALT);
+        for (int i = 0; i < jumpCount; i++)
+        {
+            code[jumps[i]] = labels[code[jumps[i]]];
+        }
+        int[] constSlots = new int[constants.size()];
+        int[] constValues = new int[constants.size()];
+        int i = 0;
+        for (Integer value: constants.keySet())
+        {
+            constValues[i] = value;
+            constSlots[i] = constants.get(value);
+            i++;
+        }
+        return new Bytecode(Arrays.copyOf(code, size), constSlots, constValues, symbols);
+    }
+
+    /**
+     * Checks whether a register is one of the temporaries of this Emitter
+     *
+     * @param reg the register being checked
+     * @return true if the register is a temporary; Otherwise,
+     *         false
+     */
+    private boolean isTemp(int reg)
+    {
+        for (int i = 0; i < tempsCreated; i++)
+        {
+            if (temps[i] == reg)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts a new instruction
+     *
+     * @param op the opcode of the instruction
+     */
+    private void begin(int op)
+    {
+        lastPos = size;
+        append(op);
+    }
+
+    /**
+     * Appends a label operand which is patched when the Emitter is finished
+     *
+     * @param label the label being jumped to
+     */
+    private void appendLabel(int label)
+    {
+        if (jumpCount == jumps.length)
+            jumps = Arrays.copyOf(jumps, jumpCount * 2);
+        jumps[jumpCount++] = size;
+        append(label);
+    }
+
+    /**
+     * Appends one int to the code, growing the array when it is full
+     *
+     * @param value the int being appended
+     */
+    private void append(int value)
+    {
+        if (size == code.length)
+            code = Arrays.copyOf(code, size * 2);
+        code[size++] = value;
+    }
+}
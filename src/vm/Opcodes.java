@@ -0,0 +1,143 @@
+package vm;
+
+/**
+ * Opcodes lists the instructions of the compact bytecode which a Program is compiled to
+ * and which the VirtualMachine executes. Every instruction is one int in the code array,
+ * followed inline by the operands noted beside it. Instructions work directly on registers,
+ * which are slots in the int array of the Environment: variables hold their own values,
+ * while temporaries and constants are given extra slots by the Emitter
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public final class Opcodes
+{
+    /** copies a register: MOVE dst src */
+    public static final int MOVE = 0;
+    /** adds two registers: ADD dst a b */
+    public static final int ADD = 1;
+    /** subtracts two registers: SUB dst a b */
+    public static final int SUB = 2;
+    /** multiplies two registers: MUL dst a b */
+    public static final int MUL = 3;
+    /** divides two registers: DIV dst a b */
+    public static final int DIV = 4;
+    /** negates a register: NEG dst a */
+    public static final int NEG = 5;
+    /** shifts a register left: SHL dst a bits */
+    public static final int SHL = 6;
+    /** divides a register by a power of two, rounding toward zero: SDIV dst a bits */
+    public static final int SDIV = 7;
+    /** jumps unconditionally: JUMP target */
+    public static final int JUMP = 8;
+    /** jumps if a register is zero: JZ a target */
+    public static final int JZ = 9;
+    /** jumps if a register is not zero: JNZ a target */
+    public static final int JNZ = 10;
+    /** jumps if two registers are equal: JEQ a b target */
+    public static final int JEQ = 11;
+    /** jumps if two registers are not equal: JNE a b target */
+    public static final int JNE = 12;
+    /** jumps if the first register is less: JLT a b target */
+    public static final int JLT = 13;
+    /** jumps if the first register is less or equal: JLE a b target */
+    public static final int JLE = 14;
+    /** jumps if the first register is greater: JGT a b target */
+    public static final int JGT = 15;
+    /** jumps if the first register is greater or equal: JGE a b target */
+    public static final int JGE = 16;
+    /** displays a register as a number: PRINT a */
+    public static final int PRINT = 17;
+    /** displays a register as true if it is not zero, otherwise false: PRINT_BOOL a */
+    public static final int PRINT_BOOL = 18;
+    /** reads a value from the user into a variable: READ slot */
+    public static final int READ = 19;
+    /** reports an error if a variable has never been assigned: CHECK slot */
+    public static final int CHECK = 20;
+    /** records that a variable has been assigned: MARK slot */
+    public static final int MARK = 21;
+    /** stops execution */
+    public static final int HALT = 22;
+
+    private static final String[] NAMES = {"MOVE", "ADD", "SUB", "MUL", "DIV", "NEG", "SHL",
+        "SDIV", "JUMP", "JZ", "JNZ", "JEQ", "JNE", "JLT", "JLE", "JGT", "JGE", "PRINT",
+        "PRINT_BOOL", "READ", "CHECK", "MARK", "HALT"};
+
+    private static final int[] OPERANDS = {2, 3, 3, 3, 3, 2, 3, 3, 1, 2, 2, 3, 3, 3, 3, 3, 3, 1,
+        1, 1, 1, 1, 0};
+
+    /**
+     * Opcodes only holds constants and cannot be instantiated
+     */
+    private Opcodes()
+    {
+    }
+
+    /**
+     * Retrieves the mnemonic of an opcode
+     *
+     * @param op the opcode
+     * @return the name of the instruction
+     */
+    public static String name(int op)
+    {
+        return NAMES[op];
+    }
+
+    /**
+     * Retrieves the number of inline operands which follow an opcode
+     *
+     * @param op the opcode
+     * @return the number of operands of the instruction
+     */
+    public static int operands(int op)
+    {
+        return OPERANDS[op];
+    }
+
+    /**
+     * Checks whether an opcode transfers control to the target in its last operand
+     *
+     * @param op the opcode
+     * @return true if the instruction is a jump; Otherwise,
+     *         false
+     */
+    public static boolean isJump(int op)
+    {
+        return op >= JUMP && op <= JGE;
+    }
+
+    /**
+     * Checks whether an opcode computes a value into the register in its first operand
+     *
+     * @param op the opcode
+     * @return true if the first operand is a destination register; Otherwise,
+     *         false
+     */
+    public static boolean hasDestination(int op)
+    {
+        return op >= MOVE && op <= SDIV;
+    }
+
+    /**
+     * Retrieves the conditional jump which is taken exactly when a given one is not
+     *
+     * @param op the opcode of a conditional jump
+     * @return the opcode of the negated jump
+     */
+    public static int negate(int op)
+    {
+        switch (op)
+        {
+            case JZ: return JNZ;
+            case JNZ: return JZ;
+            case JEQ: return JNE;
+            case JNE: return JEQ;
+            case JLT: return JGE;
+            case JGE: return JLT;
+            case JGT: return JLE;
+            case JLE: return JGT;
+            default: throw new IllegalArgumentException("Not a conditional jump: " + name(op));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package vm;
+import ast.Read;
+import environment.Environment;
+import environment.SymbolTable;
+
+/**
+ * VirtualMachine executes Bytecode in a single dispatch loop over its instruction array.
+ * Registers are read and written directly in the int array of the Environment, so variables
+ * assigned by the Bytecode are visible in the Environment afterwards. It produces exactly the
+ * same output as executing the Program the Bytecode was compiled from.
+ *
+ * A run can also be paused and resumed through a Continuation: resume stops once it has
+ * used up its fuel, or before a read whose input has not arrived yet, and saves the program
+ * counter so the next call carries on where it left off. Fuel is spent only by jumps that
+ * are taken, at least one per loop iteration, and by reads, so straight-line code between
+ * them runs without a check on every instruction and a slice is still bounded by the
+ * Bytecode length.
+ *
+ * @author Puneet Nayyar
+ * @version 10/18/26
+ */
+public class VirtualMachine
+{
+    /**
+     * Executes Bytecode from its first instruction until it halts
+     *
+     * @param bytecode the Bytecode being executed
+     * @param env the Environment in which variables are stored, created from the SymbolTable
+     *            of the Bytecode after it was compiled
+     * @throws IllegalArgumentException if the Environment has no room for every register
+     */
+    public void execute(Bytecode bytecode, Environment env)
+    {
+        resume(new Continuation(bytecode, env), Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs Bytecode from where a Continuation left off until it halts, the fuel runs out, or
+     * a read finds that its input is not ready. A read never waits while the Input is not
+     * ready, so the thread is free to run other Continuations in the meantime
+     *
+     * @param k the Continuation, which is updated to the point where the run stopped
+     * @param fuel the largest number of taken jumps and reads to execute
+     * @return READY if the fuel ran out, BLOCKED if a read is waiting for input, or HALTED
+     *         if the Bytecode reached its end
+     * @throws IllegalArgumentException if the Environment has no room for every register
+     */
+    public Continuation.State resume(Continuation k, long fuel)
+    {
+        Bytecode bytecode = k.getBytecode();
+        Environment env = k.getEnvironment();
+        SymbolTable symbols = bytecode.getSymbols();
+        int[] code = bytecode.getCode();
+        int[] r = env.getValues();
+        int pc = k.pc;
+        if (pc < 0)
+        {
+            if (r.length < symbols.size())
+                throw new IllegalArgumentException("Environment was created before compilation");
+            int[] constSlots = bytecode.getConstSlots();
+            int[] constValues = bytecode.getConstValues();
+            for (int i = 0; i < constSlots.length; i++)
+            {
+                r[constSlots[i]] = constValues[i];
+            }
+            pc = 0;
+        }
+        int next;
+        while (true)
+        {
+            switch (code[pc])
+            {
+                case Opcodes.MOVE:
+                    r[code[pc + 1]] = r[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case Opcodes.ADD:
+                    r[code[pc + 1]] = r[code[pc + 2]] + r[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Opcodes.SUB:
+                    r[code[pc + 1]] = r[code[pc + 2]] - r[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Opcodes.MUL:
+                    r[code[pc + 1]] = r[code[pc + 2]] * r[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Opcodes.DIV:
+                    r[code[pc + 1]] = r[code[pc + 2]] / r[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Opcodes.NEG:
+                    r[code[pc + 1]] = -r[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case Opcodes.SHL:
+                    r[code[pc + 1]] = r[code[pc + 2]] << code[pc + 3];
+                    pc += 4;
+                    break;
+                case Opcodes.SDIV:
+                {
+                    int val = r[code[pc + 2]];
+                    int bits = code[pc + 3];
+                    r[code[pc + 1]] = (val + ((val >> 31) >>> (32 - bits))) >> bits;
+                    pc += 4;
+                    break;
+                }
+                case Opcodes.JUMP:
+                    next = code[pc + 1];
+                    if (--fuel < 0)
+                        return pause(k, next, Continuation.State.READY);
+                    pc = next;
+                    break;
+                case Opcodes.JZ:
+                    if (r[code[pc + 1]] == 0)
+                    {
+                        next = code[pc + 2];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 3;
+                    break;
+                case Opcodes.JNZ:
+                    if (r[code[pc + 1]] != 0)
+                    {
+                        next = code[pc + 2];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 3;
+                    break;
+                case Opcodes.JEQ:
+                    if (r[code[pc + 1]] == r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.JNE:
+                    if (r[code[pc + 1]] != r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.JLT:
+                    if (r[code[pc + 1]] < r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.JLE:
+                    if (r[code[pc + 1]] <= r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.JGT:
+                    if (r[code[pc + 1]] > r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.JGE:
+                    if (r[code[pc + 1]] >= r[code[pc + 2]])
+                    {
+                        next = code[pc + 3];
+                        if (--fuel < 0)
+                            return pause(k, next, Continuation.State.READY);
+                        pc = next;
+                    }
+                    else
+                        pc += 4;
+                    break;
+                case Opcodes.PRINT:
+                    env.getOutput().printInt(r[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case Opcodes.PRINT_BOOL:
+                    env.getOutput().printBoolean(r[code[pc + 1]] != 0);
+                    pc += 2;
+                    break;
+                case Opcodes.READ:
+                {
+                    if (--fuel < 0)
+                        return pause(k, pc, Continuation.State.READY);
+                    if (!env.getInput().isReady())
+                        return pause(k, pc, Continuation.State.BLOCKED);
+                    int slot = code[pc + 1];
+                    env.setSlot(slot, Read.input(env, symbols.nameOf(slot)));
+                    pc += 2;
+                    break;
+                }
+                case Opcodes.CHECK:
+                    env.getSlot(code[pc + 1]);
+                    pc += 2;
+                    break;
+                case Opcodes.MARK:
+                    env.setSlot(code[pc + 1], r[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case Opcodes.HALT:
+                    return pause(k, pc, Continuation.State.HALTED);
+                default:
+                    throw new IllegalStateException("Unknown opcode at " + pc);
+            }
+        }
+    }
+
+    /**
+     * Saves where a run stopped in its Continuation
+     *
+     * @param k the Continuation
+     * @param pc the position of the next instruction
+     * @param state why the run stopped
+     * @return the state
+     */
+    private static Continuation.State pause(Continuation k, int pc, Continuation.State state)
+    {
+        k.pc = pc;
+        k.state = state;
+        return state;
+    }
+}